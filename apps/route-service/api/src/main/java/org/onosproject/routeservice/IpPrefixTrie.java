@@ -0,0 +1,327 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.routeservice;
+
+import org.onlab.packet.Ip4Address;
+import org.onlab.packet.Ip6Address;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.IpPrefix;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Binary trie of IP prefixes supporting longest prefix match lookups.
+ * <p>
+ * The trie is path compressed: a node only exists for stored prefixes and for the branching points between them,
+ * so lookups visit at most one node per bit of the looked up address and do not allocate. IPv4 and IPv6 prefixes
+ * are kept in separate branches of the same trie.
+ * <p>
+ * Updates are serialized, whereas lookups do not take any lock and may run concurrently with updates. Nodes are
+ * fully built before being linked into the trie, so a concurrent lookup sees the trie either before or after each
+ * structural change.
+ *
+ * @param <V> type of the values stored in the trie
+ */
+public class IpPrefixTrie<V> {
+
+    private final Node<V> root4 = new Node<>(IpPrefix.valueOf(Ip4Address.ZERO, 0));
+    private final Node<V> root6 = new Node<>(IpPrefix.valueOf(Ip6Address.ZERO, 0));
+
+    private volatile int size;
+
+    /**
+     * Returns the number of prefixes in the trie.
+     *
+     * @return number of prefixes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value associated with exactly the given prefix.
+     *
+     * @param prefix IP prefix
+     * @return value of the prefix, or null if the prefix is not in the trie
+     */
+    public V get(IpPrefix prefix) {
+        Node<V> node = root(prefix.address());
+        while (node.length < prefix.prefixLength()) {
+            Node<V> child = node.child(prefix.address());
+            if (child == null || !child.covers(prefix.address(), node.length)) {
+                return null;
+            }
+            node = child;
+        }
+        return node.length == prefix.prefixLength() ? node.value : null;
+    }
+
+    /**
+     * Returns the value of the most specific prefix containing the given address.
+     *
+     * @param address IP address to look up
+     * @return value of the longest matching prefix, or null if no prefix contains the address
+     */
+    public V longestPrefixMatch(IpAddress address) {
+        Node<V> node = root(address);
+        V match = null;
+        int maxLength = address.isIp4() ? Ip4Address.BIT_LENGTH : Ip6Address.BIT_LENGTH;
+        while (node != null) {
+            V value = node.value;
+            if (value != null) {
+                match = value;
+            }
+            if (node.length == maxLength) {
+                break;
+            }
+            int from = node.length;
+            node = node.child(address);
+            if (node != null && !node.covers(address, from)) {
+                break;
+            }
+        }
+        return match;
+    }
+
+    /**
+     * Returns the values of all prefixes in the trie, less specific prefixes coming before the more specific ones
+     * they contain.
+     *
+     * @return list of values
+     */
+    public List<V> values() {
+        List<V> values = new ArrayList<>(size);
+        Deque<Node<V>> nodes = new ArrayDeque<>();
+        nodes.push(root6);
+        nodes.push(root4);
+        while (!nodes.isEmpty()) {
+            Node<V> node = nodes.pop();
+            V value = node.value;
+            if (value != null) {
+                values.add(value);
+            }
+            Node<V> child = node.one;
+            if (child != null) {
+                nodes.push(child);
+            }
+            child = node.zero;
+            if (child != null) {
+                nodes.push(child);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Associates the given value with the given prefix.
+     *
+     * @param prefix IP prefix
+     * @param value value of the prefix
+     * @return previous value of the prefix, or null if the prefix was not in the trie
+     */
+    public synchronized V put(IpPrefix prefix, V value) {
+        checkNotNull(value);
+        Node<V> parent = root(prefix.address());
+        while (parent.length < prefix.prefixLength()) {
+            Node<V> child = parent.child(prefix.address());
+            if (child == null) {
+                Node<V> leaf = new Node<>(prefix);
+                leaf.value = value;
+                parent.setChild(leaf);
+                size++;
+                return null;
+            }
+            int common = commonLength(prefix, child.prefix, parent.length);
+            if (common == child.length) {
+                parent = child;
+                continue;
+            }
+            // The new prefix diverges from the child or sits in between, so the child is pushed down a new node
+            Node<V> node = new Node<>(common == prefix.prefixLength() ? prefix :
+                                              IpPrefix.valueOf(prefix.address(), common));
+            node.setChild(child);
+            if (common == prefix.prefixLength()) {
+                node.value = value;
+            } else {
+                Node<V> leaf = new Node<>(prefix);
+                leaf.value = value;
+                node.setChild(leaf);
+            }
+            parent.setChild(node);
+            size++;
+            return null;
+        }
+        V old = parent.value;
+        parent.value = value;
+        if (old == null) {
+            size++;
+        }
+        return old;
+    }
+
+    /**
+     * Associates all the given prefixes with their value.
+     * <p>
+     * This is cheaper than putting prefixes one by one, as the update lock is only acquired once.
+     *
+     * @param values values keyed by prefix
+     */
+    public synchronized void putAll(Map<IpPrefix, V> values) {
+        values.forEach(this::put);
+    }
+
+    /**
+     * Removes the given prefix from the trie.
+     *
+     * @param prefix IP prefix
+     * @return value of the prefix, or null if the prefix was not in the trie
+     */
+    public synchronized V remove(IpPrefix prefix) {
+        Node<V> grandParent = null;
+        Node<V> parent = null;
+        Node<V> node = root(prefix.address());
+        while (node.length < prefix.prefixLength()) {
+            Node<V> child = node.child(prefix.address());
+            if (child == null || !child.covers(prefix.address(), node.length)) {
+                return null;
+            }
+            grandParent = parent;
+            parent = node;
+            node = child;
+        }
+        V old = node.value;
+        if (node.length != prefix.prefixLength() || old == null) {
+            return null;
+        }
+        node.value = null;
+        size--;
+        if (parent == null) {
+            // Roots remain in place
+            return old;
+        }
+        if (node.zero != null && node.one != null) {
+            // Still needed as a branching point
+            return old;
+        }
+        Node<V> remaining = node.zero != null ? node.zero : node.one;
+        if (remaining != null) {
+            parent.setChild(remaining);
+            return old;
+        }
+        parent.removeChild(node);
+        // The parent may have become a useless pass-through node
+        if (grandParent != null && parent.value == null) {
+            Node<V> sibling = parent.zero != null ? parent.zero : parent.one;
+            if (sibling != null) {
+                grandParent.setChild(sibling);
+            }
+        }
+        return old;
+    }
+
+    /**
+     * Removes all prefixes from the trie.
+     */
+    public synchronized void clear() {
+        root4.clear();
+        root6.clear();
+        size = 0;
+    }
+
+    private Node<V> root(IpAddress address) {
+        return address.isIp4() ? root4 : root6;
+    }
+
+    private static boolean bit(IpAddress address, int index) {
+        return (address.getOctet(index >>> 3) & (0x80 >>> (index & 7))) != 0;
+    }
+
+    /**
+     * Returns the length of the common prefix of the given prefixes, knowing that they share the first bits.
+     */
+    private static int commonLength(IpPrefix prefix1, IpPrefix prefix2, int from) {
+        int max = Math.min(prefix1.prefixLength(), prefix2.prefixLength());
+        int length = from;
+        while (length < max && bit(prefix1.address(), length) == bit(prefix2.address(), length)) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Node of the trie, holding a prefix and the value associated to it if any.
+     */
+    private static final class Node<V> {
+        private final IpPrefix prefix;
+        private final int length;
+        private volatile V value;
+        private volatile Node<V> zero;
+        private volatile Node<V> one;
+
+        private Node(IpPrefix prefix) {
+            this.prefix = prefix;
+            this.length = prefix.prefixLength();
+        }
+
+        /**
+         * Returns the child to follow to look up the given address.
+         */
+        private Node<V> child(IpAddress address) {
+            return bit(address, length) ? one : zero;
+        }
+
+        /**
+         * Returns whether the address matches the node prefix, knowing that it matches its first bits.
+         */
+        private boolean covers(IpAddress address, int from) {
+            for (int i = from; i < length; i++) {
+                if (bit(address, i) != bit(prefix.address(), i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void setChild(Node<V> child) {
+            if (bit(child.prefix.address(), length)) {
+                one = child;
+            } else {
+                zero = child;
+            }
+        }
+
+        private void clear() {
+            value = null;
+            zero = null;
+            one = null;
+        }
+
+        private void removeChild(Node<V> child) {
+            if (one == child) {
+                one = null;
+            } else if (zero == child) {
+                zero = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.routeservice;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.Ip4Address;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.IpPrefix;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Unit tests for the IP prefix trie.
+ */
+public class IpPrefixTrieTest {
+
+    private static final IpPrefix PREFIX1 = IpPrefix.valueOf("10.0.0.0/8");
+    private static final IpPrefix PREFIX2 = IpPrefix.valueOf("10.1.0.0/16");
+    private static final IpPrefix PREFIX3 = IpPrefix.valueOf("10.1.1.0/24");
+    private static final IpPrefix PREFIX4 = IpPrefix.valueOf("10.2.0.0/16");
+    private static final IpPrefix PREFIX6 = IpPrefix.valueOf("2001:db8::/32");
+
+    private IpPrefixTrie<IpPrefix> trie;
+
+    @Before
+    public void setUp() {
+        trie = new IpPrefixTrie<>();
+    }
+
+    /**
+     * Tests exact lookups and longest prefix matches.
+     */
+    @Test
+    public void testLookups() {
+        trie.put(PREFIX3, PREFIX3);
+        trie.put(PREFIX1, PREFIX1);
+        trie.put(PREFIX4, PREFIX4);
+        trie.put(PREFIX6, PREFIX6);
+        assertEquals(4, trie.size());
+
+        assertEquals(PREFIX3, trie.get(PREFIX3));
+        assertNull(trie.get(PREFIX2));
+        assertNull(trie.get(IpPrefix.valueOf("10.0.0.0/16")));
+
+        assertEquals(PREFIX3, trie.longestPrefixMatch(IpAddress.valueOf("10.1.1.1")));
+        assertEquals(PREFIX1, trie.longestPrefixMatch(IpAddress.valueOf("10.1.2.1")));
+        assertEquals(PREFIX4, trie.longestPrefixMatch(IpAddress.valueOf("10.2.2.1")));
+        assertNull(trie.longestPrefixMatch(IpAddress.valueOf("11.1.1.1")));
+        assertEquals(PREFIX6, trie.longestPrefixMatch(IpAddress.valueOf("2001:db8::1")));
+        assertNull(trie.longestPrefixMatch(IpAddress.valueOf("2001:db9::1")));
+
+        // Inserting a prefix in between existing ones
+        trie.put(PREFIX2, PREFIX2);
+        assertEquals(PREFIX2, trie.longestPrefixMatch(IpAddress.valueOf("10.1.2.1")));
+        assertEquals(PREFIX3, trie.longestPrefixMatch(IpAddress.valueOf("10.1.1.1")));
+        assertEquals(5, trie.values().size());
+        assertEquals(PREFIX1, trie.values().get(0));
+    }
+
+    /**
+     * Tests that removed prefixes no longer match.
+     */
+    @Test
+    public void testRemove() {
+        trie.put(PREFIX1, PREFIX1);
+        trie.put(PREFIX2, PREFIX2);
+        trie.put(PREFIX3, PREFIX3);
+
+        assertNull(trie.remove(PREFIX4));
+        assertEquals(PREFIX2, trie.remove(PREFIX2));
+        assertNull(trie.remove(PREFIX2));
+        assertEquals(2, trie.size());
+        assertEquals(PREFIX3, trie.longestPrefixMatch(IpAddress.valueOf("10.1.1.1")));
+        assertEquals(PREFIX1, trie.longestPrefixMatch(IpAddress.valueOf("10.1.2.1")));
+
+        assertEquals(PREFIX3, trie.remove(PREFIX3));
+        assertEquals(PREFIX1, trie.longestPrefixMatch(IpAddress.valueOf("10.1.1.1")));
+
+        trie.clear();
+        assertEquals(0, trie.size());
+        assertNull(trie.longestPrefixMatch(IpAddress.valueOf("10.1.1.1")));
+    }
+
+    /**
+     * Tests the trie against a linear scan of random prefixes.
+     */
+    @Test
+    public void testRandomPrefixes() {
+        Random random = new Random(42);
+        Map<IpPrefix, IpPrefix> prefixes = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            // Restrict the first octet to get nested prefixes
+            IpPrefix prefix = IpPrefix.valueOf(Ip4Address.valueOf(random.nextInt() & 0x0fffffff),
+                                               random.nextInt(Ip4Address.BIT_LENGTH + 1));
+            prefixes.put(prefix, prefix);
+        }
+        trie.putAll(prefixes);
+        int i = 0;
+        for (IpPrefix prefix : prefixes.keySet().toArray(new IpPrefix[0])) {
+            if (i++ % 3 == 0) {
+                assertEquals(prefix, trie.remove(prefix));
+                prefixes.remove(prefix);
+            }
+        }
+        assertEquals(prefixes.size(), trie.size());
+        assertEquals(prefixes.size(), trie.values().size());
+
+        for (int j = 0; j < 2000; j++) {
+            IpAddress address = Ip4Address.valueOf(random.nextInt() & 0x0fffffff);
+            IpPrefix expected = null;
+            for (IpPrefix prefix : prefixes.keySet()) {
+                if (prefix.contains(address) &&
+                        (expected == null || prefix.prefixLength() > expected.prefixLength())) {
+                    expected = prefix;
+                }
+            }
+            assertEquals(expected, trie.longestPrefixMatch(address));
+        }
+    }
+}
@@ -51,6 +51,22 @@ public interface FlowRuleProviderService extends ProviderService<FlowRuleProvide
      */
     void pushFlowMetricsWithoutFlowMissing(DeviceId deviceId, Iterable<FlowEntry> flowEntries);
 
+    /**
+     * Pushes a part of the flow entries currently applied on the given
+     * device, for devices replying to a flow statistics request in several
+     * parts. Each part is processed as soon as it is pushed; the flow missing
+     * process runs once the last part is pushed.
+     * <p>
+     * By default, the parts are processed without flow missing process.
+     *
+     * @param deviceId device identifier
+     * @param flowEntries part of the flow entries
+     * @param last whether this is the last part of the reply
+     */
+    default void pushFlowMetricsPart(DeviceId deviceId, Iterable<FlowEntry> flowEntries, boolean last) {
+        pushFlowMetricsWithoutFlowMissing(deviceId, flowEntries);
+    }
+
     /**
      * Pushes the collection of table statistics entries currently extracted
      * from the given device.
@@ -15,6 +15,7 @@
  */
 package org.onosproject.net.flow;
 
+import com.google.common.collect.Iterables;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.flow.oldbatch.FlowRuleBatchEvent;
@@ -72,6 +73,17 @@ public interface FlowRuleStore extends Store<FlowRuleBatchEvent, FlowRuleStoreDe
      */
     Iterable<FlowEntry> getFlowEntries(DeviceId deviceId);
 
+    /**
+     * Returns the flow entries associated with a device for the given application.
+     *
+     * @param deviceId the device ID
+     * @param appId the application ID
+     * @return the flow entries of the application on the device
+     */
+    default Iterable<FlowEntry> getFlowEntriesById(DeviceId deviceId, ApplicationId appId) {
+        return Iterables.filter(getFlowEntries(deviceId), entry -> entry.appId() == appId.id());
+    }
+
     /**
      * // TODO: Better description of method behavior.
      * Stores a new flow rule without generating events.
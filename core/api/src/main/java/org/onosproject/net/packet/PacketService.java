@@ -43,7 +43,26 @@ public interface PacketService {
      */
     void addProcessor(PacketProcessor processor, int priority);
 
-    // TODO allow processors to register for particular types of packets
+    /**
+     * Adds the specified processor to the list of packet processors, so that
+     * it is only given the packets matching the specified selector.
+     * It will be added into the list in the order of priority. The higher
+     * numbers will be processing the packets after the lower numbers.
+     * <p>
+     * The selector may match the ethernet type, the IP protocol and the TCP
+     * and UDP ports of packets. Packets are dispatched to the processors
+     * interested in them without each processor having to parse and check
+     * every packet.
+     *
+     * @param processor processor to be added
+     * @param priority  priority in the reverse natural order
+     * @param selector  selector of the packets given to the processor
+     * @throws java.lang.IllegalArgumentException if the selector has
+     *                                            unsupported criteria
+     */
+    default void addProcessor(PacketProcessor processor, int priority, TrafficSelector selector) {
+        addProcessor(processor, priority);
+    }
 
     /**
      * Removes the specified processor from the processing pipeline.
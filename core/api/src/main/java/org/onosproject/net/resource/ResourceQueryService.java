@@ -15,9 +15,16 @@
  */
 package org.onosproject.net.resource;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
 
 /**
  * Service for retrieving resource information.
@@ -81,6 +88,54 @@ public interface ResourceQueryService {
      */
     <T> Set<T> getAvailableResourceValues(DiscreteResourceId parent, Class<T> cls);
 
+    /**
+     * Returns the first available resource values which are the values of child resources
+     * of every specified parent and whose type is the specified type, in the order the
+     * values are registered in.
+     * Stores holding encodable values as intervals answer without enumerating all the values,
+     * so the default implementation intersecting the available values of each parent
+     * is meant to be overridden.
+     *
+     * @param parents parent resource IDs
+     * @param cls class to specify a type of resource
+     * @param limit maximum number of values to return
+     * @param <T> type of the resource
+     * @return available resource values of the specified type common to all the parent resources
+     */
+    default <T> List<T> getAvailableResourceValues(Collection<DiscreteResourceId> parents,
+                                                   Class<T> cls, int limit) {
+        Iterator<DiscreteResourceId> it = parents.iterator();
+        if (!it.hasNext()) {
+            return ImmutableList.of();
+        }
+        Set<T> values = getAvailableResourceValues(it.next(), cls);
+        while (it.hasNext()) {
+            values = Sets.intersection(values, getAvailableResourceValues(it.next(), cls));
+        }
+        return values.stream()
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns a randomly chosen available resource value which is the value of a child
+     * resource of every specified parent and whose type is the specified type.
+     *
+     * @param parents parent resource IDs
+     * @param cls class to specify a type of resource
+     * @param <T> type of the resource
+     * @return available resource value common to all the parent resources,
+     * empty if there is no such value
+     */
+    default <T> Optional<T> getRandomAvailableResourceValue(Collection<DiscreteResourceId> parents,
+                                                            Class<T> cls) {
+        List<T> values = getAvailableResourceValues(parents, cls, Integer.MAX_VALUE);
+        if (values.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(values.get(ThreadLocalRandom.current().nextInt(values.size())));
+    }
+
     /**
      * Returns resources registered under the specified resource.
      *
@@ -96,4 +151,17 @@ public interface ResourceQueryService {
      * @return true if available, otherwise false
      */
     boolean isAvailable(Resource resource);
+
+    /**
+     * Returns whether the specified value is the value of an available child resource
+     * of every specified parent.
+     *
+     * @param parents parent resource IDs
+     * @param value resource value
+     * @return true if available under all the parent resources, otherwise false
+     */
+    default boolean isAvailable(Collection<DiscreteResourceId> parents, Object value) {
+        return parents.stream()
+                .allMatch(parent -> getAvailableResourceValues(parent, value.getClass()).contains(value));
+    }
 }
@@ -20,6 +20,7 @@ import org.onosproject.store.Store;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -94,6 +95,16 @@ public interface ResourceStore extends Store<ResourceEvent, ResourceStoreDelegat
      */
     boolean isAvailable(Resource resource);
 
+    /**
+     * Returns whether the specified value is the value of a registered and unallocated
+     * discrete child resource of every specified parent.
+     *
+     * @param parents IDs of the parents of the resource
+     * @param value resource value
+     * @return true if available under all the parents, otherwise false
+     */
+    boolean isAvailable(Collection<DiscreteResourceId> parents, Object value);
+
     /**
      * Returns a collection of the resources allocated to the specified consumer.
      *
@@ -122,6 +133,29 @@ public interface ResourceStore extends Store<ResourceEvent, ResourceStoreDelegat
      */
     <T> Set<Resource> getChildResources(DiscreteResourceId parent, Class<T> cls);
 
+    /**
+     * Returns the first values of the unallocated discrete child resources common to
+     * all the specified parents and whose type is the specified class.
+     *
+     * @param parents IDs of the parents of the resources
+     * @param cls class instance of the children
+     * @param limit maximum number of values to return
+     * @param <T> type of the resource
+     * @return values of the available resources common to all the parents
+     */
+    <T> List<T> getAvailableResourceValues(Collection<DiscreteResourceId> parents, Class<T> cls, int limit);
+
+    /**
+     * Returns a randomly chosen value of an unallocated discrete child resource common to
+     * all the specified parents and whose type is the specified class.
+     *
+     * @param parents IDs of the parents of the resources
+     * @param cls class instance of the children
+     * @param <T> type of the resource
+     * @return value of an available resource common to all the parents, empty if none
+     */
+    <T> Optional<T> getRandomAvailableResourceValue(Collection<DiscreteResourceId> parents, Class<T> cls);
+
     /**
      * Returns a collection of the resources which are children of the specified parent and
      * whose type is the specified class.
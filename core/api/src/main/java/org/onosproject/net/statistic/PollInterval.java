@@ -15,6 +15,8 @@
  */
 package org.onosproject.net.statistic;
 
+import org.onosproject.net.flow.FlowEntry.FlowLiveType;
+
 import static com.google.common.base.Preconditions.checkArgument;
 
 /**
@@ -148,6 +150,26 @@ public final class PollInterval {
         return pollInterval;
     }
 
+    /**
+     * Returns poll interval value of the flows of the given live type in seconds.
+     *
+     * @param liveType flow live type
+     * @return poll interval of the live type
+     */
+    public long getPollInterval(FlowLiveType liveType) {
+        switch (liveType) {
+            case LONG:
+                return longPollInterval;
+            case MID:
+                return midPollInterval;
+            case SHORT:
+            case IMMEDIATE:
+            case UNKNOWN:
+            default:
+                return pollInterval;
+        }
+    }
+
     /**
      * Returns mid poll interval value in seconds.
      *
@@ -18,6 +18,9 @@ package org.onosproject.net.statistic;
 import com.google.common.annotations.Beta;
 import org.onosproject.net.ConnectPoint;
 
+import java.time.Duration;
+import java.util.OptionalLong;
+
 /**
  * Service for obtaining statistic information about device ports.
  */
@@ -52,4 +55,34 @@ public interface PortStatisticsService {
         return load(connectPoint);
     }
 
+    /**
+     * Obtain the load for the given port over the specified period preceding
+     * the query, in terms of the specified metric.
+     *
+     * @param connectPoint the port to query
+     * @param metricType   metric type
+     * @param period       period over which the load is measured
+     * @return traffic load over the period
+     */
+    default Load load(ConnectPoint connectPoint, MetricType metricType, Duration period) {
+        return load(connectPoint, metricType);
+    }
+
+    /**
+     * Obtain the given percentile of the loads for the given port, measured
+     * between consecutive statistics samples over the specified period
+     * preceding the query, in terms of the specified metric.
+     *
+     * @param connectPoint the port to query
+     * @param metricType   metric type
+     * @param period       period over which the loads are measured
+     * @param percentile   percentile, between 0 and 100
+     * @return load rate in units per second, or empty if no load is known
+     */
+    default OptionalLong loadPercentile(ConnectPoint connectPoint, MetricType metricType,
+                                        Duration period, double percentile) {
+        Load load = load(connectPoint, metricType);
+        return load == null ? OptionalLong.empty() : OptionalLong.of(load.rate());
+    }
+
 }
@@ -15,11 +15,18 @@
  */
 package org.onosproject.net.statistic;
 
+import com.google.common.collect.Ordering;
 import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.flow.FlowEntry;
 import org.onosproject.net.flow.FlowRule;
 
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * Store to house the computed statistics.
@@ -62,4 +69,39 @@ public interface StatisticStore {
      * @return set of current values
      */
     Set<FlowEntry> getPreviousStatistic(ConnectPoint connectPoint);
+
+    /**
+     * Fetches the flows carrying the highest load since the previous
+     * observation.
+     *
+     * @param connectPoint the port to fetch information for
+     * @param liveType     flow live type of the flows, null for all the live types
+     * @param filter       predicate the flow entries must satisfy
+     * @param topn         maximum number of flows returned
+     * @return flow entries with their load, in decreasing order of load
+     */
+    default List<FlowEntryWithLoad> getTopnStatistic(ConnectPoint connectPoint,
+                                                     FlowEntry.FlowLiveType liveType,
+                                                     Predicate<FlowEntry> filter,
+                                                     int topn) {
+        Set<FlowEntry> current = getCurrentStatistic(connectPoint);
+        Set<FlowEntry> previous = getPreviousStatistic(connectPoint);
+        if (current == null || previous == null) {
+            return Collections.emptyList();
+        }
+        PollInterval pollInterval = PollInterval.getInstance();
+        Map<FlowEntry, Long> previousBytes = new HashMap<>();
+        previous.forEach(fe -> previousBytes.put(fe, fe.bytes()));
+        // Only the heaviest flows are kept while going through the flows, none are sorted
+        return Ordering.from(Comparator.comparingLong((FlowEntryWithLoad fel) -> fel.load().rate()))
+                .greatestOf(current.stream()
+                                    .filter(fe -> liveType == null || fe.liveType() == liveType)
+                                    .filter(filter)
+                                    .map(fe -> new FlowEntryWithLoad(
+                                            connectPoint, fe,
+                                            new DefaultLoad(fe.bytes(), previousBytes.getOrDefault(fe, 0L),
+                                                            pollInterval.getPollInterval(fe.liveType()))))
+                                    .iterator(),
+                            topn);
+    }
 }
@@ -180,6 +180,20 @@ public interface EventuallyConsistentMapBuilder<K, V> {
      */
     EventuallyConsistentMapBuilder<K, V> withFasterConvergence();
 
+    /**
+     * Configure anti-entropy to exchange a hash tree summarizing the map
+     * contents instead of a digest of every entry. Peers only exchange the
+     * digests of entries in the parts of the tree whose hashes differ, so that
+     * anti-entropy between maps in sync costs a constant amount of data.
+     * Suited to large maps with low update rate.
+     * <p>
+     * The default behavior is to advertise a digest of every entry.
+     * </p>
+     *
+     * @return this EventuallyConsistentMapBuilder
+     */
+    EventuallyConsistentMapBuilder<K, V> withMerkleAntiEntropy();
+
     /**
      * Configure the map to persist data to disk.
      * <p>
@@ -18,10 +18,14 @@ package org.onosproject.common;
 import com.google.common.base.Function;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.ImmutableSetMultimap.Builder;
+import com.google.common.collect.Sets;
 import org.onlab.graph.DefaultEdgeWeigher;
 import org.onlab.graph.DijkstraGraphSearch;
 import org.onlab.graph.DisjointPathPair;
@@ -51,6 +55,7 @@ import org.onosproject.net.topology.DefaultTopologyVertex;
 import org.onosproject.net.topology.GraphDescription;
 import org.onosproject.net.topology.HopCountLinkWeigher;
 import org.onosproject.net.topology.LinkWeigher;
+import org.onosproject.net.topology.MetricLinkWeight;
 import org.onosproject.net.topology.Topology;
 import org.onosproject.net.topology.TopologyCluster;
 import org.onosproject.net.topology.TopologyEdge;
@@ -59,9 +64,16 @@ import org.onosproject.net.topology.TopologyVertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -77,6 +89,15 @@ import static org.onosproject.net.Link.Type.INDIRECT;
 /**
  * Default implementation of the topology descriptor. This carries the backing
  * topology data.
+ * <p>
+ * When created from a previous topology, clusters are derived incrementally
+ * from the clusters of the previous topology: only the clusters touched by
+ * the device and link changes are searched again, and the broadcast sets of
+ * the untouched clusters are carried over.
+ * <p>
+ * Paths computed on-demand are kept in a bounded cache, which lives as long
+ * as the topology itself. On small graphs, the shortest paths from a source
+ * to all destinations are computed and cached at once.
  */
 public class DefaultTopology extends AbstractModel implements Topology {
 
@@ -94,7 +115,24 @@ public class DefaultTopology extends AbstractModel implements Topology {
             new LazyKShortestPathsSearch<>();
 
 
+    // Maximum number of removed links for which a cluster is checked for
+    // connectivity before falling back to searching the cluster again
+    private static final int MAX_REACHABILITY_CHECKS = 16;
+
+    // Link weighers whose weights only depend on the topology graph, and thus
+    // whose paths may be cached along with the topology; other weighers, such
+    // as those checking resource availability, may weigh links differently
+    // from one query to the next.
+    private static final Set<Class<?>> CACHEABLE_WEIGHERS =
+            ImmutableSet.of(HopCountLinkWeigher.class, MetricLinkWeight.class,
+                            NoIndirectLinksWeigher.class);
+
+    // Maximum number of devices for which shortest paths are computed from a
+    // source to all destinations at once
+    private static final int SOURCE_TREE_MAX_DEVICES = 64;
+
     private static int defaultMaxPaths = ALL_PATHS;
+    private static int defaultPathCacheSize = 0;
     private static LinkWeigher defaultLinkWeigher = null;
     private static GraphPathSearch<TopologyVertex, TopologyEdge> defaultGraphPathSearch = null;
 
@@ -105,12 +143,18 @@ public class DefaultTopology extends AbstractModel implements Topology {
 
     private final LinkWeigher hopCountWeigher;
 
-    private final Supplier<SccResult<TopologyVertex, TopologyEdge>> clusterResults;
+    private final Supplier<ClusterResults> clusterResults;
     private final Supplier<ImmutableMap<ClusterId, TopologyCluster>> clusters;
     private final Supplier<ImmutableSet<ConnectPoint>> infrastructurePoints;
     private final Supplier<ImmutableSetMultimap<ClusterId, ConnectPoint>> broadcastSets;
     private final Function<ConnectPoint, Boolean> broadcastFunction;
     private final Supplier<ClusterIndexes> clusterIndexes;
+    private final Cache<PathKey, Set<? extends Path>> pathCache;
+
+    // Clusters of the previous topology; released once clusters are computed
+    private volatile PriorClusters prior;
+    // Broadcast sets, once computed; used to seed the subsequent topology
+    private volatile ImmutableSetMultimap<ClusterId, ConnectPoint> builtBroadcastSets;
 
     /**
      * Sets the default maximum path count to be used when computing paths. If
@@ -136,6 +180,19 @@ public class DefaultTopology extends AbstractModel implements Topology {
         defaultLinkWeigher = linkWeigher;
     }
 
+    /**
+     * Sets the default maximum number of path sets cached by each topology.
+     * If 0 is specified, the builtin default, paths are not cached. Paths are
+     * only cached for the hop-count and link-metric weighers, whose weights
+     * only depend on the topology.
+     *
+     * @param pathCacheSize new default path cache size
+     */
+    public static synchronized void setDefaultPathCacheSize(int pathCacheSize) {
+        log.info("Setting new default path cache size to {}", pathCacheSize);
+        defaultPathCacheSize = pathCacheSize;
+    }
+
     /**
      * Sets the default lpath search algorighm to be used when computing paths.
      * If null is specified, the builtin default Dijkstra will be used.
@@ -158,6 +215,21 @@ public class DefaultTopology extends AbstractModel implements Topology {
      */
     public DefaultTopology(ProviderId providerId, GraphDescription description,
                            Function<ConnectPoint, Boolean> broadcastFunction) {
+        this(providerId, description, broadcastFunction, null);
+    }
+
+    /**
+     * Creates a topology descriptor attributed to the specified provider,
+     * deriving its clusters incrementally from the given previous topology.
+     *
+     * @param providerId        identity of the provider
+     * @param description       data describing the new topology
+     * @param broadcastFunction broadcast point function
+     * @param previous          previous topology; null to compute clusters from scratch
+     */
+    public DefaultTopology(ProviderId providerId, GraphDescription description,
+                           Function<ConnectPoint, Boolean> broadcastFunction,
+                           DefaultTopology previous) {
         super(providerId);
         this.broadcastFunction = broadcastFunction;
         this.time = description.timestamp();
@@ -167,6 +239,7 @@ public class DefaultTopology extends AbstractModel implements Topology {
         this.graph = new DefaultTopologyGraph(description.vertexes(),
                                               description.edges());
 
+        this.prior = previous != null ? new PriorClusters(previous) : null;
         this.clusterResults = Suppliers.memoize(this::searchForClusters);
         this.clusters = Suppliers.memoize(this::buildTopologyClusters);
 
@@ -175,6 +248,8 @@ public class DefaultTopology extends AbstractModel implements Topology {
         this.hopCountWeigher = new HopCountLinkWeigher(graph.getVertexes().size());
         this.broadcastSets = Suppliers.memoize(this::buildBroadcastSets);
         this.infrastructurePoints = Suppliers.memoize(this::findInfrastructurePoints);
+        this.pathCache = defaultPathCacheSize > 0 ?
+                CacheBuilder.newBuilder().maximumSize(defaultPathCacheSize).recordStats().build() : null;
         this.computeCost = Math.max(0, System.nanoTime() - time);
     }
 
@@ -397,13 +472,69 @@ public class DefaultTopology extends AbstractModel implements Topology {
             return ImmutableSet.of();
         }
 
+        GraphPathSearch<TopologyVertex, TopologyEdge> search = graphPathSearch();
+        return cachedPaths(new PathKey(search, src, dst, weigher, maxPaths), () -> {
+            if (search == DIJKSTRA && maxPaths == ALL_PATHS && isCached(weigher) &&
+                    vertices.size() <= SOURCE_TREE_MAX_DEVICES) {
+                return searchFromSource(srcV, dstV, weigher);
+            }
+            GraphPathSearch.Result<TopologyVertex, TopologyEdge> result =
+                    search.search(graph, srcV, dstV, weigher, maxPaths);
+            ImmutableSet.Builder<Path> builder = ImmutableSet.builder();
+            for (org.onlab.graph.Path<TopologyVertex, TopologyEdge> path : result.paths()) {
+                builder.add(networkPath(path));
+            }
+            return builder.build();
+        });
+    }
+
+    // Searches for the shortest paths from the source to all destinations,
+    // caches them and returns those leading to the given destination.
+    private Set<Path> searchFromSource(TopologyVertex src, TopologyVertex dst, LinkWeigher weigher) {
         GraphPathSearch.Result<TopologyVertex, TopologyEdge> result =
-                graphPathSearch().search(graph, srcV, dstV, weigher, maxPaths);
-        ImmutableSet.Builder<Path> builder = ImmutableSet.builder();
+                DIJKSTRA.search(graph, src, null, weigher, ALL_PATHS);
+        Map<TopologyVertex, ImmutableSet.Builder<Path>> builders = new HashMap<>();
         for (org.onlab.graph.Path<TopologyVertex, TopologyEdge> path : result.paths()) {
-            builder.add(networkPath(path));
+            builders.computeIfAbsent(path.dst(), v -> ImmutableSet.builder()).add(networkPath(path));
         }
-        return builder.build();
+        for (TopologyVertex vertex : graph.getVertexes()) {
+            if (!vertex.equals(dst)) {
+                ImmutableSet.Builder<Path> builder = builders.get(vertex);
+                pathCache.put(new PathKey(DIJKSTRA, src.deviceId(), vertex.deviceId(), weigher, ALL_PATHS),
+                              builder != null ? builder.build() : ImmutableSet.of());
+            }
+        }
+        ImmutableSet.Builder<Path> builder = builders.get(dst);
+        return builder != null ? builder.build() : ImmutableSet.of();
+    }
+
+    // Indicates whether the paths computed with the given weigher are cached.
+    private boolean isCached(LinkWeigher weigher) {
+        return pathCache != null && weigher != null && CACHEABLE_WEIGHERS.contains(weigher.getClass());
+    }
+
+    // Returns the paths for the given key from the path cache, searching for
+    // them on a miss or if they are not to be cached.
+    @SuppressWarnings("unchecked")
+    private <P extends Path> Set<P> cachedPaths(PathKey key, Supplier<Set<P>> search) {
+        if (!isCached(key.weigher)) {
+            return search.get();
+        }
+        Set<P> paths = (Set<P>) pathCache.getIfPresent(key);
+        if (paths == null) {
+            paths = search.get();
+            pathCache.put(key, paths);
+        }
+        return paths;
+    }
+
+    /**
+     * Returns the statistics of the path cache of this topology.
+     *
+     * @return path cache statistics
+     */
+    public CacheStats pathCacheStats() {
+        return pathCache != null ? pathCache.stats() : new CacheStats(0, 0, 0, 0, 0, 0);
     }
 
     /**
@@ -445,10 +576,11 @@ public class DefaultTopology extends AbstractModel implements Topology {
             return ImmutableSet.of();
         }
 
-        return KSHORTEST.search(graph, srcV, dstV, weigher, maxPaths)
-                .paths().stream()
-                .map(this::networkPath)
-                .collect(ImmutableSet.toImmutableSet());
+        return cachedPaths(new PathKey(KSHORTEST, src, dst, weigher, maxPaths),
+                           () -> KSHORTEST.search(graph, srcV, dstV, weigher, maxPaths)
+                                   .paths().stream()
+                                   .map(this::networkPath)
+                                   .collect(ImmutableSet.toImmutableSet()));
     }
 
     /**
@@ -517,17 +649,20 @@ public class DefaultTopology extends AbstractModel implements Topology {
             return ImmutableSet.of();
         }
 
-        GraphPathSearch.Result<TopologyVertex, TopologyEdge> result =
-                SUURBALLE.search(graph, srcV, dstV, weigher, defaultMaxPaths);
-        ImmutableSet.Builder<DisjointPath> builder = ImmutableSet.builder();
-        for (org.onlab.graph.Path<TopologyVertex, TopologyEdge> path : result.paths()) {
-            DisjointPath disjointPath =
-                    networkDisjointPath((DisjointPathPair<TopologyVertex, TopologyEdge>) path);
-            if (disjointPath.backup() != null) {
-                builder.add(disjointPath);
+        int maxPaths = defaultMaxPaths;
+        return cachedPaths(new PathKey(SUURBALLE, src, dst, weigher, maxPaths), () -> {
+            GraphPathSearch.Result<TopologyVertex, TopologyEdge> result =
+                    SUURBALLE.search(graph, srcV, dstV, weigher, maxPaths);
+            ImmutableSet.Builder<DisjointPath> builder = ImmutableSet.builder();
+            for (org.onlab.graph.Path<TopologyVertex, TopologyEdge> path : result.paths()) {
+                DisjointPath disjointPath =
+                        networkDisjointPath((DisjointPathPair<TopologyVertex, TopologyEdge>) path);
+                if (disjointPath.backup() != null) {
+                    builder.add(disjointPath);
+                }
             }
-        }
-        return builder.build();
+            return builder.build();
+        });
     }
 
     /**
@@ -639,24 +774,238 @@ public class DefaultTopology extends AbstractModel implements Topology {
     }
 
     // Searches for SCC clusters in the network topology graph using Tarjan
-    // algorithm.
-    private SccResult<TopologyVertex, TopologyEdge> searchForClusters() {
-        return TARJAN.search(graph, new NoIndirectLinksWeigher());
+    // algorithm, incrementally if the clusters of the previous topology are
+    // known.
+    private ClusterResults searchForClusters() {
+        PriorClusters priorClusters = prior;
+        prior = null;
+        LinkWeigher weigher = new NoIndirectLinksWeigher();
+        if (priorClusters != null) {
+            ClusterResults results = searchForClusters(priorClusters, weigher);
+            if (results != null) {
+                return results;
+            }
+        }
+        SccResult<TopologyVertex, TopologyEdge> results = TARJAN.search(graph, weigher);
+        return new ClusterResults(results.clusterVertexes(), results.clusterEdges(),
+                                  ImmutableMap.of());
+    }
+
+    // Derives SCC clusters from the clusters of the previous topology. Clusters
+    // only lose vertexes through removed devices or links and only merge
+    // through added links, so the search is limited to the clusters touched
+    // by removals and to the vertexes lying on new cycles. Returns null if
+    // most of the graph changed.
+    private ClusterResults searchForClusters(PriorClusters priorClusters, LinkWeigher weigher) {
+        Set<TopologyVertex> vertexes = graph.getVertexes();
+        Set<TopologyEdge> priorViable = viableEdges(priorClusters.graph.getEdges(), weigher);
+        Set<TopologyEdge> viable = viableEdges(graph.getEdges(), weigher);
+        Set<TopologyEdge> removed = ImmutableSet.copyOf(Sets.difference(priorViable, viable));
+        Set<TopologyEdge> added = ImmutableSet.copyOf(Sets.difference(viable, priorViable));
+
+        // Links which disappeared or became non-viable, and links which
+        // appeared or became viable, along with the vertexes they touch.
+        Set<TopologyEdge> dropped = Sets.union(
+                removed, Sets.difference(priorClusters.graph.getEdges(), graph.getEdges())).immutableCopy();
+        Set<TopologyEdge> grown = Sets.union(
+                added, Sets.difference(graph.getEdges(), priorClusters.graph.getEdges())).immutableCopy();
+        Set<TopologyVertex> touched = new HashSet<>();
+        Stream.of(dropped, grown)
+                .flatMap(Set::stream)
+                .forEach(edge -> {
+                    touched.add(edge.src());
+                    touched.add(edge.dst());
+                });
+        touched.addAll(Sets.symmetricDifference(priorClusters.graph.getVertexes(), vertexes));
+        if (touched.size() > vertexes.size() / 2) {
+            return null;
+        }
+
+        // Carry over the previous clusters, splitting those which may have
+        // been disconnected by removals; new vertexes start in their own set.
+        // Each resulting set is strongly connected.
+        List<Set<TopologyVertex>> parts = new ArrayList<>();
+        List<Integer> origins = new ArrayList<>();
+        for (int i = 0; i < priorClusters.clusterVertexes.size(); i++) {
+            Set<TopologyVertex> clusterVertexes = priorClusters.clusterVertexes.get(i);
+            Set<TopologyVertex> remaining = clusterVertexes.stream()
+                    .filter(vertexes::contains)
+                    .collect(Collectors.toSet());
+            if (remaining.size() == clusterVertexes.size() &&
+                    isStronglyConnected(clusterVertexes, removed, weigher)) {
+                parts.add(clusterVertexes);
+                origins.add(i);
+            } else if (!remaining.isEmpty()) {
+                for (Set<TopologyVertex> part : searchForClusters(remaining, weigher)) {
+                    parts.add(part);
+                    origins.add(-1);
+                }
+            }
+        }
+        for (TopologyVertex vertex : Sets.difference(vertexes, priorClusters.graph.getVertexes())) {
+            parts.add(ImmutableSet.of(vertex));
+            origins.add(-1);
+        }
+        Map<TopologyVertex, Integer> partIndexes = indexes(parts);
+
+        // Sets can only merge along cycles through added links joining two
+        // of them; search again the vertexes reachable from the destinations
+        // of such links and reaching their sources.
+        Set<TopologyVertex> srcs = new HashSet<>();
+        Set<TopologyVertex> dsts = new HashSet<>();
+        for (TopologyEdge edge : added) {
+            if (!partIndexes.get(edge.src()).equals(partIndexes.get(edge.dst()))) {
+                srcs.add(edge.src());
+                dsts.add(edge.dst());
+            }
+        }
+        List<Set<TopologyVertex>> clusterVertexes = new ArrayList<>();
+        List<Integer> clusterOrigins = new ArrayList<>();
+        Set<TopologyVertex> region = Sets.intersection(reachable(dsts, true, null, weigher),
+                                                       reachable(srcs, false, null, weigher));
+        for (int i = 0; i < parts.size(); i++) {
+            if (!region.contains(parts.get(i).iterator().next())) {
+                clusterVertexes.add(parts.get(i));
+                clusterOrigins.add(origins.get(i));
+            }
+        }
+        if (!region.isEmpty()) {
+            for (Set<TopologyVertex> cluster : searchForClusters(ImmutableSet.copyOf(region), weigher)) {
+                clusterVertexes.add(cluster);
+                clusterOrigins.add(-1);
+            }
+        }
+
+        // Collect the cluster edges, and carry over the broadcast sets which
+        // remain valid.
+        Map<TopologyVertex, Integer> clusterIndexes = indexes(clusterVertexes);
+        List<Set<TopologyEdge>> clusterEdges = new ArrayList<>();
+        clusterVertexes.forEach(cluster -> clusterEdges.add(new HashSet<>()));
+        for (TopologyEdge edge : graph.getEdges()) {
+            Integer index = clusterIndexes.get(edge.src());
+            if (index.equals(clusterIndexes.get(edge.dst()))) {
+                clusterEdges.get(index).add(edge);
+            }
+        }
+        ImmutableMap.Builder<Integer, Set<ConnectPoint>> broadcastSets = ImmutableMap.builder();
+        if (priorClusters.broadcastSets != null) {
+            Set<TopologyVertex> grownVertexes = new HashSet<>();
+            grown.forEach(edge -> {
+                grownVertexes.add(edge.src());
+                grownVertexes.add(edge.dst());
+            });
+            for (int i = 0; i < clusterVertexes.size(); i++) {
+                int origin = clusterOrigins.get(i);
+                if (origin < 0) {
+                    continue;
+                }
+                Set<ConnectPoint> points = priorClusters.broadcastSets.get(ClusterId.clusterId(origin));
+                if (isBroadcastTreeIntact(clusterVertexes.get(i), points, grownVertexes, dropped)) {
+                    broadcastSets.put(i, points);
+                }
+            }
+        }
+        return new ClusterResults(clusterVertexes, clusterEdges, broadcastSets.build());
+    }
+
+    // Indicates whether the broadcast set of a cluster, whose vertexes did
+    // not change, still lies along shortest paths from the cluster root.
+    // Removing links off the broadcast tree does not change path lengths,
+    // whereas added links may shorten them.
+    private static boolean isBroadcastTreeIntact(Set<TopologyVertex> vertexes, Set<ConnectPoint> points,
+                                                 Set<TopologyVertex> grownVertexes,
+                                                 Set<TopologyEdge> dropped) {
+        if (!Collections.disjoint(vertexes, grownVertexes)) {
+            return false;
+        }
+        for (TopologyEdge edge : dropped) {
+            if ((vertexes.contains(edge.src()) || vertexes.contains(edge.dst())) &&
+                    (points.contains(edge.link().src()) || points.contains(edge.link().dst()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Searches for SCC clusters in the subgraph induced by the given vertexes.
+    private List<Set<TopologyVertex>> searchForClusters(Set<TopologyVertex> vertexes,
+                                                        LinkWeigher weigher) {
+        Set<TopologyEdge> edges = vertexes.stream()
+                .flatMap(vertex -> graph.getEdgesFrom(vertex).stream())
+                .filter(edge -> vertexes.contains(edge.dst()))
+                .collect(Collectors.toSet());
+        return TARJAN.search(new DefaultTopologyGraph(vertexes, edges), weigher).clusterVertexes();
+    }
+
+    // Indicates whether a strongly connected set of vertexes of the previous
+    // topology remains strongly connected once the given links are removed,
+    // i.e. whether the removed links within the set can be bypassed.
+    private boolean isStronglyConnected(Set<TopologyVertex> vertexes, Set<TopologyEdge> removed,
+                                        LinkWeigher weigher) {
+        List<TopologyEdge> bypassed = removed.stream()
+                .filter(edge -> vertexes.contains(edge.src()) && vertexes.contains(edge.dst()))
+                .collect(Collectors.toList());
+        if (bypassed.size() > MAX_REACHABILITY_CHECKS) {
+            return false;
+        }
+        for (TopologyEdge edge : bypassed) {
+            if (!reachable(ImmutableSet.of(edge.src()), true, vertexes, weigher).contains(edge.dst())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Returns the vertexes reachable from (or reaching) the given vertexes
+    // over viable edges, optionally without leaving the given scope.
+    private Set<TopologyVertex> reachable(Set<TopologyVertex> vertexes, boolean forward,
+                                          Set<TopologyVertex> scope, LinkWeigher weigher) {
+        Set<TopologyVertex> visited = new HashSet<>(vertexes);
+        Deque<TopologyVertex> queue = new ArrayDeque<>(vertexes);
+        while (!queue.isEmpty()) {
+            TopologyVertex vertex = queue.poll();
+            for (TopologyEdge edge : forward ? graph.getEdgesFrom(vertex) : graph.getEdgesTo(vertex)) {
+                TopologyVertex next = forward ? edge.dst() : edge.src();
+                if (weigher.weight(edge).isViable() && (scope == null || scope.contains(next)) &&
+                        visited.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+        return visited;
+    }
+
+    // Returns the edges which may be traversed when searching for clusters.
+    private static Set<TopologyEdge> viableEdges(Set<TopologyEdge> edges, LinkWeigher weigher) {
+        return edges.stream()
+                .filter(edge -> weigher.weight(edge).isViable())
+                .collect(Collectors.toSet());
+    }
+
+    // Indexes the vertexes by the position of the set they belong to.
+    private static Map<TopologyVertex, Integer> indexes(List<? extends Collection<TopologyVertex>> sets) {
+        Map<TopologyVertex, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < sets.size(); i++) {
+            for (TopologyVertex vertex : sets.get(i)) {
+                indexes.put(vertex, i);
+            }
+        }
+        return indexes;
     }
 
     // Builds the topology clusters and returns the id-cluster bindings.
     private ImmutableMap<ClusterId, TopologyCluster> buildTopologyClusters() {
         ImmutableMap.Builder<ClusterId, TopologyCluster> clusterBuilder =
                 ImmutableMap.builder();
-        SccResult<TopologyVertex, TopologyEdge> results = clusterResults.get();
+        ClusterResults results = clusterResults.get();
 
         // Extract both vertexes and edges from the results; the lists form
         // pairs along the same index.
-        List<Set<TopologyVertex>> clusterVertexes = results.clusterVertexes();
-        List<Set<TopologyEdge>> clusterEdges = results.clusterEdges();
+        List<Set<TopologyVertex>> clusterVertexes = results.clusterVertexes;
+        List<Set<TopologyEdge>> clusterEdges = results.clusterEdges;
 
         // Scan over the lists and create a cluster from the results.
-        for (int i = 0, n = results.clusterCount(); i < n; i++) {
+        for (int i = 0, n = clusterVertexes.size(); i < n; i++) {
             Set<TopologyVertex> vertexSet = clusterVertexes.get(i);
             Set<TopologyEdge> edgeSet = clusterEdges.get(i);
 
@@ -686,10 +1035,17 @@ public class DefaultTopology extends AbstractModel implements Topology {
     // Processes a map of broadcast sets for each cluster.
     private ImmutableSetMultimap<ClusterId, ConnectPoint> buildBroadcastSets() {
         Builder<ClusterId, ConnectPoint> builder = ImmutableSetMultimap.builder();
+        Map<Integer, Set<ConnectPoint>> priorBroadcastSets = clusterResults.get().broadcastSets;
         for (TopologyCluster cluster : clusters.get().values()) {
-            addClusterBroadcastSet(cluster, builder);
+            Set<ConnectPoint> points = priorBroadcastSets.get(cluster.id().index());
+            if (points != null) {
+                builder.putAll(cluster.id(), points);
+            } else {
+                addClusterBroadcastSet(cluster, builder);
+            }
         }
-        return builder.build();
+        builtBroadcastSets = builder.build();
+        return builtBroadcastSets;
     }
 
     // Finds all broadcast points for the cluster. These are those connection
@@ -754,13 +1110,13 @@ public class DefaultTopology extends AbstractModel implements Topology {
             int i = cluster.id().index();
 
             // Scan through all the cluster vertexes.
-            for (TopologyVertex vertex : clusterResults.get().clusterVertexes().get(i)) {
+            for (TopologyVertex vertex : clusterResults.get().clusterVertexes.get(i)) {
                 devicesBuilder.put(cluster, vertex.deviceId());
                 clusterBuilder.put(vertex.deviceId(), cluster);
             }
 
             // Scan through all the cluster edges.
-            for (TopologyEdge edge : clusterResults.get().clusterEdges().get(i)) {
+            for (TopologyEdge edge : clusterResults.get().clusterEdges.get(i)) {
                 linksBuilder.put(cluster, edge.link());
             }
         }
@@ -791,6 +1147,73 @@ public class DefaultTopology extends AbstractModel implements Topology {
         }
     }
 
+    // Key of the path cache; paths are searched with the given algorithm.
+    private static final class PathKey {
+        private final Object search;
+        private final DeviceId src;
+        private final DeviceId dst;
+        private final LinkWeigher weigher;
+        private final int maxPaths;
+
+        PathKey(Object search, DeviceId src, DeviceId dst, LinkWeigher weigher, int maxPaths) {
+            this.search = search;
+            this.src = src;
+            this.dst = dst;
+            this.weigher = weigher;
+            this.maxPaths = maxPaths;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(search, src, dst, weigher, maxPaths);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof PathKey) {
+                PathKey that = (PathKey) obj;
+                return search == that.search && maxPaths == that.maxPaths &&
+                        Objects.equals(src, that.src) && Objects.equals(dst, that.dst) &&
+                        Objects.equals(weigher, that.weigher);
+            }
+            return false;
+        }
+    }
+
+    // Strongly connected clusters, along with the broadcast sets which could
+    // be carried over from the previous topology, keyed by cluster index.
+    private static final class ClusterResults {
+        final List<Set<TopologyVertex>> clusterVertexes;
+        final List<Set<TopologyEdge>> clusterEdges;
+        final Map<Integer, Set<ConnectPoint>> broadcastSets;
+
+        ClusterResults(List<Set<TopologyVertex>> clusterVertexes,
+                       List<Set<TopologyEdge>> clusterEdges,
+                       Map<Integer, Set<ConnectPoint>> broadcastSets) {
+            this.clusterVertexes = clusterVertexes;
+            this.clusterEdges = clusterEdges;
+            this.broadcastSets = broadcastSets;
+        }
+    }
+
+    // Data retained from the previous topology to derive clusters; it does
+    // not reference the previous topology itself, so that topologies are not
+    // chained in memory.
+    private static final class PriorClusters {
+        final TopologyGraph graph;
+        final List<Set<TopologyVertex>> clusterVertexes;
+        final ImmutableSetMultimap<ClusterId, ConnectPoint> broadcastSets;
+
+        PriorClusters(DefaultTopology topology) {
+            this.graph = topology.graph;
+            this.clusterVertexes = topology.clusterResults.get().clusterVertexes;
+            this.broadcastSets = topology.builtBroadcastSets;
+        }
+    }
+
     static final class ClusterIndexes {
         final ImmutableMap<DeviceId, TopologyCluster> clustersByDevice;
         final ImmutableSetMultimap<TopologyCluster, DeviceId> devicesByCluster;
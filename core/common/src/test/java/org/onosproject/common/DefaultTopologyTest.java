@@ -15,6 +15,7 @@
  */
 package org.onosproject.common;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.onlab.graph.DefaultEdgeWeigher;
@@ -77,6 +78,8 @@ public class DefaultTopologyTest {
     }
     public static final LinkWeigher WEIGHER = new TestLinkWeigher();
 
+    private static final int PATH_CACHE_SIZE = 100;
+
 
     private DefaultTopology dt;
 
@@ -96,6 +99,7 @@ public class DefaultTopologyTest {
         GraphDescription graphDescription =
                 new DefaultGraphDescription(now, System.currentTimeMillis(), devices, links);
 
+        DefaultTopology.setDefaultPathCacheSize(PATH_CACHE_SIZE);
         dt = new DefaultTopology(PID, graphDescription);
         assertEquals("incorrect supplier", PID, dt.providerId());
         assertEquals("incorrect time", now, dt.time());
@@ -107,6 +111,11 @@ public class DefaultTopologyTest {
         assertEquals("incorrect root node", V5, dt.getCluster(C1).root());
     }
 
+    @After
+    public void tearDown() {
+        DefaultTopology.setDefaultPathCacheSize(0);
+    }
+
     @Test
     public void pathRelated() {
         Set<Path> paths = dt.getPaths(D1, D2);
@@ -128,6 +137,23 @@ public class DefaultTopologyTest {
 
     }
 
+    @Test
+    public void pathCache() {
+        Set<Path> paths = dt.getPaths(D1, D3);
+        assertEquals("incorrect miss count", 1, dt.pathCacheStats().missCount());
+
+        // Paths from the same source were cached along
+        assertEquals("incorrect paths", paths, dt.getPaths(D1, D3));
+        assertEquals("incorrect path count", 1, dt.getPaths(D1, D2).size());
+        assertEquals("incorrect hit count", 2, dt.pathCacheStats().hitCount());
+
+        // Paths computed with weighers which may hold state are not cached
+        assertEquals("incorrect path count", 1, dt.getPaths(D1, D3, WEIGHER).size());
+        assertEquals("incorrect path count", 1, dt.getPaths(D1, D3, WEIGHER).size());
+        assertEquals("incorrect miss count", 1, dt.pathCacheStats().missCount());
+        assertEquals("incorrect hit count", 2, dt.pathCacheStats().hitCount());
+    }
+
     @Test
     public void pointRelated() {
         assertTrue("should be infrastructure point",
@@ -148,6 +174,48 @@ public class DefaultTopologyTest {
         assertFalse("cluster should not contain D5", devs.contains(D5));
     }
 
+    @Test
+    public void incrementalClusters() {
+        Set<Device> devices = of(device("1"), device("2"),
+                                 device("3"), device("4"),
+                                 device("5"));
+
+        // Removing the links between D1 and D4 leaves the cluster connected
+        Set<Link> links = of(link("1", 1, "2", 1), link("2", 1, "1", 1),
+                             link("3", 2, "2", 2), link("2", 2, "3", 2),
+                             link("3", 4, "4", 4), link("4", 4, "3", 4));
+        DefaultTopology next = new DefaultTopology(PID, new DefaultGraphDescription(
+                2L, System.currentTimeMillis(), devices, links), null, dt);
+        assertEquals("incorrect cluster count", 2, next.clusterCount());
+        assertEquals("incorrect cluster link count", 6,
+                     next.getClusterLinks(next.getCluster(D1)).size());
+        assertEquals("incorrect broadcast set size", 6,
+                     next.broadcastSetSize(next.getCluster(D1).id()));
+
+        // Removing the links between D2 and D3 splits the cluster
+        links = of(link("1", 1, "2", 1), link("2", 1, "1", 1),
+                   link("3", 4, "4", 4), link("4", 4, "3", 4));
+        next = new DefaultTopology(PID, new DefaultGraphDescription(
+                3L, System.currentTimeMillis(), devices, links), null, next);
+        assertEquals("incorrect cluster count", 3, next.clusterCount());
+        assertEquals("incorrect cluster device count", of(D1, D2),
+                     next.getClusterDevices(next.getCluster(D1)));
+        assertEquals("incorrect cluster device count", of(D3, D4),
+                     next.getClusterDevices(next.getCluster(D3)));
+
+        // Linking D4 and D5 merges D5 into the cluster of D4
+        links = of(link("1", 1, "2", 1), link("2", 1, "1", 1),
+                   link("3", 4, "4", 4), link("4", 4, "3", 4),
+                   link("4", 5, "5", 5), link("5", 5, "4", 5));
+        next = new DefaultTopology(PID, new DefaultGraphDescription(
+                4L, System.currentTimeMillis(), devices, links), null, next);
+        assertEquals("incorrect cluster count", 2, next.clusterCount());
+        assertEquals("incorrect cluster device count", of(D3, D4, D5),
+                     next.getClusterDevices(next.getCluster(D5)));
+        assertEquals("incorrect root node", new DefaultTopologyVertex(D3),
+                     next.getCluster(D5).root());
+    }
+
     // Short-hand for creating a link.
     public static Link link(String src, int sp, String dst, int dp) {
         return DefaultLink.builder().providerId(PID)
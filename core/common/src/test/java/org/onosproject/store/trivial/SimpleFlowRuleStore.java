@@ -126,6 +126,15 @@ public class SimpleFlowRuleStore
         return sum;
     }
 
+    @Override
+    public int getFlowRuleCount(DeviceId deviceId) {
+        int sum = 0;
+        for (List<StoredFlowEntry> fes : getFlowTable(deviceId).values()) {
+            sum += fes.size();
+        }
+        return sum;
+    }
+
     /**
      * Extracts properties from the component configuration context.
      *
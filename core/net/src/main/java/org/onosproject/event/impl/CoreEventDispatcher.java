@@ -15,10 +15,16 @@
  */
 package org.onosproject.event.impl;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Timer;
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableSet;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.SharedExecutors;
+import org.onlab.util.Tools;
 import org.onosproject.event.AbstractEvent;
 import org.onosproject.event.DefaultEventSinkRegistry;
 import org.onosproject.event.Event;
@@ -30,13 +36,18 @@ import org.onosproject.net.host.HostEvent;
 import org.onosproject.net.intent.IntentEvent;
 import org.onosproject.net.link.LinkEvent;
 import org.onosproject.net.topology.TopologyEvent;
+import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.TimerTask;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
@@ -45,58 +56,81 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.onlab.metrics.MetricsUtil.startTimer;
+import static org.onlab.metrics.MetricsUtil.stopTimer;
 import static org.onlab.util.Tools.groupedThreads;
+import static org.onosproject.net.OsgiPropertyConstants.CED_NUM_SHARDS;
+import static org.onosproject.net.OsgiPropertyConstants.CED_NUM_SHARDS_DEFAULT;
 import static org.onosproject.security.AppGuard.checkPermission;
 import static org.onosproject.security.AppPermission.Type.EVENT_READ;
 import static org.onosproject.security.AppPermission.Type.EVENT_WRITE;
 import static org.slf4j.LoggerFactory.getLogger;
 /**
  * Simple implementation of an event dispatching service.
+ * <p>
+ * Events are dispatched by separate dispatchers depending on their class.
+ * Each dispatcher may be sharded over several dispatch loops, in which case
+ * events are spread over the loops according to their subject: events about
+ * the same subject, such as the same device, are always dispatched by the
+ * same loop and thus in order, whereas events about different subjects are
+ * dispatched in parallel. Note that with more than one shard, sinks and their
+ * listeners are invoked concurrently.
  */
-@Component(immediate = true, service = EventDeliveryService.class)
+@Component(
+    immediate = true,
+    service = EventDeliveryService.class,
+    property = {
+        CED_NUM_SHARDS + ":Integer=" + CED_NUM_SHARDS_DEFAULT
+    }
+)
 public class CoreEventDispatcher extends DefaultEventSinkRegistry
         implements EventDeliveryService {
 
     private final Logger log = getLogger(getClass());
 
-
-    private DispatchLoop topologyDispatcher = new DispatchLoop("topology");
-    private DispatchLoop programmingDispatcher = new DispatchLoop("programming");
-    private DispatchLoop defaultDispatcher = new DispatchLoop("default");
-
-    private Map<Class, DispatchLoop> dispatcherMap =
-            new ImmutableMap.Builder<Class, DispatchLoop>()
-                .put(TopologyEvent.class, topologyDispatcher)
-                .put(DeviceEvent.class, topologyDispatcher)
-                .put(LinkEvent.class, topologyDispatcher)
-                .put(HostEvent.class, topologyDispatcher)
-                .put(FlowRuleEvent.class, programmingDispatcher)
-                .put(IntentEvent.class, programmingDispatcher)
+    private static final String TOPOLOGY = "topology";
+    private static final String PROGRAMMING = "programming";
+    private static final String DEFAULT = "default";
+
+    private static final Map<Class, String> DISPATCHER_NAMES =
+            new ImmutableMap.Builder<Class, String>()
+                .put(TopologyEvent.class, TOPOLOGY)
+                .put(DeviceEvent.class, TOPOLOGY)
+                .put(LinkEvent.class, TOPOLOGY)
+                .put(HostEvent.class, TOPOLOGY)
+                .put(FlowRuleEvent.class, PROGRAMMING)
+                .put(IntentEvent.class, PROGRAMMING)
                 .build();
 
-    private Set<DispatchLoop> dispatchers =
-            new ImmutableSet.Builder<DispatchLoop>()
-                .addAll(dispatcherMap.values())
-                .add(defaultDispatcher)
-                .build();
+    private static final String METRICS_COMPONENT = "EventDispatcher";
 
     // Default number of millis a sink can take to process an event.
     private static final long DEFAULT_EXECUTE_MS = 5_000; // ms
     private static final long WATCHDOG_MS = 250; // ms
+    private static final long DRAIN_MS = 5_000; // ms
+
+    /** Number of dispatch loops over which the events of each dispatcher are sharded. */
+    private int numShards = CED_NUM_SHARDS_DEFAULT;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MetricsService metricsService;
+
+    private volatile Map<String, Dispatcher> dispatchers = createDispatchers(numShards);
 
     @SuppressWarnings("unchecked")
     private static final Event KILL_PILL = new AbstractEvent(null, 0) {
     };
 
+    @SuppressWarnings("unchecked")
+    private static final Event DRAIN_PILL = new AbstractEvent(null, 0) {
+    };
+
     private long maxProcessMillis = DEFAULT_EXECUTE_MS;
 
-    private DispatchLoop getDispatcher(Event event) {
-        DispatchLoop dispatcher = dispatcherMap.get(event.getClass());
-        if (dispatcher == null) {
-            dispatcher = defaultDispatcher;
-        }
-        return dispatcher;
+    private Dispatcher getDispatcher(Event event) {
+        return dispatchers.get(DISPATCHER_NAMES.getOrDefault(event.getClass(), DEFAULT));
     }
 
     @Override
@@ -108,22 +142,89 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
     }
 
     @Activate
-    public void activate() {
-
-        if (maxProcessMillis != 0) {
-            dispatchers.forEach(DispatchLoop::start);
+    public void activate(ComponentContext context) {
+        int oldNumShards = numShards;
+        readComponentConfiguration(context);
+        if (numShards != oldNumShards) {
+            dispatchers = createDispatchers(numShards);
         }
+        dispatchers.values().forEach(Dispatcher::start);
 
         log.info("Started");
     }
 
     @Deactivate
     public void deactivate() {
-        dispatchers.forEach(DispatchLoop::stop);
+        dispatchers.values().forEach(Dispatcher::stop);
 
         log.info("Stopped");
     }
 
+    @Modified
+    public void modified(ComponentContext context) {
+        int oldNumShards = numShards;
+        readComponentConfiguration(context);
+        if (numShards == oldNumShards) {
+            return;
+        }
+
+        // New events are queued to the new loops, which only start once
+        // the old ones are done with the events they already had queued,
+        // so that per-subject ordering is preserved. Events the old loops
+        // did not get to, including those posted to them after the swap,
+        // are handed over to the new loops rather than dropped.
+        Map<String, Dispatcher> oldDispatchers = dispatchers;
+        Map<String, Dispatcher> newDispatchers = createDispatchers(numShards);
+        dispatchers = newDispatchers;
+        oldDispatchers.values().forEach(Dispatcher::drain);
+        // The drain time limit applies to all the loops together
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DRAIN_MS);
+        oldDispatchers.values().forEach(d -> d.awaitTermination(deadline));
+        oldDispatchers.forEach((name, d) -> d.handOver(newDispatchers.get(name)));
+        newDispatchers.values().forEach(Dispatcher::start);
+        log.info("Reconfigured with {} dispatch loop(s) per dispatcher", numShards);
+    }
+
+    private void readComponentConfiguration(ComponentContext context) {
+        if (context == null) {
+            return;
+        }
+        String s = Tools.get(context.getProperties(), CED_NUM_SHARDS);
+        int newNumShards = isNullOrEmpty(s) ? numShards : Integer.parseInt(s);
+        if (newNumShards > 0) {
+            numShards = newNumShards;
+        } else {
+            log.warn("Ignoring invalid number of dispatch shards {}", newNumShards);
+        }
+    }
+
+    private Map<String, Dispatcher> createDispatchers(int shards) {
+        return ImmutableMap.of(TOPOLOGY, new Dispatcher(TOPOLOGY, shards),
+                               PROGRAMMING, new Dispatcher(PROGRAMMING, shards),
+                               DEFAULT, new Dispatcher(DEFAULT, shards));
+    }
+
+    // Returns the key of the subject an event is about, used to shard events
+    // over the dispatch loops; subjects themselves may not be stable keys, as
+    // for instance a device changes when its ports are updated.
+    private static Object shardKey(Event event) {
+        if (event instanceof DeviceEvent) {
+            return ((DeviceEvent) event).subject().id();
+        } else if (event instanceof LinkEvent) {
+            return ((LinkEvent) event).subject().src().deviceId();
+        } else if (event instanceof HostEvent) {
+            return ((HostEvent) event).subject().id();
+        } else if (event instanceof FlowRuleEvent) {
+            return ((FlowRuleEvent) event).subject().deviceId();
+        } else if (event instanceof IntentEvent) {
+            return ((IntentEvent) event).subject().key();
+        } else if (event instanceof TopologyEvent) {
+            return TopologyEvent.class;
+        }
+        // Events dispatched by the default dispatcher are kept in order per class
+        return event.getClass();
+    }
+
     @Override
     public void setDispatchTimeLimit(long millis) {
         checkPermission(EVENT_WRITE);
@@ -133,9 +234,9 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
         maxProcessMillis = millis;
 
         if (millis == 0 && oldMillis != 0) {
-            dispatchers.forEach(DispatchLoop::stopWatchdog);
+            dispatchers.values().forEach(d -> d.loops.forEach(DispatchLoop::stopWatchdog));
         } else if (millis != 0 && oldMillis == 0) {
-            dispatchers.forEach(DispatchLoop::startWatchdog);
+            dispatchers.values().forEach(d -> d.loops.forEach(DispatchLoop::startWatchdog));
         }
     }
 
@@ -145,6 +246,56 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
         return maxProcessMillis;
     }
 
+    // Set of dispatch loops over which the events of a dispatcher are sharded.
+    private class Dispatcher {
+        private final List<DispatchLoop> loops;
+
+        Dispatcher(String name, int shards) {
+            ImmutableList.Builder<DispatchLoop> builder = ImmutableList.builder();
+            for (int i = 0; i < shards; i++) {
+                builder.add(new DispatchLoop(shards == 1 ? name : name + "-" + i));
+            }
+            loops = builder.build();
+        }
+
+        boolean add(Event event) {
+            DispatchLoop loop = loops.size() == 1 ? loops.get(0) :
+                    loops.get(Math.floorMod(shardKey(event).hashCode(), loops.size()));
+            return loop.add(event);
+        }
+
+        void start() {
+            loops.forEach(loop -> {
+                loop.registerMetrics();
+                if (maxProcessMillis != 0) {
+                    loop.start();
+                }
+            });
+        }
+
+        void stop() {
+            loops.forEach(loop -> {
+                loop.stop();
+                loop.unregisterMetrics();
+            });
+        }
+
+        void drain() {
+            loops.forEach(DispatchLoop::drain);
+        }
+
+        void awaitTermination(long deadline) {
+            loops.forEach(loop -> {
+                loop.awaitTermination(deadline);
+                loop.unregisterMetrics();
+            });
+        }
+
+        void handOver(Dispatcher successor) {
+            loops.forEach(loop -> loop.handOver(successor));
+        }
+    }
+
     // Auxiliary event dispatching loop that feeds off the events queue.
     private class DispatchLoop implements Runnable {
         private final String name;
@@ -154,8 +305,12 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
         private final Stopwatch stopwatch = Stopwatch.createUnstarted();
         private TimerTask watchdog;
         private volatile Future<?> dispatchFuture;
+        // Dispatcher to which the events are handed over once the loop is retired
+        private volatile Dispatcher successor;
         private final BlockingQueue<Event> eventsQueue;
         private final ExecutorService executor;
+        private MetricsFeature metricsFeature;
+        private Timer dispatchTimer;
 
         DispatchLoop(String name) {
             this.name = name;
@@ -166,7 +321,14 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
         }
 
         public boolean add(Event event) {
-            return eventsQueue.add(event);
+            if (!eventsQueue.add(event)) {
+                return false;
+            }
+            // The event may have been queued after the loop was retired
+            if (successor != null) {
+                handOver();
+            }
+            return true;
         }
 
         @Override
@@ -176,7 +338,9 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
                 try {
                     // Fetch the next event and if it is the kill-pill, bail
                     Event event = eventsQueue.take();
-                    if (event != KILL_PILL) {
+                    if (event == DRAIN_PILL) {
+                        break;
+                    } else if (event != KILL_PILL) {
                         process(event);
                     }
                 } catch (InterruptedException e) {
@@ -194,9 +358,14 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
             EventSink sink = getSink(event.getClass());
             if (sink != null) {
                 lastSink = sink;
+                Timer.Context timer = startTimer(dispatchTimer);
                 stopwatch.start();
-                sink.process(event);
-                stopwatch.reset();
+                try {
+                    sink.process(event);
+                } finally {
+                    stopwatch.reset();
+                    stopTimer(timer);
+                }
             } else {
                 log.warn("No sink registered for event class {}",
                          event.getClass().getName());
@@ -218,6 +387,59 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
             startWatchdog();
         }
 
+        // Lets the loop dispatch the events queued so far and then terminate.
+        void drain() {
+            add(DRAIN_PILL);
+            stopWatchdog();
+            executor.shutdown();
+        }
+
+        // Waits for the loop to terminate until the given System.nanoTime() deadline
+        void awaitTermination(long deadline) {
+            try {
+                long remaining = Math.max(deadline - System.nanoTime(), 0);
+                if (!executor.awaitTermination(remaining, TimeUnit.NANOSECONDS)) {
+                    log.warn("Dispatch loop({}) did not drain in time", name);
+                    stopped = true;
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stopped = true;
+                executor.shutdownNow();
+            }
+        }
+
+        // Retires the loop, handing the events still queued and any posted
+        // from now on over to the given dispatcher.
+        void handOver(Dispatcher successor) {
+            this.successor = successor;
+            handOver();
+        }
+
+        private synchronized void handOver() {
+            List<Event> events = new ArrayList<>();
+            eventsQueue.drainTo(events);
+            events.stream()
+                    .filter(event -> event != DRAIN_PILL && event != KILL_PILL)
+                    .forEach(successor::add);
+        }
+
+        void registerMetrics() {
+            MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+            metricsFeature = component.registerFeature(name);
+            dispatchTimer = metricsService.createTimer(component, metricsFeature, "dispatchLatency");
+            metricsService.registerMetric(component, metricsFeature, "queueDepth",
+                                          (Gauge<Integer>) eventsQueue::size);
+        }
+
+        void unregisterMetrics() {
+            MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+            metricsService.removeMetric(component, metricsFeature, "dispatchLatency");
+            metricsService.removeMetric(component, metricsFeature, "queueDepth");
+            dispatchTimer = null;
+        }
+
         // Monitors event sinks to make sure none take too long to execute.
         private class Watchdog extends TimerTask {
             @Override
@@ -29,6 +29,9 @@ public final class OsgiPropertyConstants {
     public static final String SHARED_THREAD_POOL_SIZE = "sharedThreadPoolSize";
     public static final int SHARED_THREAD_POOL_SIZE_DEFAULT = 30;
 
+    public static final String CED_NUM_SHARDS = "numShards";
+    public static final int CED_NUM_SHARDS_DEFAULT = 1;
+
     public static final String MAX_EVENT_TIME_LIMIT = "maxEventTimeLimit";
     public static final int MAX_EVENT_TIME_LIMIT_DEFAULT = 2000;
 
@@ -116,6 +119,9 @@ public final class OsgiPropertyConstants {
     public static final String IM_NUM_THREADS = "numThreads";
     public static final int IM_NUM_THREADS_DEFAULT = 12;
 
+    public static final String IM_MAX_BATCHES_IN_FLIGHT = "maxBatchesInFlight";
+    public static final int IM_MAX_BATCHES_IN_FLIGHT_DEFAULT = 1;
+
     public static final String MM_NUM_THREADS = "numThreads";
     public static final int MM_NUM_THREADS_DEFAULT = 12;
 
@@ -166,4 +172,7 @@ public final class OsgiPropertyConstants {
 
     public static final String IFOM_OBJ_TIMEOUT_MS = "objectiveTimeoutMs";
     public static final int IFOM_OBJ_TIMEOUT_MS_DEFAULT = 15000;
+
+    public static final String PSM_STATS_HISTORY_SIZE = "statsHistorySize";
+    public static final int PSM_STATS_HISTORY_SIZE_DEFAULT = 360;
 }
@@ -30,6 +30,8 @@ import org.onosproject.cluster.NodeId;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.core.CoreService;
 import org.onosproject.core.IdGenerator;
+import org.onosproject.mastership.MastershipEvent;
+import org.onosproject.mastership.MastershipListener;
 import org.onosproject.mastership.MastershipService;
 import org.onosproject.net.Device;
 import org.onosproject.net.DeviceId;
@@ -97,6 +99,7 @@ import static org.onosproject.net.OsgiPropertyConstants.PURGE_ON_DISCONNECTION;
 import static org.onosproject.net.OsgiPropertyConstants.PURGE_ON_DISCONNECTION_DEFAULT;
 import static org.onosproject.net.flow.FlowRuleEvent.Type.RULE_ADD_REQUESTED;
 import static org.onosproject.net.flow.FlowRuleEvent.Type.RULE_REMOVE_REQUESTED;
+import static org.onosproject.net.flow.FlowRuleEvent.Type.RULE_UPDATED;
 import static org.onosproject.security.AppGuard.checkPermission;
 import static org.onosproject.security.AppPermission.Type.FLOWRULE_READ;
 import static org.onosproject.security.AppPermission.Type.FLOWRULE_WRITE;
@@ -128,6 +131,9 @@ public class FlowRuleManager
     private static final String DEVICE_ID_NULL = "Device ID cannot be null";
     private static final String FLOW_RULE_NULL = "FlowRule cannot be null";
 
+    // Number of flow stats dumps of a device between two full reconciliations
+    private static final int FULL_RECONCILIATION_ROUNDS = 10;
+
     /** Allow flow rules in switch not installed by ONOS. */
     private boolean allowExtraneousRules = ALLOW_EXTRANEOUS_RULES_DEFAULT;
 
@@ -142,6 +148,7 @@ public class FlowRuleManager
 
     private final FlowRuleStoreDelegate delegate = new InternalStoreDelegate();
     private final DeviceListener deviceListener = new InternalDeviceListener();
+    private final MastershipListener mastershipListener = new InternalMastershipListener();
 
     private final FlowRuleDriverProvider driverProvider = new FlowRuleDriverProvider();
 
@@ -155,6 +162,8 @@ public class FlowRuleManager
 
     private final Map<Long, FlowOperationsProcessor> pendingFlowOperations = new ConcurrentHashMap<>();
 
+    private final FlowStatsIndex flowStatsIndex = new FlowStatsIndex(FULL_RECONCILIATION_ROUNDS);
+
     private NodeId local;
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
@@ -186,6 +195,7 @@ public class FlowRuleManager
         store.setDelegate(delegate);
         eventDispatcher.addSink(FlowRuleEvent.class, listenerRegistry);
         deviceService.addListener(deviceListener);
+        mastershipService.addListener(mastershipListener);
         cfgService.registerProperties(getClass());
         modified(context);
         idGenerator = coreService.getIdGenerator(FLOW_OP_TOPIC);
@@ -197,11 +207,13 @@ public class FlowRuleManager
     public void deactivate() {
         driverProvider.terminate();
         deviceService.removeListener(deviceListener);
+        mastershipService.removeListener(mastershipListener);
         cfgService.unregisterProperties(getClass(), false);
         deviceInstallers.shutdownNow();
         operationsService.shutdownNow();
         store.unsetDelegate(delegate);
         eventDispatcher.removeSink(FlowRuleEvent.class);
+        flowStatsIndex.clear();
         log.info("Stopped");
     }
 
@@ -322,6 +334,7 @@ public class FlowRuleManager
         checkPermission(FLOWRULE_WRITE);
         checkNotNull(deviceId, DEVICE_ID_NULL);
         store.purgeFlowRule(deviceId);
+        flowStatsIndex.clear(deviceId);
     }
 
     @Override
@@ -331,6 +344,7 @@ public class FlowRuleManager
         checkNotNull(appId, "Application ID cannot be null!");
 
         store.purgeFlowRules(deviceId, appId);
+        flowStatsIndex.clear(deviceId);
     }
 
     @Override
@@ -346,11 +360,7 @@ public class FlowRuleManager
 
         Set<FlowRule> flowEntries = Sets.newHashSet();
         for (Device d : deviceService.getDevices()) {
-            for (FlowEntry flowEntry : store.getFlowEntries(d.id())) {
-                if (flowEntry.appId() == id.id()) {
-                    flowEntries.add(flowEntry);
-                }
-            }
+            Iterables.addAll(flowEntries, store.getFlowEntriesById(d.id(), id));
         }
         removeFlowRules(Iterables.toArray(flowEntries, FlowRule.class));
     }
@@ -361,11 +371,7 @@ public class FlowRuleManager
 
         Set<FlowEntry> flowEntries = Sets.newHashSet();
         for (Device d : deviceService.getDevices()) {
-            for (FlowEntry flowEntry : store.getFlowEntries(d.id())) {
-                if (flowEntry.appId() == id.id()) {
-                    flowEntries.add(flowEntry);
-                }
-            }
+            Iterables.addAll(flowEntries, store.getFlowEntriesById(d.id(), id));
         }
         return flowEntries;
     }
@@ -377,7 +383,7 @@ public class FlowRuleManager
         Set<FlowRule> matches = Sets.newHashSet();
         long toLookUp = ((long) appId.id() << 16) | groupId;
         for (Device d : deviceService.getDevices()) {
-            for (FlowEntry flowEntry : store.getFlowEntries(d.id())) {
+            for (FlowEntry flowEntry : store.getFlowEntriesById(d.id(), appId)) {
                 if ((flowEntry.id().value() >>> 32) == toLookUp) {
                     matches.add(flowEntry);
                 }
@@ -456,6 +462,7 @@ public class FlowRuleManager
             checkValidity();
             lastSeen.remove(flowEntry);
             firstSeen.remove(flowEntry);
+            flowStatsIndex.invalidate(flowEntry);
             FlowEntry stored = store.getFlowEntry(flowEntry);
             if (stored == null) {
                 log.debug("Rule already evicted from store: {}", flowEntry);
@@ -489,6 +496,7 @@ public class FlowRuleManager
         private void flowMissing(FlowEntry flowRule, boolean isFlowOnlyInStore) {
             checkNotNull(flowRule, FLOW_RULE_NULL);
             checkValidity();
+            flowStatsIndex.invalidate(flowRule);
             FlowRuleProvider frp = getProvider(flowRule.deviceId());
             FlowRuleEvent event = null;
             switch (flowRule.state()) {
@@ -529,16 +537,17 @@ public class FlowRuleManager
         private void extraneousFlow(FlowRule flowRule) {
             checkNotNull(flowRule, FLOW_RULE_NULL);
             checkValidity();
+            flowStatsIndex.invalidate(flowRule);
             // getProvider is customized to favor driverProvider
             FlowRuleProvider frp = getProvider(flowRule.deviceId());
             frp.removeFlowRule(flowRule);
             log.debug("Flow {} is on switch but not in store.", flowRule);
         }
 
-        private boolean handleExistingFlow(FlowEntry flowEntry) {
+        private boolean handleExistingFlow(FlowEntry flowEntry, FlowEntry storedEntry,
+                                           FlowStatsIndex.DeviceIndex index, long invalidations) {
             checkNotNull(flowEntry, FLOW_RULE_NULL);
             checkValidity();
-            FlowEntry storedEntry = store.getFlowEntry(flowEntry);
             if (storedEntry != null) {
                 // Flow rule is still valid, let's try to update the stats
                 if (storedEntry.state() != FlowEntry.FlowEntryState.PENDING_REMOVE &&
@@ -554,6 +563,7 @@ public class FlowRuleManager
                         return false;
                     } else {
                         log.trace("Flow {} {}", flowEntry, event.type());
+                        index.synced(storedEntry, flowEntry, invalidations);
                         post(event);
                     }
                 } else if (storedEntry.state() == FlowEntry.FlowEntryState.PENDING_REMOVE) {
@@ -579,6 +589,11 @@ public class FlowRuleManager
             if (storedRule == null) {
                 return false;
             }
+            return checkRuleLiveness(storedRule, storedRule.packets() != swRule.packets() ||
+                    storedRule.bytes() != swRule.bytes());
+        }
+
+        private boolean checkRuleLiveness(FlowEntry storedRule, boolean active) {
             if (storedRule.isPermanent()) {
                 return true;
             }
@@ -600,7 +615,7 @@ public class FlowRuleManager
                 }
             }
 
-            if (storedRule.packets() != swRule.packets() || storedRule.bytes() != swRule.bytes()) {
+            if (active) {
                 lastSeen.put(storedRule, currentTime);
                 return true;
             }
@@ -618,12 +633,17 @@ public class FlowRuleManager
 
         @Override
         public void pushFlowMetrics(DeviceId deviceId, Iterable<FlowEntry> flowEntries) {
-            pushFlowMetricsInternal(deviceId, flowEntries, true);
+            pushFlowMetricsInternal(deviceId, flowEntries, true, true);
         }
 
         @Override
         public void pushFlowMetricsWithoutFlowMissing(DeviceId deviceId, Iterable<FlowEntry> flowEntries) {
-            pushFlowMetricsInternal(deviceId, flowEntries, false);
+            pushFlowMetricsInternal(deviceId, flowEntries, false, false);
+        }
+
+        @Override
+        public void pushFlowMetricsPart(DeviceId deviceId, Iterable<FlowEntry> flowEntries, boolean last) {
+            pushFlowMetricsInternal(deviceId, flowEntries, true, last);
         }
 
         private boolean shouldHandle(DeviceId deviceId) {
@@ -631,87 +651,158 @@ public class FlowRuleManager
             return Objects.equals(local, master) && deviceService.isAvailable(deviceId);
         }
 
+        /*
+         * Flow entries are reconciled with the store one dump of the device
+         * at a time; a dump starts with its first part and ends with its
+         * last part, once the stored entries it did not find are deemed
+         * missing. Entries in sync whose counters did not change since the
+         * previous dump are neither looked up nor updated in the store, and
+         * stored entries are only gone through when some of them were not
+         * found by the dump. The operations on the entries of the device all
+         * go through its master, which takes them out of sync; when the
+         * stored entries are gone through and some entries found by the dump
+         * are no longer stored, e.g. purged through another node, the index
+         * of the device is dropped. Every FULL_RECONCILIATION_ROUNDS dumps,
+         * all the entries are reconciled with the store. The stored life of
+         * the idle entries, whose counters are unchanged, thus lags behind
+         * the device by at most FULL_RECONCILIATION_ROUNDS polls, whereas the
+         * stats listeners are always told about the entries as reported.
+         */
         private void pushFlowMetricsInternal(DeviceId deviceId, Iterable<FlowEntry> flowEntries,
-                                             boolean useMissingFlow) {
-            Map<FlowEntry, FlowEntry> storedRules = Maps.newHashMap();
-            store.getFlowEntries(deviceId).forEach(f -> storedRules.put(f, f));
-            NodeId master;
-            boolean done;
-
-            // Processing flow rules
-            for (FlowEntry rule : flowEntries) {
-                try {
-                    FlowEntry storedRule = storedRules.remove(rule);
-                    if (storedRule != null) {
-                        if (storedRule.exactMatch(rule)) {
-                            // we both have the rule, let's update some info then.
-                            done = handleExistingFlow(rule);
-                            if (!done) {
-                                // Mastership change can occur during this iteration
-                                if (!shouldHandle(deviceId)) {
-                                    log.warn("Tried to update the flow stats while the node was not the master" +
-                                            " or the device {} was not available", deviceId);
-                                    return;
-                                }
-                            }
-                        } else {
-                            // Mastership change can occur during this iteration
-                            if (!shouldHandle(deviceId)) {
-                                log.warn("Tried to update the flows while the node was not the master" +
-                                        " or the device {} was not available", deviceId);
-                                return;
-                            }
-                            // the two rules are not an exact match - remove the
-                            // switch's rule and install our rule
-                            extraneousFlow(rule);
-                            flowMissing(storedRule, false);
-                        }
-                    } else {
-                        // the device has a rule the store does not have
-                        if (!allowExtraneousRules) {
+                                             boolean dump, boolean last) {
+            if (!shouldHandle(deviceId)) {
+                log.warn("Tried to update the flow stats while the node was not the master" +
+                                 " or the device {} was not available", deviceId);
+                flowStatsIndex.clear(deviceId);
+                return;
+            }
+            FlowStatsIndex.DeviceIndex index = flowStatsIndex.device(deviceId);
+            synchronized (index) {
+                if (dump && !index.isDumping()) {
+                    index.startDump();
+                }
+
+                // Processing flow rules
+                for (FlowEntry rule : flowEntries) {
+                    try {
+                        if (!reconcileFlow(deviceId, rule, index)) {
                             // Mastership change can occur during this iteration
-                            if (!shouldHandle(deviceId)) {
-                                log.warn("Tried to remove flows while the node was not the master" +
-                                        " or the device {} was not available", deviceId);
-                                return;
-                            }
-                            extraneousFlow(rule);
-                        } else if (importExtraneousRules) { // Stores the rule, if so is indicated
-                            FlowRuleEvent flowRuleEvent = store.addOrUpdateFlowRule(rule);
-                            if (flowRuleEvent == null) {
-                                // Mastership change can occur during this iteration
-                                if (!shouldHandle(deviceId)) {
-                                    log.warn("Tried to import flows while the node was not the master" +
-                                            " or the device {} was not available", deviceId);
-                                    return;
-                                }
-                            }
+                            flowStatsIndex.clear(deviceId);
+                            return;
                         }
+                    } catch (Exception e) {
+                        log.warn("Can't process added or extra rule {} for device {}:{}",
+                                 rule, deviceId, e);
                     }
-                } catch (Exception e) {
-                    log.warn("Can't process added or extra rule {} for device {}:{}",
-                             rule, deviceId, e);
+                }
+
+                // Only complete dumps tell which stored rules are missing
+                if (dump && last) {
+                    index.endDump();
+                    flowsMissing(deviceId, index);
                 }
             }
+        }
 
-            // DO NOT reinstall
-            if (useMissingFlow) {
-                for (FlowEntry rule : storedRules.keySet()) {
+        private boolean reconcileFlow(DeviceId deviceId, FlowEntry rule, FlowStatsIndex.DeviceIndex index) {
+            FlowEntry indexedRule = index.unchanged(rule);
+            if (indexedRule != null && checkRuleLiveness(indexedRule, false)) {
+                // Stored rule is in sync and idle, only the stats listeners
+                // are told about it
+                index.seen(indexedRule);
+                post(new FlowRuleEvent(RULE_UPDATED, rule));
+                return true;
+            }
+
+            long invalidations = index.invalidations();
+            FlowEntry storedRule = store.getFlowEntry(rule);
+            if (storedRule != null) {
+                index.seen(storedRule);
+                if (storedRule.exactMatch(rule)) {
+                    // we both have the rule, let's update some info then.
+                    boolean done = handleExistingFlow(rule, storedRule, index, invalidations);
+                    if (!done) {
+                        // Mastership change can occur during this iteration
+                        if (!shouldHandle(deviceId)) {
+                            log.warn("Tried to update the flow stats while the node was not the master" +
+                                    " or the device {} was not available", deviceId);
+                            return false;
+                        }
+                    }
+                } else {
                     // Mastership change can occur during this iteration
                     if (!shouldHandle(deviceId)) {
-                        log.warn("Tried to install missing rules while the node was not the master" +
+                        log.warn("Tried to update the flows while the node was not the master" +
                                 " or the device {} was not available", deviceId);
-                        return;
+                        return false;
                     }
-                    try {
-                        // there are rules in the store that aren't on the switch
-                        log.debug("Adding the rule that is present in store but not on switch : {}", rule);
-                        flowMissing(rule, true);
-                    } catch (Exception e) {
-                        log.warn("Can't add missing flow rule:", e);
+                    // the two rules are not an exact match - remove the
+                    // switch's rule and install our rule
+                    extraneousFlow(rule);
+                    flowMissing(storedRule, false);
+                }
+            } else {
+                // the device has a rule the store does not have
+                if (!allowExtraneousRules) {
+                    // Mastership change can occur during this iteration
+                    if (!shouldHandle(deviceId)) {
+                        log.warn("Tried to remove flows while the node was not the master" +
+                                " or the device {} was not available", deviceId);
+                        return false;
+                    }
+                    extraneousFlow(rule);
+                } else if (importExtraneousRules) { // Stores the rule, if so is indicated
+                    FlowRuleEvent flowRuleEvent = store.addOrUpdateFlowRule(rule);
+                    // the rule is now both stored and on the switch
+                    index.seen(rule);
+                    if (flowRuleEvent == null) {
+                        // Mastership change can occur during this iteration
+                        if (!shouldHandle(deviceId)) {
+                            log.warn("Tried to import flows while the node was not the master" +
+                                    " or the device {} was not available", deviceId);
+                            return false;
+                        }
                     }
                 }
             }
+            return true;
+        }
+
+        private void flowsMissing(DeviceId deviceId, FlowStatsIndex.DeviceIndex index) {
+            // Stores not counting their entries are always gone through
+            int seen = index.seenCount();
+            if (!index.isFullDump() && seen > 0 && store.getFlowRuleCount(deviceId) == seen) {
+                return;
+            }
+            List<FlowEntry> missingRules = Lists.newArrayList();
+            int found = 0;
+            for (FlowEntry rule : store.getFlowEntries(deviceId)) {
+                if (index.isSeen(rule)) {
+                    found++;
+                } else {
+                    missingRules.add(rule);
+                }
+            }
+            if (found < seen) {
+                // Entries were removed from the store behind the index, the
+                // next dump is reconciled in full
+                flowStatsIndex.clear(deviceId);
+            }
+            for (FlowEntry rule : missingRules) {
+                // Mastership change can occur during this iteration
+                if (!shouldHandle(deviceId)) {
+                    log.warn("Tried to install missing rules while the node was not the master" +
+                            " or the device {} was not available", deviceId);
+                    return;
+                }
+                try {
+                    // there are rules in the store that aren't on the switch
+                    log.debug("Adding the rule that is present in store but not on switch : {}", rule);
+                    flowMissing(rule, true);
+                } catch (Exception e) {
+                    log.warn("Can't add missing flow rule:", e);
+                }
+            }
         }
 
         @Override
@@ -743,6 +834,8 @@ public class FlowRuleManager
                     // Request has been forwarded to MASTER Node, and was
                     request.ops().forEach(
                             op -> {
+                                // Stats of the rule must be reconciled with the store again
+                                flowStatsIndex.invalidate(op.target());
                                 switch (op.operator()) {
                                     case ADD:
                                         post(new FlowRuleEvent(RULE_ADD_REQUESTED, op.target()));
@@ -993,6 +1086,15 @@ public class FlowRuleManager
         return builder.build();
     }
 
+    // Drops the index of the devices whose mastership changed, as this node
+    // did not see the operations on their rules while it was not the master
+    private class InternalMastershipListener implements MastershipListener {
+        @Override
+        public void event(MastershipEvent event) {
+            flowStatsIndex.clear(event.subject());
+        }
+    }
+
     private class InternalDeviceListener implements DeviceListener {
         @Override
         public void event(DeviceEvent event) {
@@ -1001,6 +1103,7 @@ public class FlowRuleManager
                 case DEVICE_AVAILABILITY_CHANGED:
                     DeviceId deviceId = event.subject().id();
                     if (!deviceService.isAvailable(deviceId)) {
+                        flowStatsIndex.clear(deviceId);
                         BasicDeviceConfig cfg = netCfgService.getConfig(deviceId, BasicDeviceConfig.class);
                         // if purgeOnDisconnection is set for the device or it's a global configuration
                         // lets remove the flows. Priority is given to the per device flag
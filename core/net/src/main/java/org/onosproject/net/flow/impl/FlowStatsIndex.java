@@ -0,0 +1,266 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.flow.impl;
+
+import com.google.common.collect.Maps;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowRule;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Index of the flow entries found on each device by the flow statistics
+ * dumps, so that reconciling a dump with the store only goes through the
+ * store for the entries which changed since the previous dump.
+ * <p>
+ * An entry is in sync when the store held it in the ADDED state with the
+ * counters the device last reported; entries are no longer in sync as soon
+ * as they are operated on. Every few dumps of a device, the index of the
+ * device is dropped and the dump is reconciled in full with the store.
+ */
+final class FlowStatsIndex {
+
+    private final Map<DeviceId, DeviceIndex> devices = Maps.newConcurrentMap();
+    private final int fullDumpRounds;
+
+    /**
+     * Creates a flow statistics index.
+     *
+     * @param fullDumpRounds number of dumps of a device between two dumps
+     *                       reconciled in full with the store
+     */
+    FlowStatsIndex(int fullDumpRounds) {
+        checkArgument(fullDumpRounds > 0, "Number of rounds must be positive");
+        this.fullDumpRounds = fullDumpRounds;
+    }
+
+    /**
+     * Returns the index of the given device, creating it if needed.
+     *
+     * @param deviceId device identifier
+     * @return device index
+     */
+    DeviceIndex device(DeviceId deviceId) {
+        return devices.computeIfAbsent(deviceId, d -> new DeviceIndex(fullDumpRounds));
+    }
+
+    /**
+     * Takes the given rule out of sync, if indexed.
+     *
+     * @param rule flow rule
+     */
+    void invalidate(FlowRule rule) {
+        DeviceIndex index = devices.get(rule.deviceId());
+        if (index != null) {
+            index.invalidate(rule);
+        }
+    }
+
+    /**
+     * Drops the index of the given device.
+     *
+     * @param deviceId device identifier
+     */
+    void clear(DeviceId deviceId) {
+        devices.remove(deviceId);
+    }
+
+    /**
+     * Drops the index of all the devices.
+     */
+    void clear() {
+        devices.clear();
+    }
+
+    /**
+     * Flow entries found on a device. Dumps of the device must be processed
+     * while holding the lock on its index.
+     */
+    static final class DeviceIndex {
+
+        private final Map<FlowRule, Entry> entries = Maps.newConcurrentMap();
+        private final AtomicLong invalidations = new AtomicLong();
+        private final int fullDumpRounds;
+
+        private long round;
+        private boolean dumping;
+        private boolean full;
+        private int seen;
+
+        private DeviceIndex(int fullDumpRounds) {
+            this.fullDumpRounds = fullDumpRounds;
+        }
+
+        /**
+         * Starts a new dump of the device.
+         */
+        void startDump() {
+            dumping = true;
+            full = round++ % fullDumpRounds == 0;
+            seen = 0;
+            if (full) {
+                entries.clear();
+            }
+        }
+
+        /**
+         * Ends the current dump of the device.
+         */
+        void endDump() {
+            dumping = false;
+        }
+
+        /**
+         * Returns whether a dump of the device was started and not ended.
+         *
+         * @return true if a dump is ongoing
+         */
+        boolean isDumping() {
+            return dumping;
+        }
+
+        /**
+         * Returns whether the current dump is reconciled in full with the store.
+         *
+         * @return true for a full dump
+         */
+        boolean isFullDump() {
+            return full;
+        }
+
+        /**
+         * Returns the number of stored entries found by the current dump.
+         *
+         * @return number of entries found
+         */
+        int seenCount() {
+            return seen;
+        }
+
+        /**
+         * Returns whether the current dump found the given stored entry.
+         *
+         * @param rule stored entry
+         * @return true if the entry was found
+         */
+        boolean isSeen(FlowRule rule) {
+            Entry entry = entries.get(rule);
+            return entry != null && entry.round == round;
+        }
+
+        /**
+         * Returns the indexed entry in sync with the given device entry,
+         * provided that its counters did not change since the previous dump.
+         *
+         * @param rule entry reported by the device
+         * @return stored entry, or null if the entry must be reconciled with
+         * the store
+         */
+        FlowEntry unchanged(FlowEntry rule) {
+            Entry entry = entries.get(rule);
+            if (entry == null || !entry.inSync ||
+                    entry.packets != rule.packets() || entry.bytes != rule.bytes() ||
+                    !entry.stored.exactMatch(rule)) {
+                return null;
+            }
+            return entry.stored;
+        }
+
+        /**
+         * Returns the number of entries taken out of sync so far, to be read
+         * before looking an entry up in the store.
+         *
+         * @return number of invalidations
+         */
+        long invalidations() {
+            return invalidations.get();
+        }
+
+        /**
+         * Records that the current dump found the given stored entry.
+         *
+         * @param stored stored entry
+         */
+        void seen(FlowEntry stored) {
+            Entry entry = entries.get(stored);
+            if (entry == null) {
+                entries.put(stored, new Entry(stored, round));
+                seen++;
+            } else if (entry.round != round) {
+                entry.round = round;
+                seen++;
+            }
+        }
+
+        /**
+         * Records that the given stored entry is in sync with the entry
+         * reported by the device. The entry is left out of sync if any entry
+         * of the device was invalidated since the stored entry was looked up.
+         *
+         * @param stored        stored entry
+         * @param rule          entry reported by the device
+         * @param invalidations number of invalidations read before looking
+         *                      the stored entry up
+         */
+        void synced(FlowEntry stored, FlowEntry rule, long invalidations) {
+            Entry previous = entries.get(stored);
+            if (previous == null || previous.round != round) {
+                seen++;
+            }
+            // Replaces the entry as a modified rule keeps its key
+            Entry entry = new Entry(stored, round);
+            entry.sync(rule);
+            entries.put(stored, entry);
+            if (invalidations != this.invalidations.get()) {
+                entry.inSync = false;
+            }
+        }
+
+        private void invalidate(FlowRule rule) {
+            // Counted first, so that a concurrent synced() either sees the
+            // count change or has its entry taken out of sync below
+            invalidations.incrementAndGet();
+            Entry entry = entries.get(rule);
+            if (entry != null) {
+                entry.inSync = false;
+            }
+        }
+    }
+
+    // Stored entry along with the counters last reported by the device
+    private static final class Entry {
+        private final FlowEntry stored;
+        private long round;
+        private long packets;
+        private long bytes;
+        private volatile boolean inSync;
+
+        private Entry(FlowEntry stored, long round) {
+            this.stored = stored;
+            this.round = round;
+        }
+
+        private void sync(FlowEntry rule) {
+            packets = rule.packets();
+            bytes = rule.bytes();
+            inSync = true;
+        }
+    }
+}
@@ -15,7 +15,13 @@
  */
 package org.onosproject.net.intent.impl;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.Tools;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.core.ApplicationId;
@@ -69,7 +75,9 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -77,6 +85,8 @@ import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
 import static org.onlab.util.Tools.groupedThreads;
+import static org.onosproject.net.OsgiPropertyConstants.IM_MAX_BATCHES_IN_FLIGHT;
+import static org.onosproject.net.OsgiPropertyConstants.IM_MAX_BATCHES_IN_FLIGHT_DEFAULT;
 import static org.onosproject.net.OsgiPropertyConstants.IM_NUM_THREADS;
 import static org.onosproject.net.OsgiPropertyConstants.IM_NUM_THREADS_DEFAULT;
 import static org.onosproject.net.OsgiPropertyConstants.IM_SKIP_RELEASE_RESOURCES_ON_WITHDRAWAL;
@@ -104,7 +114,8 @@ import static org.slf4j.LoggerFactory.getLogger;
     },
     property = {
         IM_SKIP_RELEASE_RESOURCES_ON_WITHDRAWAL + ":Boolean=" + IM_SKIP_RELEASE_RESOURCES_ON_WITHDRAWAL_DEFAULT,
-        IM_NUM_THREADS + ":Integer=" + IM_NUM_THREADS_DEFAULT
+        IM_NUM_THREADS + ":Integer=" + IM_NUM_THREADS_DEFAULT,
+        IM_MAX_BATCHES_IN_FLIGHT + ":Integer=" + IM_MAX_BATCHES_IN_FLIGHT_DEFAULT
     }
 )
 public class IntentManager
@@ -116,6 +127,9 @@ public class IntentManager
     private static final String INTENT_NULL = "Intent cannot be null";
     private static final String INTENT_ID_NULL = "Intent key cannot be null";
 
+    private static final String METRICS_COMPONENT = "Intent";
+    private static final String METRICS_FEATURE = "Batch";
+
     private static final EnumSet<IntentState> RECOMPILE
             = EnumSet.of(INSTALL_REQ, FAILED, WITHDRAW_REQ);
     private static final EnumSet<IntentState> WITHDRAW
@@ -127,6 +141,9 @@ public class IntentManager
     /** Number of worker threads. */
     private int numThreads = IM_NUM_THREADS_DEFAULT;
 
+    /** Maximum number of intent batches processed concurrently; batches are pipelined when greater than 1. */
+    private int maxBatchesInFlight = IM_MAX_BATCHES_IN_FLIGHT_DEFAULT;
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected CoreService coreService;
 
@@ -157,6 +174,9 @@ public class IntentManager
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     private NetworkConfigService networkConfigService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MetricsService metricsService;
+
     private ExecutorService batchExecutor;
     private ExecutorService workerExecutor;
 
@@ -170,6 +190,16 @@ public class IntentManager
     private InstallCoordinator installCoordinator;
     private IdGenerator idGenerator;
 
+    // Tail of the processing of each intent key, used to order pipelined batches on a per-key basis
+    private final Map<Key, CompletableFuture<Void>> pipelineTails = new ConcurrentHashMap<>();
+    private final AtomicInteger batchesInFlight = new AtomicInteger();
+    // Whether the accumulator may dispatch another batch; it is ready from the start
+    private boolean batchPermitted = true;
+    private final AtomicInteger intentsInFlight = new AtomicInteger();
+    private MetricsComponent metricsComponent;
+    private MetricsFeature metricsFeature;
+    private Meter processedIntents;
+
     private final IntentAccumulator accumulator = new IntentAccumulator(batchDelegate);
 
     @Activate
@@ -188,6 +218,7 @@ public class IntentManager
         Intent.unbindIdGenerator(idGenerator);
         Intent.bindIdGenerator(idGenerator);
         installCoordinator = new InstallCoordinator(installerRegistry, store);
+        registerMetrics();
         log.info("Started");
     }
 
@@ -204,6 +235,7 @@ public class IntentManager
         batchExecutor.shutdown();
         workerExecutor.shutdown();
         Intent.unbindIdGenerator(idGenerator);
+        unregisterMetrics();
         log.info("Stopped");
     }
 
@@ -240,6 +272,29 @@ public class IntentManager
             }
             logConfig("Reconfigured number of worker threads");
         }
+
+        s = Tools.get(context.getProperties(), IM_MAX_BATCHES_IN_FLIGHT);
+        int newMaxBatchesInFlight = isNullOrEmpty(s) ? maxBatchesInFlight : Integer.parseInt(s);
+        if (newMaxBatchesInFlight != maxBatchesInFlight && newMaxBatchesInFlight > 0) {
+            maxBatchesInFlight = newMaxBatchesInFlight;
+            log.info("Reconfigured maximum number of batches in flight to {}", maxBatchesInFlight);
+        }
+    }
+
+    private void registerMetrics() {
+        metricsComponent = metricsService.registerComponent(METRICS_COMPONENT);
+        metricsFeature = metricsComponent.registerFeature(METRICS_FEATURE);
+        processedIntents = metricsService.createMeter(metricsComponent, metricsFeature, "processedIntents");
+        metricsService.registerMetric(metricsComponent, metricsFeature, "batchesInFlight",
+                                      (Gauge<Integer>) batchesInFlight::get);
+        metricsService.registerMetric(metricsComponent, metricsFeature, "intentsInFlight",
+                                      (Gauge<Integer>) intentsInFlight::get);
+    }
+
+    private void unregisterMetrics() {
+        metricsService.removeMetric(metricsComponent, metricsFeature, "processedIntents");
+        metricsService.removeMetric(metricsComponent, metricsFeature, "batchesInFlight");
+        metricsService.removeMetric(metricsComponent, metricsFeature, "intentsInFlight");
     }
 
     private void logConfig(String prefix) {
@@ -538,6 +593,12 @@ public class IntentManager
             log.debug("Execute {} operation(s).", operations.size());
             log.trace("Execute operations: {}", operations);
 
+            if (maxBatchesInFlight > 1) {
+                executePipelined(operations);
+                return;
+            }
+
+            batchStarted(operations);
             // batchExecutor is single-threaded, so only one batch is in flight at a time
             CompletableFuture.runAsync(() -> {
                 // process intent until the phase reaches one of the final phases
@@ -550,25 +611,7 @@ public class IntentManager
                                 .thenApply(IntentManager.this::createInitialPhase)
                                 .thenApplyAsync(IntentProcessPhase::process, workerExecutor)
                                 .thenApply(FinalIntentProcessPhase::data)
-                                .exceptionally(e -> {
-                                    // When the future fails, we update the Intent to simulate the failure of
-                                    // the installation/withdrawal phase and we save in the current map. In
-                                    // the next round the CleanUp Thread will pick this Intent again.
-                                    log.warn("Future failed", e);
-                                    log.warn("Intent {} - state {} - request {}",
-                                             x.key(), x.state(), x.request());
-                                    switch (x.state()) {
-                                        case INSTALL_REQ:
-                                        case INSTALLING:
-                                        case WITHDRAW_REQ:
-                                        case WITHDRAWING:
-                                            // TODO should we swtich based on current
-                                            IntentData current = store.getIntentData(x.key());
-                                            return IntentData.nextState(current, FAILED);
-                                        default:
-                                            return null;
-                                    }
-                                }))
+                                .exceptionally(e -> failedData(x, e)))
                         .collect(Collectors.toList());
 
                 // write multiple data to store in order
@@ -584,8 +627,101 @@ public class IntentManager
                 // TODO: maybe we should do more?
                 log.error("Walk the plank, matey...");
                 return null;
-            }).thenRun(accumulator::ready);
+            }).thenRun(() -> {
+                batchCompleted(operations);
+                permitBatch();
+            });
+
+        }
 
+        /**
+         * Processes the given batch without waiting for the previous batches
+         * to complete, so that the compilation and installation of a batch
+         * overlap with the store write of the previous ones. Operations on an
+         * intent key still wait for the previous batch operation on the same
+         * key to be written to the store.
+         *
+         * @param operations intent operations
+         */
+        private void executePipelined(Collection<IntentData> operations) {
+            batchStarted(operations);
+            CompletableFuture<Void> written = new CompletableFuture<>();
+            List<CompletableFuture<IntentData>> futures = Lists.newArrayListWithCapacity(operations.size());
+            for (IntentData data : operations) {
+                log.debug("Start processing of {} {}@{}", data.request(), data.key(), data.version());
+                CompletableFuture<Void> previous = pipelineTails.put(data.key(), written);
+                CompletableFuture<Void> start = previous != null ? previous : CompletableFuture.completedFuture(null);
+                futures.add(start.thenApplyAsync(v -> IntentProcessPhase.process(createInitialPhase(data)),
+                                                 workerExecutor)
+                                    .thenApply(FinalIntentProcessPhase::data)
+                                    .exceptionally(e -> failedData(data, e)));
+            }
+
+            // writes are serialized on the batch executor, which is otherwise idle in pipelined mode
+            Tools.allOf(futures).thenAcceptAsync(results -> store.batchWrite(results.stream()
+                                                          .filter(Objects::nonNull)
+                                                          .collect(Collectors.toList())), batchExecutor)
+                    .whenComplete((r, e) -> {
+                        if (e != null) {
+                            log.error("Error writing batch:", e);
+                        }
+                        operations.forEach(data -> pipelineTails.remove(data.key(), written));
+                        written.complete(null);
+                        batchCompleted(operations);
+                        permitBatch();
+                    });
+
+            permitBatch();
+        }
+
+        private void batchStarted(Collection<IntentData> operations) {
+            synchronized (IntentManager.this) {
+                batchPermitted = false;
+                batchesInFlight.incrementAndGet();
+            }
+            intentsInFlight.addAndGet(operations.size());
+        }
+
+        private void batchCompleted(Collection<IntentData> operations) {
+            intentsInFlight.addAndGet(-operations.size());
+            processedIntents.mark(operations.size());
+            batchesInFlight.decrementAndGet();
+        }
+
+        /**
+         * Lets the accumulator dispatch another batch, unless it already may
+         * or the maximum number of batches is in flight. The batch permitted
+         * counts against the maximum until it starts, so that batches started
+         * and completed concurrently do not let more batches through.
+         */
+        private void permitBatch() {
+            synchronized (IntentManager.this) {
+                if (batchPermitted || batchesInFlight.get() >= maxBatchesInFlight) {
+                    return;
+                }
+                batchPermitted = true;
+            }
+            accumulator.ready();
+        }
+
+        private IntentData failedData(IntentData data, Throwable e) {
+            // When the future fails, we update the Intent to simulate the failure of
+            // the installation/withdrawal phase and we save in the current map. In
+            // the next round the CleanUp Thread will pick this Intent again.
+            log.warn("Future failed", e);
+            log.warn("Intent {} - state {} - request {}",
+                     data.key(), data.state(), data.request());
+            switch (data.state()) {
+                case INSTALL_REQ:
+                case INSTALLING:
+                case WITHDRAW_REQ:
+                case WITHDRAWING:
+                    // TODO should we swtich based on current
+                    IntentData current = store.getIntentData(data.key());
+                    return IntentData.nextState(current, FAILED);
+                default:
+                    return null;
+            }
         }
     }
 
@@ -17,6 +17,13 @@ package org.onosproject.net.packet.impl;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.primitives.Shorts;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.IPacket;
+import org.onlab.packet.IPv4;
+import org.onlab.packet.IPv6;
+import org.onlab.packet.TCP;
+import org.onlab.packet.UDP;
 import org.onlab.util.ItemNotFoundException;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.NodeId;
@@ -29,9 +36,15 @@ import org.onosproject.net.device.DeviceListener;
 import org.onosproject.net.device.DeviceService;
 import org.onosproject.net.driver.Driver;
 import org.onosproject.net.driver.DriverService;
+import org.onosproject.net.flow.DefaultTrafficSelector;
 import org.onosproject.net.flow.DefaultTrafficTreatment;
 import org.onosproject.net.flow.TrafficSelector;
 import org.onosproject.net.flow.TrafficTreatment;
+import org.onosproject.net.flow.criteria.Criterion;
+import org.onosproject.net.flow.criteria.EthTypeCriterion;
+import org.onosproject.net.flow.criteria.IPProtocolCriterion;
+import org.onosproject.net.flow.criteria.TcpPortCriterion;
+import org.onosproject.net.flow.criteria.UdpPortCriterion;
 import org.onosproject.net.flowobjective.DefaultForwardingObjective;
 import org.onosproject.net.flowobjective.FlowObjectiveService;
 import org.onosproject.net.flowobjective.ForwardingObjective;
@@ -64,13 +77,16 @@ import org.onosproject.net.packet.PacketInFilter.FilterAction;
 import org.slf4j.Logger;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
 
 
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.onlab.util.Tools.groupedThreads;
 import static org.onosproject.security.AppGuard.checkPermission;
@@ -120,6 +136,7 @@ public class PacketManager
     private final DeviceListener deviceListener = new InternalDeviceListener();
 
     private final List<ProcessorEntry> processors = Lists.newCopyOnWriteArrayList();
+    private volatile ProcessorIndex processorIndex = new ProcessorIndex(ImmutableList.of());
 
     private final PacketDriverProvider defaultProvider = new PacketDriverProvider();
 
@@ -167,9 +184,15 @@ public class PacketManager
 
     @Override
     public void addProcessor(PacketProcessor processor, int priority) {
+        addProcessor(processor, priority, DefaultTrafficSelector.emptySelector());
+    }
+
+    @Override
+    public synchronized void addProcessor(PacketProcessor processor, int priority, TrafficSelector selector) {
         checkPermission(PACKET_EVENT);
         checkNotNull(processor, ERROR_NULL_PROCESSOR);
-        ProcessorEntry entry = new ProcessorEntry(processor, priority);
+        checkNotNull(selector, ERROR_NULL_SELECTOR);
+        ProcessorEntry entry = new ProcessorEntry(processor, priority, selector);
 
         // Insert the new processor according to its priority.
         int i = 0;
@@ -179,10 +202,11 @@ public class PacketManager
             }
         }
         processors.add(i, entry);
+        processorIndex = new ProcessorIndex(processors);
     }
 
     @Override
-    public void removeProcessor(PacketProcessor processor) {
+    public synchronized void removeProcessor(PacketProcessor processor) {
         checkPermission(PACKET_EVENT);
         checkNotNull(processor, ERROR_NULL_PROCESSOR);
 
@@ -193,6 +217,7 @@ public class PacketManager
                 break;
             }
         }
+        processorIndex = new ProcessorIndex(processors);
     }
 
     @Override
@@ -475,8 +500,13 @@ public class PacketManager
                 }
                 return;
             }
-            // TODO filter packets sent to processors based on registrations
-            for (ProcessorEntry entry : processors) {
+            // The frame is parsed once and shared by the processors; only
+            // those whose selector matches the packet are given it.
+            Ethernet eth = context.inPacket().parsed();
+            for (ProcessorEntry entry : processorIndex.entries(eth)) {
+                if (!entry.matches(eth)) {
+                    continue;
+                }
                 try {
                     if (log.isTraceEnabled()) {
                         log.trace("Starting packet processing by {}",
@@ -578,18 +608,120 @@ public class PacketManager
         }
     }
 
+    /**
+     * Immutable index of the packet processors by the ethernet type of the
+     * packets they are interested in.
+     */
+    private static final class ProcessorIndex {
+        // Processors interested in any ethernet type, in priority order
+        private final ProcessorEntry[] wildcard;
+        // Processors interested in each indexed ethernet type, including
+        // the wildcard ones, in priority order
+        private final short[] ethTypes;
+        private final ProcessorEntry[][] entries;
+
+        ProcessorIndex(List<ProcessorEntry> processors) {
+            wildcard = processors.stream()
+                    .filter(entry -> entry.ethType == null)
+                    .toArray(ProcessorEntry[]::new);
+            ethTypes = Shorts.toArray(processors.stream()
+                    .map(entry -> entry.ethType)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .collect(Collectors.toList()));
+            entries = new ProcessorEntry[ethTypes.length][];
+            for (int i = 0; i < ethTypes.length; i++) {
+                short ethType = ethTypes[i];
+                entries[i] = processors.stream()
+                        .filter(entry -> entry.ethType == null || entry.ethType == ethType)
+                        .toArray(ProcessorEntry[]::new);
+            }
+        }
+
+        /**
+         * Returns the processors possibly interested in the given frame.
+         *
+         * @param eth parsed frame, null if it could not be parsed
+         * @return processor entries, in priority order
+         */
+        ProcessorEntry[] entries(Ethernet eth) {
+            if (eth != null) {
+                // Few ethernet types are expected, a linear scan is cheaper than hashing
+                short ethType = eth.getEtherType();
+                for (int i = 0; i < ethTypes.length; i++) {
+                    if (ethTypes[i] == ethType) {
+                        return entries[i];
+                    }
+                }
+            }
+            return wildcard;
+        }
+    }
+
     /**
      * Entity for tracking stats for a packet processor.
      */
     private class ProcessorEntry implements PacketProcessorEntry {
         private final PacketProcessor processor;
         private final int priority;
+        private final TrafficSelector selector;
         private long invocations = 0;
         private long nanos = 0;
 
-        public ProcessorEntry(PacketProcessor processor, int priority) {
+        // Fields of the selector, null when not constrained
+        private final Short ethType;
+        private final Short ipProto;
+        private final Integer tcpSrc;
+        private final Integer tcpDst;
+        private final Integer udpSrc;
+        private final Integer udpDst;
+        private final boolean matchesAnyIp;
+
+        public ProcessorEntry(PacketProcessor processor, int priority, TrafficSelector selector) {
             this.processor = processor;
             this.priority = priority;
+            this.selector = selector;
+
+            Short eth = null;
+            Short proto = null;
+            Integer tcpSrcPort = null;
+            Integer tcpDstPort = null;
+            Integer udpSrcPort = null;
+            Integer udpDstPort = null;
+            for (Criterion criterion : selector.criteria()) {
+                switch (criterion.type()) {
+                    case ETH_TYPE:
+                        eth = ((EthTypeCriterion) criterion).ethType().toShort();
+                        break;
+                    case IP_PROTO:
+                        proto = ((IPProtocolCriterion) criterion).protocol();
+                        break;
+                    case TCP_SRC:
+                        tcpSrcPort = ((TcpPortCriterion) criterion).tcpPort().toInt();
+                        break;
+                    case TCP_DST:
+                        tcpDstPort = ((TcpPortCriterion) criterion).tcpPort().toInt();
+                        break;
+                    case UDP_SRC:
+                        udpSrcPort = ((UdpPortCriterion) criterion).udpPort().toInt();
+                        break;
+                    case UDP_DST:
+                        udpDstPort = ((UdpPortCriterion) criterion).udpPort().toInt();
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unsupported packet processor criterion " + criterion);
+                }
+            }
+            checkArgument((tcpSrcPort == null && tcpDstPort == null) || (udpSrcPort == null && udpDstPort == null),
+                          "Packet processor cannot match both TCP and UDP ports");
+            this.ethType = eth;
+            this.ipProto = proto;
+            this.tcpSrc = tcpSrcPort;
+            this.tcpDst = tcpDstPort;
+            this.udpSrc = udpSrcPort;
+            this.udpDst = udpDstPort;
+            this.matchesAnyIp = proto == null && tcpSrcPort == null && tcpDstPort == null &&
+                    udpSrcPort == null && udpDstPort == null;
         }
 
         @Override
@@ -602,6 +734,57 @@ public class PacketManager
             return priority;
         }
 
+        @Override
+        public TrafficSelector selector() {
+            return selector;
+        }
+
+        /**
+         * Returns whether the processor is interested in the given frame,
+         * knowing that it has a matching ethernet type.
+         *
+         * @param eth parsed frame, null if it could not be parsed
+         * @return true if the processor should process the frame
+         */
+        boolean matches(Ethernet eth) {
+            if (matchesAnyIp) {
+                return true;
+            }
+            if (eth == null) {
+                return false;
+            }
+            IPacket ip = eth.getPayload();
+            byte protocol;
+            if (ip instanceof IPv4) {
+                protocol = ((IPv4) ip).getProtocol();
+            } else if (ip instanceof IPv6) {
+                protocol = ((IPv6) ip).getNextHeader();
+            } else {
+                return false;
+            }
+            if (ipProto != null && (protocol & 0xff) != ipProto) {
+                return false;
+            }
+            IPacket l4 = ip.getPayload();
+            if (tcpSrc != null || tcpDst != null) {
+                if (!(l4 instanceof TCP)) {
+                    return false;
+                }
+                TCP tcp = (TCP) l4;
+                return (tcpSrc == null || tcp.getSourcePort() == tcpSrc) &&
+                        (tcpDst == null || tcp.getDestinationPort() == tcpDst);
+            }
+            if (udpSrc != null || udpDst != null) {
+                if (!(l4 instanceof UDP)) {
+                    return false;
+                }
+                UDP udp = (UDP) l4;
+                return (udpSrc == null || udp.getSourcePort() == udpSrc) &&
+                        (udpDst == null || udp.getDestinationPort() == udpDst);
+            }
+            return true;
+        }
+
         @Override
         public long invocations() {
             return invocations;
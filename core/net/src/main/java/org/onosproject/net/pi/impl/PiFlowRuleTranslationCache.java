@@ -0,0 +1,220 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.net.pi.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.onosproject.net.flow.TrafficSelector;
+import org.onosproject.net.flow.TrafficTreatment;
+import org.onosproject.net.pi.model.PiPipeconfId;
+import org.onosproject.net.pi.model.PiTableId;
+import org.onosproject.net.pi.runtime.PiMatchKey;
+import org.onosproject.net.pi.runtime.PiTableAction;
+import org.onosproject.net.pi.service.PiTranslationException;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Bounded cache of the translations of flow rule selectors and treatments,
+ * so that flow rules sharing the same selector or treatment for the same
+ * table do not go through the interpreter and the pipeline model checks
+ * again.
+ * <p>
+ * Translations are scoped by pipeconf; those of a pipeconf have to be
+ * invalidated when it is registered again, e.g. with a new model. Interpreters
+ * are expected to map selectors and treatments the same way for all the
+ * devices using a pipeconf. Failed translations are not cached.
+ */
+final class PiFlowRuleTranslationCache {
+
+    private final Cache<Key, TranslatedSelector> selectors;
+    private final Cache<Key, Optional<PiTableAction>> treatments;
+
+    /**
+     * Creates a cache holding at most the given number of selector and
+     * treatment translations each.
+     *
+     * @param maxSize maximum number of translations of each kind
+     */
+    PiFlowRuleTranslationCache(long maxSize) {
+        this.selectors = CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
+        this.treatments = CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
+    }
+
+    /**
+     * Returns the translation of the given selector, computing it if absent.
+     *
+     * @param pipeconfId  pipeconf ID
+     * @param tableId     PI table ID
+     * @param selector    traffic selector
+     * @param translation translates the selector
+     * @return translated selector
+     * @throws PiTranslationException if the selector cannot be translated
+     */
+    TranslatedSelector selector(PiPipeconfId pipeconfId, PiTableId tableId, TrafficSelector selector,
+                                Translation<TranslatedSelector> translation)
+            throws PiTranslationException {
+        return get(selectors, new Key(pipeconfId, tableId, selector), translation);
+    }
+
+    /**
+     * Returns the translation of the given treatment, computing it if absent.
+     *
+     * @param pipeconfId  pipeconf ID
+     * @param tableId     PI table ID
+     * @param treatment   traffic treatment
+     * @param translation translates the treatment
+     * @return PI table action, or null if the treatment translates to no action
+     * @throws PiTranslationException if the treatment cannot be translated
+     */
+    PiTableAction treatment(PiPipeconfId pipeconfId, PiTableId tableId, TrafficTreatment treatment,
+                            Translation<PiTableAction> translation)
+            throws PiTranslationException {
+        return get(treatments, new Key(pipeconfId, tableId, treatment),
+                   () -> Optional.ofNullable(translation.translate())).orElse(null);
+    }
+
+    /**
+     * Discards the translations of the given pipeconf.
+     *
+     * @param pipeconfId pipeconf ID
+     */
+    void invalidate(PiPipeconfId pipeconfId) {
+        selectors.asMap().keySet().removeIf(key -> key.pipeconfId.equals(pipeconfId));
+        treatments.asMap().keySet().removeIf(key -> key.pipeconfId.equals(pipeconfId));
+    }
+
+    /**
+     * Returns the statistics of the selector translations.
+     *
+     * @return selector cache statistics
+     */
+    CacheStats selectorStats() {
+        return selectors.stats();
+    }
+
+    /**
+     * Returns the statistics of the treatment translations.
+     *
+     * @return treatment cache statistics
+     */
+    CacheStats treatmentStats() {
+        return treatments.stats();
+    }
+
+    private static <V> V get(Cache<Key, V> cache, Key key, Translation<V> translation)
+            throws PiTranslationException {
+        try {
+            return cache.get(key, translation::translate);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof PiTranslationException) {
+                throw (PiTranslationException) e.getCause();
+            }
+            throw new PiTranslationException(e.getCause().getMessage());
+        } catch (UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Translation of a selector or treatment.
+     *
+     * @param <V> type of the translation
+     */
+    @FunctionalInterface
+    interface Translation<V> {
+        /**
+         * Translates the selector or treatment.
+         *
+         * @return the translation
+         * @throws PiTranslationException if the translation fails
+         */
+        V translate() throws PiTranslationException;
+    }
+
+    /**
+     * Match key translated from a selector, along with whether the table
+     * entry needs a priority.
+     */
+    static final class TranslatedSelector {
+        private final PiMatchKey matchKey;
+        private final boolean needPriority;
+
+        TranslatedSelector(PiMatchKey matchKey, boolean needPriority) {
+            this.matchKey = matchKey;
+            this.needPriority = needPriority;
+        }
+
+        PiMatchKey matchKey() {
+            return matchKey;
+        }
+
+        boolean needPriority() {
+            return needPriority;
+        }
+    }
+
+    // Selector or treatment translated for a table of a pipeconf
+    private static final class Key {
+        private final PiPipeconfId pipeconfId;
+        private final PiTableId tableId;
+        private final Object shape;
+
+        private Key(PiPipeconfId pipeconfId, PiTableId tableId, Object shape) {
+            this.pipeconfId = pipeconfId;
+            this.tableId = tableId;
+            this.shape = shape;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(pipeconfId, tableId, shape);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) obj;
+            return Objects.equals(this.pipeconfId, that.pipeconfId) &&
+                    Objects.equals(this.tableId, that.tableId) &&
+                    Objects.equals(this.shape, that.shape);
+        }
+
+        @Override
+        public String toString() {
+            return toStringHelper(this)
+                    .add("pipeconfId", pipeconfId)
+                    .add("tableId", tableId)
+                    .add("shape", shape)
+                    .toString();
+        }
+    }
+}
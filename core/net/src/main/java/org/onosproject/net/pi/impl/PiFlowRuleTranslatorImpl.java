@@ -27,6 +27,7 @@ import org.onosproject.net.flow.criteria.Criterion;
 import org.onosproject.net.flow.criteria.PiCriterion;
 import org.onosproject.net.flow.instructions.Instruction;
 import org.onosproject.net.flow.instructions.PiInstruction;
+import org.onosproject.net.pi.impl.PiFlowRuleTranslationCache.TranslatedSelector;
 import org.onosproject.net.pi.model.PiActionModel;
 import org.onosproject.net.pi.model.PiActionParamModel;
 import org.onosproject.net.pi.model.PiMatchFieldId;
@@ -92,6 +93,24 @@ final class PiFlowRuleTranslatorImpl {
      */
     static PiTableEntry translate(FlowRule rule, PiPipeconf pipeconf, Device device)
             throws PiTranslationException {
+        return translate(rule, pipeconf, device, null);
+    }
+
+    /**
+     * Returns a PI table entry equivalent to the given flow rule, for the given
+     * pipeconf and device, reusing the translations of the selector and
+     * treatment from the given cache, if any.
+     *
+     * @param rule     flow rule
+     * @param pipeconf pipeconf
+     * @param device   device
+     * @param cache    translation cache, or null to translate from scratch
+     * @return PI table entry
+     * @throws PiTranslationException if the flow rule cannot be translated
+     */
+    static PiTableEntry translate(FlowRule rule, PiPipeconf pipeconf, Device device,
+                                  PiFlowRuleTranslationCache cache)
+            throws PiTranslationException {
 
         PiPipelineModel pipelineModel = pipeconf.pipelineModel();
 
@@ -101,26 +120,21 @@ final class PiFlowRuleTranslatorImpl {
         final PiTableId piTableId = translateTableId(rule.table(), interpreter);
         final PiTableModel tableModel = getTableModel(piTableId, pipelineModel);
         // Translate selector.
-        final PiMatchKey piMatchKey;
-        final boolean needPriority;
-        if (rule.selector().criteria().isEmpty()) {
-            piMatchKey = PiMatchKey.EMPTY;
-            needPriority = false;
+        final TranslatedSelector translatedSelector;
+        final PiTableAction piTableAction;
+        if (cache == null) {
+            translatedSelector = translateSelector(rule.selector(), interpreter, tableModel);
+            piTableAction = translateTreatment(rule.treatment(), interpreter, piTableId, pipelineModel);
         } else {
-            final Collection<PiFieldMatch> fieldMatches = translateFieldMatches(
-                    interpreter, rule.selector(), tableModel);
-            piMatchKey = PiMatchKey.builder()
-                    .addFieldMatches(fieldMatches)
-                    .build();
-            // FIXME: P4Runtime limit
-            // Need to ignore priority if no TCAM lookup match field
-            needPriority = tableModel.matchFields().stream()
-                    .anyMatch(match -> match.matchType() == PiMatchType.TERNARY ||
-                            match.matchType() == PiMatchType.RANGE ||
-                            match.matchType() == PiMatchType.OPTIONAL);
+            translatedSelector = cache.selector(
+                    pipeconf.id(), piTableId, rule.selector(),
+                    () -> translateSelector(rule.selector(), interpreter, tableModel));
+            piTableAction = cache.treatment(
+                    pipeconf.id(), piTableId, rule.treatment(),
+                    () -> translateTreatment(rule.treatment(), interpreter, piTableId, pipelineModel));
         }
-        // Translate treatment.
-        final PiTableAction piTableAction = translateTreatment(rule.treatment(), interpreter, piTableId, pipelineModel);
+        final PiMatchKey piMatchKey = translatedSelector.matchKey();
+        final boolean needPriority = translatedSelector.needPriority();
 
         // Build PI entry.
         final PiTableEntry.Builder tableEntryBuilder = PiTableEntry.builder();
@@ -160,6 +174,27 @@ final class PiFlowRuleTranslatorImpl {
     }
 
 
+    private static TranslatedSelector translateSelector(TrafficSelector selector,
+                                                        PiPipelineInterpreter interpreter,
+                                                        PiTableModel tableModel)
+            throws PiTranslationException {
+        if (selector.criteria().isEmpty()) {
+            return new TranslatedSelector(PiMatchKey.EMPTY, false);
+        }
+        final Collection<PiFieldMatch> fieldMatches = translateFieldMatches(
+                interpreter, selector, tableModel);
+        final PiMatchKey piMatchKey = PiMatchKey.builder()
+                .addFieldMatches(fieldMatches)
+                .build();
+        // FIXME: P4Runtime limit
+        // Need to ignore priority if no TCAM lookup match field
+        final boolean needPriority = tableModel.matchFields().stream()
+                .anyMatch(match -> match.matchType() == PiMatchType.TERNARY ||
+                        match.matchType() == PiMatchType.RANGE ||
+                        match.matchType() == PiMatchType.OPTIONAL);
+        return new TranslatedSelector(piMatchKey, needPriority);
+    }
+
     /**
      * Returns a PI action equivalent to the given treatment, optionally using
      * the given interpreter. This method also checks that the produced PI table
@@ -16,6 +16,11 @@
 
 package org.onosproject.net.pi.impl;
 
+import com.codahale.metrics.Gauge;
+import com.google.common.cache.CacheStats;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onosproject.net.Device;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.device.DeviceService;
@@ -33,6 +38,9 @@ import org.onosproject.net.pi.service.PiGroupTranslationStore;
 import org.onosproject.net.pi.service.PiGroupTranslator;
 import org.onosproject.net.pi.service.PiMeterTranslationStore;
 import org.onosproject.net.pi.service.PiMeterTranslator;
+import org.onosproject.net.pi.service.PiPipeconfEvent;
+import org.onosproject.net.pi.service.PiPipeconfListener;
+import org.onosproject.net.pi.service.PiPipeconfService;
 import org.onosproject.net.pi.service.PiReplicationGroupTranslationStore;
 import org.onosproject.net.pi.service.PiReplicationGroupTranslator;
 import org.onosproject.net.pi.service.PiTranslationException;
@@ -45,6 +53,8 @@ import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.function.Supplier;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -55,11 +65,21 @@ public class PiTranslationServiceImpl implements PiTranslationService {
 
     private final Logger log = LoggerFactory.getLogger(this.getClass());
 
-    // TODO: implement cache to speed up translation.
+    private static final long FLOW_RULE_TRANSLATION_CACHE_SIZE = 10_000;
+    private static final String METRICS_COMPONENT = "PiTranslation";
+    private static final String METRICS_FEATURE = "flowRuleTranslationCache";
+    private static final String SELECTOR_HIT_RATE = "selectorHitRate";
+    private static final String TREATMENT_HIT_RATE = "treatmentHitRate";
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected DeviceService deviceService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MetricsService metricsService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected PiPipeconfService pipeconfService;
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     private PiFlowRuleTranslationStore flowRuleTranslationStore;
 
@@ -77,8 +97,15 @@ public class PiTranslationServiceImpl implements PiTranslationService {
     private PiReplicationGroupTranslator repGroupTranslator;
     private PiMeterTranslator meterTranslator;
 
+    // Translations of flow rule selectors and treatments shared by all pipeconfs
+    private PiFlowRuleTranslationCache flowRuleTranslationCache;
+    private final PiPipeconfListener pipeconfListener = new InternalPipeconfListener();
+
     @Activate
     public void activate() {
+        flowRuleTranslationCache = new PiFlowRuleTranslationCache(FLOW_RULE_TRANSLATION_CACHE_SIZE);
+        registerMetrics();
+        pipeconfService.addListener(pipeconfListener);
         flowRuleTranslator = new InternalFlowRuleTranslator(flowRuleTranslationStore);
         groupTranslator = new InternalGroupTranslator(groupTranslationStore);
         repGroupTranslator = new InternalReplicationGroupTranslator(repGroupTranslationStore);
@@ -88,6 +115,9 @@ public class PiTranslationServiceImpl implements PiTranslationService {
 
     @Deactivate
     public void deactivate() {
+        pipeconfService.removeListener(pipeconfListener);
+        unregisterMetrics();
+        flowRuleTranslationCache = null;
         flowRuleTranslator = null;
         groupTranslator = null;
         meterTranslator = null;
@@ -114,6 +144,38 @@ public class PiTranslationServiceImpl implements PiTranslationService {
         return repGroupTranslator;
     }
 
+    private void registerMetrics() {
+        MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+        MetricsFeature feature = component.registerFeature(METRICS_FEATURE);
+        PiFlowRuleTranslationCache cache = flowRuleTranslationCache;
+        metricsService.registerMetric(component, feature, SELECTOR_HIT_RATE,
+                                      hitRate(cache::selectorStats));
+        metricsService.registerMetric(component, feature, TREATMENT_HIT_RATE,
+                                      hitRate(cache::treatmentStats));
+    }
+
+    private void unregisterMetrics() {
+        MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+        MetricsFeature feature = component.registerFeature(METRICS_FEATURE);
+        metricsService.removeMetric(component, feature, SELECTOR_HIT_RATE);
+        metricsService.removeMetric(component, feature, TREATMENT_HIT_RATE);
+    }
+
+    private static Gauge<Double> hitRate(Supplier<CacheStats> stats) {
+        return () -> stats.get().hitRate();
+    }
+
+    // Translations made with a previous registration of a pipeconf may no longer hold
+    private class InternalPipeconfListener implements PiPipeconfListener {
+        @Override
+        public void event(PiPipeconfEvent event) {
+            PiFlowRuleTranslationCache cache = flowRuleTranslationCache;
+            if (cache != null) {
+                cache.invalidate(event.subject());
+            }
+        }
+    }
+
     private Device getDevice(DeviceId deviceId) throws PiTranslationException {
         final Device device = deviceService.getDevice(deviceId);
         if (device == null) {
@@ -136,7 +198,8 @@ public class PiTranslationServiceImpl implements PiTranslationService {
             checkNotNull(original);
             checkNotNull(pipeconf);
             return PiFlowRuleTranslatorImpl
-                    .translate(original, pipeconf, getDevice(original.deviceId()));
+                    .translate(original, pipeconf, getDevice(original.deviceId()),
+                               flowRuleTranslationCache);
         }
     }
 
@@ -20,7 +20,6 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import org.apache.commons.lang.math.RandomUtils;
 import org.onlab.packet.MplsLabel;
 import org.onlab.packet.VlanId;
@@ -29,9 +28,11 @@ import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.EncapsulationType;
 import org.onosproject.net.Link;
 import org.onosproject.net.LinkKey;
+import org.onosproject.net.resource.DiscreteResourceId;
 import org.onosproject.net.resource.Resource;
 import org.onosproject.net.resource.ResourceAllocation;
 import org.onosproject.net.resource.ResourceConsumer;
+import org.onosproject.net.resource.ResourceQueryService;
 import org.onosproject.net.resource.ResourceService;
 import org.onosproject.net.resource.Resources;
 import org.slf4j.Logger;
@@ -39,6 +40,7 @@ import org.slf4j.Logger;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -210,29 +212,26 @@ public final class LabelAllocator {
         return selection;
     }
 
-    // Given a link and a encapsulation type, returns a set of candidates
-    private Set<Identifier<?>> getCandidates(LinkKey link, EncapsulationType type) {
-        // Available ids on src port
-        Set<Identifier<?>> availableIDsatSrc = getAvailableIDs(link.src(), type);
-        // Available ids on dst port
-        Set<Identifier<?>> availableIDsatDst = getAvailableIDs(link.dst(), type);
-        // Create the candidate set doing an intersection of the previous sets
-        return Sets.intersection(availableIDsatSrc, availableIDsatDst);
+    // Given links and a encapsulation type, selects a label available on all their ports
+    private Identifier<?> selectCandidate(Collection<LinkKey> links, EncapsulationType type) {
+        return labelSelection.select(resourceService, getPorts(links), getEncapsulationClass(type));
+    }
+
+    // Given a link, checks if the label is available on both its ports
+    private boolean isCandidate(LinkKey link, Identifier<?> id) {
+        return resourceService.isAvailable(getPorts(ImmutableList.of(link)), id);
     }
 
     // Implements NONE behavior
     private Map<LinkKey, Identifier<?>> noOptimizeBehavior(Set<LinkKey> links, EncapsulationType type) {
         // Init step
         Map<LinkKey, Identifier<?>> ids = Maps.newHashMap();
-        Set<Identifier<?>> candidates;
         Identifier<?> selected;
-        // Iterates for each link selecting a label in the candidate set
+        // Iterates for each link selecting a label available on its ports
         for (LinkKey link : links) {
-            // Get candidates set for the current link
-            candidates = getCandidates(link, type);
             // Select a label for the current link
-            selected = labelSelection.select(candidates);
-            // If candidates is empty, selected is null
+            selected = selectCandidate(ImmutableList.of(link), type);
+            // If no label is available, selected is null
             if (selected == null) {
                 log.warn("No labels for {}", link);
                 return Collections.emptyMap();
@@ -249,21 +248,15 @@ public final class LabelAllocator {
                                                            Identifier<?> suggested) {
         // Init step
         Map<LinkKey, Identifier<?>> ids = Maps.newHashMap();
-        Set<Identifier<?>> candidates;
         Identifier<?> selected = null;
 
-        // Iterates for each link selecting a label in the candidate set
         // Select the suggested if available on the whole path
         for (LinkKey link : links) {
-            // Get candidates set for the current link
-            candidates = getCandidates(link, type);
-
-            // Select the suggested if included in the candidates
-            // Otherwise select an other label for the current link
-            if (candidates.contains(suggested)) {
+            // Select the suggested if available on the ports of the current link
+            if (isCandidate(link, suggested)) {
                 selected = suggested;
             } else {
-                // If candidates is empty or does not contain suggested
+                // If suggested is not available
                 log.warn("Suggested label {} is not available on link {}", suggested, link);
                 return Collections.emptyMap();
             }
@@ -277,23 +270,9 @@ public final class LabelAllocator {
     private Map<LinkKey, Identifier<?>> noSwapBehavior(Set<LinkKey> links, EncapsulationType type) {
         // Init steps
         Map<LinkKey, Identifier<?>> ids = Maps.newHashMap();
-        Identifier<?> selected;
-        Set<Identifier<?>> candidates = null;
-        Set<Identifier<?>> linkCandidates;
-        // Iterates for each link building the candidate set
-        for (LinkKey link : links) {
-            // Get candidates set for the current link
-            linkCandidates = getCandidates(link, type);
-            // Warm up
-            if (candidates == null) {
-                candidates = linkCandidates;
-            // Build step by step the intersection
-            } else {
-                candidates = Sets.intersection(candidates, linkCandidates);
-            }
-        }
-        // Pick a label according to the defined strategy
-        selected = labelSelection.select(candidates);
+        // Pick a label available on all the ports of the path
+        // according to the defined strategy
+        Identifier<?> selected = selectCandidate(links, type);
         if (selected == null) {
             // If there are no candidates, exit. This will throw a compile exception
             log.warn("No common label for path");
@@ -308,17 +287,14 @@ public final class LabelAllocator {
     private Map<LinkKey, Identifier<?>> minSwapBehavior(Set<LinkKey> links, EncapsulationType type) {
         // Init step
         Map<LinkKey, Identifier<?>> ids = Maps.newHashMap();
-        Set<Identifier<?>> candidates;
         Identifier<?> selected = null;
-        // Iterates for each link selecting a label in the candidate set
+        // Iterates for each link selecting a label available on its ports
         for (LinkKey link : links) {
-            // Get candidates set for the current link
-            candidates = getCandidates(link, type);
             // If we are in the first link or selected is not available
-            if (selected == null || !candidates.contains(selected)) {
+            if (selected == null || !isCandidate(link, selected)) {
                 // Select a label for the current link
-                selected = labelSelection.select(candidates);
-                // If candidates is empty, selected is null
+                selected = selectCandidate(ImmutableList.of(link), type);
+                // If no label is available, selected is null
                 if (selected == null) {
                     log.warn("No labels for {}", link);
                     return Collections.emptyMap();
@@ -372,16 +348,17 @@ public final class LabelAllocator {
     }
 
     /**
-     * Looks for available Ids associated to the given connection point.
+     * Returns the resource ids of the ports of the given links.
      *
-     * @param cp the connection point
-     * @param type the type of Id
-     * @return the set of available Ids
+     * @param links the links
+     * @return the resource ids of the connection points
      */
-    private Set<Identifier<?>> getAvailableIDs(ConnectPoint cp, EncapsulationType type) {
-        return resourceService.getAvailableResourceValues(
-                Resources.discrete(cp.deviceId(), cp.port()).id(), getEncapsulationClass(type)
-        );
+    private List<DiscreteResourceId> getPorts(Collection<LinkKey> links) {
+        return links.stream()
+                .flatMap(link -> Stream.of(link.src(), link.dst()))
+                .distinct()
+                .map(cp -> Resources.discrete(cp.deviceId(), cp.port()).id())
+                .collect(Collectors.toList());
     }
 
     /**
@@ -566,6 +543,21 @@ public final class LabelAllocator {
          */
         Identifier<?> select(Set<Identifier<?>> values);
 
+        /**
+         * Picks an identifier available on all the given ports. By default the
+         * available identifiers are retrieved and passed to {@link #select(Set)}.
+         *
+         * @param service the resource query service
+         * @param ports the resource ids of the ports
+         * @param cls the class of the identifiers
+         * @return the selected identifier if any is available, null otherwise
+         */
+        default Identifier<?> select(ResourceQueryService service, List<DiscreteResourceId> ports, Class<?> cls) {
+            Set<Identifier<?>> values = service.getAvailableResourceValues(ports, cls, Integer.MAX_VALUE).stream()
+                    .map(x -> (Identifier<?>) x)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            return select(values);
+        }
     }
 
     /**
@@ -589,6 +581,22 @@ public final class LabelAllocator {
             }
             return null;
         }
+
+        /**
+         * Selects an identifier available on the given ports using the random
+         * selection algorithm, without retrieving all the available identifiers.
+         *
+         * @param service the resource query service
+         * @param ports the resource ids of the ports
+         * @param cls the class of the identifiers
+         * @return the selected identifier if any is available, null otherwise
+         */
+        @Override
+        public Identifier<?> select(ResourceQueryService service, List<DiscreteResourceId> ports, Class<?> cls) {
+            return service.getRandomAvailableResourceValue(ports, cls)
+                    .map(x -> (Identifier<?>) x)
+                    .orElse(null);
+        }
     }
 
     /**
@@ -610,6 +618,23 @@ public final class LabelAllocator {
             }
             return null;
         }
+
+        /**
+         * Selects an identifier available on the given ports using the first
+         * fit selection algorithm, without retrieving all the available identifiers.
+         *
+         * @param service the resource query service
+         * @param ports the resource ids of the ports
+         * @param cls the class of the identifiers
+         * @return the selected identifier if any is available, null otherwise
+         */
+        @Override
+        public Identifier<?> select(ResourceQueryService service, List<DiscreteResourceId> ports, Class<?> cls) {
+            return service.getAvailableResourceValues(ports, cls, 1).stream()
+                    .findFirst()
+                    .map(x -> (Identifier<?>) x)
+                    .orElse(null);
+        }
     }
 
 }
@@ -40,9 +40,11 @@ import org.slf4j.Logger;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.onosproject.security.AppGuard.checkPermission;
 import static org.onosproject.security.AppPermission.Type.RESOURCE_READ;
@@ -189,6 +191,27 @@ public final class ResourceManager extends AbstractListenerManager<ResourceEvent
                 .collect(Collectors.toSet());
     }
 
+    @Override
+    public <T> List<T> getAvailableResourceValues(Collection<DiscreteResourceId> parents,
+                                                  Class<T> cls, int limit) {
+        checkPermission(RESOURCE_READ);
+        checkNotNull(parents);
+        checkNotNull(cls);
+        checkArgument(limit >= 0, "Limit must not be negative");
+
+        return store.getAvailableResourceValues(parents, cls, limit);
+    }
+
+    @Override
+    public <T> Optional<T> getRandomAvailableResourceValue(Collection<DiscreteResourceId> parents,
+                                                           Class<T> cls) {
+        checkPermission(RESOURCE_READ);
+        checkNotNull(parents);
+        checkNotNull(cls);
+
+        return store.getRandomAvailableResourceValue(parents, cls);
+    }
+
     @Override
     public Set<Resource> getRegisteredResources(DiscreteResourceId parent) {
         checkPermission(RESOURCE_READ);
@@ -205,6 +228,15 @@ public final class ResourceManager extends AbstractListenerManager<ResourceEvent
         return store.isAvailable(resource);
     }
 
+    @Override
+    public boolean isAvailable(Collection<DiscreteResourceId> parents, Object value) {
+        checkPermission(RESOURCE_READ);
+        checkNotNull(parents);
+        checkNotNull(value);
+
+        return store.isAvailable(parents, value);
+    }
+
     @Override
     public boolean register(List<? extends Resource> resources) {
         checkNotNull(resources);
@@ -17,7 +17,6 @@
 package org.onosproject.net.statistic.impl;
 
 import com.google.common.base.MoreObjects;
-import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableSet;
 import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.Device;
@@ -54,7 +53,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.onosproject.security.AppGuard.checkPermission;
@@ -343,14 +342,11 @@ public class FlowStatisticManager implements FlowStatisticService {
                                                              FlowEntry.FlowLiveType liveType,
                                                              Instruction.Type instType,
                                                              int topn) {
-        List<FlowEntryWithLoad> fel = loadAllPortInternal(cp, liveType, instType);
+        // null is all inst type
+        Predicate<FlowEntry> filter = instType == null ? fe -> true : hasInstructionType(instType);
 
-        // Sort with descending order of load
-        List<FlowEntryWithLoad> retFel =
-                fel.stream().sorted(Comparators.FLOWENTRY_WITHLOAD_COMPARATOR).
-                        limit(topn).collect(Collectors.toList());
-
-        return retFel;
+        // Flows ranked by the store in descending order of load
+        return statisticStore.getTopnStatistic(cp, liveType, filter, topn);
     }
 
     private long aggregateBytesSet(Set<FlowEntry> setFE) {
@@ -642,7 +638,7 @@ public class FlowStatisticManager implements FlowStatisticService {
     private static Predicate<FlowEntry> hasInstructionType(Instruction.Type instType) {
         return new Predicate<FlowEntry>() {
             @Override
-            public boolean apply(FlowEntry flowEntry) {
+            public boolean test(FlowEntry flowEntry) {
                 List<Instruction> allInstructions = flowEntry.treatment().allInstructions();
 
                 return allInstructions.stream().filter(i -> i.type() == instType).findAny().isPresent();
@@ -16,6 +16,7 @@
 package org.onosproject.net.statistic.impl;
 
 import com.google.common.collect.Maps;
+import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.net.statistic.PortStatisticsService;
 import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.DeviceId;
@@ -23,18 +24,27 @@ import org.onosproject.net.device.DeviceEvent;
 import org.onosproject.net.device.DeviceListener;
 import org.onosproject.net.device.DeviceService;
 import org.onosproject.net.device.PortStatistics;
-import org.onosproject.net.statistic.DefaultLoad;
 import org.onosproject.net.statistic.Load;
+import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 
+import java.time.Duration;
+import java.util.Dictionary;
 import java.util.Map;
-import java.util.stream.Collectors;
-
+import java.util.OptionalLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static org.onlab.util.Tools.get;
+import static org.onosproject.net.OsgiPropertyConstants.PSM_STATS_HISTORY_SIZE;
+import static org.onosproject.net.OsgiPropertyConstants.PSM_STATS_HISTORY_SIZE_DEFAULT;
 import static org.onosproject.net.device.DeviceEvent.Type.DEVICE_AVAILABILITY_CHANGED;
 import static org.onosproject.net.device.DeviceEvent.Type.DEVICE_REMOVED;
 import static org.onosproject.net.device.DeviceEvent.Type.PORT_STATS_UPDATED;
@@ -43,35 +53,78 @@ import static org.slf4j.LoggerFactory.getLogger;
 /**
  * Implementation of the port statistics service.
  */
-@Component(immediate = true, service = PortStatisticsService.class)
+@Component(
+        immediate = true,
+        service = PortStatisticsService.class,
+        property = {
+            PSM_STATS_HISTORY_SIZE + ":Integer=" + PSM_STATS_HISTORY_SIZE_DEFAULT
+        }
+)
 public class PortStatisticsManager implements PortStatisticsService {
 
     private final Logger log = getLogger(getClass());
 
     private static final long POLL_FREQUENCY = 10_000; // milliseconds
     private static final long STALE_LIMIT = (long) (1.5 * POLL_FREQUENCY);
-    private static final int SECOND = 1_000; // milliseconds
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected DeviceService deviceService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected ComponentConfigService cfgService;
+
+    // Histories grow up to this size as samples are recorded, so a port polled for an hour or more
+    // holds 14 KB of samples with the default size
+    /** Number of statistics samples kept per port, taking 40 bytes each; 360 samples span an hour. */
+    private volatile int statsHistorySize = PSM_STATS_HISTORY_SIZE_DEFAULT;
+
     private final DeviceListener deviceListener = new InternalDeviceListener();
 
-    private Map<ConnectPoint, DataPoint> current = Maps.newConcurrentMap();
-    private Map<ConnectPoint, DataPoint> previous = Maps.newConcurrentMap();
+    private final Map<ConnectPoint, PortStatsHistory> histories = Maps.newConcurrentMap();
 
     @Activate
-    public void activate() {
+    public void activate(ComponentContext context) {
+        cfgService.registerProperties(getClass());
+        modified(context);
         deviceService.addListener(deviceListener);
         log.info("Started");
     }
 
     @Deactivate
     public void deactivate() {
+        cfgService.unregisterProperties(getClass(), false);
         deviceService.removeListener(deviceListener);
+        histories.clear();
         log.info("Stopped");
     }
 
+    @Modified
+    public void modified(ComponentContext context) {
+        if (context == null) {
+            return;
+        }
+        Dictionary<?, ?> properties = context.getProperties();
+        int newStatsHistorySize;
+        try {
+            String s = get(properties, PSM_STATS_HISTORY_SIZE);
+            newStatsHistorySize = isNullOrEmpty(s) ? statsHistorySize : Integer.parseInt(s.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid {} value, keeping {}", PSM_STATS_HISTORY_SIZE, statsHistorySize);
+            newStatsHistorySize = statsHistorySize;
+        }
+        if (newStatsHistorySize < 2) {
+            log.warn("{} must be at least 2, keeping {}", PSM_STATS_HISTORY_SIZE, statsHistorySize);
+            newStatsHistorySize = statsHistorySize;
+        }
+        if (newStatsHistorySize != statsHistorySize) {
+            int size = newStatsHistorySize;
+            statsHistorySize = size;
+            // histories are resized in place, under their lock, not to lose concurrent samples
+            histories.values().forEach(history -> history.resize(size));
+            log.info("Configured. Port statistics history size is {}", statsHistorySize);
+        }
+    }
+
     @Override
     public Load load(ConnectPoint connectPoint) {
         return load(connectPoint, MetricType.BYTES);
@@ -79,37 +132,33 @@ public class PortStatisticsManager implements PortStatisticsService {
 
     @Override
     public Load load(ConnectPoint connectPoint, MetricType metricType) {
-        DataPoint c = current.get(connectPoint);
-        DataPoint p = previous.get(connectPoint);
-        long now = System.currentTimeMillis();
-
-        if (c != null && p != null && (now - c.time < STALE_LIMIT)) {
-            if (c.time > p.time + SECOND) {
-                long cve = getEgressValue(c.stats, metricType);
-                long cvi = getIngressValue(c.stats, metricType);
-                long pve = getEgressValue(p.stats, metricType);
-                long pvi = getIngressValue(p.stats, metricType);
-                //Use max of either Tx or Rx load as the total load of a port
-                Load load = null;
-                if (cve >= pve) {
-                    load = new DefaultLoad(cve, pve, (int) (c.time - p.time) / SECOND);
-                }
-                if (cvi >= pvi) {
-                    Load rcvLoad = new DefaultLoad(cvi, pvi, (int) (c.time - p.time) / SECOND);
-                    load = ((load == null) || (rcvLoad.rate() > load.rate())) ? rcvLoad : load;
-                }
-                return load;
-            }
+        PortStatsHistory history = histories.get(connectPoint);
+        if (history == null) {
+            return null;
         }
-        return null;
+        return history.load(metricType, System.currentTimeMillis(), STALE_LIMIT);
     }
 
-    private long getEgressValue(PortStatistics stats, MetricType metricType) {
-        return metricType == MetricType.BYTES ? stats.bytesSent() : stats.packetsSent();
+    @Override
+    public Load load(ConnectPoint connectPoint, MetricType metricType, Duration period) {
+        checkNotNull(period, "Period cannot be null");
+        PortStatsHistory history = histories.get(connectPoint);
+        if (history == null) {
+            return null;
+        }
+        return history.load(metricType, System.currentTimeMillis() - period.toMillis());
     }
 
-    private long getIngressValue(PortStatistics stats, MetricType metricType) {
-        return metricType == MetricType.BYTES ? stats.bytesReceived() : stats.packetsReceived();
+    @Override
+    public OptionalLong loadPercentile(ConnectPoint connectPoint, MetricType metricType,
+                                       Duration period, double percentile) {
+        checkNotNull(period, "Period cannot be null");
+        checkArgument(percentile >= 0 && percentile <= 100, "Percentile must be between 0 and 100");
+        PortStatsHistory history = histories.get(connectPoint);
+        if (history == null) {
+            return OptionalLong.empty();
+        }
+        return history.ratePercentile(metricType, System.currentTimeMillis() - period.toMillis(), percentile);
     }
 
     // Monitors port stats update messages.
@@ -133,44 +182,21 @@ public class PortStatisticsManager implements PortStatisticsService {
 
     // Updates the port stats for the specified device
     private void updateDeviceData(DeviceId deviceId) {
+        long time = System.currentTimeMillis();
         deviceService.getPortStatistics(deviceId)
-                .forEach(stats -> updatePortData(deviceId, stats));
+                .forEach(stats -> updatePortData(deviceId, stats, time));
     }
 
-    // Updates the port stats for the specified port
-    private void updatePortData(DeviceId deviceId, PortStatistics stats) {
+    // Records the port stats for the specified port in its history
+    private void updatePortData(DeviceId deviceId, PortStatistics stats, long time) {
         ConnectPoint cp = new ConnectPoint(deviceId, stats.portNumber());
-        DataPoint c = current.get(cp);
-
-        // Create a new data point and make it the current one
-        current.put(cp, new DataPoint(stats));
-
-        // If we have a current data point, demote it to previous
-        if (c != null) {
-            previous.put(cp, c);
-        }
+        histories.computeIfAbsent(cp, k -> new PortStatsHistory(statsHistorySize))
+                .add(time, stats);
     }
 
     // Cleans all port loads for the specified device
     private void pruneDeviceData(DeviceId deviceId) {
-        pruneMap(current, deviceId);
-        pruneMap(previous, deviceId);
-    }
-
-    private void pruneMap(Map<ConnectPoint, DataPoint> map, DeviceId deviceId) {
-        map.keySet().stream().filter(cp -> deviceId.equals(cp.deviceId()))
-                .collect(Collectors.toSet()).forEach(map::remove);
-    }
-
-    // Auxiliary data point to track when we receive different samples.
-    private class DataPoint {
-        long time;
-        PortStatistics stats;
-
-        DataPoint(PortStatistics stats) {
-            time = System.currentTimeMillis();
-            this.stats = stats;
-        }
+        histories.keySet().removeIf(cp -> deviceId.equals(cp.deviceId()));
     }
 
 }
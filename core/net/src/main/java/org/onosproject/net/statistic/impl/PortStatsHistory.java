@@ -0,0 +1,253 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.statistic.impl;
+
+import org.onosproject.net.device.PortStatistics;
+import org.onosproject.net.statistic.DefaultLoad;
+import org.onosproject.net.statistic.Load;
+import org.onosproject.net.statistic.PortStatisticsService.MetricType;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * History of the counters of a port, sampled at each port statistics update.
+ * Samples are held in a ring buffer of primitive arrays, so that recording a
+ * sample does not allocate once the buffer is full; the oldest samples are
+ * overwritten once the capacity is reached. The buffer grows as samples are
+ * recorded, so that a port only takes the memory of the samples it holds.
+ */
+final class PortStatsHistory {
+
+    private static final int SECOND = 1_000; // milliseconds
+    private static final int INITIAL_LENGTH = 16;
+
+    private int capacity;
+
+    private long[] times;
+    private long[] bytesSent;
+    private long[] bytesReceived;
+    private long[] packetsSent;
+    private long[] packetsReceived;
+
+    // Index of the latest sample and number of samples held
+    private int latest = -1;
+    private int size;
+
+    /**
+     * Creates an empty history.
+     *
+     * @param capacity maximum number of samples held
+     */
+    PortStatsHistory(int capacity) {
+        checkArgument(capacity > 1, "Capacity must be greater than 1");
+        this.capacity = capacity;
+        allocate(Math.min(capacity, INITIAL_LENGTH));
+    }
+
+    /**
+     * Changes the maximum number of samples held. If the history holds more
+     * samples than the new capacity, only the latest ones are kept.
+     *
+     * @param capacity maximum number of samples held
+     */
+    synchronized void resize(int capacity) {
+        checkArgument(capacity > 1, "Capacity must be greater than 1");
+        this.capacity = capacity;
+        if (times.length > capacity) {
+            allocate(capacity);
+        }
+    }
+
+    /**
+     * Records the given port statistics. Samples taken less than a second
+     * after the latest one, such as repeated updates for a single poll,
+     * replace the latest sample.
+     *
+     * @param time  time of the sample in milliseconds
+     * @param stats port statistics
+     */
+    synchronized void add(long time, PortStatistics stats) {
+        if (size > 0 && time - times[latest] < SECOND) {
+            set(latest, time, stats.bytesSent(), stats.bytesReceived(),
+                stats.packetsSent(), stats.packetsReceived());
+            return;
+        }
+        append(time, stats.bytesSent(), stats.bytesReceived(),
+               stats.packetsSent(), stats.packetsReceived());
+    }
+
+    /**
+     * Returns the load measured between the two latest samples.
+     *
+     * @param metricType metric type
+     * @param now        current time in milliseconds
+     * @param staleLimit age in milliseconds past which the latest sample is
+     *                   too old to give the load
+     * @return load, or null if unknown
+     */
+    synchronized Load load(MetricType metricType, long now, long staleLimit) {
+        if (size < 2 || now - times[latest] >= staleLimit) {
+            return null;
+        }
+        return load(metricType, latest, previous(latest));
+    }
+
+    /**
+     * Returns the load measured between the oldest sample taken since the
+     * given time and the latest sample. Samples preceding a counter reset are
+     * left out.
+     *
+     * @param metricType metric type
+     * @param since      time in milliseconds of the start of the period
+     * @return load over the period, or null if unknown
+     */
+    synchronized Load load(MetricType metricType, long since) {
+        if (size < 2) {
+            return null;
+        }
+        long[] egress = egress(metricType);
+        long[] ingress = ingress(metricType);
+        int first = latest;
+        for (int i = 1; i < size; i++) {
+            int index = previous(first);
+            if (times[index] < since || egress[index] > egress[first] || ingress[index] > ingress[first]) {
+                break;
+            }
+            first = index;
+        }
+        return first == latest ? null : load(metricType, latest, first);
+    }
+
+    /**
+     * Returns the given percentile of the rates measured between consecutive
+     * samples taken since the given time. As for the load, the rate between
+     * two samples is the greater of the egress and ingress rates.
+     *
+     * @param metricType metric type
+     * @param since      time in milliseconds of the start of the period
+     * @param percentile percentile, between 0 and 100
+     * @return rate in units per second, or empty if no rate was measured
+     */
+    synchronized OptionalLong ratePercentile(MetricType metricType, long since, double percentile) {
+        long[] egress = egress(metricType);
+        long[] ingress = ingress(metricType);
+        long[] rates = new long[size];
+        int count = 0;
+        int current = latest;
+        for (int i = 1; i < size; i++) {
+            int index = previous(current);
+            if (times[index] < since) {
+                break;
+            }
+            long rate = Math.max(rate(egress, current, index), rate(ingress, current, index));
+            if (rate >= 0) {
+                rates[count++] = rate;
+            }
+            current = index;
+        }
+        if (count == 0) {
+            return OptionalLong.empty();
+        }
+        Arrays.sort(rates, 0, count);
+        int rank = (int) Math.ceil(percentile / 100 * count);
+        return OptionalLong.of(rates[Math.max(rank, 1) - 1]);
+    }
+
+    private void append(long time, long bs, long br, long ps, long pr) {
+        if (size == times.length && size < capacity) {
+            allocate(Math.min(capacity, 2 * size));
+        }
+        latest = (latest + 1) % times.length;
+        size = Math.min(size + 1, times.length);
+        set(latest, time, bs, br, ps, pr);
+    }
+
+    // Moves the latest samples, up to the given length, to new arrays of that length
+    private void allocate(int length) {
+        long[] t = new long[length];
+        long[] bs = new long[length];
+        long[] br = new long[length];
+        long[] ps = new long[length];
+        long[] pr = new long[length];
+        int count = Math.min(size, length);
+        int index = latest;
+        for (int i = count - 1; i >= 0; i--) {
+            t[i] = times[index];
+            bs[i] = bytesSent[index];
+            br[i] = bytesReceived[index];
+            ps[i] = packetsSent[index];
+            pr[i] = packetsReceived[index];
+            index = previous(index);
+        }
+        times = t;
+        bytesSent = bs;
+        bytesReceived = br;
+        packetsSent = ps;
+        packetsReceived = pr;
+        size = count;
+        latest = count - 1;
+    }
+
+    private void set(int index, long time, long bs, long br, long ps, long pr) {
+        times[index] = time;
+        bytesSent[index] = bs;
+        bytesReceived[index] = br;
+        packetsSent[index] = ps;
+        packetsReceived[index] = pr;
+    }
+
+    private int previous(int index) {
+        return (index + times.length - 1) % times.length;
+    }
+
+    private long[] egress(MetricType metricType) {
+        return metricType == MetricType.BYTES ? bytesSent : packetsSent;
+    }
+
+    private long[] ingress(MetricType metricType) {
+        return metricType == MetricType.BYTES ? bytesReceived : packetsReceived;
+    }
+
+    // Rate in units per second between two samples, or -1 if the counter was reset
+    private long rate(long[] counter, int current, int previous) {
+        if (counter[current] < counter[previous]) {
+            return -1;
+        }
+        return (counter[current] - counter[previous]) * SECOND / (times[current] - times[previous]);
+    }
+
+    // Uses max of either Tx or Rx load as the total load of a port
+    private Load load(MetricType metricType, int current, int previous) {
+        long interval = (times[current] - times[previous]) / SECOND;
+        if (interval <= 0) {
+            return null;
+        }
+        long[] egress = egress(metricType);
+        long[] ingress = ingress(metricType);
+        Load load = null;
+        if (egress[current] >= egress[previous]) {
+            load = new DefaultLoad(egress[current], egress[previous], interval);
+        }
+        if (ingress[current] >= ingress[previous]) {
+            Load rcvLoad = new DefaultLoad(ingress[current], ingress[previous], interval);
+            load = ((load == null) || (rcvLoad.rate() > load.rate())) ? rcvLoad : load;
+        }
+        return load;
+    }
+}
@@ -18,13 +18,29 @@ package org.onosproject.event.impl;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import com.google.common.collect.Sets;
+import org.onlab.metrics.MetricsManager;
+import org.onlab.osgi.ComponentContextAdapter;
 import org.onosproject.event.AbstractEvent;
 import org.onosproject.event.EventSink;
+import org.onosproject.net.DefaultDevice;
+import org.onosproject.net.Device;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.device.DeviceEvent;
+import org.onosproject.net.provider.ProviderId;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Dictionary;
+import java.util.Hashtable;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -40,7 +56,8 @@ public class CoreEventDispatcherTest {
 
     @Before
     public void setUp() {
-        dispatcher.activate();
+        dispatcher.metricsService = new MetricsManager();
+        dispatcher.activate(new ComponentContextAdapter());
         dispatcher.addSink(Prickle.class, prickleSink);
         dispatcher.addSink(Goo.class, gooSink);
     }
@@ -61,6 +78,70 @@ public class CoreEventDispatcherTest {
         validate(gooSink);
     }
 
+    @Test
+    public void postSharded() throws Exception {
+        dispatcher.modified(new ComponentContextAdapter() {
+            @Override
+            public Dictionary getProperties() {
+                Hashtable<String, String> props = new Hashtable<>();
+                props.put("numShards", "4");
+                return props;
+            }
+        });
+        prickleSink.latch = new CountDownLatch(3);
+        dispatcher.post(new Prickle("a"));
+        dispatcher.post(new Prickle("b"));
+        dispatcher.post(new Prickle("c"));
+        prickleSink.latch.await(100, TimeUnit.MILLISECONDS);
+        validate(prickleSink, "a", "b", "c");
+
+        // Events about distinct subjects are spread over the loops, in order per subject
+        int numDevices = 16;
+        int numEvents = 50;
+        DeviceSink deviceSink = new DeviceSink();
+        deviceSink.latch = new CountDownLatch(numDevices * numEvents);
+        dispatcher.addSink(DeviceEvent.class, deviceSink);
+        for (long time = 0; time < numEvents; time++) {
+            for (int i = 0; i < numDevices; i++) {
+                Device device = new DefaultDevice(PID, DeviceId.deviceId("of:" + i), Device.Type.SWITCH,
+                                                  "", "", "", "", null);
+                dispatcher.post(new DeviceEvent(DeviceEvent.Type.DEVICE_UPDATED, device, null, time));
+            }
+        }
+        assertTrue(deviceSink.latch.await(1000, TimeUnit.MILLISECONDS));
+        dispatcher.removeSink(DeviceEvent.class);
+
+        List<Long> inOrder = LongStream.range(0, numEvents).boxed().collect(Collectors.toList());
+        assertEquals("incorrect subject count", numDevices, deviceSink.times.size());
+        deviceSink.times.values().forEach(times -> assertEquals("incorrect event order", inOrder, times));
+        assertTrue("events dispatched by a single loop", deviceSink.threads.size() > 1);
+    }
+
+    @Test
+    public void postWhileResharding() throws Exception {
+        int numEvents = 1000;
+        prickleSink.latch = new CountDownLatch(numEvents);
+        Thread poster = new Thread(() -> {
+            for (int i = 0; i < numEvents; i++) {
+                dispatcher.post(new Prickle(String.valueOf(i)));
+            }
+        });
+        poster.start();
+        dispatcher.modified(new ComponentContextAdapter() {
+            @Override
+            public Dictionary getProperties() {
+                Hashtable<String, String> props = new Hashtable<>();
+                props.put("numShards", "4");
+                return props;
+            }
+        });
+        poster.join();
+
+        // No event is lost to the loops being replaced
+        assertTrue(prickleSink.latch.await(1000, TimeUnit.MILLISECONDS));
+        assertEquals("incorrect event count", numEvents, Sets.newHashSet(prickleSink.subjects).size());
+    }
+
     @Test
     public void postEventWithBadSink() throws Exception {
         gooSink.latch = new CountDownLatch(1);
@@ -126,6 +207,22 @@ public class CoreEventDispatcherTest {
         }
     }
 
+    private static final ProviderId PID = new ProviderId("of", "foo");
+
+    private static class DeviceSink implements EventSink<DeviceEvent> {
+        final Map<DeviceId, List<Long>> times = new ConcurrentHashMap<>();
+        final Set<Thread> threads = Sets.newConcurrentHashSet();
+        CountDownLatch latch;
+
+        @Override
+        public void process(DeviceEvent event) {
+            times.computeIfAbsent(event.subject().id(), id -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(event.time());
+            threads.add(Thread.currentThread());
+            latch.countDown();
+        }
+    }
+
     private static class PrickleSink extends Sink implements EventSink<Prickle> {
         @Override
         public void process(Prickle event) {
@@ -36,6 +36,9 @@ import org.onosproject.core.ApplicationId;
 import org.onosproject.core.CoreServiceAdapter;
 import org.onosproject.core.DefaultApplicationId;
 import org.onosproject.core.IdGenerator;
+import org.onosproject.mastership.MastershipEvent;
+import org.onosproject.mastership.MastershipInfo;
+import org.onosproject.mastership.MastershipListener;
 import org.onosproject.mastership.MastershipServiceAdapter;
 import org.onosproject.net.AnnotationKeys;
 import org.onosproject.net.DefaultAnnotations;
@@ -125,6 +128,8 @@ public class FlowRuleManagerTest {
             new DefaultDevice(FOO_PID, FOO_DID, Type.SWITCH, "", "", "", "", null, ANNOTATIONS);
 
     private FlowRuleManager mgr;
+    private TestFlowRuleStore store;
+    private MastershipListener mastershipListener;
 
     protected FlowRuleService service;
     protected FlowRuleProviderRegistry registry;
@@ -139,7 +144,8 @@ public class FlowRuleManagerTest {
     @Before
     public void setUp() {
         mgr = new FlowRuleManager();
-        mgr.store = new SimpleFlowRuleStore();
+        store = new TestFlowRuleStore();
+        mgr.store = store;
         injectEventDispatcher(mgr, new TestEventDispatcher());
         mgr.deviceService = new TestDeviceService();
         mgr.mastershipService = new TestMastershipService();
@@ -453,6 +459,116 @@ public class FlowRuleManagerTest {
 
     }
 
+    /*
+     * Tests that flow entries which did not change since the previous stats
+     * update are not updated in the store again.
+     */
+    @Test
+    public void flowMetricsUnchanged() {
+        FlowRule f1 = flowRule(1, 1);
+        FlowRule f2 = flowRule(2, 2);
+        mgr.applyFlowRules(f1, f2);
+
+        FlowEntry fe1 = new DefaultFlowEntry(f1);
+        FlowEntry fe2 = new DefaultFlowEntry(f2);
+        providerService.pushFlowMetrics(DID, Lists.newArrayList(fe1, fe2));
+        validateEvents(RULE_ADD_REQUESTED, RULE_ADD_REQUESTED, RULE_ADDED, RULE_ADDED);
+
+        store.updates = 0;
+        providerService.pushFlowMetrics(DID, Lists.newArrayList(fe1, fe2));
+        validateEvents(RULE_UPDATED, RULE_UPDATED);
+        assertEquals("unchanged entries should not be updated", 0, store.updates);
+
+        FlowEntry updatedFe2 = new DefaultFlowEntry(f2, FlowEntryState.ADDED, 0, 10, 1000);
+        providerService.pushFlowMetrics(DID, Lists.newArrayList(fe1, updatedFe2));
+        validateEvents(RULE_UPDATED, RULE_UPDATED);
+        assertEquals("only the updated entry should be updated", 1, store.updates);
+        assertEquals("stats not updated", 1000, service.getFlowEntry(f2).bytes());
+
+        // Entries operated on are reconciled with the store again
+        mgr.removeFlowRules(f1);
+        providerService.pushFlowMetrics(DID, Lists.newArrayList(fe1, updatedFe2));
+        validateEvents(RULE_REMOVE_REQUESTED, RULE_UPDATED);
+        assertTrue("Entries should be updated.",
+                   validateState(ImmutableMap.of(
+                           f1, FlowEntryState.PENDING_REMOVE,
+                           f2, FlowEntryState.ADDED)));
+    }
+
+    /*
+     * Tests that flow entries in sync which were purged from the store
+     * through another node are reconciled as extraneous entries by the
+     * next dump.
+     */
+    @Test
+    public void flowMetricsPurged() {
+        FlowRule f1 = flowRule(1, 1);
+        FlowRule f2 = flowRule(2, 2);
+        mgr.applyFlowRules(f1, f2);
+
+        FlowEntry fe1 = new DefaultFlowEntry(f1);
+        FlowEntry fe2 = new DefaultFlowEntry(f2);
+        providerService.pushFlowMetrics(DID, Lists.newArrayList(fe1, fe2));
+        validateEvents(RULE_ADD_REQUESTED, RULE_ADD_REQUESTED, RULE_ADDED, RULE_ADDED);
+
+        // Purged by the master on behalf of another node, unknown to the index
+        store.purgeFlowRule(DID);
+        providerService.pushFlowMetrics(DID, Lists.newArrayList(fe1, fe2));
+        validateEvents(RULE_UPDATED, RULE_UPDATED);
+
+        providerService.pushFlowMetrics(DID, Lists.newArrayList(fe1, fe2));
+        validateEvents();
+        assertEquals("purged entries should not be stored again", 0, store.getFlowRuleCount(DID));
+    }
+
+    /*
+     * Tests that flow entries are updated in the store again once the
+     * mastership of their device changed.
+     */
+    @Test
+    public void flowMetricsMastershipChanged() {
+        FlowRule f1 = flowRule(1, 1);
+        FlowRule f2 = flowRule(2, 2);
+        mgr.applyFlowRules(f1, f2);
+
+        FlowEntry fe1 = new DefaultFlowEntry(f1);
+        FlowEntry fe2 = new DefaultFlowEntry(f2);
+        providerService.pushFlowMetrics(DID, Lists.newArrayList(fe1, fe2));
+        validateEvents(RULE_ADD_REQUESTED, RULE_ADD_REQUESTED, RULE_ADDED, RULE_ADDED);
+
+        mastershipListener.event(new MastershipEvent(MastershipEvent.Type.MASTER_CHANGED, DID,
+                                                     new MastershipInfo()));
+        store.updates = 0;
+        providerService.pushFlowMetrics(DID, Lists.newArrayList(fe1, fe2));
+        validateEvents(RULE_UPDATED, RULE_UPDATED);
+        assertEquals("entries should be updated", 2, store.updates);
+    }
+
+    /*
+     * Tests that flow entries pushed in several parts are only deemed missing
+     * once the last part is pushed.
+     */
+    @Test
+    public void flowMetricsParts() {
+        FlowRule f1 = flowRule(1, 1);
+        FlowRule f2 = flowRule(2, 2);
+        FlowRule f3 = flowRule(3, 3);
+        mgr.applyFlowRules(f1, f2, f3);
+
+        FlowEntry fe1 = new DefaultFlowEntry(f1);
+        FlowEntry fe2 = new DefaultFlowEntry(f2);
+        providerService.pushFlowMetricsPart(DID, Lists.newArrayList(fe1), false);
+        validateEvents(RULE_ADD_REQUESTED, RULE_ADD_REQUESTED, RULE_ADD_REQUESTED, RULE_ADDED);
+
+        providerService.pushFlowMetricsPart(DID, Lists.newArrayList(fe2), true);
+        validateEvents(RULE_ADDED, RULE_ADD_REQUESTED);
+        assertTrue("Entries should be added.",
+                   validateState(ImmutableMap.of(
+                           f1, FlowEntryState.ADDED,
+                           f2, FlowEntryState.ADDED,
+                           f3, FlowEntryState.PENDING_ADD)));
+    }
+
     @Test
     public void removeByAppId() {
         FlowRule f1 = flowRule(1, 1);
@@ -514,6 +630,16 @@ public class FlowRuleManagerTest {
     }
 
 
+    private static class TestFlowRuleStore extends SimpleFlowRuleStore {
+        int updates;
+
+        @Override
+        public FlowRuleEvent addOrUpdateFlowRule(FlowEntry rule) {
+            updates++;
+            return super.addOrUpdateFlowRule(rule);
+        }
+    }
+
     private static class TestListener implements FlowRuleListener {
         final List<FlowRuleEvent> events = new ArrayList<>();
 
@@ -739,6 +865,11 @@ public class FlowRuleManagerTest {
     }
 
     private class TestMastershipService extends MastershipServiceAdapter {
+        @Override
+        public void addListener(MastershipListener listener) {
+            mastershipListener = listener;
+        }
+
         @Override
         public MastershipRole getLocalRole(DeviceId deviceId) {
             return MastershipRole.MASTER;
@@ -26,6 +26,8 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.onlab.metrics.MetricsManager;
+import org.onlab.osgi.ComponentContextAdapter;
 import org.onosproject.TestApplicationId;
 import org.onosproject.cfg.ComponentConfigAdapter;
 import org.onosproject.cfg.ComponentConfigService;
@@ -56,10 +58,13 @@ import org.onosproject.net.intent.Key;
 import org.onosproject.net.intent.ObjectiveTrackerService;
 import org.onosproject.net.intent.PathIntent;
 import org.onosproject.net.intent.TopologyChangeDelegate;
+import org.onosproject.net.resource.MockResourceService;
 import org.onosproject.store.trivial.SimpleIntentStore;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Dictionary;
+import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -295,6 +300,8 @@ public class IntentManagerTest {
         manager.flowRuleService = flowRuleService;
         manager.coreService = new TestCoreManager();
         manager.configService = mock(ComponentConfigService.class);
+        manager.metricsService = new MetricsManager();
+        manager.resourceService = new MockResourceService();
         service = manager;
         extensionService = manager;
         intentInstallCoordinator = manager;
@@ -422,6 +429,41 @@ public class IntentManagerTest {
         verifyState();
     }
 
+    /**
+     * Tests that submissions and withdrawals are processed in order when
+     * several batches are in flight.
+     */
+    @Test
+    public void stressSubmitWithdrawPipelined() {
+        manager.modified(new ComponentContextAdapter() {
+            @Override
+            public Dictionary getProperties() {
+                Hashtable<String, String> props = new Hashtable<>();
+                props.put("maxBatchesInFlight", "4");
+                return props;
+            }
+        });
+        flowRuleService.setFuture(true);
+
+        int count = 500;
+        Intent[] intents = new Intent[count];
+
+        listener.setLatch(count, Type.WITHDRAWN);
+
+        for (int i = 0; i < count; i++) {
+            intents[i] = new MockIntent(MockIntent.nextId());
+            service.submit(intents[i]);
+        }
+
+        for (int i = 0; i < count; i++) {
+            service.withdraw(intents[i]);
+        }
+
+        listener.await(Type.WITHDRAWN);
+        assertEquals(0L, flowRuleService.getFlowRuleCount());
+        verifyState();
+    }
+
 
     /**
      * Tests for proper behavior of installation of an intent that triggers
@@ -20,12 +20,18 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import org.junit.Before;
 import org.junit.Test;
+import org.onlab.packet.ARP;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.IPv4;
+import org.onlab.packet.TpPort;
+import org.onlab.packet.UDP;
 import org.onosproject.cluster.ClusterServiceAdapter;
 import org.onosproject.common.event.impl.TestEventDispatcher;
 import org.onosproject.core.CoreServiceAdapter;
 import org.onosproject.core.IdGenerator;
 import org.onosproject.event.TestListener;
 import org.onosproject.net.AnnotationKeys;
+import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.DefaultAnnotations;
 import org.onosproject.net.DefaultDevice;
 import org.onosproject.net.Device;
@@ -37,17 +43,28 @@ import org.onosproject.net.driver.DefaultDriver;
 import org.onosproject.net.driver.DriverRegistry;
 import org.onosproject.net.driver.impl.DriverManager;
 import org.onosproject.net.driver.impl.DriverRegistryManager;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.DefaultTrafficSelector;
 import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.packet.DefaultInboundPacket;
 import org.onosproject.net.packet.DefaultOutboundPacket;
+import org.onosproject.net.packet.DefaultPacketContext;
 import org.onosproject.net.packet.OutboundPacket;
+import org.onosproject.net.packet.PacketContext;
+import org.onosproject.net.packet.PacketProcessor;
+import org.onosproject.net.packet.PacketProcessorEntry;
 import org.onosproject.net.packet.PacketProgrammable;
+import org.onosproject.net.packet.PacketProvider;
 import org.onosproject.net.packet.PacketProviderRegistry;
+import org.onosproject.net.packet.PacketProviderService;
 import org.onosproject.net.pi.PiPipeconfServiceAdapter;
+import org.onosproject.net.provider.AbstractProvider;
 import org.onosproject.net.provider.ProviderId;
 import org.onosproject.net.provider.TestProvider;
 import org.onosproject.store.trivial.SimplePacketStore;
 
 import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.assertEquals;
@@ -108,6 +125,72 @@ public class PacketManagerTest {
         assertEquals("Packet not emitted correctly", packet, emittedPacket);
     }
 
+    /**
+     * Tests that packets are only given to the processors whose selector matches them.
+     */
+    @Test
+    public void selectiveProcessing() {
+        PacketProviderService providerService = providerRegistry.register(new TestPacketProvider());
+        PacketProcessor any = context -> { };
+        PacketProcessor arp = context -> { };
+        PacketProcessor dhcp = context -> { };
+        mgr.addProcessor(any, 2);
+        mgr.addProcessor(arp, 1, DefaultTrafficSelector.builder()
+                .matchEthType(Ethernet.TYPE_ARP).build());
+        mgr.addProcessor(dhcp, 0, DefaultTrafficSelector.builder()
+                .matchEthType(Ethernet.TYPE_IPV4)
+                .matchIPProtocol(IPv4.PROTOCOL_UDP)
+                .matchUdpDst(TpPort.tpPort(UDP.DHCP_SERVER_PORT))
+                .build());
+
+        Ethernet arpFrame = new Ethernet();
+        arpFrame.setEtherType(Ethernet.TYPE_ARP).setPayload(new ARP());
+        providerService.processPacket(context(arpFrame));
+
+        UDP udp = new UDP();
+        udp.setDestinationPort(UDP.DHCP_SERVER_PORT);
+        IPv4 ip = new IPv4();
+        ip.setProtocol(IPv4.PROTOCOL_UDP).setPayload(udp);
+        Ethernet dhcpFrame = new Ethernet();
+        dhcpFrame.setEtherType(Ethernet.TYPE_IPV4).setPayload(ip);
+        providerService.processPacket(context(dhcpFrame));
+
+        udp.setDestinationPort(UDP.DHCP_CLIENT_PORT);
+        providerService.processPacket(context(dhcpFrame));
+
+        List<PacketProcessorEntry> entries = mgr.getProcessors();
+        assertEquals(dhcp, entries.get(0).processor());
+        assertEquals(1, entries.get(0).invocations());
+        assertEquals(arp, entries.get(1).processor());
+        assertEquals(1, entries.get(1).invocations());
+        assertEquals(any, entries.get(2).processor());
+        assertEquals(3, entries.get(2).invocations());
+
+        mgr.removeProcessor(arp);
+        providerService.processPacket(context(arpFrame));
+        assertEquals(4, mgr.getProcessors().get(1).invocations());
+    }
+
+    private static PacketContext context(Ethernet frame) {
+        ConnectPoint cp = new ConnectPoint(FOO_DID, PortNumber.portNumber(1));
+        return new DefaultPacketContext(0, new DefaultInboundPacket(cp, frame, ByteBuffer.allocate(0)),
+                                        null, false) {
+            @Override
+            public void send() {
+            }
+        };
+    }
+
+    private static class TestPacketProvider extends AbstractProvider implements PacketProvider {
+        TestPacketProvider() {
+            super(new ProviderId("of", "bar"));
+        }
+
+        @Override
+        public void emit(OutboundPacket packet) {
+        }
+    }
+
     private static class TestDeviceService extends DeviceServiceAdapter {
         @Override
         public int getDeviceCount() {
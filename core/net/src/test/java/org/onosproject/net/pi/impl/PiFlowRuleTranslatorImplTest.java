@@ -173,4 +173,42 @@ public class PiFlowRuleTranslatorImplTest {
                    defActionEntry.matchKey(), is(equalTo(PiMatchKey.EMPTY)));
         assertThat("Priority should not be set", !defActionEntry.priority().isPresent());
     }
+
+    @Test
+    public void testTranslateFlowRulesWithCache() throws Exception {
+        ApplicationId appId = new DefaultApplicationId(1, "test");
+        TrafficSelector selector = DefaultTrafficSelector.builder()
+                .matchInPort(PortNumber.portNumber(1))
+                .matchEthType((short) 0x0800)
+                .build();
+        TrafficTreatment treatment = DefaultTrafficTreatment.builder()
+                .setOutput(PortNumber.portNumber(2))
+                .build();
+        FlowRule.Builder builder = DefaultFlowRule.builder()
+                .forDevice(DEVICE_ID)
+                .forTable(INGRESS_TABLE0_CONTROL_TABLE0)
+                .fromApp(appId)
+                .withSelector(selector)
+                .withTreatment(treatment);
+        FlowRule rule1 = builder.makePermanent().withPriority(10).build();
+        FlowRule rule2 = builder.makeTemporary(30).withPriority(20).build();
+
+        PiFlowRuleTranslationCache cache = new PiFlowRuleTranslationCache(10);
+        PiTableEntry entry1 = PiFlowRuleTranslatorImpl.translate(rule1, pipeconf, null, cache);
+        PiTableEntry entry2 = PiFlowRuleTranslatorImpl.translate(rule2, pipeconf, null, cache);
+
+        // cached translations must produce the same entries as uncached ones
+        new EqualsTester()
+                .addEqualityGroup(entry1, PiFlowRuleTranslatorImpl.translate(rule1, pipeconf, null))
+                .addEqualityGroup(entry2, PiFlowRuleTranslatorImpl.translate(rule2, pipeconf, null))
+                .testEquals();
+        assertThat("Incorrect selector cache hits", cache.selectorStats().hitCount(), is(equalTo(1L)));
+        assertThat("Incorrect treatment cache hits", cache.treatmentStats().hitCount(), is(equalTo(1L)));
+
+        // translations of a pipeconf registered again are made from scratch
+        cache.invalidate(pipeconf.id());
+        assertThat(PiFlowRuleTranslatorImpl.translate(rule1, pipeconf, null, cache), is(equalTo(entry1)));
+        assertThat("Incorrect selector cache misses", cache.selectorStats().missCount(), is(equalTo(2L)));
+        assertThat("Incorrect treatment cache misses", cache.treatmentStats().missCount(), is(equalTo(2L)));
+    }
 }
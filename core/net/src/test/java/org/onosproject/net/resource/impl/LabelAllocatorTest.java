@@ -37,6 +37,7 @@ import org.onosproject.net.resource.impl.LabelAllocator.LabelSelection;
 import org.onosproject.net.resource.impl.LabelAllocator.RandomSelection;
 
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -707,4 +708,55 @@ public class LabelAllocatorTest {
         assertNull(id);
     }
 
+    /**
+     * To test that the labels in use on a path are not selected again.
+     */
+    @Test
+    public void allocatedLabelsTest() {
+        // Verify the random behavior with NO_SWAP optimization
+        this.allocator.setLabelSelection(random);
+        this.allocator.setOptLabelSelection(noswap);
+        // We change the available Ids
+        this.resourceService.availableVlanLabels = ImmutableSet.of(
+                (short) 10,
+                (short) 20,
+                (short) 30
+        );
+        // Enable filtering of the reservation
+        this.resourceService.filterAssignment = true;
+        // Each reservation takes a label not in use yet
+        List<IntentId> intents = new ArrayList<>();
+        List<Identifier<?>> selected = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            IntentId intentId = IntentId.valueOf(idGenerator.getNewId());
+            Map<LinkKey, Identifier<?>> allocation = this.allocator.assignLabelToLinks(
+                    ImmutableSet.copyOf(links.subList(1, 3)),
+                    intentId,
+                    EncapsulationType.VLAN);
+            Identifier<?> id = allocation.get(LinkKey.linkKey(d1p1, d3p1));
+            assertThat(id, instanceOf(VlanId.class));
+            assertEquals(id, allocation.get(LinkKey.linkKey(d3p0, d2p1)));
+            selected.add(id);
+            intents.add(intentId);
+        }
+        assertEquals(ImmutableSet.of(VlanId.vlanId((short) 10), VlanId.vlanId((short) 20),
+                                     VlanId.vlanId((short) 30)), ImmutableSet.copyOf(selected));
+        // No labels are available, reservation is not possible
+        Map<LinkKey, Identifier<?>> allocation = this.allocator.assignLabelToLinks(
+                ImmutableSet.copyOf(links.subList(1, 3)),
+                IntentId.valueOf(idGenerator.getNewId()),
+                EncapsulationType.VLAN);
+        assertTrue(allocation.isEmpty());
+
+        // Verify the first fit behavior selects the released label
+        this.allocator.setLabelSelection(firstFit);
+        this.resourceService.release(intents.get(1));
+        allocation = this.allocator.assignLabelToLinks(
+                ImmutableSet.copyOf(links.subList(1, 3)),
+                IntentId.valueOf(idGenerator.getNewId()),
+                EncapsulationType.VLAN);
+        assertEquals(selected.get(1), allocation.get(LinkKey.linkKey(d1p1, d3p1)));
+        assertEquals(selected.get(1), allocation.get(LinkKey.linkKey(d3p0, d2p1)));
+    }
+
 }
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.statistic.impl;
+
+import org.junit.Test;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.device.DefaultPortStatistics;
+import org.onosproject.net.device.PortStatistics;
+import org.onosproject.net.statistic.Load;
+
+import java.util.OptionalLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.onosproject.net.statistic.PortStatisticsService.MetricType.BYTES;
+import static org.onosproject.net.statistic.PortStatisticsService.MetricType.PACKETS;
+
+/**
+ * Tests of the port statistics history.
+ */
+public class PortStatsHistoryTest {
+
+    private static final long STALE_LIMIT = 15_000;
+
+    private static PortStatistics stats(long bytesSent, long bytesReceived) {
+        return DefaultPortStatistics.builder()
+                .setDeviceId(DeviceId.deviceId("of:1"))
+                .setPort(PortNumber.portNumber(1))
+                .setBytesSent(bytesSent)
+                .setBytesReceived(bytesReceived)
+                .setPacketsSent(bytesSent / 100)
+                .setPacketsReceived(bytesReceived / 100)
+                .build();
+    }
+
+    /**
+     * Tests the load between the two latest samples.
+     */
+    @Test
+    public void testLoad() {
+        PortStatsHistory history = new PortStatsHistory(4);
+        history.add(0, stats(0, 0));
+        assertThat(history.load(BYTES, 0, STALE_LIMIT), is(nullValue()));
+
+        history.add(10_000, stats(10_000, 50_000));
+        Load load = history.load(BYTES, 10_000, STALE_LIMIT);
+        assertThat(load.rate(), is(5_000L));
+        assertThat(history.load(PACKETS, 10_000, STALE_LIMIT).rate(), is(50L));
+
+        // Stale samples give no load
+        assertThat(history.load(BYTES, 25_000, STALE_LIMIT), is(nullValue()));
+
+        // Repeated updates replace the latest sample
+        history.add(10_500, stats(20_000, 0));
+        assertThat(history.load(BYTES, 10_500, STALE_LIMIT).rate(), is(2_000L));
+    }
+
+    /**
+     * Tests the load over a period and the overwriting of the oldest samples.
+     */
+    @Test
+    public void testPeriodLoad() {
+        PortStatsHistory history = new PortStatsHistory(3);
+        history.add(0, stats(0, 0));
+        history.add(10_000, stats(10_000, 0));
+        history.add(20_000, stats(30_000, 0));
+        assertThat(history.load(BYTES, 0).rate(), is(1_500L));
+        assertThat(history.load(BYTES, 10_000).rate(), is(2_000L));
+        assertThat(history.load(BYTES, 20_000), is(nullValue()));
+
+        history.add(30_000, stats(60_000, 0));
+        assertThat(history.load(BYTES, 0).rate(), is(2_500L));
+
+        // Samples preceding a counter reset are left out
+        history.add(40_000, stats(5_000, 0));
+        history.add(50_000, stats(15_000, 0));
+        assertThat(history.load(BYTES, 0).rate(), is(1_000L));
+    }
+
+    /**
+     * Tests the percentiles of the rates over a period.
+     */
+    @Test
+    public void testRatePercentile() {
+        PortStatsHistory history = new PortStatsHistory(8);
+        assertThat(history.ratePercentile(BYTES, 0, 50), is(OptionalLong.empty()));
+
+        long bytes = 0;
+        history.add(0, stats(bytes, 0));
+        long[] rates = {400, 100, 300, 200};
+        for (int i = 0; i < rates.length; i++) {
+            bytes += rates[i] * 10;
+            history.add((i + 1) * 10_000, stats(bytes, 0));
+        }
+        assertThat(history.ratePercentile(BYTES, 0, 50), is(OptionalLong.of(200)));
+        assertThat(history.ratePercentile(BYTES, 0, 100), is(OptionalLong.of(400)));
+        assertThat(history.ratePercentile(BYTES, 0, 0), is(OptionalLong.of(100)));
+        assertThat(history.ratePercentile(BYTES, 20_000, 100), is(OptionalLong.of(300)));
+
+        history.resize(3);
+        assertThat(history.ratePercentile(BYTES, 0, 100), is(OptionalLong.of(300)));
+        assertThat(history.load(BYTES, 0).rate(), is(250L));
+    }
+
+    /**
+     * Tests that the history keeps its samples as it grows up to its capacity.
+     */
+    @Test
+    public void testGrowth() {
+        int capacity = 100;
+        PortStatsHistory history = new PortStatsHistory(capacity);
+        for (int i = 0; i < 2 * capacity; i++) {
+            addSquare(history, i);
+            if (i > 0) {
+                assertThat(history.load(BYTES, 0).rate(), is(squareRate(Math.max(0, i + 1 - capacity), i)));
+            }
+        }
+
+        // Samples recorded after growing the capacity are kept with the previous ones
+        history.resize(2 * capacity);
+        for (int i = 2 * capacity; i < 3 * capacity; i++) {
+            addSquare(history, i);
+        }
+        assertThat(history.load(BYTES, 0).rate(), is(squareRate(capacity, 3 * capacity - 1)));
+
+        history.resize(2);
+        assertThat(history.load(BYTES, 0).rate(), is(squareRate(3 * capacity - 2, 3 * capacity - 1)));
+    }
+
+    // Adds the i-th sample of counters growing as the square of the time, so that
+    // the rate over a period tells the samples it is measured between
+    private static void addSquare(PortStatsHistory history, long i) {
+        history.add(i * 10_000, stats(i * i * 10_000, 0));
+    }
+
+    private static long squareRate(long first, long last) {
+        return 1_000 * (first + last);
+    }
+}
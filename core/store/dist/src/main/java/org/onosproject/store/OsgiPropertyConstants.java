@@ -38,6 +38,9 @@ public final class OsgiPropertyConstants {
     public static final String MAX_BACKUP_COUNT = "backupCount";
     public static final int MAX_BACKUP_COUNT_DEFAULT = 2;
 
+    public static final String DELTA_BACKUP_ENABLED = "deltaBackupEnabled";
+    public static final boolean DELTA_BACKUP_ENABLED_DEFAULT = true;
+
     public static final String ELECTION_TIMEOUT_MILLIS = "electionTimeoutMillis";
     public static final long ELECTION_TIMEOUT_MILLIS_DEFAULT = 2500;
 
@@ -67,4 +70,16 @@ public final class OsgiPropertyConstants {
 
     public static final String MAX_PATHS = "maxPaths";
     public static final int MAX_PATHS_DEFAULT = -1;
+
+    public static final String PATH_CACHE_SIZE = "pathCacheSize";
+    public static final int PATH_CACHE_SIZE_DEFAULT = 10000;
+
+    public static final String REPLICATE_PORT_DELTA_STATS = "replicatePortDeltaStats";
+    public static final boolean REPLICATE_PORT_DELTA_STATS_DEFAULT = true;
+
+    public static final String WPM_NUM_PARTITIONS = "numPartitions";
+    public static final int WPM_NUM_PARTITIONS_DEFAULT = 14;
+
+    public static final String WPM_NODE_WEIGHTS = "nodeWeights";
+    public static final String WPM_NODE_WEIGHTS_DEFAULT = "";
 }
@@ -22,6 +22,8 @@ import com.google.common.collect.Sets;
 import org.apache.commons.lang3.RandomUtils;
 import org.onlab.packet.ChassisId;
 import org.onlab.util.KryoNamespace;
+import org.onlab.util.Tools;
+import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.ControllerNode;
 import org.onosproject.cluster.NodeId;
@@ -62,9 +64,11 @@ import org.onosproject.store.service.MultiValuedTimestamp;
 import org.onosproject.store.service.Serializer;
 import org.onosproject.store.service.StorageService;
 import org.onosproject.store.service.WallClockTimestamp;
+import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
@@ -103,6 +107,8 @@ import static org.onosproject.net.device.DeviceEvent.Type.PORT_ADDED;
 import static org.onosproject.net.device.DeviceEvent.Type.PORT_REMOVED;
 import static org.onosproject.net.device.DeviceEvent.Type.PORT_STATS_UPDATED;
 import static org.onosproject.net.device.DeviceEvent.Type.PORT_UPDATED;
+import static org.onosproject.store.OsgiPropertyConstants.REPLICATE_PORT_DELTA_STATS;
+import static org.onosproject.store.OsgiPropertyConstants.REPLICATE_PORT_DELTA_STATS_DEFAULT;
 import static org.onosproject.store.device.impl.GossipDeviceStoreMessageSubjects.DEVICE_ADVERTISE;
 import static org.onosproject.store.device.impl.GossipDeviceStoreMessageSubjects.DEVICE_REMOVED;
 import static org.onosproject.store.device.impl.GossipDeviceStoreMessageSubjects.DEVICE_REMOVE_REQ;
@@ -117,7 +123,13 @@ import static org.slf4j.LoggerFactory.getLogger;
  * Manages inventory of infrastructure devices using gossip protocol to distribute
  * information.
  */
-@Component(immediate = true, service = DeviceStore.class)
+@Component(
+        immediate = true,
+        service = DeviceStore.class,
+        property = {
+            REPLICATE_PORT_DELTA_STATS + ":Boolean=" + REPLICATE_PORT_DELTA_STATS_DEFAULT
+        }
+)
 public class GossipDeviceStore
         extends AbstractStore<DeviceEvent, DeviceStoreDelegate>
         implements DeviceStore {
@@ -142,6 +154,11 @@ public class GossipDeviceStore
     private final EventuallyConsistentMapListener<DeviceId, Map<PortNumber, PortStatistics>>
             portStatsListener = new InternalPortStatsListener();
 
+    // delta statistics computed locally from the replicated statistics, when not replicated
+    private final ConcurrentMap<DeviceId, Map<PortNumber, PortStatistics>> localPortStats = Maps.newConcurrentMap();
+    private final ConcurrentMap<DeviceId, Map<PortNumber, PortStatistics>> localPortDeltaStats =
+            Maps.newConcurrentMap();
+
     // to be updated under Device lock
     private final Map<DeviceId, Timestamp> offline = Maps.newHashMap();
     private final Map<DeviceId, Timestamp> removalRequest = Maps.newHashMap();
@@ -167,6 +184,12 @@ public class GossipDeviceStore
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected MastershipTermService termService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected ComponentConfigService cfgService;
+
+    /** Replicate the port delta statistics, rather than computing them on each node from the port statistics. */
+    private boolean replicatePortDeltaStats = REPLICATE_PORT_DELTA_STATS_DEFAULT;
+
     private static final Timestamp DEFAULT_TIMESTAMP = new MastershipBasedTimestamp(0, 0);
 
     protected static final Serializer SERIALIZER = Serializer.using(KryoNamespace.newBuilder()
@@ -191,7 +214,9 @@ public class GossipDeviceStore
     private long periodSec = 5;
 
     @Activate
-    public void activate() {
+    public void activate(ComponentContext context) {
+        cfgService.registerProperties(getClass());
+        modified(context);
         executor = newCachedThreadPool(groupedThreads("onos/device", "fg-%d", log));
 
         backgroundExecutor =
@@ -238,8 +263,24 @@ public class GossipDeviceStore
         clusterCommunicator.addSubscriber(subject, SERIALIZER::decode, handler, executor);
     }
 
+    @Modified
+    public void modified(ComponentContext context) {
+        if (context == null) {
+            return;
+        }
+        Boolean flag = Tools.isPropertyEnabled(context.getProperties(), REPLICATE_PORT_DELTA_STATS);
+        if (flag != null && flag != replicatePortDeltaStats) {
+            replicatePortDeltaStats = flag;
+            localPortStats.clear();
+            localPortDeltaStats.clear();
+            log.info("Configured. Port delta statistics are {}",
+                     replicatePortDeltaStats ? "replicated" : "computed locally");
+        }
+    }
+
     @Deactivate
     public void deactivate() {
+        cfgService.unregisterProperties(getClass(), false);
         devicePortStats.removeListener(portStatsListener);
         devicePortStats.destroy();
         devicePortDeltaStats.destroy();
@@ -909,34 +950,41 @@ public class GossipDeviceStore
     public DeviceEvent updatePortStatistics(ProviderId providerId, DeviceId deviceId,
                                             Collection<PortStatistics> newStatsCollection) {
 
-        Map<PortNumber, PortStatistics> prvStatsMap = devicePortStats.get(deviceId);
-        Map<PortNumber, PortStatistics> newStatsMap = Maps.newHashMap();
-        Map<PortNumber, PortStatistics> deltaStatsMap = Maps.newHashMap();
-
-        if (prvStatsMap != null) {
-            for (PortStatistics newStats : newStatsCollection) {
-                PortNumber port = newStats.portNumber();
-                PortStatistics prvStats = prvStatsMap.get(port);
-                DefaultPortStatistics.Builder builder = DefaultPortStatistics.builder();
-                PortStatistics deltaStats = builder.build();
-                if (prvStats != null) {
-                    deltaStats = calcDeltaStats(deviceId, prvStats, newStats);
-                }
-                deltaStatsMap.put(port, deltaStats);
-                newStatsMap.put(port, newStats);
-            }
-        } else {
-            for (PortStatistics newStats : newStatsCollection) {
-                PortNumber port = newStats.portNumber();
-                newStatsMap.put(port, newStats);
-            }
+        Map<PortNumber, PortStatistics> newStatsMap = Maps.newHashMapWithExpectedSize(newStatsCollection.size());
+        for (PortStatistics newStats : newStatsCollection) {
+            newStatsMap.put(newStats.portNumber(), newStats);
+        }
+        // Otherwise each node computes the delta statistics from the replicated statistics
+        if (replicatePortDeltaStats) {
+            devicePortDeltaStats.put(deviceId, calcDeltaStats(deviceId, devicePortStats.get(deviceId), newStatsMap));
         }
-        devicePortDeltaStats.put(deviceId, deltaStatsMap);
         devicePortStats.put(deviceId, newStatsMap);
         // DeviceEvent returns null because of InternalPortStatsListener usage
         return null;
     }
 
+    // Calculates the delta statistics of each port, from none when previous statistics are unknown
+    private Map<PortNumber, PortStatistics> calcDeltaStats(DeviceId deviceId,
+                                                           Map<PortNumber, PortStatistics> prvStatsMap,
+                                                           Map<PortNumber, PortStatistics> newStatsMap) {
+        Map<PortNumber, PortStatistics> deltaStatsMap = Maps.newHashMap();
+        if (prvStatsMap == null) {
+            return deltaStatsMap;
+        }
+        for (PortStatistics newStats : newStatsMap.values()) {
+            PortNumber port = newStats.portNumber();
+            PortStatistics prvStats = prvStatsMap.get(port);
+            PortStatistics deltaStats = prvStats != null ?
+                    calcDeltaStats(deviceId, prvStats, newStats) : DefaultPortStatistics.builder().build();
+            deltaStatsMap.put(port, deltaStats);
+        }
+        return deltaStatsMap;
+    }
+
+    private Map<PortNumber, PortStatistics> getPortDeltaStatsMap(DeviceId deviceId) {
+        return replicatePortDeltaStats ? devicePortDeltaStats.get(deviceId) : localPortDeltaStats.get(deviceId);
+    }
+
     /**
      * Calculate delta statistics by subtracting previous from new statistics.
      *
@@ -993,7 +1041,7 @@ public class GossipDeviceStore
 
     @Override
     public List<PortStatistics> getPortDeltaStatistics(DeviceId deviceId) {
-        Map<PortNumber, PortStatistics> portStats = devicePortDeltaStats.get(deviceId);
+        Map<PortNumber, PortStatistics> portStats = getPortDeltaStatsMap(deviceId);
         if (portStats == null) {
             return Collections.emptyList();
         }
@@ -1002,7 +1050,7 @@ public class GossipDeviceStore
 
     @Override
     public PortStatistics getDeltaStatisticsForPort(DeviceId deviceId, PortNumber portNumber) {
-        Map<PortNumber, PortStatistics> portStatsMap = devicePortDeltaStats.get(deviceId);
+        Map<PortNumber, PortStatistics> portStatsMap = getPortDeltaStatsMap(deviceId);
         if (portStatsMap == null) {
             return null;
         }
@@ -1711,6 +1759,10 @@ public class GossipDeviceStore
         @Override
         public void event(EventuallyConsistentMapEvent<DeviceId, Map<PortNumber, PortStatistics>> event) {
             if (event.type() == PUT) {
+                if (!replicatePortDeltaStats) {
+                    Map<PortNumber, PortStatistics> prvStatsMap = localPortStats.put(event.key(), event.value());
+                    localPortDeltaStats.put(event.key(), calcDeltaStats(event.key(), prvStatsMap, event.value()));
+                }
                 Device device = devices.get(event.key());
                 if (device != null) {
                     notifyDelegate(new DeviceEvent(PORT_STATS_UPDATED, device));
@@ -67,6 +67,10 @@ import org.slf4j.LoggerFactory;
  * anti-entropy protocol is used to detect missing flows on backups (e.g. due to a node restart). Finally, when a
  * device mastership change occurs, the new master synchronizes flows with the prior master and/or backups for the
  * device, allowing mastership to be reassigned to non-backup nodes.
+ * <p>
+ * When delta backups are enabled, the master only replicates the entries changed in a bucket since the last
+ * acknowledged backup to each node, falling back to replicating the whole bucket when the backup node cannot apply
+ * the delta or when too many entries changed.
  */
 public class DeviceFlowTable {
     private static final int NUM_BUCKETS = 128;
@@ -77,15 +81,20 @@ public class DeviceFlowTable {
         .register(FlowBucketDigest.class)
         .register(LogicalTimestamp.class)
         .register(Timestamped.class)
+        .register(FlowBucketDelta.class)
         .build());
     private static final int GET_FLOW_ENTRIES_TIMEOUT = 15; // seconds
+    private static final int MIN_DELTA_BACKUP_SIZE = 32;
+    private static final int MAX_FAILED_BACKUPS = 3;
 
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     private final MessageSubject getDigestsSubject;
     private final MessageSubject getBucketSubject;
     private final MessageSubject backupSubject;
+    private final MessageSubject backupDeltaSubject;
     private final MessageSubject getFlowsSubject;
+    private final MessageSubject getAppFlowsSubject;
 
     private final DeviceId deviceId;
     private final ClusterCommunicationService clusterCommunicator;
@@ -102,6 +111,7 @@ public class DeviceFlowTable {
     private volatile long activeTerm;
 
     private long backupPeriod;
+    private volatile boolean deltaBackupEnabled;
 
     private final LifecycleEventListener lifecycleEventListener = new LifecycleEventListener() {
         @Override
@@ -117,6 +127,7 @@ public class DeviceFlowTable {
 
     private final Map<BackupOperation, LogicalTimestamp> lastBackupTimes = Maps.newConcurrentMap();
     private final Set<BackupOperation> inFlightUpdates = Sets.newConcurrentHashSet();
+    private final Map<BackupOperation, Integer> failedBackups = Maps.newConcurrentMap();
 
     DeviceFlowTable(
         DeviceId deviceId,
@@ -127,7 +138,8 @@ public class DeviceFlowTable {
         ScheduledExecutorService scheduler,
         Executor executor,
         long backupPeriod,
-        long antiEntropyPeriod) {
+        long antiEntropyPeriod,
+        boolean deltaBackupEnabled) {
         this.deviceId = deviceId;
         this.clusterCommunicator = clusterCommunicator;
         this.clusterService = clusterService;
@@ -145,12 +157,15 @@ public class DeviceFlowTable {
         getDigestsSubject = new MessageSubject(String.format("flow-store-%s-digests", deviceId));
         getBucketSubject = new MessageSubject(String.format("flow-store-%s-bucket", deviceId));
         backupSubject = new MessageSubject(String.format("flow-store-%s-backup", deviceId));
+        backupDeltaSubject = new MessageSubject(String.format("flow-store-%s-backup-delta", deviceId));
         getFlowsSubject = new MessageSubject(String.format("flow-store-%s-flows", deviceId));
+        getAppFlowsSubject = new MessageSubject(String.format("flow-store-%s-app-flows", deviceId));
 
         addListeners();
 
         setBackupPeriod(backupPeriod);
         setAntiEntropyPeriod(antiEntropyPeriod);
+        setDeltaBackupEnabled(deltaBackupEnabled);
         registerSubscribers();
 
         scheduleBackups();
@@ -167,6 +182,15 @@ public class DeviceFlowTable {
         this.backupPeriod = backupPeriod;
     }
 
+    /**
+     * Sets whether only the changes made to buckets since the last backup are replicated to backup nodes.
+     *
+     * @param deltaBackupEnabled whether delta backups are enabled
+     */
+    void setDeltaBackupEnabled(boolean deltaBackupEnabled) {
+        this.deltaBackupEnabled = deltaBackupEnabled;
+    }
+
     /**
      * Sets the flow table anti-entropy period.
      *
@@ -274,6 +298,49 @@ public class DeviceFlowTable {
         }
     }
 
+    /**
+     * Fetches the set of flow entries in the table for the given application.
+     * <p>
+     * Entries are looked up through the per-bucket application index, and a single request is sent to the
+     * master when the local node is not the master for the device.
+     *
+     * @param appId the application for which to fetch flow entries
+     * @return a future to be completed once the flow entries have been retrieved
+     */
+    public CompletableFuture<Set<FlowEntry>> getFlowEntries(ApplicationId appId) {
+        DeviceReplicaInfo replicaInfo = lifecycleManager.getReplicaInfo();
+        if (replicaInfo.isMaster(localNodeId)) {
+            return CompletableFuture.completedFuture(getLocalFlowEntries(appId));
+        } else if (replicaInfo.master() != null) {
+            return clusterCommunicator.sendAndReceive(
+                appId,
+                getAppFlowsSubject,
+                SERIALIZER::encode,
+                SERIALIZER::decode,
+                replicaInfo.master(),
+                Duration.ofSeconds(GET_FLOW_ENTRIES_TIMEOUT));
+        } else if (deviceService.isAvailable(deviceId)) {
+            throw new FlowRuleStoreException("There is no master for available device " + deviceId);
+        } else if (clusterService.getNodes().size() <= 1 + ECFlowRuleStore.backupCount) {
+            // See getFlowEntries(FlowBucket)
+            return CompletableFuture.completedFuture(getLocalFlowEntries(appId));
+        } else {
+            return CompletableFuture.completedFuture(Collections.emptySet());
+        }
+    }
+
+    /**
+     * Returns the set of flow entries stored locally for the given application.
+     *
+     * @param appId the application for which to return flow entries
+     * @return the set of flow entries for the given application
+     */
+    private Set<FlowEntry> getLocalFlowEntries(ApplicationId appId) {
+        return flowBuckets.values().stream()
+            .flatMap(bucket -> bucket.getFlowEntries(appId).stream())
+            .collect(Collectors.toSet());
+    }
+
     /**
      * Returns the bucket for the given flow identifier.
      *
@@ -459,6 +526,13 @@ public class DeviceFlowTable {
     private CompletableFuture<Void> backupBucket(FlowBucket bucket) {
         DeviceReplicaInfo replicaInfo = lifecycleManager.getReplicaInfo();
 
+        // Changes are only tracked for computing deltas to send to backup nodes.
+        synchronized (bucket) {
+            bucket.setTrackingChanges(deltaBackupEnabled
+                && replicaInfo.isMaster(localNodeId)
+                && !replicaInfo.backups().isEmpty());
+        }
+
         // Only replicate if the bucket's term matches the replica term and the local node is the current master.
         // This ensures that the bucket has been synchronized prior to a new master replicating changes to backups.
         // Only replicate if the local node is the current master.
@@ -488,15 +562,23 @@ public class DeviceFlowTable {
         BackupOperation operation = new BackupOperation(nodeId, bucket.bucketId().bucket());
         if (startBackup(operation, timestamp)) {
             CompletableFuture<Void> future = new CompletableFuture<>();
-            backup(bucket, nodeId).whenCompleteAsync((succeeded, error) -> {
+            backup(bucket, nodeId, lastBackupTimes.get(operation)).whenCompleteAsync((succeeded, error) -> {
                 if (error != null) {
                     log.debug("Backup operation {} failed", operation, error);
                     failBackup(operation);
+                    // Stop holding changes for a node that keeps failing; it gets the whole bucket once it is back.
+                    if (failedBackups.merge(operation, 1, Integer::sum) >= MAX_FAILED_BACKUPS) {
+                        resetBackup(operation);
+                        compactBucket(operation.bucket());
+                    }
                 } else if (succeeded) {
                     succeedBackup(operation, timestamp);
                 } else {
-                    log.debug("Backup operation {} failed: term mismatch", operation);
+                    // Either the terms do not match or the backup could not apply the delta. Reset the operation
+                    // so the whole bucket is replicated on the next attempt.
+                    log.debug("Backup operation {} failed: term or timestamp mismatch", operation);
                     failBackup(operation);
+                    resetBackup(operation);
                 }
                 future.complete(null);
             }, executor);
@@ -543,6 +625,36 @@ public class DeviceFlowTable {
     private void succeedBackup(BackupOperation operation, LogicalTimestamp timestamp) {
         lastBackupTimes.put(operation, timestamp);
         inFlightUpdates.remove(operation);
+        failedBackups.remove(operation);
+        compactBucket(operation.bucket());
+    }
+
+    /**
+     * Discards the changes to the given bucket that have been replicated to all backup nodes.
+     * <p>
+     * Nodes that have not been backed up to, or whose backups kept failing, are replicated the whole bucket and
+     * thus do not hold changes back.
+     *
+     * @param bucketNumber the bucket to compact
+     */
+    private void compactBucket(int bucketNumber) {
+        LogicalTimestamp replicated = null;
+        for (NodeId nodeId : lifecycleManager.getReplicaInfo().backups()) {
+            LogicalTimestamp lastBackupTime = lastBackupTimes.get(new BackupOperation(nodeId, bucketNumber));
+            if (lastBackupTime == null) {
+                continue;
+            }
+            if (replicated == null || lastBackupTime.isOlderThan(replicated)) {
+                replicated = lastBackupTime;
+            }
+        }
+
+        if (replicated != null) {
+            FlowBucket bucket = getBucket(bucketNumber);
+            synchronized (bucket) {
+                bucket.compact(replicated);
+            }
+        }
     }
 
     /**
@@ -552,20 +664,34 @@ public class DeviceFlowTable {
      */
     private void resetBackup(BackupOperation operation) {
         lastBackupTimes.remove(operation);
+        failedBackups.remove(operation);
     }
 
     /**
      * Performs the given backup operation.
+     * <p>
+     * If delta backups are enabled and the bucket was previously backed up to the node, only the changes since the
+     * last backup are sent, unless they cannot be computed or outnumber half of the entries in the bucket.
      *
-     * @param bucket the bucket to backup
-     * @param nodeId the node to which to backup the bucket
+     * @param bucket         the bucket to backup
+     * @param nodeId         the node to which to backup the bucket
+     * @param lastBackupTime the timestamp of the last successful backup to the node, or {@code null}
      * @return a future to be completed with a boolean indicating whether the backup operation was successful
      */
-    private CompletableFuture<Boolean> backup(FlowBucket bucket, NodeId nodeId) {
-        if (log.isDebugEnabled()) {
-            log.debug("Backing up {} flow entries in bucket {} to {}", bucket.count(), bucket.bucketId(), nodeId);
-        }
+    private CompletableFuture<Boolean> backup(FlowBucket bucket, NodeId nodeId, LogicalTimestamp lastBackupTime) {
         synchronized (bucket) {
+            if (deltaBackupEnabled && lastBackupTime != null) {
+                FlowBucketDelta delta = bucket.getDelta(
+                    lastBackupTime, Math.max(MIN_DELTA_BACKUP_SIZE, bucket.count() / 2));
+                if (delta != null) {
+                    log.debug("Backing up {} changed flow entries in bucket {} to {}",
+                        delta.size(), bucket.bucketId(), nodeId);
+                    return sendWithTimestamp(delta, backupDeltaSubject, nodeId);
+                }
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Backing up {} flow entries in bucket {} to {}", bucket.count(), bucket.bucketId(), nodeId);
+            }
             return sendWithTimestamp(bucket, backupSubject, nodeId);
         }
     }
@@ -600,6 +726,37 @@ public class DeviceFlowTable {
         }
     }
 
+    /**
+     * Handles a flow bucket delta backup from a remote peer.
+     *
+     * @param delta the flow bucket delta to apply
+     * @return indicates whether the delta was applied
+     */
+    private boolean onBackupDelta(FlowBucketDelta delta) {
+        log.debug("{} - Received {} changed flow entries in bucket {} to backup",
+            deviceId, delta.size(), delta.bucketId());
+
+        try {
+            DeviceReplicaInfo replicaInfo = lifecycleManager.getReplicaInfo();
+
+            // If the backup is for a different term, reject the request until we learn about the new term.
+            if (delta.term() != replicaInfo.term()) {
+                log.debug("Term mismatch for device {}: {} != {}", deviceId, delta.term(), replicaInfo);
+                return false;
+            }
+
+            // The delta can only be applied on top of the state from which it was computed; otherwise reject it
+            // so that the master falls back to a full backup of the bucket.
+            FlowBucket bucket = getBucket(delta.bucketId().bucket());
+            synchronized (bucket) {
+                return bucket.applyDelta(delta);
+            }
+        } catch (Exception e) {
+            log.warn("Failure processing backup delta request", e);
+            return false;
+        }
+    }
+
     /**
      * Runs the anti-entropy protocol.
      */
@@ -917,8 +1074,11 @@ public class DeviceFlowTable {
         receiveWithTimestamp(getDigestsSubject, v -> getDigests());
         receiveWithTimestamp(getBucketSubject, this::onGetBucket);
         receiveWithTimestamp(backupSubject, this::onBackup);
+        receiveWithTimestamp(backupDeltaSubject, this::onBackupDelta);
         clusterCommunicator.<BucketId, Set<FlowEntry>>addSubscriber(
             getFlowsSubject, SERIALIZER::decode, this::getFlowEntries, SERIALIZER::encode);
+        clusterCommunicator.<ApplicationId, Set<FlowEntry>>addSubscriber(
+            getAppFlowsSubject, SERIALIZER::decode, this::getFlowEntries, SERIALIZER::encode);
     }
 
     /**
@@ -928,7 +1088,9 @@ public class DeviceFlowTable {
         clusterCommunicator.removeSubscriber(getDigestsSubject);
         clusterCommunicator.removeSubscriber(getBucketSubject);
         clusterCommunicator.removeSubscriber(backupSubject);
+        clusterCommunicator.removeSubscriber(backupDeltaSubject);
         clusterCommunicator.removeSubscriber(getFlowsSubject);
+        clusterCommunicator.removeSubscriber(getAppFlowsSubject);
     }
 
     /**
@@ -963,6 +1125,7 @@ public class DeviceFlowTable {
         flowBuckets.values().forEach(bucket -> bucket.purge());
         lastBackupTimes.clear();
         inFlightUpdates.clear();
+        failedBackups.clear();
     }
 
     /**
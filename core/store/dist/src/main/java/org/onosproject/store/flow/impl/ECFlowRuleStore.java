@@ -129,7 +129,8 @@ import static org.onosproject.store.OsgiPropertyConstants.*;
                 BACKUP_PERIOD_MILLIS + ":Integer=" + BACKUP_PERIOD_MILLIS_DEFAULT,
                 ANTI_ENTROPY_PERIOD_MILLIS + ":Integer=" + ANTI_ENTROPY_PERIOD_MILLIS_DEFAULT,
                 EC_FLOW_RULE_STORE_PERSISTENCE_ENABLED + ":Boolean=" + EC_FLOW_RULE_STORE_PERSISTENCE_ENABLED_DEFAULT,
-                MAX_BACKUP_COUNT + ":Integer=" + MAX_BACKUP_COUNT_DEFAULT
+                MAX_BACKUP_COUNT + ":Integer=" + MAX_BACKUP_COUNT_DEFAULT,
+                DELTA_BACKUP_ENABLED + ":Boolean=" + DELTA_BACKUP_ENABLED_DEFAULT
         }
 )
 public class ECFlowRuleStore
@@ -157,6 +158,9 @@ public class ECFlowRuleStore
     /** Max number of backup copies for each device. */
     protected static volatile int backupCount = MAX_BACKUP_COUNT_DEFAULT;
 
+    /** Indicates whether only flow changes since the last backup are replicated to backup nodes. */
+    private boolean deltaBackupEnabled = DELTA_BACKUP_ENABLED_DEFAULT;
+
     private InternalFlowTable flowTable = new InternalFlowTable();
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
@@ -284,6 +288,7 @@ public class ECFlowRuleStore
         int newBackupPeriod;
         int newBackupCount;
         int newAntiEntropyPeriod;
+        boolean newDeltaBackupEnabled;
         try {
             String s = get(properties, "msgHandlerPoolSize");
             newPoolSize = isNullOrEmpty(s) ? msgHandlerPoolSize : Integer.parseInt(s.trim());
@@ -296,11 +301,15 @@ public class ECFlowRuleStore
 
             s = get(properties, ANTI_ENTROPY_PERIOD_MILLIS);
             newAntiEntropyPeriod = isNullOrEmpty(s) ? antiEntropyPeriod : Integer.parseInt(s.trim());
+
+            s = get(properties, DELTA_BACKUP_ENABLED);
+            newDeltaBackupEnabled = isNullOrEmpty(s) ? deltaBackupEnabled : Boolean.parseBoolean(s.trim());
         } catch (NumberFormatException | ClassCastException e) {
             newPoolSize = MESSAGE_HANDLER_THREAD_POOL_SIZE_DEFAULT;
             newBackupPeriod = BACKUP_PERIOD_MILLIS_DEFAULT;
             newBackupCount = MAX_BACKUP_COUNT_DEFAULT;
             newAntiEntropyPeriod = ANTI_ENTROPY_PERIOD_MILLIS_DEFAULT;
+            newDeltaBackupEnabled = DELTA_BACKUP_ENABLED_DEFAULT;
         }
 
         if (newBackupPeriod != backupPeriod) {
@@ -313,6 +322,11 @@ public class ECFlowRuleStore
             flowTable.setAntiEntropyPeriod(newAntiEntropyPeriod);
         }
 
+        if (newDeltaBackupEnabled != deltaBackupEnabled) {
+            deltaBackupEnabled = newDeltaBackupEnabled;
+            flowTable.setDeltaBackupEnabled(newDeltaBackupEnabled);
+        }
+
         if (newPoolSize != msgHandlerPoolSize) {
             msgHandlerPoolSize = newPoolSize;
             ExecutorService oldMsgHandler = messageHandlingExecutor;
@@ -360,8 +374,8 @@ public class ECFlowRuleStore
     }
 
     private void logConfig(String prefix) {
-        log.info("{} with msgHandlerPoolSize = {}; backupPeriod = {}, backupCount = {}",
-            prefix, msgHandlerPoolSize, backupPeriod, backupCount);
+        log.info("{} with msgHandlerPoolSize = {}; backupPeriod = {}, backupCount = {}, deltaBackupEnabled = {}",
+            prefix, msgHandlerPoolSize, backupPeriod, backupCount, deltaBackupEnabled);
     }
 
     @Override
@@ -431,6 +445,11 @@ public class ECFlowRuleStore
         return flowTable.getFlowEntries(deviceId);
     }
 
+    @Override
+    public Iterable<FlowEntry> getFlowEntriesById(DeviceId deviceId, ApplicationId appId) {
+        return flowTable.getFlowEntries(deviceId, appId);
+    }
+
     @Override
     public void storeFlowRule(FlowRule rule) {
         storeBatch(new FlowRuleBatchOperation(
@@ -741,7 +760,8 @@ public class ECFlowRuleStore
                 backupScheduler,
                 new OrderedExecutor(backupExecutor),
                 backupPeriod,
-                antiEntropyPeriod));
+                antiEntropyPeriod,
+                deltaBackupEnabled));
         }
 
         /**
@@ -753,6 +773,15 @@ public class ECFlowRuleStore
             flowTables.values().forEach(flowTable -> flowTable.setBackupPeriod(backupPeriod));
         }
 
+        /**
+         * Sets whether flow table backups are incremental.
+         *
+         * @param deltaBackupEnabled whether delta backups are enabled
+         */
+        void setDeltaBackupEnabled(boolean deltaBackupEnabled) {
+            flowTables.values().forEach(flowTable -> flowTable.setDeltaBackupEnabled(deltaBackupEnabled));
+        }
+
         /**
          * Sets the flow table anti-entropy period.
          *
@@ -779,7 +808,8 @@ public class ECFlowRuleStore
                 backupScheduler,
                 new OrderedExecutor(backupExecutor),
                 backupPeriod,
-                antiEntropyPeriod));
+                antiEntropyPeriod,
+                deltaBackupEnabled));
         }
 
         /**
@@ -836,6 +866,26 @@ public class ECFlowRuleStore
             }
         }
 
+        /**
+         * Returns the set of flow entries for the given device and application.
+         *
+         * @param deviceId the device for which to lookup flow entries
+         * @param appId    the application for which to lookup flow entries
+         * @return the set of flow entries for the given device and application
+         */
+        public Iterable<FlowEntry> getFlowEntries(DeviceId deviceId, ApplicationId appId) {
+            try {
+                return getFlowTable(deviceId).getFlowEntries(appId)
+                    .get(GET_FLOW_ENTRIES_TIMEOUT, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                throw new FlowRuleStoreException(e.getCause());
+            } catch (TimeoutException e) {
+                throw new FlowRuleStoreException.Timeout();
+            } catch (InterruptedException e) {
+                throw new FlowRuleStoreException.Interrupted();
+            }
+        }
+
         /**
          * Adds the given flow rule.
          *
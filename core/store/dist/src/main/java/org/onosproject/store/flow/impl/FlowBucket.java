@@ -15,12 +15,17 @@
  */
 package org.onosproject.store.flow.impl;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.net.flow.DefaultFlowEntry;
 import org.onosproject.net.flow.FlowEntry;
@@ -36,16 +41,31 @@ import org.slf4j.LoggerFactory;
  * <p>
  * The bucket is mutable. When changes are made to the bucket, the term and timestamp in which the change
  * occurred is recorded for ordering changes.
+ * <p>
+ * While changes are tracked, the bucket also keeps a bounded local log of the entries changed since
+ * {@link #changesSince()}, from which {@link FlowBucketDelta}s are computed to replicate changes incrementally.
+ * The log is not replicated.
+ * <p>
+ * Flows are also indexed locally by application. The index is built lazily from the bucket contents, so that it
+ * remains consistent when the bucket is replaced by a copy received from a peer.
  */
 public class FlowBucket {
     private static final Logger LOGGER = LoggerFactory.getLogger(FlowBucket.class);
+    private static final int MAX_TRACKED_CHANGES = 4096;
     private final BucketId bucketId;
     private volatile long term;
     private volatile LogicalTimestamp timestamp;
     private final Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> flowBucket;
+    private transient Map<StoredFlowEntry, LogicalTimestamp> changes;
+    private transient LogicalTimestamp changesSince;
+    private transient boolean trackingChanges;
+    private transient volatile Map<Short, Set<FlowId>> appIndex;
 
     FlowBucket(BucketId bucketId) {
         this(bucketId, 0, new LogicalTimestamp(0), Maps.newConcurrentMap());
+        this.changes = Maps.newConcurrentMap();
+        this.changesSince = timestamp;
+        this.trackingChanges = true;
     }
 
     private FlowBucket(
@@ -115,6 +135,82 @@ public class FlowBucket {
         return flowEntries != null ? flowEntries : flowBucket.computeIfAbsent(flowId, id -> Maps.newConcurrentMap());
     }
 
+    /**
+     * Returns the flow entries in the bucket for the given application.
+     *
+     * @param appId the application identifier
+     * @return the flow entries of the given application
+     */
+    public List<FlowEntry> getFlowEntries(ApplicationId appId) {
+        Set<FlowId> flowIds = appIndex().get(appId.id());
+        if (flowIds == null) {
+            return Collections.emptyList();
+        }
+        List<FlowEntry> entries = Lists.newArrayList();
+        for (FlowId flowId : flowIds) {
+            Map<StoredFlowEntry, StoredFlowEntry> flowEntries = flowBucket.get(flowId);
+            if (flowEntries != null) {
+                for (StoredFlowEntry entry : flowEntries.values()) {
+                    if (entry.appId() == appId.id()) {
+                        entries.add(entry);
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Returns the application index of the bucket, building it if necessary.
+     */
+    private Map<Short, Set<FlowId>> appIndex() {
+        Map<Short, Set<FlowId>> appIndex = this.appIndex;
+        if (appIndex == null) {
+            synchronized (this) {
+                appIndex = this.appIndex;
+                if (appIndex == null) {
+                    appIndex = Maps.newConcurrentMap();
+                    for (Map<StoredFlowEntry, StoredFlowEntry> flowEntries : flowBucket.values()) {
+                        for (StoredFlowEntry entry : flowEntries.values()) {
+                            appIndex.computeIfAbsent(entry.appId(), id -> Sets.newConcurrentHashSet()).add(entry.id());
+                        }
+                    }
+                    this.appIndex = appIndex;
+                }
+            }
+        }
+        return appIndex;
+    }
+
+    /**
+     * Adds the given entry to the application index, if it was built.
+     */
+    private void indexEntry(StoredFlowEntry entry) {
+        Map<Short, Set<FlowId>> appIndex = this.appIndex;
+        if (appIndex != null) {
+            appIndex.computeIfAbsent(entry.appId(), id -> Sets.newConcurrentHashSet()).add(entry.id());
+        }
+    }
+
+    /**
+     * Removes the given entry from the application index, if it was built, unless another entry with the same
+     * flow identifier and application remains in the bucket.
+     */
+    private void unindexEntry(StoredFlowEntry entry) {
+        Map<Short, Set<FlowId>> appIndex = this.appIndex;
+        if (appIndex == null) {
+            return;
+        }
+        Map<StoredFlowEntry, StoredFlowEntry> flowEntries = flowBucket.get(entry.id());
+        if (flowEntries != null && flowEntries.values().stream().anyMatch(e -> e.appId() == entry.appId())) {
+            return;
+        }
+        appIndex.computeIfPresent(entry.appId(), (id, flowIds) -> {
+            flowIds.remove(entry.id());
+            return flowIds.isEmpty() ? null : flowIds;
+        });
+    }
+
     /**
      * Counts the flows in the bucket.
      *
@@ -151,6 +247,163 @@ public class FlowBucket {
         this.timestamp = timestamp;
     }
 
+    /**
+     * Records an update of the given entry to the bucket.
+     */
+    private void recordUpdate(StoredFlowEntry entry, long term, LogicalTimestamp timestamp) {
+        recordUpdate(term, timestamp);
+        if (!trackingChanges) {
+            return;
+        }
+        Map<StoredFlowEntry, LogicalTimestamp> changes = this.changes;
+        if (changes == null) {
+            // The log is missing (the bucket was received from a peer). Restart it from the previous state so
+            // that only changes from now on are tracked.
+            resetChanges(new LogicalTimestamp(timestamp.value() - 1));
+            changes = this.changes;
+        } else if (changes.size() >= MAX_TRACKED_CHANGES) {
+            // The log is too large to be worth keeping. Earlier changes may share the timestamp of this one,
+            // as when purging entries, so the log restarts from this change's state: peers at any previous
+            // state get the whole bucket.
+            resetChanges(timestamp);
+            changes = this.changes;
+        }
+        changes.put(entry, timestamp);
+    }
+
+    /**
+     * Restarts the change log of the bucket.
+     *
+     * @param since the timestamp after which the log tracks changes
+     */
+    private void resetChanges(LogicalTimestamp since) {
+        this.changes = Maps.newConcurrentMap();
+        this.changesSince = since;
+    }
+
+    /**
+     * Discards the change log of the bucket.
+     * <p>
+     * Used when entries are dropped without being tracked, so that no delta can be computed against a state
+     * preceding the discard.
+     */
+    private void discardChanges() {
+        this.changes = null;
+        this.changesSince = null;
+    }
+
+    /**
+     * Sets whether the changes to the bucket are tracked.
+     * <p>
+     * Changes need not be tracked when there are no nodes to replicate them to. When tracking resumes, the log
+     * starts from the current state of the bucket.
+     *
+     * @param trackingChanges whether to track the changes to the bucket
+     */
+    void setTrackingChanges(boolean trackingChanges) {
+        if (trackingChanges == this.trackingChanges) {
+            return;
+        }
+        this.trackingChanges = trackingChanges;
+        if (trackingChanges) {
+            resetChanges(timestamp);
+        } else {
+            discardChanges();
+        }
+    }
+
+    /**
+     * Returns the timestamp after which all changes to the bucket are tracked.
+     *
+     * @return the change log start timestamp or {@code null} if no changes are tracked
+     */
+    LogicalTimestamp changesSince() {
+        return changesSince;
+    }
+
+    /**
+     * Returns the changes made to the bucket since the given timestamp.
+     * <p>
+     * Returns {@code null} if the change log does not cover the given timestamp or if more than {@code maxChanges}
+     * entries changed, in which case the whole bucket should be replicated instead.
+     *
+     * @param since      the timestamp after which to return changes
+     * @param maxChanges the maximum number of changes to return
+     * @return the delta since the given timestamp or {@code null} if a delta cannot be computed
+     */
+    FlowBucketDelta getDelta(LogicalTimestamp since, int maxChanges) {
+        Map<StoredFlowEntry, LogicalTimestamp> changes = this.changes;
+        LogicalTimestamp changesSince = this.changesSince;
+        if (changes == null || changesSince == null || since.isOlderThan(changesSince)) {
+            return null;
+        }
+
+        List<StoredFlowEntry> updates = Lists.newArrayList();
+        List<StoredFlowEntry> removals = Lists.newArrayList();
+        for (Map.Entry<StoredFlowEntry, LogicalTimestamp> change : changes.entrySet()) {
+            if (change.getValue().isNewerThan(since)) {
+                StoredFlowEntry entry = change.getKey();
+                Map<StoredFlowEntry, StoredFlowEntry> flowEntries = flowBucket.get(entry.id());
+                StoredFlowEntry current = flowEntries != null ? flowEntries.get(entry) : null;
+                if (current != null) {
+                    updates.add(current);
+                } else {
+                    removals.add(entry);
+                }
+                if (updates.size() + removals.size() > maxChanges) {
+                    return null;
+                }
+            }
+        }
+        return new FlowBucketDelta(bucketId, term, since, timestamp, updates, removals);
+    }
+
+    /**
+     * Discards changes that have been replicated up to the given timestamp.
+     *
+     * @param timestamp the timestamp up to which changes are no longer needed
+     */
+    void compact(LogicalTimestamp timestamp) {
+        Map<StoredFlowEntry, LogicalTimestamp> changes = this.changes;
+        LogicalTimestamp changesSince = this.changesSince;
+        if (changes == null || changesSince == null || !timestamp.isNewerThan(changesSince)) {
+            return;
+        }
+        changes.values().removeIf(changeTime -> !changeTime.isNewerThan(timestamp));
+        this.changesSince = timestamp;
+    }
+
+    /**
+     * Applies the given delta to the bucket.
+     * <p>
+     * The delta is only applied if it was computed in the bucket's term from a state no more recent than the
+     * bucket's.
+     *
+     * @param delta the delta to apply
+     * @return indicates whether the delta was applied
+     */
+    boolean applyDelta(FlowBucketDelta delta) {
+        if (delta.term() != term || timestamp.isOlderThan(delta.baseTimestamp())) {
+            return false;
+        }
+        if (!delta.timestamp().isNewerThan(timestamp)) {
+            return true;
+        }
+        for (StoredFlowEntry entry : delta.updates()) {
+            getFlowEntries(entry.id()).put(entry, entry);
+            indexEntry(entry);
+        }
+        for (StoredFlowEntry entry : delta.removals()) {
+            flowBucket.computeIfPresent(entry.id(), (flowId, flowEntries) -> {
+                flowEntries.remove(entry);
+                return flowEntries.isEmpty() ? null : flowEntries;
+            });
+            unindexEntry(entry);
+        }
+        recordUpdate(delta.term(), delta.timestamp());
+        return true;
+    }
+
     /**
      * Adds the given flow rule to the bucket.
      *
@@ -164,7 +417,8 @@ public class FlowBucket {
             flowEntries = flowBucket.computeIfAbsent(rule.id(), id -> Maps.newConcurrentMap());
         }
         flowEntries.put((StoredFlowEntry) rule, (StoredFlowEntry) rule);
-        recordUpdate(term, clock.getTimestamp());
+        indexEntry((StoredFlowEntry) rule);
+        recordUpdate((StoredFlowEntry) rule, term, clock.getTimestamp());
     }
 
     /**
@@ -185,7 +439,7 @@ public class FlowBucket {
                 if (stored instanceof DefaultFlowEntry) {
                     DefaultFlowEntry storedEntry = (DefaultFlowEntry) stored;
                     if (updated.created() >= storedEntry.created()) {
-                        recordUpdate(term, clock.getTimestamp());
+                        recordUpdate(updated, term, clock.getTimestamp());
                         return updated;
                     } else {
                         LOGGER.debug("Trying to update more recent flow entry {} (stored: {})", updated, stored);
@@ -218,7 +472,7 @@ public class FlowBucket {
             if (stored != null) {
                 T result = function.apply(stored);
                 if (result != null) {
-                    recordUpdate(term, clock.getTimestamp());
+                    recordUpdate(stored, term, clock.getTimestamp());
                     resultRef.set(result);
                 }
             }
@@ -257,7 +511,8 @@ public class FlowBucket {
         });
 
         if (removedRule.get() != null) {
-            recordUpdate(term, clock.getTimestamp());
+            unindexEntry((StoredFlowEntry) removedRule.get());
+            recordUpdate((StoredFlowEntry) removedRule.get(), term, clock.getTimestamp());
             return removedRule.get();
         } else {
             return null;
@@ -269,6 +524,8 @@ public class FlowBucket {
      */
     public void purge() {
         flowBucket.clear();
+        appIndex = null;
+        discardChanges();
     }
 
     /**
@@ -279,12 +536,24 @@ public class FlowBucket {
      * @param clock the logical clock
      */
     public void purge(ApplicationId appId, long term, LogicalClock clock) {
-        boolean anythingRemoved = flowBucket.values().removeIf(flowEntryMap -> {
-            flowEntryMap.values().removeIf(storedFlowEntry -> storedFlowEntry.appId() == appId.id());
+        List<StoredFlowEntry> removed = Lists.newArrayList();
+        flowBucket.values().removeIf(flowEntryMap -> {
+            flowEntryMap.values().removeIf(storedFlowEntry -> {
+                if (storedFlowEntry.appId() == appId.id()) {
+                    removed.add(storedFlowEntry);
+                    return true;
+                }
+                return false;
+            });
             return flowEntryMap.isEmpty();
         });
-        if (anythingRemoved) {
-            recordUpdate(term, clock.getTimestamp());
+        if (!removed.isEmpty()) {
+            Map<Short, Set<FlowId>> appIndex = this.appIndex;
+            if (appIndex != null) {
+                appIndex.remove(appId.id());
+            }
+            LogicalTimestamp timestamp = clock.getTimestamp();
+            removed.forEach(entry -> recordUpdate(entry, term, timestamp));
         }
     }
 
@@ -296,5 +565,7 @@ public class FlowBucket {
         term = 0;
         timestamp = new LogicalTimestamp(0);
         flowBucket.clear();
+        appIndex = null;
+        discardChanges();
     }
 }
@@ -16,8 +16,6 @@
 package org.onosproject.store.group.impl;
 
 import com.google.common.collect.FluentIterable;
-import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 import org.onlab.util.KryoNamespace;
 import org.onosproject.cfg.ComponentConfigService;
@@ -70,7 +68,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Dictionary;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -167,7 +164,10 @@ public class DistributedGroupStore
     private ExecutorService messageHandlingExecutor;
     private static final int MESSAGE_HANDLER_THREAD_POOL_SIZE = 1;
 
-    private final HashMap<DeviceId, Boolean> deviceAuditStatus = new HashMap<>();
+    private final ConcurrentMap<DeviceId, Boolean> deviceAuditStatus = new ConcurrentHashMap<>();
+
+    // Snapshots of the group entries of each device, shared by the readers
+    private final GroupSnapshots groupSnapshots = new GroupSnapshots();
 
     private final AtomicInteger groupIdGen = new AtomicInteger();
 
@@ -329,6 +329,26 @@ public class DistributedGroupStore
         return groupEntriesById.computeIfAbsent(deviceId, k -> new ConcurrentHashMap<>());
     }
 
+    /**
+     * Puts the given group entry in the group key table.
+     *
+     * @param group group entry
+     */
+    private void putGroupStoreEntry(StoredGroupEntry group) {
+        getGroupStoreKeyMap().put(new GroupStoreKeyMapKey(group.deviceId(), group.appCookie()), group);
+        groupSnapshots.invalidate(group.deviceId());
+    }
+
+    /**
+     * Removes the given group entry from the group key table.
+     *
+     * @param group group entry
+     */
+    private void removeGroupStoreEntry(StoredGroupEntry group) {
+        getGroupStoreKeyMap().remove(new GroupStoreKeyMapKey(group.deviceId(), group.appCookie()));
+        groupSnapshots.invalidate(group.deviceId());
+    }
+
     /**
      * Returns the pending group request table.
      *
@@ -357,8 +377,7 @@ public class DistributedGroupStore
      */
     @Override
     public int getGroupCount(DeviceId deviceId) {
-        return (getGroups(deviceId) != null) ?
-                Iterables.size(getGroups(deviceId)) : 0;
+        return getStoredGroups(deviceId).size();
     }
 
     /**
@@ -369,22 +388,28 @@ public class DistributedGroupStore
      */
     @Override
     public Iterable<Group> getGroups(DeviceId deviceId) {
-        // Let ImmutableSet.copyOf do the type conversion
-        return ImmutableSet.copyOf(getStoredGroups(deviceId));
+        // The snapshot is immutable, hence safely shared as is
+        return Collections.unmodifiableSet(getStoredGroups(deviceId));
     }
 
-    private Iterable<StoredGroupEntry> getStoredGroups(DeviceId deviceId) {
+    private Set<StoredGroupEntry> getStoredGroups(DeviceId deviceId) {
         NodeId master = mastershipService.getMasterFor(deviceId);
         if (master == null && deviceService.isAvailable(deviceId)) {
             log.debug("Failed to getGroups: No master for {}", deviceId);
             return Collections.emptySet();
         }
 
-        Set<StoredGroupEntry> storedGroups = getGroupStoreKeyMap().values()
+        // Entries of the group table are updated in place, the snapshot
+        // holds copies of them
+        return groupSnapshots.get(deviceId, () -> getGroupStoreKeyMap().values()
                 .stream()
                 .filter(input -> input.deviceId().equals(deviceId))
-                .collect(Collectors.toSet());
-        return ImmutableSet.copyOf(storedGroups);
+                .map(this::copyGroupEntry)
+                .collect(Collectors.toList()));
+    }
+
+    private StoredGroupEntry copyGroupEntry(StoredGroupEntry group) {
+        return clusterMsgSerializer.deserialize(clusterMsgSerializer.serialize(group));
     }
 
     /**
@@ -587,9 +612,7 @@ public class DistributedGroupStore
                     StoredGroupEntry group = new DefaultGroup(
                             matchingExtraneousGroup.id(), groupDesc);
                     // Insert the newly created group entry into key and id maps
-                    getGroupStoreKeyMap().
-                            put(new GroupStoreKeyMapKey(groupDesc.deviceId(),
-                                                        groupDesc.appCookie()), group);
+                    putGroupStoreEntry(group);
                     // Ensure it also inserted into group id based table to
                     // avoid any chances of duplication in group id generation
                     getGroupIdTable(groupDesc.deviceId()).
@@ -607,9 +630,7 @@ public class DistributedGroupStore
                     StoredGroupEntry modifiedGroup = new DefaultGroup(
                             matchingExtraneousGroup.id(), groupDesc);
                     modifiedGroup.setState(GroupState.PENDING_UPDATE);
-                    getGroupStoreKeyMap().
-                            put(new GroupStoreKeyMapKey(groupDesc.deviceId(),
-                                                        groupDesc.appCookie()), modifiedGroup);
+                    putGroupStoreEntry(modifiedGroup);
                     // Ensure it also inserted into group id based table to
                     // avoid any chances of duplication in group id generation
                     getGroupIdTable(groupDesc.deviceId()).
@@ -636,9 +657,7 @@ public class DistributedGroupStore
                 StoredGroupEntry group = new DefaultGroup(
                         matchingExtraneousGroup.id(), groupDesc);
                 // Insert the newly created group entry into key and id maps
-                getGroupStoreKeyMap().
-                        put(new GroupStoreKeyMapKey(groupDesc.deviceId(),
-                                                    groupDesc.appCookie()), group);
+                putGroupStoreEntry(group);
                 // Ensure it also inserted into group id based table to
                 // avoid any chances of duplication in group id generation
                 getGroupIdTable(groupDesc.deviceId()).
@@ -676,9 +695,7 @@ public class DistributedGroupStore
         // Create a group entry object
         StoredGroupEntry group = new DefaultGroup(id, groupDesc);
         // Insert the newly created group entry into key and id maps
-        getGroupStoreKeyMap().
-                put(new GroupStoreKeyMapKey(groupDesc.deviceId(),
-                                            groupDesc.appCookie()), group);
+        putGroupStoreEntry(group);
         // Ensure it also inserted into group id based table to
         // avoid any chances of duplication in group id generation
         getGroupIdTable(groupDesc.deviceId()).
@@ -789,9 +806,7 @@ public class DistributedGroupStore
             //groupkey based map update listener
             log.debug("updateGroupDescriptionInternal with type {}: Group {} updated with buckets",
                       type, newGroup.id());
-            getGroupStoreKeyMap().
-                    put(new GroupStoreKeyMapKey(newGroup.deviceId(),
-                                                newGroup.appCookie()), newGroup);
+            putGroupStoreEntry(newGroup);
             notifyDelegate(new GroupEvent(Type.GROUP_UPDATE_REQUESTED, newGroup));
         } else {
             log.warn("updateGroupDescriptionInternal with type {}: Group {} No "
@@ -912,9 +927,7 @@ public class DistributedGroupStore
         // TODO is this really safe ?
         synchronized (existing) {
             existing.setState(GroupState.PENDING_DELETE);
-            getGroupStoreKeyMap().
-                    put(new GroupStoreKeyMapKey(existing.deviceId(), existing.appCookie()),
-                        existing);
+            putGroupStoreEntry(existing);
         }
         log.debug("deleteGroupDescriptionInternal: in device {} issuing GROUP_REMOVE_REQUESTED for {}",
                   deviceId, existing.id());
@@ -990,9 +1003,7 @@ public class DistributedGroupStore
                     event = new GroupEvent(Type.GROUP_UPDATED, existing);
                 }
                 //Re-PUT map entries to trigger map update events
-                getGroupStoreKeyMap().
-                        put(new GroupStoreKeyMapKey(existing.deviceId(),
-                                                    existing.appCookie()), existing);
+                putGroupStoreEntry(existing);
             }
         } else {
             log.warn("addOrUpdateGroupEntry: Group update {} " +
@@ -1047,9 +1058,7 @@ public class DistributedGroupStore
                     existing.setIsGroupStateAddedFirstTime(false);
                 }
                 //Re-PUT map entries to trigger map update events
-                getGroupStoreKeyMap().
-                        put(new GroupStoreKeyMapKey(existing.deviceId(),
-                                                    existing.appCookie()), existing);
+                putGroupStoreEntry(existing);
             }
         } else {
             log.warn("updateStatsGroupEntry: Group update {} "
@@ -1073,8 +1082,7 @@ public class DistributedGroupStore
                       group.deviceId());
             //Removal from groupid based map will happen in the
             //map update listener
-            getGroupStoreKeyMap().remove(new GroupStoreKeyMapKey(existing.deviceId(),
-                                                                 existing.appCookie()));
+            removeGroupStoreEntry(existing);
             notifyDelegate(new GroupEvent(Type.GROUP_REMOVED, existing));
         } else {
             log.warn("removeGroupEntry for {} in device{} is "
@@ -1087,6 +1095,7 @@ public class DistributedGroupStore
     private void purgeGroupEntries(Set<Entry<GroupStoreKeyMapKey, StoredGroupEntry>> entries) {
         entries.forEach(entry -> {
             groupStoreEntriesByKey.remove(entry.getKey());
+            groupSnapshots.invalidate(entry.getKey().deviceId());
         });
     }
 
@@ -1195,10 +1204,10 @@ public class DistributedGroupStore
 
     @Override
     public boolean deviceInitialAuditStatus(DeviceId deviceId) {
-        synchronized (deviceAuditStatus) {
-            Boolean audited = deviceAuditStatus.get(deviceId);
-            return audited != null && audited;
-        }
+        // Read on every group stats reply; writers still serialize on the map
+        // to process the requests queued while the audit is pending
+        Boolean audited = deviceAuditStatus.get(deviceId);
+        return audited != null && audited;
     }
 
     @Override
@@ -1265,8 +1274,7 @@ public class DistributedGroupStore
                              existing.deviceId());
                     //Removal from groupid based map will happen in the
                     //map update listener
-                    getGroupStoreKeyMap().remove(new GroupStoreKeyMapKey(existing.deviceId(),
-                                                                         existing.appCookie()));
+                    removeGroupStoreEntry(existing);
                 }
                 break;
             case MODIFY:
@@ -1339,6 +1347,8 @@ public class DistributedGroupStore
                       mapEvent.type(),
                       group.id(),
                       (key != null ? key.deviceId() : null));
+            // Updates from other instances leave the snapshot outdated as well
+            groupSnapshots.invalidate(group.deviceId());
             if (mapEvent.type() == MapEvent.Type.INSERT || mapEvent.type() == MapEvent.Type.UPDATE) {
                 // Update the group ID table
                 getGroupIdTable(group.deviceId()).put(group.id(), group);
@@ -1678,11 +1688,13 @@ public class DistributedGroupStore
                         group.id(),
                         group.deviceId(),
                         group.state());
-                group.setState(Group.GroupState.PENDING_ADD_RETRY);
+                // The entry comes from a snapshot shared with the readers
+                StoredGroupEntry retried = copyGroupEntry(group);
+                retried.setState(Group.GroupState.PENDING_ADD_RETRY);
                 //Re-PUT map entries to trigger map update events
-                getGroupStoreKeyMap().put(new GroupStoreKeyMapKey(group.deviceId(), group.appCookie()), group);
+                putGroupStoreEntry(retried);
                 notifyDelegate(new GroupEvent(GroupEvent.Type.GROUP_ADD_REQUESTED,
-                                              group));
+                                              retried));
                 break;
             default:
                 log.debug("Group {} has not been installed.", group);
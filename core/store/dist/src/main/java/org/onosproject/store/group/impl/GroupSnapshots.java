@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.group.impl;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.group.StoredGroupEntry;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Versioned immutable snapshots of the group entries of each device, shared
+ * by the readers of the group store instead of copying the group table on
+ * every read.
+ * <p>
+ * Writers only bump the version of the device once done with the group table;
+ * the next reader loads a new snapshot, which is then shared by the readers
+ * until the next write. A batch of writes, such as the stats updates of a
+ * group statistics reply, thus publishes a single snapshot.
+ */
+final class GroupSnapshots {
+
+    private final Map<DeviceId, AtomicLong> versions = Maps.newConcurrentMap();
+    private final Map<DeviceId, Snapshot> snapshots = Maps.newConcurrentMap();
+
+    /**
+     * Returns the snapshot of the group entries of the given device, loading
+     * a new snapshot if the groups of the device changed since the last one.
+     *
+     * @param deviceId device identifier
+     * @param loader   loads copies of the group entries of the device, as
+     *                 the entries of the group table are updated in place
+     * @return immutable set of group entries
+     */
+    ImmutableSet<StoredGroupEntry> get(DeviceId deviceId, Supplier<Iterable<StoredGroupEntry>> loader) {
+        // Read before loading, so that a write racing the load leaves
+        // the loaded snapshot outdated
+        long version = version(deviceId).get();
+        Snapshot current = snapshots.get(deviceId);
+        if (current != null && current.version == version) {
+            return current.groups;
+        }
+        ImmutableSet<StoredGroupEntry> groups = ImmutableSet.copyOf(loader.get());
+        snapshots.compute(deviceId, (id, existing) ->
+                existing != null && existing.version >= version ? existing : new Snapshot(version, groups));
+        return groups;
+    }
+
+    /**
+     * Signals that the group entries of the given device changed, to be
+     * called once the group table is written.
+     *
+     * @param deviceId device identifier
+     */
+    void invalidate(DeviceId deviceId) {
+        version(deviceId).incrementAndGet();
+    }
+
+    private AtomicLong version(DeviceId deviceId) {
+        return versions.computeIfAbsent(deviceId, id -> new AtomicLong());
+    }
+
+    // Group entries of a device as of a given version
+    private static final class Snapshot {
+        private final long version;
+        private final ImmutableSet<StoredGroupEntry> groups;
+
+        private Snapshot(long version, ImmutableSet<StoredGroupEntry> groups) {
+            this.version = version;
+            this.groups = groups;
+        }
+    }
+}
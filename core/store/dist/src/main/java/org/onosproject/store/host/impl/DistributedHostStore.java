@@ -50,7 +50,6 @@ import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
@@ -59,7 +58,6 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkState;
@@ -84,7 +82,8 @@ public class DistributedHostStore
 
     private ConsistentMap<HostId, DefaultHost> hostsConsistentMap;
     private Map<HostId, DefaultHost> hosts;
-    private Map<IpAddress, Set<Host>> hostsByIp;
+    // Local indexes of the hosts, maintained from the map events
+    private volatile HostIndexes indexes = new HostIndexes();
     MapEventListener<HostId, DefaultHost> hostLocationTracker =
             new HostLocationTracker();
 
@@ -107,11 +106,11 @@ public class DistributedHostStore
         executor = newSingleThreadScheduledExecutor(groupedThreads("onos/hosts", "status-listener", log));
         statusChangeListener = status -> {
             if (status == Status.ACTIVE) {
-                executor.execute(this::loadHostsByIp);
+                executor.execute(this::loadHostIndexes);
             }
         };
         hostsConsistentMap.addStatusChangeListener(statusChangeListener);
-        loadHostsByIp();
+        loadHostIndexes();
         log.info("Started");
     }
 
@@ -123,18 +122,14 @@ public class DistributedHostStore
         log.info("Stopped");
     }
 
-    private void loadHostsByIp() {
-        hostsByIp = new ConcurrentHashMap<IpAddress, Set<Host>>();
+    private void loadHostIndexes() {
+        // Built aside, so that the readers never see partial indexes
+        HostIndexes loaded = new HostIndexes();
         hostsConsistentMap.asJavaMap().values().forEach(host -> {
-            host.ipAddresses().forEach(ip -> {
-                Set<Host> existingHosts = hostsByIp.get(ip);
-                if (existingHosts == null) {
-                    hostsByIp.put(ip, addHosts(host));
-                } else {
-                    existingHosts.add(host);
-                }
-            });
+            loaded.updateHostsByIp(host, null);
+            loaded.updateHostIndexes(host, null);
         });
+        indexes = loaded;
     }
 
     private boolean shouldUpdate(DefaultHost existingHost,
@@ -244,7 +239,7 @@ public class DistributedHostStore
                 if (addresses != null && addresses.contains(ipAddress)) {
                     addresses = new HashSet<>(existingHost.ipAddresses());
                     addresses.remove(ipAddress);
-                    removeIpFromHostsByIp(existingHost, ipAddress);
+                    indexes.removeIpFromHostsByIp(existingHost, ipAddress);
                     return new DefaultHost(existingHost.providerId(),
                             hostId,
                             existingHost.mac(),
@@ -334,17 +329,17 @@ public class DistributedHostStore
 
     @Override
     public Set<Host> getHosts(VlanId vlanId) {
-        return filter(hosts.values(), host -> Objects.equals(host.vlan(), vlanId));
+        return lookup(indexes.hostsByVlan, vlanId);
     }
 
     @Override
     public Set<Host> getHosts(MacAddress mac) {
-        return filter(hosts.values(), host -> Objects.equals(host.mac(), mac));
+        return lookup(indexes.hostsByMac, mac);
     }
 
     @Override
     public Set<Host> getHosts(IpAddress ip) {
-        Set<Host> hosts = hostsByIp.get(ip);
+        Set<Host> hosts = indexes.hostsByIp.get(ip);
         return hosts != null ? ImmutableSet.copyOf(hosts) : ImmutableSet.of();
     }
 
@@ -355,31 +350,13 @@ public class DistributedHostStore
 
     @Override
     public Set<Host> getConnectedHosts(ConnectPoint connectPoint, boolean matchAuxLocations) {
-        Predicate<Map.Entry<HostId, DefaultHost>> predicate;
-        if (matchAuxLocations) {
-            predicate = entry -> {
-                Set<HostLocation> auxLocations = entry.getValue().auxLocations();
-                return auxLocations != null && entry.getValue().auxLocations().contains(connectPoint);
-            };
-        } else {
-            predicate = entry -> entry.getValue().locations().contains(connectPoint);
-        }
-
-        Set<Host> filtered = hosts.entrySet().stream()
-                .filter(predicate)
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toSet());
-        return ImmutableSet.copyOf(filtered);
+        HostIndexes current = indexes;
+        return lookup(matchAuxLocations ? current.hostsByAuxLocation : current.hostsByLocation, connectPoint);
     }
 
     @Override
     public Set<Host> getConnectedHosts(DeviceId deviceId) {
-        Set<Host> filtered = hosts.entrySet().stream()
-                .filter(entry -> entry.getValue().locations().stream()
-                        .map(HostLocation::deviceId).anyMatch(dpid -> dpid.equals(deviceId)))
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toSet());
-        return ImmutableSet.copyOf(filtered);
+        return lookup(indexes.hostsByDevice, deviceId);
     }
 
     @Override
@@ -430,23 +407,24 @@ public class DistributedHostStore
         });
     }
 
-    private Set<Host> filter(Collection<DefaultHost> collection, Predicate<DefaultHost> predicate) {
-        return collection.stream().filter(predicate).collect(Collectors.toSet());
+    private <K> Set<Host> lookup(Map<K, Set<Host>> index, K key) {
+        Set<Host> hosts = key != null ? index.get(key) : null;
+        return hosts != null ? ImmutableSet.copyOf(hosts) : ImmutableSet.of();
     }
 
-    private Set<Host> addHosts(Host host) {
+    private static Set<Host> addHosts(Host host) {
         Set<Host> hosts = Sets.newConcurrentHashSet();
         hosts.add(host);
         return hosts;
     }
 
-    private Set<Host> updateHosts(Set<Host> existingHosts, Host host) {
+    private static Set<Host> updateHosts(Set<Host> existingHosts, Host host) {
         existingHosts.removeIf(existingHost -> existingHost.id().equals(host.id()));
         existingHosts.add(host);
         return existingHosts;
     }
 
-    private Set<Host> removeHosts(Set<Host> existingHosts, Host host) {
+    private static Set<Host> removeHosts(Set<Host> existingHosts, Host host) {
 
         if (existingHosts != null) {
             existingHosts.removeIf(existingHost -> existingHost.id().equals(host.id()));
@@ -458,23 +436,76 @@ public class DistributedHostStore
         return existingHosts;
     }
 
-    private void updateHostsByIp(DefaultHost host, DefaultHost prevHost) {
-        // Let's update first the current ips
-        host.ipAddresses().forEach(
-                ip -> hostsByIp.compute(ip, (k, v) -> v == null ? addHosts(host) : updateHosts(v, host)));
+    private static Set<MacAddress> macOf(Host host) {
+        return host != null && host.mac() != null ? ImmutableSet.of(host.mac()) : ImmutableSet.of();
+    }
+
+    private static Set<VlanId> vlanOf(Host host) {
+        return host != null && host.vlan() != null ? ImmutableSet.of(host.vlan()) : ImmutableSet.of();
+    }
+
+    private static Set<DeviceId> devicesOf(Host host) {
+        return host != null ? host.locations().stream()
+                .map(HostLocation::deviceId)
+                .collect(Collectors.toSet()) : ImmutableSet.of();
+    }
 
-        // Let's remove then each old ip
-        Set<IpAddress> oldIps = prevHost != null ? prevHost.ipAddresses() : Collections.emptySet();
-        Sets.difference(oldIps, host.ipAddresses()).forEach(
-                ip -> hostsByIp.computeIfPresent(ip, (k, v) -> removeHosts(v, host)));
+    private static Set<ConnectPoint> locationsOf(Host host) {
+        return host != null ? ImmutableSet.copyOf(host.locations()) : ImmutableSet.of();
     }
 
-    private void removeHostsByIp(DefaultHost host) {
-        host.ipAddresses().forEach(ip -> hostsByIp.computeIfPresent(ip, (k, v) -> removeHosts(v, host)));
+    private static Set<ConnectPoint> auxLocationsOf(Host host) {
+        return host != null && host.auxLocations() != null ?
+                ImmutableSet.copyOf(host.auxLocations()) : ImmutableSet.of();
     }
 
-    private void removeIpFromHostsByIp(DefaultHost host, IpAddress ip) {
-        hostsByIp.computeIfPresent(ip, (k, v) -> removeHosts(v, host));
+    // Indexes of the hosts, replaced as a whole when reloaded
+    private static final class HostIndexes {
+        private final Map<IpAddress, Set<Host>> hostsByIp = new ConcurrentHashMap<>();
+        private final Map<MacAddress, Set<Host>> hostsByMac = new ConcurrentHashMap<>();
+        private final Map<VlanId, Set<Host>> hostsByVlan = new ConcurrentHashMap<>();
+        private final Map<DeviceId, Set<Host>> hostsByDevice = new ConcurrentHashMap<>();
+        private final Map<ConnectPoint, Set<Host>> hostsByLocation = new ConcurrentHashMap<>();
+        private final Map<ConnectPoint, Set<Host>> hostsByAuxLocation = new ConcurrentHashMap<>();
+
+        void updateHostsByIp(DefaultHost host, DefaultHost prevHost) {
+            // Let's update first the current ips
+            host.ipAddresses().forEach(
+                    ip -> hostsByIp.compute(ip, (k, v) -> v == null ? addHosts(host) : updateHosts(v, host)));
+
+            // Let's remove then each old ip
+            Set<IpAddress> oldIps = prevHost != null ? prevHost.ipAddresses() : Collections.emptySet();
+            Sets.difference(oldIps, host.ipAddresses()).forEach(
+                    ip -> hostsByIp.computeIfPresent(ip, (k, v) -> removeHosts(v, host)));
+        }
+
+        void removeHostsByIp(DefaultHost host) {
+            host.ipAddresses().forEach(ip -> hostsByIp.computeIfPresent(ip, (k, v) -> removeHosts(v, host)));
+        }
+
+        void removeIpFromHostsByIp(DefaultHost host, IpAddress ip) {
+            hostsByIp.computeIfPresent(ip, (k, v) -> removeHosts(v, host));
+        }
+
+        void updateHostIndexes(DefaultHost host, DefaultHost prevHost) {
+            updateIndex(hostsByMac, macOf(host), macOf(prevHost), host, prevHost);
+            updateIndex(hostsByVlan, vlanOf(host), vlanOf(prevHost), host, prevHost);
+            updateIndex(hostsByDevice, devicesOf(host), devicesOf(prevHost), host, prevHost);
+            updateIndex(hostsByLocation, locationsOf(host), locationsOf(prevHost), host, prevHost);
+            updateIndex(hostsByAuxLocation, auxLocationsOf(host), auxLocationsOf(prevHost), host, prevHost);
+        }
+
+        void removeHostIndexes(DefaultHost host) {
+            updateHostIndexes(null, host);
+        }
+
+        // Indexes the host under the given keys, and the previous host no longer under its old ones
+        private <K> void updateIndex(Map<K, Set<Host>> index, Set<K> keys, Set<K> oldKeys,
+                                     DefaultHost host, DefaultHost prevHost) {
+            keys.forEach(key -> index.compute(key, (k, v) -> v == null ? addHosts(host) : updateHosts(v, host)));
+            Sets.difference(oldKeys, keys).forEach(
+                    key -> index.computeIfPresent(key, (k, v) -> removeHosts(v, prevHost)));
+        }
     }
 
     private class HostLocationTracker implements MapEventListener<HostId, DefaultHost> {
@@ -482,13 +513,16 @@ public class DistributedHostStore
         public void event(MapEvent<HostId, DefaultHost> event) {
             DefaultHost host = Versioned.valueOrNull(event.newValue());
             DefaultHost prevHost = Versioned.valueOrNull(event.oldValue());
+            HostIndexes current = indexes;
             switch (event.type()) {
                 case INSERT:
-                    updateHostsByIp(host, prevHost);
+                    current.updateHostsByIp(host, prevHost);
+                    current.updateHostIndexes(host, prevHost);
                     notifyDelegate(new HostEvent(HOST_ADDED, host));
                     break;
                 case UPDATE:
-                    updateHostsByIp(host, prevHost);
+                    current.updateHostsByIp(host, prevHost);
+                    current.updateHostIndexes(host, prevHost);
                     if (host.suspended() && !prevHost.suspended()) {
                         notifyDelegate(new HostEvent(HOST_SUSPENDED, host, prevHost));
                     } else if (!host.suspended() && prevHost.suspended()) {
@@ -502,7 +536,8 @@ public class DistributedHostStore
                     }
                     break;
                 case REMOVE:
-                    removeHostsByIp(prevHost);
+                    current.removeHostsByIp(prevHost);
+                    current.removeHostIndexes(prevHost);
                     notifyDelegate(new HostEvent(HOST_REMOVED, prevHost));
                     break;
                 default:
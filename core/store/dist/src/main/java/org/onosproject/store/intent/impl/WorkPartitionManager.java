@@ -15,8 +15,18 @@
  */
 package org.onosproject.store.intent.impl;
 
+import com.codahale.metrics.Gauge;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
+import org.onlab.util.Tools;
+import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.Leadership;
+import org.onosproject.cluster.LeadershipAdminService;
 import org.onosproject.cluster.LeadershipEvent;
 import org.onosproject.cluster.LeadershipEventListener;
 import org.onosproject.cluster.LeadershipService;
@@ -26,31 +36,62 @@ import org.onosproject.event.ListenerRegistry;
 import org.onosproject.net.intent.WorkPartitionEvent;
 import org.onosproject.net.intent.WorkPartitionEventListener;
 import org.onosproject.net.intent.WorkPartitionService;
+import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Dictionary;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.onlab.util.Tools.groupedThreads;
+import static org.onosproject.store.OsgiPropertyConstants.WPM_NODE_WEIGHTS;
+import static org.onosproject.store.OsgiPropertyConstants.WPM_NODE_WEIGHTS_DEFAULT;
+import static org.onosproject.store.OsgiPropertyConstants.WPM_NUM_PARTITIONS;
+import static org.onosproject.store.OsgiPropertyConstants.WPM_NUM_PARTITIONS_DEFAULT;
 
 /**
- * Manages the assignment of work partitions to instances.
+ * Manages the assignment of work partitions to instances. Each partition is
+ * assigned to the active instance of highest weighted rendezvous hash which
+ * has not taken its share of the partitions yet, so that the instances get
+ * shares in proportion to their weights and membership changes move few
+ * partitions besides those of the instances joining or leaving the cluster.
+ * <p>
+ * Keys are mapped to partitions by the number of partitions, which must be
+ * the same on all instances and is only read at activation. To change it, set
+ * it in the component configuration, then stop all the instances and start
+ * them again. A rolling restart runs instances mapping keys differently side
+ * by side, while some keys are processed by two instances or by none.
  */
-@Component(immediate = true, service = WorkPartitionService.class)
+@Component(
+        immediate = true,
+        service = WorkPartitionService.class,
+        property = {
+                WPM_NUM_PARTITIONS + ":Integer=" + WPM_NUM_PARTITIONS_DEFAULT,
+                WPM_NODE_WEIGHTS + "=" + WPM_NODE_WEIGHTS_DEFAULT
+        }
+)
 public class WorkPartitionManager implements WorkPartitionService {
 
     private static final Logger log = LoggerFactory.getLogger(WorkPartitionManager.class);
@@ -58,21 +99,46 @@ public class WorkPartitionManager implements WorkPartitionService {
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected LeadershipService leadershipService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected LeadershipAdminService leadershipAdminService;
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected ClusterService clusterService;
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected EventDeliveryService eventDispatcher;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected ComponentConfigService cfgService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MetricsService metricsService;
+
     protected final AtomicBoolean rebalanceScheduled = new AtomicBoolean(false);
 
-    static final int NUM_PARTITIONS = 14;
-    private static final int BACKOFF_TIME = 2;
+    static final int NUM_PARTITIONS = WPM_NUM_PARTITIONS_DEFAULT;
     private static final int CHECK_PARTITION_BALANCE_PERIOD_SEC = 10;
     private static final int RETRY_AFTER_DELAY_SEC = 5;
+    private static final double DEFAULT_WEIGHT = 1.0;
 
     private static final String ELECTION_PREFIX = "work-partition-";
 
+    private static final String METRICS_COMPONENT = "WorkPartition";
+    private static final String METRICS_FEATURE = "Lookups";
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    /** Number of work partitions, the same on all instances; read at activation, so restart all instances at once. */
+    private volatile int numPartitions = WPM_NUM_PARTITIONS_DEFAULT;
+
+    /** Relative weights of the instances, as comma-separated nodeId=weight pairs; 1 by default. */
+    private volatile Map<NodeId, Double> nodeWeights = ImmutableMap.of();
+
+    // Number of identifiers looked up in each partition
+    private volatile AtomicLongArray lookups = new AtomicLongArray(numPartitions);
+    private MetricsComponent metricsComponent;
+    private MetricsFeature metricsFeature;
+
     protected NodeId localNodeId;
     private ListenerRegistry<WorkPartitionEvent, WorkPartitionEventListener> listenerRegistry;
     private LeadershipEventListener leaderListener = new InternalLeadershipListener();
@@ -81,17 +147,20 @@ public class WorkPartitionManager implements WorkPartitionService {
             .newScheduledThreadPool(1, groupedThreads("work-parition", "balancer-%d", log));
 
     @Activate
-    public void activate() {
+    public void activate(ComponentContext context) {
+        cfgService.registerProperties(getClass());
+        modified(context);
+
         localNodeId = clusterService.getLocalNode().id();
         leadershipService.addListener(leaderListener);
 
         listenerRegistry = new ListenerRegistry<>();
         eventDispatcher.addSink(WorkPartitionEvent.class, listenerRegistry);
 
-        for (int i = 0; i < NUM_PARTITIONS; i++) {
-            leadershipService.runForLeadership(getPartitionPath(i));
-            log.debug("Registered to run for {}", getPartitionPath(i));
-        }
+        metricsComponent = metricsService.registerComponent(METRICS_COMPONENT);
+        metricsFeature = metricsComponent.registerFeature(METRICS_FEATURE);
+        registerMetrics(0, numPartitions);
+        runForLeadership(0, numPartitions);
 
         executor.scheduleAtFixedRate(() -> scheduleRebalance(0), 0,
                                      CHECK_PARTITION_BALANCE_PERIOD_SEC, TimeUnit.SECONDS);
@@ -100,13 +169,88 @@ public class WorkPartitionManager implements WorkPartitionService {
 
     @Deactivate
     public void deactivate() {
+        cfgService.unregisterProperties(getClass(), false);
         executor.shutdownNow();
 
+        unregisterMetrics(0, numPartitions);
+        metricsComponent = null;
         eventDispatcher.removeSink(WorkPartitionEvent.class);
         leadershipService.removeListener(leaderListener);
         log.info("Stopped");
     }
 
+    @Modified
+    public void modified(ComponentContext context) {
+        if (context == null) {
+            return;
+        }
+        Dictionary<?, ?> properties = context.getProperties();
+
+        String s = Tools.get(properties, WPM_NODE_WEIGHTS);
+        nodeWeights = parseNodeWeights(isNullOrEmpty(s) ? WPM_NODE_WEIGHTS_DEFAULT : s);
+
+        // Keys are mapped to partitions by their number, so changing it on a running
+        // instance would map keys differently than the other instances do
+        int newNumPartitions = Tools.getIntegerProperty(properties, WPM_NUM_PARTITIONS, numPartitions);
+        if (newNumPartitions <= 0) {
+            log.warn("Ignoring invalid number of work partitions {}", newNumPartitions);
+        } else if (metricsComponent == null) {
+            numPartitions = newNumPartitions;
+            lookups = new AtomicLongArray(newNumPartitions);
+        } else if (newNumPartitions != numPartitions) {
+            log.warn("Number of work partitions {} takes effect once all instances restart, keeping {}",
+                     newNumPartitions, numPartitions);
+        }
+        log.info("Settings: numPartitions={}, nodeWeights={}", numPartitions, nodeWeights);
+    }
+
+    private Map<NodeId, Double> parseNodeWeights(String value) {
+        ImmutableMap.Builder<NodeId, Double> weights = ImmutableMap.builder();
+        for (String entry : value.split(",")) {
+            String[] pair = entry.split("=");
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                double weight = pair.length == 2 ? Double.parseDouble(pair[1].trim()) : 0;
+                if (weight > 0) {
+                    weights.put(NodeId.nodeId(pair[0].trim()), weight);
+                    continue;
+                }
+            } catch (NumberFormatException e) {
+                log.debug("Unable to parse weight", e);
+            }
+            log.warn("Ignoring invalid node weight {}", entry);
+        }
+        return weights.build();
+    }
+
+    private void runForLeadership(int from, int to) {
+        for (int i = from; i < to; i++) {
+            leadershipService.runForLeadership(getPartitionPath(i));
+            log.debug("Registered to run for {}", getPartitionPath(i));
+        }
+    }
+
+    // Registers the lookup count metrics of the given partitions
+    private void registerMetrics(int from, int to) {
+        for (int i = from; i < to; i++) {
+            int partition = i;
+            metricsService.registerMetric(metricsComponent, metricsFeature, getPartitionPath(i),
+                                          (Gauge<Long>) () -> lookupCount(partition));
+        }
+    }
+
+    private void unregisterMetrics(int from, int to) {
+        for (int i = from; i < to; i++) {
+            metricsService.removeMetric(metricsComponent, metricsFeature, getPartitionPath(i));
+        }
+    }
+
+    private long lookupCount(int partition) {
+        return lookups.get(partition);
+    }
+
     /**
      * Sets the specified executor to be used for scheduling background tasks.
      *
@@ -129,7 +273,8 @@ public class WorkPartitionManager implements WorkPartitionService {
 
     @Override
     public <K> NodeId getLeader(K id, Function<K, Long> hasher) {
-        int partition = Math.abs(hasher.apply(id).intValue()) % NUM_PARTITIONS;
+        int partition = Math.abs(hasher.apply(id).intValue()) % numPartitions;
+        lookups.incrementAndGet(partition);
         PartitionId partitionId = new PartitionId(partition);
         return leadershipService.getLeadership(getPartitionPath(partitionId.value())).leaderNodeId();
     }
@@ -156,46 +301,109 @@ public class WorkPartitionManager implements WorkPartitionService {
     }
 
     /**
-     * Determine whether we have more than our fair share of partitions, and if
-     * so, relinquish leadership of some of them for a little while to let
-     * other instances take over.
+     * Hands the partitions led by this instance but assigned to another active
+     * instance over to that instance.
      */
     private void rebalance() {
-        int activeNodes = (int) clusterService.getNodes()
+        int partitions = numPartitions;
+        List<NodeId> activeNodes = clusterService.getNodes()
                 .stream()
-                .filter(node -> clusterService.getState(node.id()).isActive())
-                .count();
-
-        int myShare = (int) Math.ceil((double) NUM_PARTITIONS / activeNodes);
+                .map(node -> node.id())
+                .filter(nodeId -> clusterService.getState(nodeId).isActive())
+                .collect(Collectors.toList());
+        Map<NodeId, Double> weights = nodeWeights;
 
         // First make sure this node is a candidate for all partitions.
-        IntStream.range(0, NUM_PARTITIONS)
+        IntStream.range(0, partitions)
                  .mapToObj(this::getPartitionPath)
                  .map(leadershipService::getLeadership)
                  .filter(leadership -> !leadership.candidates().contains(localNodeId))
                  .map(Leadership::topic)
                  .forEach(leadershipService::runForLeadership);
 
-        List<String> myPartitions = IntStream.range(0, NUM_PARTITIONS)
-                                             .mapToObj(this::getPartitionPath)
-                                             .map(leadershipService::getLeadership)
-                                             .filter(Objects::nonNull)
-                                             .filter(leadership -> localNodeId.equals(leadership.leaderNodeId()))
-                                             .map(Leadership::topic)
-                                             .collect(Collectors.toList());
+        // Instances configured with more partitions run for elections past the last one
+        Leadership extra = leadershipService.getLeadership(getPartitionPath(partitions));
+        if (extra != null && !extra.candidates().isEmpty()) {
+            log.warn("{} run for more than {} work partitions; {} must be the same on all instances",
+                     extra.candidates(), partitions, WPM_NUM_PARTITIONS);
+        }
 
-        int relinquish = myPartitions.size() - myShare;
+        NodeId[] owners = getOwners(partitions, activeNodes, weights);
+        for (int i = 0; i < partitions; i++) {
+            Leadership leadership = leadershipService.getLeadership(getPartitionPath(i));
+            if (leadership == null || !localNodeId.equals(leadership.leaderNodeId())) {
+                continue;
+            }
+            NodeId owner = owners[i];
+            // Wait till the owner is in contention for partition ownership.
+            if (owner != null && !owner.equals(localNodeId) &&
+                    leadershipService.getCandidates(leadership.topic()).contains(owner)) {
+                log.debug("Handing {} over to {}", leadership.topic(), owner);
+                leadershipAdminService.transferLeadership(leadership.topic(), owner);
+            }
+        }
+    }
 
+    /**
+     * Returns the instances the partitions are assigned to. Each partition is
+     * assigned to the instance of highest weighted rendezvous hash for the
+     * partition which has not taken its share of the partitions yet. Shares
+     * are the partitions in proportion to the weights, rounded down, and one
+     * more partition for as many instances as needed to assign them all.
+     *
+     * @param partitions number of partitions
+     * @param nodes      instances the partitions are assigned to
+     * @param weights    relative weights of the instances, 1 if missing
+     * @return instances assigned the partitions, indexed by partition number;
+     * null for all of the partitions if there is no instance
+     */
+    static NodeId[] getOwners(int partitions, Collection<NodeId> nodes, Map<NodeId, Double> weights) {
+        NodeId[] owners = new NodeId[partitions];
+        if (nodes.isEmpty()) {
+            return owners;
+        }
+        double totalWeight = nodes.stream().mapToDouble(n -> weights.getOrDefault(n, DEFAULT_WEIGHT)).sum();
+        Map<NodeId, Integer> shares = new HashMap<>();
+        int remainder = partitions;
+        for (NodeId nodeId : nodes) {
+            int share = (int) (partitions * weights.getOrDefault(nodeId, DEFAULT_WEIGHT) / totalWeight);
+            shares.put(nodeId, share);
+            remainder -= share;
+        }
 
-        for (int i = 0; i < relinquish; i++) {
-            String topic = myPartitions.get(i);
-            // Wait till all active nodes are in contention for partition ownership.
-            // This avoids too many relinquish/reclaim cycles.
-            if (leadershipService.getCandidates(topic).size() == activeNodes) {
-                leadershipService.withdraw(topic);
-                executor.schedule(() -> recontest(topic), BACKOFF_TIME, TimeUnit.SECONDS);
+        Map<NodeId, Integer> counts = new HashMap<>();
+        for (int i = 0; i < partitions; i++) {
+            int partition = i;
+            List<NodeId> ranked = nodes.stream()
+                    .sorted(Comparator.comparingDouble((NodeId n) -> score(partition, n, weights)).reversed()
+                                    .thenComparing(NodeId::id))
+                    .collect(Collectors.toList());
+            for (NodeId nodeId : ranked) {
+                int count = counts.getOrDefault(nodeId, 0);
+                int share = shares.get(nodeId);
+                if (count < share || (count == share && remainder > 0)) {
+                    if (count == share) {
+                        remainder--;
+                    }
+                    counts.put(nodeId, count + 1);
+                    owners[i] = nodeId;
+                    break;
+                }
             }
         }
+        return owners;
+    }
+
+    // Weighted rendezvous hash of an instance for a partition
+    private static double score(int partition, NodeId nodeId, Map<NodeId, Double> weights) {
+        long hash = HASH_FUNCTION.newHasher()
+                .putInt(partition)
+                .putString(nodeId.id(), UTF_8)
+                .hash()
+                .asLong();
+        // Uniform in (0, 1); weighted so that shares are proportional to weights
+        double u = ((hash >>> 11) + 0.5) * 0x1.0p-53;
+        return -weights.getOrDefault(nodeId, DEFAULT_WEIGHT) / Math.log(u);
     }
 
     private void scheduleRebalance(int afterDelaySec) {
@@ -204,15 +412,6 @@ public class WorkPartitionManager implements WorkPartitionService {
         }
     }
 
-    /**
-     * Try and recontest for leadership of a partition.
-     *
-     * @param path topic name to recontest
-     */
-    private void recontest(String path) {
-        leadershipService.runForLeadership(path);
-    }
-
     private final class InternalLeadershipListener implements LeadershipEventListener {
 
         @Override
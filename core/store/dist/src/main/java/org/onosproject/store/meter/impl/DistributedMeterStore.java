@@ -78,8 +78,10 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -118,6 +120,18 @@ public class DistributedMeterStore extends AbstractStore<MeterEvent, MeterStoreD
             new ConcurrentHashMap<>();
     private static final String METERIDSTORE = "onos-meters-id-store";
     private AtomicCounterMap<MeterTableKey> meterIdGenerators;
+    // Blocks of ids taken from the generators by this node. The free ids of
+    // the leases and the reclaimed ids are given back to the other nodes on
+    // deactivation; if this node crashes, they are lost to the cluster. This
+    // is bounded by one lease (at most MAX_LEASE_SIZE ids, a fraction of the
+    // table) and one reclaimed batch per meter table and crash.
+    private final ConcurrentMap<MeterTableKey, MeterIdLease> meterIdLeases = new ConcurrentHashMap<>();
+    // Leases are capped to a fraction of the meter table, not to starve the other nodes
+    private static final long MAX_LEASE_SIZE = 1024;
+    private static final long LEASES_PER_TABLE = 32;
+    // Ids claimed in a batch from the available ids, so that one scan serves several allocations
+    private final ConcurrentMap<MeterTableKey, Queue<MeterCellId>> reclaimedMeterIds = new ConcurrentHashMap<>();
+    private static final int RECLAIM_BATCH_SIZE = 32;
 
     private static final KryoNamespace.Builder APP_KRYO_BUILDER = KryoNamespace.newBuilder()
             .register(KryoNamespaces.API)
@@ -192,6 +206,12 @@ public class DistributedMeterStore extends AbstractStore<MeterEvent, MeterStoreD
         meters.removeListener(metersMapListener);
         metersFeatures.removeListener(featuresMapListener);
 
+        // Lets the other nodes reuse the ids leased or reclaimed by this node
+        meterIdLeases.forEach((key, lease) -> freeLeasedIds(key, lease));
+        meterIdLeases.clear();
+        reclaimedMeterIds.forEach((key, ids) -> ids.forEach(id -> updateMeterIdAvailability(key, id, true)));
+        reclaimedMeterIds.clear();
+
         // EC map does clean only the local state
         metersFeatures.destroy();
         // Distributed set does not override the default behavior
@@ -522,6 +542,14 @@ public class DistributedMeterStore extends AbstractStore<MeterEvent, MeterStoreD
 
     // Implements reuse strategy of the meter cell ids
     private MeterCellId firstReusableMeterId(MeterTableKey meterTableKey) {
+        // Ids claimed by a previous scan come first
+        Queue<MeterCellId> reclaimed = reclaimedMeterIds.computeIfAbsent(
+                meterTableKey, key -> new ConcurrentLinkedQueue<>());
+        MeterCellId meterId = reclaimed.poll();
+        if (meterId != null) {
+            return meterId;
+        }
+
         DistributedSet<MeterKey> keySet = availableMeterIds.get(meterTableKey);
         if (keySet == null) {
             log.warn("Reusable Key set for device: {} scope: {} not found",
@@ -534,16 +562,24 @@ public class DistributedMeterStore extends AbstractStore<MeterEvent, MeterStoreD
                     meterKey.deviceId().equals(meterTableKey.deviceId()))
                 .map(MeterKey::meterCellId)
                 .collect(Collectors.toSet());
-        MeterCellId meterId = getNextAvailableId(localAvailableMeterIds);
-        while (meterId != null) {
+        // Claims a batch of ids out of a single scan, the first one is returned
+        MeterCellId first = null;
+        int claimed = 0;
+        meterId = getNextAvailableId(localAvailableMeterIds);
+        while (meterId != null && claimed < RECLAIM_BATCH_SIZE) {
             if (updateMeterIdAvailability(meterTableKey, meterId, false)) {
-                return meterId;
+                if (first == null) {
+                    first = meterId;
+                } else {
+                    reclaimed.add(meterId);
+                }
+                claimed++;
             }
             localAvailableMeterIds.remove(meterId);
             meterId = getNextAvailableId(localAvailableMeterIds);
         }
-        // there are no available ids that can be reused
-        return null;
+        // null if there are no available ids that can be reused
+        return first;
     }
 
     @Override
@@ -554,14 +590,26 @@ public class DistributedMeterStore extends AbstractStore<MeterEvent, MeterStoreD
         }
         MeterTableKey meterTableKey = MeterTableKey.key(deviceId, meterScope);
         MeterCellId meterCellId;
-        long id;
-        // First, search for reusable key
+        // First, claim an id from the block leased by this node
+        MeterIdLease lease = meterIdLeases.get(meterTableKey);
+        long id = lease == null ? -1L : lease.claim();
+        if (id != -1L) {
+            return toMeterCellId(meterScope, id);
+        }
+        // Then, reuse the ids freed in the cluster, claimed in batches
         meterCellId = firstReusableMeterId(meterTableKey);
         if (meterCellId != null) {
             return meterCellId;
         }
-        // If there was no reusable meter id we have to generate a new value
-        // using start and end index as lower and upper bound respectively.
+        // If there was no reusable meter id we have to lease a new block of values
+        id = leaseMeterIds(meterTableKey);
+        return id == -1L ? null : toMeterCellId(meterScope, id);
+    }
+
+    // Leases a new block of ids and returns the first one, or -1 if the ids are exhausted
+    private long leaseMeterIds(MeterTableKey meterTableKey) {
+        DeviceId deviceId = meterTableKey.deviceId();
+        // Generate new values using start and end index as lower and upper bound respectively.
         long startIndex = getStartIndex(meterTableKey);
         long endIndex = getEndIndex(meterTableKey);
         // If the device does not give us MeterFeatures fallback to queryMeters
@@ -569,7 +617,7 @@ public class DistributedMeterStore extends AbstractStore<MeterEvent, MeterStoreD
             // Only meaningful for OpenFlow today
             long maxMeters = queryMaxMeters(deviceId);
             if (maxMeters == 0L) {
-                return null;
+                return -1L;
             } else {
                 // OpenFlow meter index starts from 1, ends with max
                 startIndex = 1L;
@@ -577,13 +625,33 @@ public class DistributedMeterStore extends AbstractStore<MeterEvent, MeterStoreD
             }
         }
 
+        long leaseSize = Math.min(MAX_LEASE_SIZE, Math.max(1L, (endIndex - startIndex + 1) / LEASES_PER_TABLE));
+        long base;
         do {
-            id = meterIdGenerators.getAndIncrement(meterTableKey);
-        } while (id < startIndex);
-        if (id > endIndex) {
-            return null;
+            base = meterIdGenerators.getAndAdd(meterTableKey, leaseSize);
+        } while (base + leaseSize <= startIndex);
+        long first = Math.max(base, startIndex);
+        long last = Math.min(base + leaseSize - 1, endIndex);
+        if (first > last) {
+            return -1L;
         }
 
+        MeterIdLease lease = new MeterIdLease(first, (int) (last - first + 1));
+        long id = lease.claim();
+        MeterIdLease previous = meterIdLeases.put(meterTableKey, lease);
+        if (previous != null) {
+            // Another allocation may have replaced a lease which was not exhausted
+            freeLeasedIds(meterTableKey, previous);
+        }
+        return id;
+    }
+
+    private void freeLeasedIds(MeterTableKey meterTableKey, MeterIdLease lease) {
+        lease.retire().forEach(id -> updateMeterIdAvailability(
+                meterTableKey, toMeterCellId(meterTableKey.scope(), id), true));
+    }
+
+    private MeterCellId toMeterCellId(MeterScope meterScope, long id) {
         // For backward compatibility if we are using global scope,
         // return a MeterId, otherwise we create a PiMeterCellId
         if (meterScope.isGlobal()) {
@@ -591,7 +659,6 @@ public class DistributedMeterStore extends AbstractStore<MeterEvent, MeterStoreD
         } else {
             return PiMeterCellId.ofIndirect(PiMeterId.of(meterScope.id()), id);
         }
-
     }
 
     @Override
@@ -630,6 +697,11 @@ public class DistributedMeterStore extends AbstractStore<MeterEvent, MeterStoreD
             log.warn("Unable to free meter id unsupported cell type {}", meterCellId.type());
             return;
         }
+        // Freed ids go back to the block leased by this node first
+        MeterIdLease lease = meterIdLeases.get(meterTableKey);
+        if (lease != null && lease.release(index)) {
+            return;
+        }
         // Avoid to free meter not allocated
         if (meterIdGenerators.get(meterTableKey) <= index) {
             return;
@@ -709,6 +781,8 @@ public class DistributedMeterStore extends AbstractStore<MeterEvent, MeterStoreD
                     insertAvailableKeySet(meterTableKey, setName);
                     break;
                 case REMOVE:
+                    meterIdLeases.remove(meterTableKey);
+                    reclaimedMeterIds.remove(meterTableKey);
                     DistributedSet<MeterKey> set = availableMeterIds.remove(meterTableKey);
                     if (set != null) {
                         set.destroy();
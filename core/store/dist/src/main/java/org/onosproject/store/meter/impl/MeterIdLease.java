@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.store.meter.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Contiguous block of meter ids leased by the local node.
+ * <p>
+ * Free ids are tracked in a bitmap, so that claiming and releasing ids only
+ * takes a compare-and-set on a word of the bitmap. Once retired, the lease
+ * gives its free ids away and no longer takes released ids back.
+ */
+final class MeterIdLease {
+
+    private static final long NONE = -1L;
+
+    private final long base;
+    private final int size;
+    // Bit set for each free id of the lease
+    private final AtomicLongArray free;
+    private volatile boolean retired;
+
+    /**
+     * Creates a lease with all the ids of the given block free.
+     *
+     * @param base first id of the block
+     * @param size number of ids of the block
+     */
+    MeterIdLease(long base, int size) {
+        checkArgument(size > 0, "Lease size must be positive");
+        this.base = base;
+        this.size = size;
+        this.free = new AtomicLongArray((size + Long.SIZE - 1) / Long.SIZE);
+        for (int word = 0; word < free.length(); word++) {
+            int bits = Math.min(Long.SIZE, size - word * Long.SIZE);
+            free.set(word, bits == Long.SIZE ? -1L : (1L << bits) - 1);
+        }
+    }
+
+    /**
+     * Claims the lowest free id of the lease.
+     *
+     * @return claimed id, or -1 if the lease has no free id
+     */
+    long claim() {
+        for (int word = 0; word < free.length(); word++) {
+            long bits = free.get(word);
+            while (bits != 0) {
+                long lowest = bits & -bits;
+                if (free.compareAndSet(word, bits, bits & ~lowest)) {
+                    return base + (long) word * Long.SIZE + Long.numberOfTrailingZeros(lowest);
+                }
+                bits = free.get(word);
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Gives the given id back to the lease.
+     *
+     * @param id meter id
+     * @return false if the id is not part of the lease or if the lease is
+     * retired, in which case the caller has to free the id elsewhere
+     */
+    boolean release(long id) {
+        if (id < base || id >= base + size) {
+            return false;
+        }
+        int offset = (int) (id - base);
+        int word = offset / Long.SIZE;
+        long mask = 1L << (offset % Long.SIZE);
+        free.getAndAccumulate(word, mask, (bits, bit) -> bits | bit);
+        if (retired) {
+            // Takes the id back, unless it has already been claimed or given away
+            long bits = free.getAndAccumulate(word, mask, (current, bit) -> current & ~bit);
+            return (bits & mask) == 0;
+        }
+        return true;
+    }
+
+    /**
+     * Retires the lease and returns its free ids, which are no longer
+     * claimed from the lease.
+     *
+     * @return free ids of the lease
+     */
+    List<Long> retire() {
+        retired = true;
+        List<Long> ids = new ArrayList<>();
+        for (int word = 0; word < free.length(); word++) {
+            long bits = free.getAndSet(word, 0L);
+            while (bits != 0) {
+                long lowest = bits & -bits;
+                ids.add(base + (long) word * Long.SIZE + Long.numberOfTrailingZeros(lowest));
+                bits &= ~lowest;
+            }
+        }
+        return ids;
+    }
+}
@@ -17,6 +17,7 @@ package org.onosproject.store.resource.impl;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 import org.onlab.util.Tools;
 import org.onosproject.net.resource.DiscreteResource;
 import org.onosproject.net.resource.DiscreteResourceId;
@@ -25,14 +26,22 @@ import org.onosproject.net.resource.ResourceAllocation;
 import org.onosproject.net.resource.ResourceConsumerId;
 import org.onosproject.net.resource.Resources;
 import org.onosproject.store.service.ConsistentMap;
+import org.onosproject.store.service.MapEvent;
+import org.onosproject.store.service.MapEventListener;
 import org.onosproject.store.service.StorageException;
 import org.onosproject.store.service.StorageService;
 import org.onosproject.store.service.TransactionContext;
 import org.onosproject.store.service.Versioned;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.onosproject.store.resource.impl.ConsistentResourceStore.SERIALIZER;
@@ -44,6 +53,11 @@ class ConsistentDiscreteResourceSubStore implements ConsistentResourceSubStore
         <DiscreteResourceId, DiscreteResource, TransactionalDiscreteResourceSubStore> {
     private ConsistentMap<DiscreteResourceId, ResourceConsumerId> consumers;
     private ConsistentMap<DiscreteResourceId, DiscreteResources> childMap;
+    // allocated children of each parent, derived locally from the consumer events
+    // so as to keep the allocations of the children of a parent from conflicting
+    private final Map<DiscreteResourceId, DiscreteResources> allocatedChildren = Maps.newConcurrentMap();
+    private final MapEventListener<DiscreteResourceId, ResourceConsumerId> consumerListener =
+            new InternalConsumerListener();
 
     @SuppressWarnings("ReturnValueIgnored")
     ConsistentDiscreteResourceSubStore(StorageService service) {
@@ -62,6 +76,34 @@ class ConsistentDiscreteResourceSubStore implements ConsistentResourceSubStore
                 Integer.MAX_VALUE,
                 50
         ).get();
+
+        // listening first, the events following the load are applied once it is done
+        consumers.addListener(consumerListener);
+        synchronized (allocatedChildren) {
+            consumers.keySet().forEach(this::addAllocated);
+        }
+    }
+
+    /**
+     * Stops deriving the allocated children from the consumer events.
+     */
+    void deactivate() {
+        consumers.removeListener(consumerListener);
+    }
+
+    private void addAllocated(DiscreteResourceId id) {
+        id.parent().ifPresent(parent -> allocatedChildren.merge(parent, singleton(id), DiscreteResources::add));
+    }
+
+    private void removeAllocated(DiscreteResourceId id) {
+        id.parent().ifPresent(parent -> allocatedChildren.computeIfPresent(parent, (k, v) -> {
+            DiscreteResources values = v.difference(singleton(id));
+            return values.isEmpty() ? null : values;
+        }));
+    }
+
+    private static DiscreteResources singleton(DiscreteResourceId id) {
+        return DiscreteResources.of(ImmutableSet.of(Resources.discrete(id).resource()));
     }
 
     @Override
@@ -107,6 +149,89 @@ class ConsistentDiscreteResourceSubStore implements ConsistentResourceSubStore
         return getResourceAllocations(resource.id()).isEmpty();
     }
 
+    // computational complexity: O(n) where n is the number of parents
+    boolean isAvailable(Collection<DiscreteResourceId> parents, Object value) {
+        for (DiscreteResourceId parent : parents) {
+            Versioned<DiscreteResources> children = childMap.get(parent);
+            DiscreteResourceId id = Resources.discrete(parent, value).id();
+            if (children == null || !children.value().lookup(id).isPresent() || consumers.containsKey(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the values of the unallocated child resources common to all the specified parents.
+     * Encodable values are intersected as ranges, from which the ranges of the allocated
+     * values are removed, so that values are generated only as the returned stream is consumed.
+     * The allocated values are known from the consumer events received by this instance, the
+     * allocation of a returned value still failing if it was concurrently allocated elsewhere.
+     *
+     * @param parents IDs of the parents
+     * @param cls class instance of the children
+     * @param random true to start at a random value rather than at the lowest one
+     * @param <T> type of the resource
+     * @return stream of the available values
+     */
+    <T> Stream<T> getAvailableValues(Collection<DiscreteResourceId> parents, Class<T> cls, boolean random) {
+        List<DiscreteResourceId> ids = ImmutableList.copyOf(parents);
+        List<DiscreteResources> children = new ArrayList<>(ids.size());
+        List<DiscreteResources> allocated = new ArrayList<>(ids.size());
+        for (DiscreteResourceId parent : ids) {
+            Versioned<DiscreteResources> versioned = childMap.get(parent);
+            if (versioned == null) {
+                return Stream.of();
+            }
+            children.add(versioned.value());
+            allocated.add(allocatedChildren.getOrDefault(parent, DiscreteResources.empty()));
+        }
+        if (children.isEmpty()) {
+            return Stream.of();
+        }
+
+        return getUnallocatedValues(ids, children, allocated, cls, random);
+    }
+
+    private <T> Stream<T> getUnallocatedValues(List<DiscreteResourceId> parents, List<DiscreteResources> children,
+                                               List<DiscreteResources> allocated, Class<T> cls, boolean random) {
+        List<EncodedDiscreteResources> encoded = children.stream()
+                .map(x -> x.encodedValuesOf(cls))
+                .flatMap(Tools::stream)
+                .collect(Collectors.toList());
+        if (encoded.size() == children.size()) {
+            EncodedDiscreteResources common = encoded.stream()
+                    .reduce(EncodedDiscreteResources::intersection)
+                    .get();
+            // values of an encodable type are allocated in their encoded form too
+            EncodedDiscreteResources available = allocated.stream()
+                    .map(x -> x.encodedValuesOf(cls))
+                    .flatMap(Tools::stream)
+                    .reduce(common, EncodedDiscreteResources::difference);
+            // allocated values being left out, every available value is as likely to come first
+            long size = available.size();
+            long position = random && size > 0 ? ThreadLocalRandom.current().nextLong(size) : 0;
+            return available.encodedValues(position)
+                    .mapToObj(x -> cls.cast(available.codec().decode(x)));
+        }
+
+        // values of a non-encodable type are intersected one by one
+        List<T> values = children.get(0).valuesOf(cls).stream()
+                .map(x -> x.valueAs(cls))
+                .flatMap(Tools::stream)
+                .filter(value -> IntStream.range(1, children.size())
+                        .allMatch(i -> children.get(i).lookup(Resources.discrete(parents.get(i), value).id())
+                                .isPresent()))
+                .filter(value -> IntStream.range(0, allocated.size())
+                        .noneMatch(i -> allocated.get(i).lookup(Resources.discrete(parents.get(i), value).id())
+                                .isPresent()))
+                .collect(Collectors.toList());
+        if (random) {
+            Collections.shuffle(values);
+        }
+        return values.stream();
+    }
+
     @Override
     public Stream<DiscreteResource> getAllocatedResources(DiscreteResourceId parent, Class<?> cls) {
         Set<DiscreteResource> children = getChildResources(parent);
@@ -126,4 +251,23 @@ class ConsistentDiscreteResourceSubStore implements ConsistentResourceSubStore
                 .map(Map.Entry::getKey)
                 .map(x -> Resources.discrete(x).resource());
     }
+
+    // keeps the allocated children of the parents in sync with the consumers
+    private class InternalConsumerListener implements MapEventListener<DiscreteResourceId, ResourceConsumerId> {
+        @Override
+        public void event(MapEvent<DiscreteResourceId, ResourceConsumerId> event) {
+            synchronized (allocatedChildren) {
+                switch (event.type()) {
+                    case INSERT:
+                        addAllocated(event.key());
+                        break;
+                    case REMOVE:
+                        removeAllocated(event.key());
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+    }
 }
@@ -41,6 +41,7 @@ import org.onosproject.store.service.StorageService;
 import org.onosproject.store.service.TransactionContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
@@ -102,6 +103,13 @@ public class ConsistentResourceStore extends AbstractStore<ResourceEvent, Resour
         log.info("Started");
     }
 
+    @Deactivate
+    public void deactivate() {
+        discreteStore.deactivate();
+
+        log.info("Stopped");
+    }
+
     // Computational complexity: O(1) if the resource is discrete type.
     // O(n) if the resource is continuous type where n is the number of the existing allocations for the resource
     @Override
@@ -309,6 +317,15 @@ public class ConsistentResourceStore extends AbstractStore<ResourceEvent, Resour
         }
     }
 
+    // computational complexity: O(n) where n is the number of parents
+    @Override
+    public boolean isAvailable(Collection<DiscreteResourceId> parents, Object value) {
+        checkNotNull(parents);
+        checkNotNull(value);
+
+        return discreteStore.isAvailable(parents, value);
+    }
+
     // computational complexity: O(n + m) where n is the number of entries in discreteConsumers
     // and m is the number of allocations for all continuous resources
     @Override
@@ -345,6 +362,26 @@ public class ConsistentResourceStore extends AbstractStore<ResourceEvent, Resour
                 .build();
     }
 
+    // computational complexity: O(n * r + k) where n is the number of parents, r the number of
+    // ranges of their encoded children and allocated children, and k the limit
+    @Override
+    public <T> List<T> getAvailableResourceValues(Collection<DiscreteResourceId> parents, Class<T> cls, int limit) {
+        checkNotNull(parents);
+        checkNotNull(cls);
+
+        return discreteStore.getAvailableValues(parents, cls, false)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public <T> Optional<T> getRandomAvailableResourceValue(Collection<DiscreteResourceId> parents, Class<T> cls) {
+        checkNotNull(parents);
+        checkNotNull(cls);
+
+        return discreteStore.getAvailableValues(parents, cls, true).findFirst();
+    }
+
     // computational complexity: O(n) where n is the number of the children of the parent
     @Override
     public <T> Collection<Resource> getAllocatedResources(DiscreteResourceId parent, Class<T> cls) {
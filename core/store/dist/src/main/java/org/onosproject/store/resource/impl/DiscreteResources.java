@@ -100,4 +100,15 @@ interface DiscreteResources {
      * @return all of resources this instance holds and filtered by the specified type
      */
     <T> Set<DiscreteResource> valuesOf(Class<T> cls);
+
+    /**
+     * Returns the resources this instance holds and filtered by the specified type,
+     * in their encoded form.
+     *
+     * @param cls class instance of the resource value
+     * @return encoded resources, empty if the resources of the type are not encoded
+     */
+    default Optional<EncodedDiscreteResources> encodedValuesOf(Class<?> cls) {
+        return Optional.empty();
+    }
 }
@@ -173,6 +173,11 @@ final class EncodableDiscreteResources implements DiscreteResources {
                 .orElse(ImmutableSet.of());
     }
 
+    @Override
+    public Optional<EncodedDiscreteResources> encodedValuesOf(Class<?> cls) {
+        return Optional.ofNullable(map.get(cls));
+    }
+
     DiscreteResource parent() {
         return parent;
     }
@@ -76,6 +76,47 @@ final class EncodedDiscreteResources {
                 .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
+    /**
+     * Returns the number of encoded values.
+     *
+     * @return number of values
+     */
+    long size() {
+        return rangeSet.asRanges().stream()
+                .map(x -> x.canonical(DiscreteDomain.integers()))
+                .mapToLong(x -> (long) x.upperEndpoint() - x.lowerEndpoint())
+                .sum();
+    }
+
+    /**
+     * Returns the encoded values in ascending order, starting at the value found at the
+     * specified position and wrapping around to the lowest value. Values are generated
+     * from the ranges as the stream is consumed.
+     *
+     * @param position position of the first value, between 0 and the number of values
+     * @return encoded values
+     */
+    IntStream encodedValues(long position) {
+        long remaining = position;
+        for (Range<Integer> range : rangeSet.asRanges()) {
+            Range<Integer> canonical = range.canonical(DiscreteDomain.integers());
+            long length = (long) canonical.upperEndpoint() - canonical.lowerEndpoint();
+            if (remaining < length) {
+                int first = (int) (canonical.lowerEndpoint() + remaining);
+                return IntStream.concat(encodedValues(rangeSet.subRangeSet(Range.atLeast(first))),
+                                        encodedValues(rangeSet.subRangeSet(Range.lessThan(first))));
+            }
+            remaining -= length;
+        }
+        return IntStream.empty();
+    }
+
+    private static IntStream encodedValues(RangeSet<Integer> rangeSet) {
+        return rangeSet.asRanges().stream()
+                .map(x -> x.canonical(DiscreteDomain.integers()))
+                .flatMapToInt(x -> IntStream.range(x.lowerEndpoint(), x.upperEndpoint()));
+    }
+
     Class<?> encodedClass() {
         Range<Integer> firstRange = rangeSet.asRanges().iterator().next();
         return codec.decode(firstRange.lowerEndpoint()).getClass();
@@ -98,6 +139,15 @@ final class EncodedDiscreteResources {
         return new EncodedDiscreteResources(newRangeSet, this.codec);
     }
 
+    EncodedDiscreteResources intersection(EncodedDiscreteResources other) {
+        checkArgument(this.codec.getClass() == other.codec.getClass());
+
+        RangeSet<Integer> newRangeSet = TreeRangeSet.create(this.rangeSet);
+        newRangeSet.removeAll(other.rangeSet.complement());
+
+        return new EncodedDiscreteResources(newRangeSet, this.codec);
+    }
+
     EncodedDiscreteResources add(EncodedDiscreteResources other) {
         checkArgument(this.codec.getClass() == other.codec.getClass());
 
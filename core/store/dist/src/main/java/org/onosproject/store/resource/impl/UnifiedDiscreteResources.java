@@ -116,6 +116,11 @@ final class UnifiedDiscreteResources implements DiscreteResources {
                 .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
+    @Override
+    public Optional<EncodedDiscreteResources> encodedValuesOf(Class<?> cls) {
+        return encodables.encodedValuesOf(cls);
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(generics, encodables);
@@ -28,6 +28,7 @@ import org.onosproject.net.flow.FlowEntry;
 import org.onosproject.net.flow.FlowRule;
 import org.onosproject.net.flow.instructions.Instruction;
 import org.onosproject.net.flow.instructions.Instructions;
+import org.onosproject.net.statistic.FlowEntryWithLoad;
 import org.onosproject.net.statistic.StatisticStore;
 import org.onosproject.store.cluster.messaging.ClusterCommunicationService;
 import org.onosproject.store.cluster.messaging.MessageSubject;
@@ -45,6 +46,7 @@ import org.slf4j.Logger;
 import java.util.Collections;
 import java.util.Dictionary;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -53,6 +55,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Strings.isNullOrEmpty;
@@ -105,6 +108,9 @@ public class DistributedStatisticStore implements StatisticStore {
     private Map<ConnectPoint, Set<FlowEntry>> current =
             new ConcurrentHashMap<>();
 
+    private Map<ConnectPoint, FlowLoadRanking> rankings =
+            new ConcurrentHashMap<>();
+
     protected static final Serializer SERIALIZER = Serializer.using(KryoNamespaces.API);
 
     private ExecutorService messageHandlingExecutor;
@@ -198,6 +204,10 @@ public class DistributedStatisticStore implements StatisticStore {
         if (rep != null && rep.remove(rule)) {
             updatePublishedStats(cp, Collections.emptySet());
         }
+        FlowLoadRanking ranking = rankings.get(cp);
+        if (ranking != null) {
+            ranking.remove(rule);
+        }
         Set<FlowEntry> values = current.get(cp);
         if (values != null) {
             values.remove(rule);
@@ -229,7 +239,7 @@ public class DistributedStatisticStore implements StatisticStore {
         }
         previous.put(cp, curr);
         current.put(cp, flowEntries);
-
+        rankings.put(cp, new FlowLoadRanking(flowEntries, curr));
     }
 
     @Override
@@ -287,6 +297,25 @@ public class DistributedStatisticStore implements StatisticStore {
         return previous.get(connectPoint);
     }
 
+    @Override
+    public List<FlowEntryWithLoad> getTopnStatistic(ConnectPoint connectPoint,
+                                                    FlowEntry.FlowLiveType liveType,
+                                                    Predicate<FlowEntry> filter,
+                                                    int topn) {
+        final DeviceId deviceId = connectPoint.deviceId();
+        NodeId master = mastershipService.getMasterFor(deviceId);
+        if (master != null && master.equals(clusterService.getLocalNode().id())) {
+            // Ranked by the first query of the round, without holding the store lock
+            FlowLoadRanking ranking = rankings.get(connectPoint);
+            if (ranking == null) {
+                return Collections.emptyList();
+            }
+            return ranking.topn(connectPoint, liveType, filter, topn);
+        }
+        // Rankings are built by the master, the observations are fetched on demand otherwise
+        return StatisticStore.super.getTopnStatistic(connectPoint, liveType, filter, topn);
+    }
+
     private InternalStatisticRepresentation getOrCreateRepresentation(ConnectPoint cp) {
 
         if (representations.containsKey(cp)) {
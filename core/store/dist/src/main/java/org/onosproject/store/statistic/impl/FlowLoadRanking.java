@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.statistic.impl;
+
+import com.google.common.collect.Sets;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowEntry.FlowLiveType;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.statistic.DefaultLoad;
+import org.onosproject.net.statistic.FlowEntryWithLoad;
+import org.onosproject.net.statistic.PollInterval;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Ranking of the flows of a port by the number of bytes they carried between
+ * two consecutive stats observations. Flows are only ranked by the first query
+ * following the observation, outside of the store lock, and the heaviest flows
+ * are then found without going through all the flows.
+ */
+final class FlowLoadRanking {
+
+    private static final Comparator<RankedFlow> BY_BYTES_DESCENDING =
+            Comparator.comparingLong(RankedFlow::bytes).reversed();
+
+    private final Map<FlowLiveType, List<RankedFlow>> flows = new EnumMap<>(FlowLiveType.class);
+    private final Set<FlowRule> removed = Sets.newConcurrentHashSet();
+    private boolean ranked;
+
+    /**
+     * Creates the ranking of the given observations of the flows of a port.
+     * The observations are not referenced once the ranking is created.
+     *
+     * @param current  current observed stats values
+     * @param previous previous observed stats values
+     */
+    FlowLoadRanking(Set<FlowEntry> current, Set<FlowEntry> previous) {
+        Map<FlowEntry, Long> previousBytes = new HashMap<>();
+        previous.forEach(fe -> previousBytes.put(fe, fe.bytes()));
+        current.forEach(fe -> flows.computeIfAbsent(fe.liveType(), t -> new ArrayList<>())
+                .add(new RankedFlow(fe, previousBytes.getOrDefault(fe, 0L))));
+    }
+
+    /**
+     * Leaves out of the ranking a flow removed since the observation.
+     *
+     * @param rule removed flow rule
+     */
+    void remove(FlowRule rule) {
+        removed.add(rule);
+    }
+
+    /**
+     * Returns the flows carrying the highest load.
+     *
+     * @param cp       connect point of the flows
+     * @param liveType flow live type of the flows, null for all the live types
+     * @param filter   predicate the flow entries must satisfy
+     * @param topn     maximum number of flows returned
+     * @return flow entries with their load, in decreasing order of load
+     */
+    List<FlowEntryWithLoad> topn(ConnectPoint cp, FlowLiveType liveType,
+                                 Predicate<FlowEntry> filter, int topn) {
+        checkArgument(topn >= 0, "topn must be 0 or more");
+        rank();
+        filter = filter.and(fe -> !removed.contains(fe));
+        if (liveType != null) {
+            List<RankedFlow> ranked = flows.getOrDefault(liveType, Collections.emptyList());
+            return topn(cp, Collections.singletonList(ranked.iterator()), filter, topn);
+        }
+        List<Iterator<RankedFlow>> iterators = new ArrayList<>();
+        flows.values().forEach(list -> iterators.add(list.iterator()));
+        return topn(cp, iterators, filter, topn);
+    }
+
+    private synchronized void rank() {
+        if (!ranked) {
+            // Flows of a live type share a poll interval, so rank by bytes is rank by load
+            flows.values().forEach(list -> list.sort(BY_BYTES_DESCENDING));
+            ranked = true;
+        }
+    }
+
+    // Merges the rankings of several live types, whose poll intervals differ
+    private static List<FlowEntryWithLoad> topn(ConnectPoint cp, List<Iterator<RankedFlow>> iterators,
+                                                Predicate<FlowEntry> filter, int topn) {
+        PriorityQueue<Head> heads = new PriorityQueue<>();
+        iterators.forEach(it -> Head.next(it, heads));
+
+        List<FlowEntryWithLoad> fel = new ArrayList<>();
+        while (fel.size() < topn && !heads.isEmpty()) {
+            Head head = heads.poll();
+            RankedFlow flow = head.flow;
+            if (filter.test(flow.entry)) {
+                fel.add(new FlowEntryWithLoad(cp, flow.entry,
+                                              new DefaultLoad(flow.entry.bytes(), flow.previousBytes,
+                                                              head.interval)));
+            }
+            Head.next(head.iterator, heads);
+        }
+        return fel;
+    }
+
+    private static final class RankedFlow {
+        private final FlowEntry entry;
+        private final long previousBytes;
+
+        private RankedFlow(FlowEntry entry, long previousBytes) {
+            this.entry = entry;
+            this.previousBytes = previousBytes;
+        }
+
+        private long bytes() {
+            return entry.bytes() - previousBytes;
+        }
+    }
+
+    // Heaviest flow not yet merged of the ranking of a live type
+    private static final class Head implements Comparable<Head> {
+        private final Iterator<RankedFlow> iterator;
+        private final RankedFlow flow;
+        private final long interval;
+        private final long rate;
+
+        private Head(Iterator<RankedFlow> iterator, RankedFlow flow) {
+            this.iterator = iterator;
+            this.flow = flow;
+            this.interval = PollInterval.getInstance().getPollInterval(flow.entry.liveType());
+            this.rate = flow.bytes() / interval;
+        }
+
+        private static void next(Iterator<RankedFlow> iterator, PriorityQueue<Head> heads) {
+            if (iterator.hasNext()) {
+                heads.add(new Head(iterator, iterator.next()));
+            }
+        }
+
+        @Override
+        public int compareTo(Head other) {
+            return Long.compare(other.rate, rate);
+        }
+    }
+}
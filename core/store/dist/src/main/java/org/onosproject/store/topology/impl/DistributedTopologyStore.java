@@ -15,7 +15,12 @@
  */
 package org.onosproject.store.topology.impl;
 
+import com.codahale.metrics.Gauge;
+import com.google.common.cache.CacheStats;
 import org.onlab.graph.GraphPathSearch;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.KryoNamespace;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.common.DefaultTopology;
@@ -91,6 +96,7 @@ import static org.slf4j.LoggerFactory.getLogger;
         property = {
                 LINK_WEIGHT_FUNCTION + "=" + LINK_WEIGHT_FUNCTION_DEFAULT,
                 MAX_PATHS + "=" + MAX_PATHS_DEFAULT,
+                PATH_CACHE_SIZE + ":Integer=" + PATH_CACHE_SIZE_DEFAULT,
         }
 )
 public class DistributedTopologyStore
@@ -101,6 +107,11 @@ public class DistributedTopologyStore
 
     private static final String FORMAT = "Settings: linkWeightFunction={}";
 
+    private static final String METRICS_COMPONENT = "Topology";
+    private static final String METRICS_FEATURE = "PathCache";
+    private static final String HITS = "hits";
+    private static final String MISSES = "misses";
+
     private volatile DefaultTopology current =
             new DefaultTopology(ProviderId.NONE,
                                 new DefaultGraphDescription(0L, System.currentTimeMillis(),
@@ -122,6 +133,9 @@ public class DistributedTopologyStore
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected DeviceService deviceService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MetricsService metricsService;
+
     private static final String HOP_COUNT = "hopCount";
     private static final String LINK_METRIC = "linkMetric";
     private static final String GEO_DISTANCE = "geoDistance";
@@ -132,6 +146,14 @@ public class DistributedTopologyStore
     /** Default max-paths count. */
     private int maxPaths = ALL_PATHS;
 
+    /** Maximum number of path sets cached per topology; 0 disables caching. */
+    private int pathCacheSize = PATH_CACHE_SIZE_DEFAULT;
+
+    // Path cache statistics of the topologies which are no longer current
+    private CacheStats retiredPathCacheStats = new CacheStats(0, 0, 0, 0, 0, 0);
+    private MetricsComponent metricsComponent;
+    private MetricsFeature metricsFeature;
+
     // Cluster root to broadcast points bindings to allow convergence to
     // a shared broadcast tree; node that is the master of the cluster root
     // is the primary.
@@ -153,12 +175,14 @@ public class DistributedTopologyStore
                 .withTimestampProvider((k, v) -> clockService.getTimestamp())
                 .build();
         broadcastPoints.addListener(listener);
+        registerMetrics();
         log.info("Started");
     }
 
     @Deactivate
     protected void deactivate() {
         configService.unregisterProperties(getClass(), false);
+        unregisterMetrics();
         broadcastPoints.removeListener(listener);
         broadcastPoints.destroy();
         log.info("Stopped");
@@ -187,6 +211,16 @@ public class DistributedTopologyStore
                 log.warn("maxPaths must be a number; not {}", newMaxPaths);
             }
         }
+
+        String newPathCacheSize = get(properties, PATH_CACHE_SIZE);
+        if (newPathCacheSize != null) {
+            try {
+                pathCacheSize = Integer.parseInt(newPathCacheSize.trim());
+                DefaultTopology.setDefaultPathCacheSize(pathCacheSize);
+            } catch (NumberFormatException e) {
+                log.warn("pathCacheSize must be a number; not {}", newPathCacheSize);
+            }
+        }
         log.info(FORMAT, linkWeightFunction);
     }
 
@@ -308,9 +342,10 @@ public class DistributedTopologyStore
     public TopologyEvent updateTopology(ProviderId providerId,
                                         GraphDescription graphDescription,
                                         List<Event> reasons) {
-        // Have the default topology construct self from the description data.
+        // Have the default topology construct self from the description data,
+        // deriving its clusters from those of the current topology.
         DefaultTopology newTopology =
-                new DefaultTopology(providerId, graphDescription, this::isBroadcastPoint);
+                new DefaultTopology(providerId, graphDescription, this::isBroadcastPoint, current);
         updateBroadcastPoints(newTopology);
 
         // Promote the new topology to current and return a ready-to-send event.
@@ -320,6 +355,7 @@ public class DistributedTopologyStore
             if (current != null && newTopology.time() < current.time()) {
                 return null;
             }
+            retiredPathCacheStats = retiredPathCacheStats.plus(current.pathCacheStats());
             current = newTopology;
             return new TopologyEvent(TOPOLOGY_CHANGED, current, reasons);
         }
@@ -343,6 +379,27 @@ public class DistributedTopologyStore
         toRemove.forEach(broadcastPoints::remove);
     }
 
+    // Returns the path cache statistics accumulated over all topologies.
+    private synchronized CacheStats pathCacheStats() {
+        return retiredPathCacheStats.plus(current.pathCacheStats());
+    }
+
+    // Registers the path cache metrics.
+    private void registerMetrics() {
+        metricsComponent = metricsService.registerComponent(METRICS_COMPONENT);
+        metricsFeature = metricsComponent.registerFeature(METRICS_FEATURE);
+        metricsService.registerMetric(metricsComponent, metricsFeature, HITS,
+                                      (Gauge<Long>) () -> pathCacheStats().hitCount());
+        metricsService.registerMetric(metricsComponent, metricsFeature, MISSES,
+                                      (Gauge<Long>) () -> pathCacheStats().missCount());
+    }
+
+    // Unregisters the path cache metrics.
+    private void unregisterMetrics() {
+        metricsService.removeMetric(metricsComponent, metricsFeature, HITS);
+        metricsService.removeMetric(metricsComponent, metricsFeature, MISSES);
+    }
+
     // Validates the specified topology and returns it as a default
     private DefaultTopology defaultTopology(Topology topology) {
         checkArgument(topology instanceof DefaultTopology,
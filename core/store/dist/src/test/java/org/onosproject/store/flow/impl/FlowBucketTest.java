@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.flow.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flow.DefaultFlowEntry;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.intent.IntentTestsMocks;
+import org.onosproject.store.LogicalTimestamp;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.net.NetTestTools.APP_ID;
+import static org.onosproject.net.NetTestTools.APP_ID_2;
+import static org.onosproject.net.NetTestTools.did;
+
+/**
+ * Unit tests for the incremental replication and application index support of the flow bucket.
+ */
+public class FlowBucketTest {
+
+    private static final long TERM = 1;
+    private final DeviceId deviceId = did("device1");
+
+    private LogicalClock clock;
+    private FlowBucket bucket;
+
+    private FlowEntry entry(int priority) {
+        return entry(priority, APP_ID);
+    }
+
+    private FlowEntry entry(int priority, ApplicationId appId) {
+        FlowRule rule = DefaultFlowRule.builder()
+                .forDevice(deviceId)
+                .withSelector(new IntentTestsMocks.MockSelector())
+                .withTreatment(new IntentTestsMocks.MockTreatment())
+                .withPriority(priority)
+                .makePermanent()
+                .fromApp(appId)
+                .build();
+        return new DefaultFlowEntry(rule);
+    }
+
+    @Before
+    public void setUp() {
+        clock = new LogicalClock();
+        bucket = new FlowBucket(new BucketId(deviceId, 0));
+    }
+
+    /**
+     * Tests that a delta carries the changes since the base timestamp and can be applied to a replica.
+     */
+    @Test
+    public void testDelta() {
+        FlowEntry entry1 = entry(10);
+        FlowEntry entry2 = entry(20);
+        bucket.add(entry1, TERM, clock);
+
+        FlowBucket replica = bucket.copy();
+        LogicalTimestamp base = bucket.timestamp();
+
+        bucket.add(entry2, TERM, clock);
+        bucket.remove(entry1, TERM, clock);
+
+        FlowBucketDelta delta = bucket.getDelta(base, 100);
+        assertThat(delta, notNullValue());
+        assertThat(delta.updates(), contains(entry2));
+        assertThat(delta.removals(), contains(entry1));
+
+        assertTrue(replica.applyDelta(delta));
+        assertThat(replica.count(), is(1));
+        assertThat(replica.getFlowEntries(entry2.id()).get(entry2), notNullValue());
+        assertThat(replica.timestamp(), is(bucket.timestamp()));
+    }
+
+    /**
+     * Tests that no delta is computed when too many entries changed or when the log does not cover the base.
+     */
+    @Test
+    public void testDeltaFallback() {
+        LogicalTimestamp base = bucket.timestamp();
+        bucket.add(entry(10), TERM, clock);
+        bucket.add(entry(20), TERM, clock);
+        assertThat(bucket.getDelta(base, 1), nullValue());
+
+        LogicalTimestamp compacted = bucket.timestamp();
+        bucket.compact(compacted);
+        assertThat(bucket.getDelta(base, 100), nullValue());
+        assertThat(bucket.getDelta(compacted, 100).size(), is(0));
+
+        bucket.purge();
+        assertThat(bucket.getDelta(compacted, 100), nullValue());
+    }
+
+    /**
+     * Tests that no delta is computed from the state preceding a purge when the change log overflows during
+     * the purge, as the removals recorded before the overflow share the purge timestamp.
+     */
+    @Test
+    public void testLogOverflowDuringPurge() {
+        for (int i = 0; i < 200; i++) {
+            bucket.add(entry(i), TERM, clock);
+        }
+        bucket.compact(bucket.timestamp());
+        for (int i = 0; i < 3950; i++) {
+            bucket.add(entry(1000 + i, APP_ID_2), TERM, clock);
+        }
+        LogicalTimestamp base = bucket.timestamp();
+
+        bucket.purge(APP_ID, TERM, clock);
+        assertThat(bucket.count(), is(3950));
+        assertThat(bucket.getDelta(base, Integer.MAX_VALUE), nullValue());
+
+        // Changes following the purge are still tracked
+        LogicalTimestamp purged = bucket.timestamp();
+        FlowEntry entry = entry(100);
+        bucket.add(entry, TERM, clock);
+        assertThat(bucket.getDelta(purged, Integer.MAX_VALUE).updates(), contains(entry));
+    }
+
+    /**
+     * Tests that no changes are logged while changes are not tracked, and that the log restarts from the state
+     * at which tracking resumes.
+     */
+    @Test
+    public void testTrackingChanges() {
+        LogicalTimestamp base = bucket.timestamp();
+        bucket.setTrackingChanges(false);
+        bucket.add(entry(10), TERM, clock);
+        assertThat(bucket.changesSince(), nullValue());
+        assertThat(bucket.getDelta(base, 100), nullValue());
+
+        bucket.setTrackingChanges(true);
+        LogicalTimestamp resumed = bucket.timestamp();
+        FlowEntry entry = entry(20);
+        bucket.add(entry, TERM, clock);
+        assertThat(bucket.changesSince(), is(resumed));
+        assertThat(bucket.getDelta(base, 100), nullValue());
+        assertThat(bucket.getDelta(resumed, 100).updates(), contains(entry));
+
+        // Copies of the bucket, as sent to peers, do not track changes until told to
+        FlowBucket replica = bucket.copy();
+        replica.add(entry(30), TERM, clock);
+        assertThat(replica.changesSince(), nullValue());
+    }
+
+    /**
+     * Tests that a replica rejects deltas computed from a different term or a more recent state.
+     */
+    @Test
+    public void testRejectDelta() {
+        bucket.add(entry(10), TERM, clock);
+        FlowBucket replica = bucket.copy();
+
+        LogicalTimestamp base = bucket.timestamp();
+        bucket.add(entry(20), TERM, clock);
+        bucket.add(entry(30), TERM, clock);
+
+        FlowBucketDelta newer = bucket.getDelta(bucket.timestamp(), 100);
+        assertFalse(replica.applyDelta(newer));
+
+        bucket.add(entry(40), TERM + 1, clock);
+        FlowBucketDelta otherTerm = bucket.getDelta(base, 100);
+        assertFalse(replica.applyDelta(otherTerm));
+        assertThat(replica.count(), is(1));
+    }
+
+    /**
+     * Tests that entries are looked up by application and that the index follows changes to the bucket.
+     */
+    @Test
+    public void testAppIndex() {
+        FlowEntry entry1 = entry(10);
+        FlowEntry entry2 = entry(20);
+        FlowEntry entry3 = entry(30, APP_ID_2);
+        bucket.add(entry1, TERM, clock);
+        bucket.add(entry3, TERM, clock);
+        assertThat(bucket.getFlowEntries(APP_ID), contains(entry1));
+
+        bucket.add(entry2, TERM, clock);
+        assertThat(bucket.getFlowEntries(APP_ID), containsInAnyOrder(entry1, entry2));
+        assertThat(bucket.getFlowEntries(APP_ID_2), contains(entry3));
+
+        bucket.remove(entry1, TERM, clock);
+        assertThat(bucket.getFlowEntries(APP_ID), contains(entry2));
+
+        bucket.purge(APP_ID, TERM, clock);
+        assertThat(bucket.getFlowEntries(APP_ID), empty());
+        assertThat(bucket.getFlowEntries(APP_ID_2), contains(entry3));
+
+        // A copy builds its own index from the bucket contents
+        assertThat(bucket.copy().getFlowEntries(APP_ID_2), contains(entry3));
+    }
+}
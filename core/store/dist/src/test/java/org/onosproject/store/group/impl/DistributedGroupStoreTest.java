@@ -16,6 +16,7 @@
 package org.onosproject.store.group.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.testing.EqualsTester;
 import org.junit.After;
@@ -370,6 +371,57 @@ public class DistributedGroupStoreTest {
 
     }
 
+    /**
+     * Tests that group listings share a snapshot until the groups change.
+     */
+    @Test
+    public void testGroupSnapshots() throws Exception {
+        groupStore.deviceInitialAuditCompleted(deviceId1, true);
+        groupStore.deviceInitialAuditCompleted(deviceId2, true);
+
+        groupStore.storeGroupDescription(groupDescription1);
+        groupStore.storeGroupDescription(groupDescription2);
+        Iterable<Group> groups = groupStore.getGroups(deviceId2);
+        assertThat(Lists.newArrayList(groups), hasSize(1));
+
+        // Reads see the same snapshot, writes on another device leave it as is
+        GroupSnapshots snapshots = TestUtils.getField(groupStoreImpl, "groupSnapshots");
+        Object snapshot = snapshots.get(deviceId2, Lists::newArrayList);
+        assertThat(Lists.newArrayList(groupStore.getGroups(deviceId2)), hasSize(1));
+        groupStore.removeGroupEntry(groupStore.getGroup(deviceId1, groupId1));
+        assertTrue(snapshot == snapshots.get(deviceId2, Lists::newArrayList));
+
+        // Writes publish a new snapshot, the previous one being left as is
+        groupStore.storeGroupDescription(groupDescription3);
+        assertThat(groupStore.getGroupCount(deviceId2), is(2));
+        assertThat(Lists.newArrayList(groupStore.getGroups(deviceId2)), hasSize(2));
+        assertThat(Lists.newArrayList(groups), hasSize(1));
+        assertTrue(snapshot != snapshots.get(deviceId2, Lists::newArrayList));
+    }
+
+    /**
+     * Tests that the group listings are left as is by the updates of the groups.
+     */
+    @Test
+    public void testGroupSnapshotsImmutable() throws Exception {
+        groupStore.deviceInitialAuditCompleted(deviceId2, true);
+
+        groupStore.storeGroupDescription(groupDescription3);
+        Group listed = Iterables.getOnlyElement(groupStore.getGroups(deviceId2));
+        assertThat(listed.state(), is(Group.GroupState.PENDING_ADD));
+
+        // Group missing in the data plane
+        groupStore.pushGroupMetrics(deviceId2, ImmutableList.of());
+        assertThat(listed.state(), is(Group.GroupState.PENDING_ADD));
+        Group retried = Iterables.getOnlyElement(groupStore.getGroups(deviceId2));
+        assertThat(retried.state(), is(Group.GroupState.PENDING_ADD_RETRY));
+
+        groupStore.deleteGroupDescription(deviceId2, groupDescription3.appCookie());
+        assertThat(retried.state(), is(Group.GroupState.PENDING_ADD_RETRY));
+        assertThat(Iterables.getOnlyElement(groupStore.getGroups(deviceId2)).state(),
+                   is(Group.GroupState.PENDING_DELETE));
+    }
+
     /**
      * Tests pushing group metrics.
      */
@@ -420,6 +420,33 @@ public class DistributedHostStoreTest {
                 ecXHostStore.getConnectedHosts(HOST_LOC12, true));
     }
 
+    @Test
+    public void testHostIndexes() {
+        ecXHostStore.createOrUpdateHost(PID, HOSTID, HOST_LEARNT_WITH_LOCATIONS, false);
+        Host host = ecXHostStore.getHost(HOSTID);
+        assertEquals(Sets.newHashSet(host), ecXHostStore.getHosts(HOSTID.mac()));
+        assertEquals(Sets.newHashSet(host), ecXHostStore.getHosts(HOSTID.vlanId()));
+        assertEquals(Sets.newHashSet(host), ecXHostStore.getConnectedHosts(DEV1));
+        assertEquals(Sets.newHashSet(host), ecXHostStore.getConnectedHosts(CP11));
+        assertEquals(Sets.newHashSet(host), ecXHostStore.getConnectedHosts(CP12));
+        assertTrue(ecXHostStore.getHosts(HOSTID1.mac()).isEmpty());
+
+        // Indexes follow the updates of the host
+        ecXHostStore.removeLocation(HOSTID, HOST_LOC12);
+        host = ecXHostStore.getHost(HOSTID);
+        assertEquals(Sets.newHashSet(host), ecXHostStore.getHosts(HOSTID.mac()));
+        assertEquals(Sets.newHashSet(host), ecXHostStore.getConnectedHosts(DEV1));
+        assertEquals(Sets.newHashSet(host), ecXHostStore.getConnectedHosts(CP11));
+        assertTrue(ecXHostStore.getConnectedHosts(CP12).isEmpty());
+
+        // And its removal
+        ecXHostStore.removeHost(HOSTID);
+        assertTrue(ecXHostStore.getHosts(HOSTID.mac()).isEmpty());
+        assertTrue(ecXHostStore.getHosts(HOSTID.vlanId()).isEmpty());
+        assertTrue(ecXHostStore.getConnectedHosts(DEV1).isEmpty());
+        assertTrue(ecXHostStore.getConnectedHosts(CP11).isEmpty());
+    }
+
     private class TestStoreDelegate implements HostStoreDelegate {
         public HostEvent lastEvent;
 
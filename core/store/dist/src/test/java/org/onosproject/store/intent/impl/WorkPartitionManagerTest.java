@@ -15,15 +15,20 @@
  */
 package org.onosproject.store.intent.impl;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import org.junit.Before;
 import org.junit.Test;
 import org.onlab.junit.NullScheduledExecutor;
+import org.onlab.metrics.MetricsServiceAdapter;
 import org.onlab.packet.IpAddress;
+import org.onosproject.cfg.ComponentConfigAdapter;
 import org.onosproject.cluster.ClusterServiceAdapter;
 import org.onosproject.cluster.ControllerNode;
 import org.onosproject.cluster.DefaultControllerNode;
 import org.onosproject.cluster.Leader;
 import org.onosproject.cluster.Leadership;
+import org.onosproject.cluster.LeadershipAdminService;
 import org.onosproject.cluster.LeadershipEvent;
 import org.onosproject.cluster.LeadershipEventListener;
 import org.onosproject.cluster.LeadershipService;
@@ -31,23 +36,39 @@ import org.onosproject.cluster.LeadershipServiceAdapter;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.common.event.impl.TestEventDispatcher;
 import org.onosproject.net.intent.Key;
+import org.osgi.service.component.ComponentContext;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Dictionary;
 import java.util.HashSet;
+import java.util.Hashtable;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static junit.framework.TestCase.assertFalse;
 import static org.easymock.EasyMock.anyObject;
 import static org.easymock.EasyMock.anyString;
 import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.expectLastCall;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.reset;
 import static org.easymock.EasyMock.verify;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
 import static org.junit.Assert.assertTrue;
+import static org.onosproject.store.OsgiPropertyConstants.WPM_NUM_PARTITIONS;
 
 /**
  * Unit tests for the WorkPartitionManager class.
@@ -68,6 +89,7 @@ public class WorkPartitionManagerTest {
 
         private LeadershipService leadershipService;
     private LeadershipEventListener leaderListener;
+    private LeadershipAdminService leadershipAdminService;
 
     private WorkPartitionManager partitionManager;
 
@@ -90,6 +112,11 @@ public class WorkPartitionManagerTest {
         partitionManager.localNodeId = MY_NODE_ID;
         partitionManager.leadershipService = leadershipService;
         partitionManager.eventDispatcher = new TestEventDispatcher();
+        partitionManager.cfgService = new ComponentConfigAdapter();
+        partitionManager.metricsService = new MetricsServiceAdapter();
+
+        leadershipAdminService = createMock(LeadershipAdminService.class);
+        partitionManager.leadershipAdminService = leadershipAdminService;
     }
 
     /**
@@ -100,22 +127,30 @@ public class WorkPartitionManagerTest {
      * @param numMine number of partitions that should be owned by the local node
      */
     private void setUpLeadershipService(int numMine) {
-        List<NodeId> allNodes = Arrays.asList(MY_NODE_ID, OTHER_NODE_ID);
-        for (int i = 0; i < numMine; i++) {
-            expect(leadershipService.getLeadership(ELECTION_PREFIX + i))
-                                    .andReturn(new Leadership(ELECTION_PREFIX + i,
-                                                              new Leader(MY_NODE_ID, 1, 1000),
-                                                              allNodes))
-                                    .anyTimes();
-        }
+        setUpLeadershipService(i -> i < numMine);
+    }
 
-        for (int i = numMine; i < WorkPartitionManager.NUM_PARTITIONS; i++) {
+    /**
+     * Configures a mock leadership service to have the specified partitions
+     * owned by the local node and all other partitions owned by a (fake)
+     * remote node.
+     *
+     * @param isMine predicate telling the partitions owned by the local node
+     */
+    private void setUpLeadershipService(IntPredicate isMine) {
+        List<NodeId> allNodes = Arrays.asList(MY_NODE_ID, OTHER_NODE_ID);
+        for (int i = 0; i < WorkPartitionManager.NUM_PARTITIONS; i++) {
+            NodeId leader = isMine.test(i) ? MY_NODE_ID : OTHER_NODE_ID;
             expect(leadershipService.getLeadership(ELECTION_PREFIX + i))
                                     .andReturn(new Leadership(ELECTION_PREFIX + i,
-                                                              new Leader(OTHER_NODE_ID, 1, 1000),
+                                                              new Leader(leader, 1, 1000),
                                                               allNodes))
                                     .anyTimes();
         }
+        // No instance runs for more partitions
+        expect(leadershipService.getLeadership(ELECTION_PREFIX + WorkPartitionManager.NUM_PARTITIONS))
+                .andReturn(null)
+                .anyTimes();
         for (int i = 0; i < WorkPartitionManager.NUM_PARTITIONS; i++) {
             expect(leadershipService.getCandidates(ELECTION_PREFIX + i))
             .andReturn(Arrays.asList(MY_NODE_ID, OTHER_NODE_ID))
@@ -141,7 +176,7 @@ public class WorkPartitionManagerTest {
 
         replay(leadershipService);
 
-        partitionManager.activate();
+        partitionManager.activate(null);
 
         verify(leadershipService);
     }
@@ -187,7 +222,7 @@ public class WorkPartitionManagerTest {
 
         replay(leadershipService);
 
-        partitionManager.activate();
+        partitionManager.activate(null);
         // Send in the event
         leaderListener.event(event);
 
@@ -197,54 +232,128 @@ public class WorkPartitionManagerTest {
     }
 
     /**
-     * Tests rebalance will trigger the right now of leadership withdraw calls.
+     * Tests rebalance hands the partitions assigned to the other active
+     * instance over to it.
      */
     @Test
     public void testRebalance() {
         // We have all the partitions so we'll need to relinquish some
         setUpLeadershipService(WorkPartitionManager.NUM_PARTITIONS);
 
-        leadershipService.withdraw(anyString());
-        expectLastCall().times(7);
+        long notMine = IntStream.range(0, WorkPartitionManager.NUM_PARTITIONS)
+                .filter(i -> !isAssignedToMe(i))
+                .count();
+        expect(leadershipAdminService.transferLeadership(anyString(), eq(OTHER_NODE_ID)))
+                .andReturn(true)
+                .times((int) notMine);
 
-        replay(leadershipService);
+        replay(leadershipService, leadershipAdminService);
 
-        partitionManager.activate();
+        partitionManager.activate(null);
 
         // trigger rebalance
         partitionManager.doRebalance();
 
-        verify(leadershipService);
+        verify(leadershipService, leadershipAdminService);
     }
 
     /**
      * Tests that attempts to rebalance when the paritions are already
-     * evenly distributed does not result in any relinquish attempts.
+     * assigned to their owners does not result in any relinquish attempts.
      */
     @Test
     public void testNoRebalance() {
-        // Partitions are already perfectly balanced among the two active instances
-        setUpLeadershipService(WorkPartitionManager.NUM_PARTITIONS / 2);
-        replay(leadershipService);
+        // Partitions are already assigned among the two active instances
+        setUpLeadershipService(this::isAssignedToMe);
+        replay(leadershipService, leadershipAdminService);
 
-        partitionManager.activate();
+        partitionManager.activate(null);
 
         // trigger rebalance
         partitionManager.doRebalance();
 
-        verify(leadershipService);
+        verify(leadershipService, leadershipAdminService);
 
         reset(leadershipService);
         // We have a smaller share than we should
-        setUpLeadershipService(WorkPartitionManager.NUM_PARTITIONS / 2 - 1);
+        setUpLeadershipService(i -> i > 0 && isAssignedToMe(i));
         replay(leadershipService);
 
         // trigger rebalance
         partitionManager.doRebalance();
 
+        verify(leadershipService, leadershipAdminService);
+    }
+
+    /**
+     * Tests that the number of partitions configured while active is left
+     * for the next activation.
+     */
+    @Test
+    public void testNumPartitionsChange() {
+        // We'll own only the first partition
+        setUpLeadershipService(1);
+        replay(leadershipService);
+
+        partitionManager.activate(null);
+
+        Dictionary<String, Object> properties = new Hashtable<>();
+        properties.put(WPM_NUM_PARTITIONS, WorkPartitionManager.NUM_PARTITIONS + 2);
+        ComponentContext context = createMock(ComponentContext.class);
+        expect(context.getProperties()).andReturn(properties).anyTimes();
+        replay(context);
+        partitionManager.modified(context);
+
+        // Keys are still mapped to the partitions run for at activation
+        Key key = new ControllableHashKey(WorkPartitionManager.NUM_PARTITIONS);
+        assertTrue(partitionManager.isMine(key, Key::hash));
+
         verify(leadershipService);
     }
 
+    /**
+     * Tests the spread of the partitions over the instances.
+     */
+    @Test
+    public void testAssignment() {
+        int partitions = WorkPartitionManager.NUM_PARTITIONS;
+        Map<NodeId, Double> noWeights = ImmutableMap.of();
+
+        // Shares differ by one partition at most, whatever the number of instances
+        List<NodeId> nodes = new ArrayList<>();
+        for (int n = 1; n <= 7; n++) {
+            nodes.add(NodeId.nodeId("172.17.0." + (n + 1)));
+            Map<NodeId, Long> shares = Arrays.stream(WorkPartitionManager.getOwners(partitions, nodes, noWeights))
+                    .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+            for (NodeId nodeId : nodes) {
+                assertThat(shares.getOrDefault(nodeId, 0L),
+                           is(both(greaterThan((long) partitions / n - 1)).and(lessThan((long) partitions / n + 2))));
+            }
+        }
+
+        // Shares are proportional to the weights
+        List<NodeId> threeNodes = nodes.subList(0, 3);
+        Map<NodeId, Double> weights = ImmutableMap.of(threeNodes.get(1), 3.0);
+        long share = Arrays.stream(WorkPartitionManager.getOwners(3000, threeNodes, weights))
+                .filter(threeNodes.get(1)::equals)
+                .count();
+        assertThat(share, is(1800L));
+
+        // Few partitions move between instances other than a joining one
+        NodeId[] owners = WorkPartitionManager.getOwners(3000, threeNodes, noWeights);
+        NodeId[] newOwners = WorkPartitionManager.getOwners(3000, nodes.subList(0, 4), noWeights);
+        long moved = IntStream.range(0, 3000)
+                .filter(i -> !newOwners[i].equals(owners[i]) && !newOwners[i].equals(nodes.get(3)))
+                .count();
+        assertThat(moved, lessThan(60L));
+    }
+
+    private boolean isAssignedToMe(int partition) {
+        return MY_NODE_ID.equals(WorkPartitionManager.getOwners(WorkPartitionManager.NUM_PARTITIONS,
+                                                                ImmutableList.of(MY_NODE_ID, OTHER_NODE_ID),
+                                                                ImmutableMap.of())[partition]);
+    }
+
     /**
      * LeadershipService that allows us to grab a reference to
      * PartitionManager's LeadershipEventListener.
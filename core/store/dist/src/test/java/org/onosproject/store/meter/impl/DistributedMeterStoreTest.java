@@ -47,9 +47,11 @@ import org.onosproject.net.pi.runtime.PiMeterCellId;
 import org.onosproject.store.service.Serializer;
 import org.onosproject.store.service.TestStorageService;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
@@ -70,6 +72,7 @@ public class DistributedMeterStoreTest {
     private DeviceId did2 = did("2");
     private DeviceId did3 = did("3");
     private DeviceId did4 = did("4");
+    private DeviceId did5 = did("5");
 
     private MeterId mid1 = MeterId.meterId(1);
     private MeterId mid2 = MeterId.meterId(2);
@@ -146,6 +149,16 @@ public class DistributedMeterStoreTest {
             .withMaxColors((byte) 0)
             .build();
 
+    private MeterFeatures mef5 = DefaultMeterFeatures.builder().forDevice(did5)
+            .withMaxMeters(2048L)
+            .withBandTypes(new HashSet<>())
+            .withUnits(new HashSet<>())
+            .hasStats(false)
+            .hasBurst(false)
+            .withMaxBands((byte) 0)
+            .withMaxColors((byte) 0)
+            .build();
+
     @Before
     public void setup() {
         meterStore = new DistributedMeterStore();
@@ -264,6 +277,50 @@ public class DistributedMeterStoreTest {
         assertNotEquals("Ids should be different", meterAnotherId, meterIdOne);
     }
 
+    /**
+     * Test allocation of meter ids from blocks leased by the local node.
+     */
+    @Test
+    public void testLeasedIds() {
+        initMeterStore(false);
+        meterStore.storeMeterFeatures(mef5);
+        MeterTableKey globalKey = MeterTableKey.key(did5, MeterScope.globalScope());
+
+        assertThat(mid1, is(meterStore.allocateMeterId(did5, MeterScope.globalScope())));
+        assertThat(mid2, is(meterStore.allocateMeterId(did5, MeterScope.globalScope())));
+        assertThat(mid3, is(meterStore.allocateMeterId(did5, MeterScope.globalScope())));
+
+        // Freed ids are reused locally without going through the available ids
+        meterStore.freeMeterId(did5, mid2);
+        assertTrue(meterStore.availableMeterIds.get(globalKey).isEmpty());
+        assertThat(mid2, is(meterStore.allocateMeterId(did5, MeterScope.globalScope())));
+
+        // Ids up to the end of the leased block are allocated locally
+        MeterCellId last = null;
+        for (int i = 4; i <= 64; i++) {
+            last = meterStore.allocateMeterId(did5, MeterScope.globalScope());
+        }
+        assertThat(MeterId.meterId(64), is(last));
+        assertThat(MeterId.meterId(65), is(meterStore.allocateMeterId(did5, MeterScope.globalScope())));
+
+        // Ids of a previous lease are made available to all the nodes
+        meterStore.freeMeterId(did5, mid5);
+        assertTrue(meterStore.availableMeterIds.get(globalKey).contains(MeterKey.key(did5, mid5)));
+        assertThat(MeterId.meterId(66), is(meterStore.allocateMeterId(did5, MeterScope.globalScope())));
+
+        // Once the lease is used up, the available ids are claimed in a single batch
+        meterStore.freeMeterId(did5, mid3);
+        for (int i = 67; i < 128; i++) {
+            meterStore.allocateMeterId(did5, MeterScope.globalScope());
+        }
+        Set<MeterCellId> reused = new HashSet<>();
+        reused.add(meterStore.allocateMeterId(did5, MeterScope.globalScope()));
+        assertTrue(meterStore.availableMeterIds.get(globalKey).isEmpty());
+        reused.add(meterStore.allocateMeterId(did5, MeterScope.globalScope()));
+        assertThat(reused, is(new HashSet<>(Arrays.asList(mid3, mid5))));
+        assertThat(MeterId.meterId(128), is(meterStore.allocateMeterId(did5, MeterScope.globalScope())));
+    }
+
     /**
      * Test query meters mechanism.
      */
@@ -0,0 +1,358 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.store.resource.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.VlanId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.intent.IntentId;
+import org.onosproject.net.resource.DiscreteResource;
+import org.onosproject.net.resource.DiscreteResourceId;
+import org.onosproject.net.resource.Resource;
+import org.onosproject.net.resource.ResourceAllocation;
+import org.onosproject.net.resource.ResourceConsumer;
+import org.onosproject.net.resource.Resources;
+import org.onosproject.store.primitives.TransactionId;
+import org.onosproject.store.service.CommitStatus;
+import org.onosproject.store.service.ConsistentMap;
+import org.onosproject.store.service.ConsistentMapBuilder;
+import org.onosproject.store.service.Serializer;
+import org.onosproject.store.service.TestConsistentMap;
+import org.onosproject.store.service.TestStorageService;
+import org.onosproject.store.service.TransactionContext;
+import org.onosproject.store.service.TransactionContextBuilder;
+import org.onosproject.store.service.TransactionalMap;
+import org.onosproject.store.service.Versioned;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.isOneOf;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the queries of available values of ConsistentResourceStore.
+ */
+public class ConsistentResourceStoreTest {
+
+    private static final DeviceId DID1 = DeviceId.deviceId("a");
+    private static final DeviceId DID2 = DeviceId.deviceId("b");
+    private static final PortNumber PN = PortNumber.portNumber(1);
+    private static final int VLANS = 10;
+    private static final int ROUNDS = 20;
+
+    private final DiscreteResource device1 = Resources.discrete(DID1).resource();
+    private final DiscreteResource device2 = Resources.discrete(DID2).resource();
+    private final DiscreteResource port1 = Resources.discrete(DID1, PN).resource();
+    private final DiscreteResource port2 = Resources.discrete(DID2, PN).resource();
+    private final List<DiscreteResourceId> ports = ImmutableList.of(port1.id(), port2.id());
+    private final ResourceConsumer consumer1 = IntentId.valueOf(1);
+    private final ResourceConsumer consumer2 = IntentId.valueOf(2);
+
+    private final TestTransactionalStorageService service = new TestTransactionalStorageService();
+    private ConsistentResourceStore store;
+
+    @Before
+    public void setUp() {
+        store = new ConsistentResourceStore();
+        store.service = service;
+        store.activate();
+
+        assertTrue(store.register(ImmutableList.of(device1, device2, port1, port2)));
+        List<Resource> vlans = new ArrayList<>();
+        for (int i = 1; i <= VLANS; i++) {
+            vlans.add(vlan(port1, i));
+            vlans.add(vlan(port2, i));
+        }
+        // registered on a single port only
+        vlans.add(vlan(port1, VLANS + 1));
+        assertTrue(store.register(vlans));
+    }
+
+    private static DiscreteResource vlan(DiscreteResource port, int vlan) {
+        return port.child(VlanId.vlanId((short) vlan));
+    }
+
+    private static List<VlanId> vlans(int... vlans) {
+        return IntStream.of(vlans)
+                .mapToObj(x -> VlanId.vlanId((short) x))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Tests that the allocated values are left out of the first available values.
+     */
+    @Test
+    public void testAvailableValues() {
+        assertTrue(store.allocate(ImmutableList.of(vlan(port1, 1), vlan(port1, 2)), consumer1));
+        assertTrue(store.allocate(ImmutableList.of(vlan(port2, 3)), consumer2));
+
+        assertThat(store.getAvailableResourceValues(ports, VlanId.class, 3), is(vlans(4, 5, 6)));
+        assertThat(store.getAvailableResourceValues(ports, VlanId.class, VLANS),
+                   is(vlans(4, 5, 6, 7, 8, 9, 10)));
+        assertThat(store.getAvailableResourceValues(ImmutableList.of(port1.id()), VlanId.class, VLANS + 1),
+                   is(vlans(3, 4, 5, 6, 7, 8, 9, 10, 11)));
+
+        assertTrue(store.release(ImmutableList.of(new ResourceAllocation(vlan(port1, 1), consumer1))));
+        assertThat(store.getAvailableResourceValues(ports, VlanId.class, 2), is(vlans(1, 4)));
+    }
+
+    /**
+     * Tests that the values allocated before the store is activated are known to be allocated.
+     */
+    @Test
+    public void testAllocatedValuesLoaded() {
+        assertTrue(store.allocate(ImmutableList.of(vlan(port1, 1), vlan(port2, 2)), consumer1));
+        store.deactivate();
+
+        ConsistentResourceStore other = new ConsistentResourceStore();
+        other.service = service;
+        other.activate();
+        assertThat(other.getAvailableResourceValues(ports, VlanId.class, 2), is(vlans(3, 4)));
+
+        assertTrue(other.release(ImmutableList.of(new ResourceAllocation(vlan(port2, 2), consumer1))));
+        assertThat(other.getAvailableResourceValues(ports, VlanId.class, 2), is(vlans(2, 3)));
+    }
+
+    /**
+     * Tests the availability of a value under several parents.
+     */
+    @Test
+    public void testIsAvailable() {
+        assertTrue(store.allocate(ImmutableList.of(vlan(port2, 1)), consumer1));
+
+        assertFalse(store.isAvailable(ports, VlanId.vlanId((short) 1)));
+        assertTrue(store.isAvailable(ImmutableList.of(port1.id()), VlanId.vlanId((short) 1)));
+        assertTrue(store.isAvailable(ports, VlanId.vlanId((short) 2)));
+        assertFalse(store.isAvailable(ports, VlanId.vlanId((short) (VLANS + 1))));
+
+        assertTrue(store.release(ImmutableList.of(new ResourceAllocation(vlan(port2, 1), consumer1))));
+        assertTrue(store.isAvailable(ports, VlanId.vlanId((short) 1)));
+    }
+
+    /**
+     * Tests that a random available value is never an allocated one.
+     */
+    @Test
+    public void testRandomAvailableValue() {
+        List<Resource> allocated = new ArrayList<>();
+        for (int i = 1; i <= VLANS; i++) {
+            if (i != 4 && i != 7) {
+                allocated.add(vlan(i % 2 == 0 ? port1 : port2, i));
+            }
+        }
+        assertTrue(store.allocate(allocated, consumer1));
+
+        Set<VlanId> selected = new HashSet<>();
+        for (int i = 0; i < ROUNDS; i++) {
+            store.getRandomAvailableResourceValue(ports, VlanId.class).ifPresent(selected::add);
+        }
+        assertThat(selected.isEmpty(), is(false));
+        assertTrue(vlans(4, 7).containsAll(selected));
+
+        assertTrue(store.allocate(ImmutableList.of(vlan(port1, 4), vlan(port2, 7)), consumer2));
+        assertThat(store.getRandomAvailableResourceValue(ports, VlanId.class), is(Optional.empty()));
+    }
+
+    /**
+     * Tests that the allocated values of a non-encodable type are left out of the available values.
+     */
+    @Test
+    public void testAvailableGenericValues() {
+        List<Resource> values = new ArrayList<>();
+        for (String value : ImmutableSet.of("x", "y", "z")) {
+            values.add(port1.child(value));
+            values.add(port2.child(value));
+        }
+        assertTrue(store.register(values));
+        assertTrue(store.allocate(ImmutableList.of(port2.child("y")), consumer1));
+
+        assertThat(store.getAvailableResourceValues(ports, String.class, VLANS), containsInAnyOrder("x", "z"));
+        assertThat(store.getAvailableResourceValues(ImmutableList.of(port1.id()), String.class, VLANS),
+                   containsInAnyOrder("x", "y", "z"));
+        Optional<String> random = store.getRandomAvailableResourceValue(ports, String.class);
+        assertTrue(random.isPresent());
+        assertThat(random.get(), isOneOf("x", "z"));
+    }
+
+    // Storage service sharing the maps by name, whose transactions are applied on commit
+    private static class TestTransactionalStorageService extends TestStorageService {
+        private final Map<String, ConsistentMap<?, ?>> maps = new HashMap<>();
+
+        @Override
+        public <K, V> ConsistentMapBuilder<K, V> consistentMapBuilder() {
+            return new TestConsistentMap.Builder<K, V>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public ConsistentMap<K, V> build() {
+                    return (ConsistentMap<K, V>) maps.computeIfAbsent(name(), name -> super.build());
+                }
+            };
+        }
+
+        @Override
+        public TransactionContextBuilder transactionContextBuilder() {
+            return new TransactionContextBuilder() {
+                @Override
+                public TransactionContext build() {
+                    return new TestTransactionContext(maps);
+                }
+            };
+        }
+    }
+
+    private static class TestTransactionContext implements TransactionContext {
+        private final Map<String, ConsistentMap<?, ?>> maps;
+        private final List<TestTransactionalMap<?, ?>> txMaps = new ArrayList<>();
+        private boolean open;
+
+        TestTransactionContext(Map<String, ConsistentMap<?, ?>> maps) {
+            this.maps = maps;
+        }
+
+        @Override
+        public String name() {
+            return "test";
+        }
+
+        @Override
+        public TransactionId transactionId() {
+            return TransactionId.from("test");
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void begin() {
+            open = true;
+        }
+
+        @Override
+        public CompletableFuture<CommitStatus> commit() {
+            txMaps.forEach(TestTransactionalMap::commit);
+            open = false;
+            return CompletableFuture.completedFuture(CommitStatus.SUCCESS);
+        }
+
+        @Override
+        public void abort() {
+            open = false;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <K, V> TransactionalMap<K, V> getTransactionalMap(String mapName, Serializer serializer) {
+            TestTransactionalMap<K, V> txMap = new TestTransactionalMap<>((ConsistentMap<K, V>) maps.get(mapName));
+            txMaps.add(txMap);
+            return txMap;
+        }
+    }
+
+    // Transactional map buffering the writes until the commit
+    private static class TestTransactionalMap<K, V> implements TransactionalMap<K, V> {
+        private final ConsistentMap<K, V> map;
+        private final Map<K, Optional<V>> writes = new HashMap<>();
+
+        TestTransactionalMap(ConsistentMap<K, V> map) {
+            this.map = map;
+        }
+
+        @Override
+        public V get(K key) {
+            if (writes.containsKey(key)) {
+                return writes.get(key).orElse(null);
+            }
+            return Versioned.valueOrNull(map.get(key));
+        }
+
+        @Override
+        public boolean containsKey(K key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public V put(K key, V value) {
+            V previous = get(key);
+            writes.put(key, Optional.of(value));
+            return previous;
+        }
+
+        @Override
+        public V remove(K key) {
+            V previous = get(key);
+            writes.put(key, Optional.empty());
+            return previous;
+        }
+
+        @Override
+        public V putIfAbsent(K key, V value) {
+            V previous = get(key);
+            if (previous == null) {
+                writes.put(key, Optional.of(value));
+            }
+            return previous;
+        }
+
+        @Override
+        public boolean remove(K key, V value) {
+            if (!Objects.equals(get(key), value)) {
+                return false;
+            }
+            writes.put(key, Optional.empty());
+            return true;
+        }
+
+        @Override
+        public boolean replace(K key, V oldValue, V newValue) {
+            if (!Objects.equals(get(key), oldValue)) {
+                return false;
+            }
+            writes.put(key, Optional.of(newValue));
+            return true;
+        }
+
+        private void commit() {
+            writes.forEach((key, value) -> {
+                if (value.isPresent()) {
+                    map.put(key, value.get());
+                } else {
+                    map.remove(key);
+                }
+            });
+        }
+    }
+}
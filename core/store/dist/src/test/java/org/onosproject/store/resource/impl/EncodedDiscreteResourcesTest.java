@@ -25,7 +25,9 @@ import org.onosproject.net.resource.DiscreteResource;
 import org.onosproject.net.resource.Resources;
 
 import java.util.Set;
+import java.util.stream.Collectors;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.*;
 
@@ -75,4 +77,32 @@ public class EncodedDiscreteResourcesTest {
                 is(EncodedDiscreteResources.of(ImmutableSet.of(res1, res2, res3), new VlanIdCodec())));
     }
 
+    @Test
+    public void testIntersection() {
+        DiscreteResource res1 = Resources.discrete(DID, PN, VID1).resource();
+        DiscreteResource res2 = Resources.discrete(DID, PN, VID2).resource();
+        DiscreteResource res3 = Resources.discrete(DID, PN, VID3).resource();
+
+        EncodedDiscreteResources sut = EncodedDiscreteResources.of(ImmutableSet.of(res1, res2), new VlanIdCodec());
+        EncodedDiscreteResources other = EncodedDiscreteResources.of(ImmutableSet.of(res1, res3), new VlanIdCodec());
+
+        assertThat(sut.intersection(other), is(EncodedDiscreteResources.of(ImmutableSet.of(res1), new VlanIdCodec())));
+    }
+
+    @Test
+    public void testEncodedValues() {
+        DiscreteResource res1 = Resources.discrete(DID, PN, VID1).resource();
+        DiscreteResource res2 = Resources.discrete(DID, PN, VID2).resource();
+        DiscreteResource res3 = Resources.discrete(DID, PN, VID3).resource();
+        DiscreteResource res5 = Resources.discrete(DID, PN, VlanId.vlanId((short) 5)).resource();
+
+        EncodedDiscreteResources sut = EncodedDiscreteResources.of(ImmutableSet.of(res1, res2, res3, res5),
+                                                                   new VlanIdCodec());
+
+        assertThat(sut.size(), is(4L));
+        assertThat(sut.encodedValues(0).boxed().collect(Collectors.toList()), contains(1, 2, 3, 5));
+        assertThat(sut.encodedValues(2).boxed().collect(Collectors.toList()), contains(3, 5, 1, 2));
+        assertThat(sut.encodedValues(3).boxed().collect(Collectors.toList()), contains(5, 1, 2, 3));
+    }
+
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.statistic.impl;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.NetTestTools;
+import org.onosproject.net.flow.DefaultFlowEntry;
+import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowEntry.FlowLiveType;
+import org.onosproject.net.intent.IntentTestsMocks;
+import org.onosproject.net.statistic.FlowEntryWithLoad;
+import org.onosproject.net.statistic.PollInterval;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.onosproject.net.flow.FlowEntry.FlowEntryState.ADDED;
+
+/**
+ * Unit tests for the ranking of flows by load.
+ */
+public class FlowLoadRankingTest {
+
+    private final ConnectPoint cp = NetTestTools.connectPoint("id1", 1);
+
+    private static FlowEntry flowEntry(int id, FlowLiveType liveType, long bytes) {
+        return new DefaultFlowEntry(new IntentTestsMocks.MockFlowRule(id), ADDED, 0, liveType, 0, bytes);
+    }
+
+    private static List<Long> rates(List<FlowEntryWithLoad> fel) {
+        return fel.stream().map(f -> f.load().rate()).collect(Collectors.toList());
+    }
+
+    /**
+     * Tests the ranking of flows of a single live type.
+     */
+    @Test
+    public void testTopnByLiveType() {
+        PollInterval pollInterval = PollInterval.getInstance();
+        long interval = pollInterval.getPollInterval();
+
+        FlowLoadRanking ranking = new FlowLoadRanking(
+                ImmutableSet.of(flowEntry(1, FlowLiveType.SHORT, 100 * interval),
+                                flowEntry(2, FlowLiveType.SHORT, 500 * interval),
+                                flowEntry(3, FlowLiveType.SHORT, 300 * interval)),
+                ImmutableSet.of(flowEntry(2, FlowLiveType.SHORT, 400 * interval)));
+
+        assertThat(rates(ranking.topn(cp, FlowLiveType.SHORT, fe -> true, 2)), contains(300L, 100L));
+        assertThat(ranking.topn(cp, FlowLiveType.SHORT, fe -> true, 0), is(empty()));
+        assertThat(ranking.topn(cp, FlowLiveType.LONG, fe -> true, 2), is(empty()));
+
+        List<FlowEntryWithLoad> fel = ranking.topn(cp, FlowLiveType.SHORT, fe -> fe.bytes() != 300 * interval, 5);
+        assertThat(rates(fel), contains(100L, 100L));
+        assertThat(fel.get(0).connectPoint(), is(cp));
+    }
+
+    /**
+     * Tests the ranking of flows of several live types.
+     */
+    @Test
+    public void testTopnAllLiveTypes() {
+        PollInterval pollInterval = PollInterval.getInstance();
+        long interval = pollInterval.getPollInterval();
+        long longInterval = pollInterval.getLongPollInterval();
+
+        FlowLoadRanking ranking = new FlowLoadRanking(
+                ImmutableSet.of(flowEntry(1, FlowLiveType.SHORT, 100 * interval),
+                                flowEntry(2, FlowLiveType.SHORT, 400 * interval),
+                                flowEntry(3, FlowLiveType.LONG, 200 * longInterval),
+                                flowEntry(4, FlowLiveType.LONG, 300 * longInterval)),
+                ImmutableSet.of());
+
+        assertThat(rates(ranking.topn(cp, null, fe -> true, 3)), contains(400L, 300L, 200L));
+        assertThat(rates(ranking.topn(cp, null, fe -> true, 10)), contains(400L, 300L, 200L, 100L));
+    }
+
+    /**
+     * Tests that the flows removed after the observation are left out.
+     */
+    @Test
+    public void testTopnRemoved() {
+        long interval = PollInterval.getInstance().getPollInterval();
+
+        FlowLoadRanking ranking = new FlowLoadRanking(
+                ImmutableSet.of(flowEntry(1, FlowLiveType.SHORT, 100 * interval),
+                                flowEntry(2, FlowLiveType.SHORT, 200 * interval)),
+                ImmutableSet.of());
+
+        assertThat(rates(ranking.topn(cp, null, fe -> true, 2)), contains(200L, 100L));
+        ranking.remove(flowEntry(2, FlowLiveType.SHORT, 0));
+        assertThat(rates(ranking.topn(cp, null, fe -> true, 2)), contains(100L));
+    }
+}
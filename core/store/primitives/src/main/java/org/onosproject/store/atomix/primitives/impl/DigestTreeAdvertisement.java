@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.atomix.primitives.impl;
+
+import java.util.Map;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
+import org.onosproject.cluster.NodeId;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Anti-entropy advertisement of a level of the {@link MapDigestTree} of an eventually consistent map.
+ * <p>
+ * At the leaf level, the advertisement also carries the digests of the entries in the advertised leaves.
+ */
+public class DigestTreeAdvertisement<K> {
+
+    private final NodeId sender;
+    private final int level;
+    private final Map<Integer, Long> hashes;
+    private final Map<K, MapValue.Digest> digest;
+
+    /**
+     * Creates a new digest tree advertisement message.
+     *
+     * @param sender the sender's node ID
+     * @param level  the advertised tree level
+     * @param hashes hashes of the advertised tree nodes, keyed by node index
+     * @param digest digests of the entries in the advertised leaves
+     */
+    public DigestTreeAdvertisement(NodeId sender,
+                                   int level,
+                                   Map<Integer, Long> hashes,
+                                   Map<K, MapValue.Digest> digest) {
+        this.sender = checkNotNull(sender);
+        this.level = level;
+        this.hashes = ImmutableMap.copyOf(checkNotNull(hashes));
+        this.digest = ImmutableMap.copyOf(checkNotNull(digest));
+    }
+
+    /**
+     * Returns the sender's node ID.
+     *
+     * @return the sender's node ID
+     */
+    public NodeId sender() {
+        return sender;
+    }
+
+    /**
+     * Returns the advertised tree level.
+     *
+     * @return the tree level
+     */
+    public int level() {
+        return level;
+    }
+
+    /**
+     * Returns the hashes of the advertised tree nodes.
+     *
+     * @return mapping from node index to node hash
+     */
+    public Map<Integer, Long> hashes() {
+        return hashes;
+    }
+
+    /**
+     * Returns the digest for the map entries in the advertised leaves.
+     *
+     * @return mapping from key to associated digest
+     */
+    public Map<K, MapValue.Digest> digest() {
+        return digest;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("sender", sender)
+                .add("level", level)
+                .add("nodes", hashes.size())
+                .add("totalEntries", digest.size())
+                .toString();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.atomix.primitives.impl;
+
+import java.util.Set;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableSet;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Response to a {@link DigestTreeAdvertisement}.
+ */
+public class DigestTreeResponse {
+
+    private final AntiEntropyResponse status;
+    private final Set<Integer> mismatches;
+
+    /**
+     * Creates a new digest tree response.
+     *
+     * @param status     status of the anti-entropy exchange
+     * @param mismatches indexes of the advertised nodes whose hash differs on the receiver
+     */
+    public DigestTreeResponse(AntiEntropyResponse status, Set<Integer> mismatches) {
+        this.status = checkNotNull(status);
+        this.mismatches = ImmutableSet.copyOf(checkNotNull(mismatches));
+    }
+
+    /**
+     * Returns the status of the anti-entropy exchange.
+     *
+     * @return the anti-entropy status
+     */
+    public AntiEntropyResponse status() {
+        return status;
+    }
+
+    /**
+     * Returns the advertised nodes whose hash differs on the receiver.
+     *
+     * @return the indexes of the mismatching nodes
+     */
+    public Set<Integer> mismatches() {
+        return mismatches;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("status", status)
+                .add("mismatches", mismatches.size())
+                .toString();
+    }
+}
@@ -56,6 +56,7 @@ public class EventuallyConsistentMapBuilderImpl<K, V>
     private boolean convergeFaster = false;
     private boolean persistent = false;
     private boolean persistentMap = false;
+    private boolean merkleAntiEntropy = false;
     private final PersistenceService persistenceService;
     private Supplier<List<NodeId>> peersSupplier;
     private Supplier<List<NodeId>> bootstrapPeersSupplier;
@@ -154,6 +155,12 @@ public class EventuallyConsistentMapBuilderImpl<K, V>
         return this;
     }
 
+    @Override
+    public EventuallyConsistentMapBuilder<K, V> withMerkleAntiEntropy() {
+        merkleAntiEntropy = true;
+        return this;
+    }
+
     @Override
     public EventuallyConsistentMapBuilder<K, V> withPersistence() {
         checkNotNull(this.persistenceService);
@@ -188,7 +195,8 @@ public class EventuallyConsistentMapBuilderImpl<K, V>
                 persistent,
                 persistenceService,
                 peersSupplier,
-                bootstrapPeersSupplier
+                bootstrapPeersSupplier,
+                merkleAntiEntropy
         );
     }
 }
@@ -43,6 +43,7 @@ import java.util.stream.Collectors;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -99,6 +100,7 @@ public class EventuallyConsistentMapImpl<K, V>
     private final MessageSubject initializeMessageSubject;
     private final MessageSubject updateMessageSubject;
     private final MessageSubject antiEntropyAdvertisementSubject;
+    private final MessageSubject digestTreeAdvertisementSubject;
     private final MessageSubject updateRequestSubject;
     private final Set<EventuallyConsistentMapListener<K, V>> listeners
             = Sets.newCopyOnWriteArraySet();
@@ -114,6 +116,7 @@ public class EventuallyConsistentMapImpl<K, V>
     private final boolean lightweightAntiEntropy;
     private final boolean tombstonesDisabled;
     private final boolean persistent;
+    private final MapDigestTree<K> digestTree;
     private final Supplier<List<NodeId>> peersSupplier;
     private final Supplier<List<NodeId>> bootstrapPeersSupplier;
     private final NodeId localNodeId;
@@ -146,6 +149,7 @@ public class EventuallyConsistentMapImpl<K, V>
      * @param persistenceService     persistence service
      * @param peersSupplier          supplier for peers
      * @param bootstrapPeersSupplier supplier for bootstrap peers
+     * @param merkleAntiEntropy      exchange hash tree digests instead of per-entry digests
      */
     //CHECKSTYLE:OFF
     EventuallyConsistentMapImpl(
@@ -165,7 +169,8 @@ public class EventuallyConsistentMapImpl<K, V>
             boolean persistent,
             PersistenceService persistenceService,
             Supplier<List<NodeId>> peersSupplier,
-            Supplier<List<NodeId>> bootstrapPeersSupplier
+            Supplier<List<NodeId>> bootstrapPeersSupplier,
+            boolean merkleAntiEntropy
     ) {
         //CHECKSTYLE:ON
         this.localNodeId = localNodeId;
@@ -182,6 +187,12 @@ public class EventuallyConsistentMapImpl<K, V>
         } else {
             items = Maps.newConcurrentMap();
         }
+        if (merkleAntiEntropy) {
+            digestTree = new MapDigestTree<>(serializer::encode);
+            items.forEach((key, value) -> digestTree.update(key, null, value));
+        } else {
+            digestTree = null;
+        }
         senderPending = Maps.newConcurrentMap();
         destroyedMessage = mapName + ERROR_DESTROYED;
 
@@ -273,6 +284,15 @@ public class EventuallyConsistentMapImpl<K, V>
                 this.backgroundExecutor
         );
 
+        digestTreeAdvertisementSubject = new MessageSubject("ecm-" + mapName + "-anti-entropy-tree");
+        clusterCommunicator.addSubscriber(
+                digestTreeAdvertisementSubject,
+                serializer::decode,
+                this::handleDigestTreeAdvertisement,
+                serializer::encode,
+                this.backgroundExecutor
+        );
+
         updateRequestSubject = new MessageSubject("ecm-" + mapName + "-update-request");
         clusterCommunicator.addSubscriber(
                 updateRequestSubject,
@@ -313,6 +333,8 @@ public class EventuallyConsistentMapImpl<K, V>
                 .register(MapValue.class)
                 .register(MapValue.Digest.class)
                 .register(UpdateRequest.class)
+                .register(DigestTreeAdvertisement.class)
+                .register(DigestTreeResponse.class)
                 .build(name() + "-ecmap"));
     }
 
@@ -429,6 +451,7 @@ public class EventuallyConsistentMapImpl<K, V>
             }
             if (updated.get()) {
                 previousValue.set(existing);
+                updateDigestTree(k, existing, tombstone.orElse(null));
                 return tombstone.orElse(null);
             } else {
                 return existing;
@@ -457,7 +480,9 @@ public class EventuallyConsistentMapImpl<K, V>
                 updated.set(true);
                 // We return a copy to ensure updates to peers can be serialized.
                 // This prevents replica divergence due to serialization failures.
-                return serializer.copy(newValue);
+                MapValue<V> copy = serializer.copy(newValue);
+                updateDigestTree(k, mv, copy);
+                return copy;
             } else {
                 return mv;
             }
@@ -528,6 +553,7 @@ public class EventuallyConsistentMapImpl<K, V>
         items.compute(key, (k, existing) -> {
             if (existing == null || newValue.isNewerThan(existing)) {
                 updated.set(true);
+                updateDigestTree(k, existing, newValue);
                 return newValue;
             }
             return existing;
@@ -569,6 +595,7 @@ public class EventuallyConsistentMapImpl<K, V>
         clusterCommunicator.removeSubscriber(updateMessageSubject);
         clusterCommunicator.removeSubscriber(updateRequestSubject);
         clusterCommunicator.removeSubscriber(antiEntropyAdvertisementSubject);
+        clusterCommunicator.removeSubscriber(digestTreeAdvertisementSubject);
         return CompletableFuture.completedFuture(null);
     }
 
@@ -613,6 +640,10 @@ public class EventuallyConsistentMapImpl<K, V>
     }
 
     private void sendAdvertisementToPeer(NodeId peer) {
+        if (digestTree != null) {
+            sendDigestTreeAdvertisementToPeer(peer, System.currentTimeMillis(), 0, ImmutableSet.of(0));
+            return;
+        }
         long adCreationTime = System.currentTimeMillis();
         AntiEntropyAdvertisement<K> ad = createAdvertisement();
         clusterCommunicator.sendAndReceive(ad,
@@ -644,6 +675,97 @@ public class EventuallyConsistentMapImpl<K, V>
                 });
     }
 
+    /**
+     * Sends the hashes of the given nodes of the digest tree to the peer and walks down into the nodes reported as
+     * mismatching, until leaves are reached.
+     *
+     * @param peer           the peer to which to send the advertisement
+     * @param adCreationTime the time at which the anti-entropy round started
+     * @param level          the tree level of the nodes
+     * @param indexes        the indexes of the nodes to advertise
+     */
+    private void sendDigestTreeAdvertisementToPeer(NodeId peer, long adCreationTime, int level, Set<Integer> indexes) {
+        DigestTreeAdvertisement<K> ad = createDigestTreeAdvertisement(level, indexes);
+        clusterCommunicator.<DigestTreeAdvertisement<K>, DigestTreeResponse>sendAndReceive(ad,
+                digestTreeAdvertisementSubject,
+                serializer::encode,
+                serializer::decode,
+                peer)
+                .whenCompleteAsync((result, error) -> {
+                    if (error != null) {
+                        log.debug("Failed to send anti-entropy advertisement to {}: {}",
+                                peer, error.getMessage());
+                    } else if (result.status() == AntiEntropyResponse.PROCESSED) {
+                        if (result.mismatches().isEmpty() || level == MapDigestTree.DEPTH) {
+                            antiEntropyTimes.put(peer, adCreationTime);
+                        } else if (!destroyed) {
+                            sendDigestTreeAdvertisementToPeer(peer, adCreationTime, level + 1,
+                                    MapDigestTree.children(result.mismatches()));
+                        }
+                    }
+                }, backgroundExecutor);
+    }
+
+    private DigestTreeAdvertisement<K> createDigestTreeAdvertisement(int level, Set<Integer> indexes) {
+        Map<K, MapValue.Digest> digest = Maps.newHashMap();
+        if (level == MapDigestTree.DEPTH) {
+            for (int leaf : indexes) {
+                for (K key : digestTree.leafKeys(leaf)) {
+                    MapValue<V> value = items.get(key);
+                    if (value != null) {
+                        digest.put(key, value.digest());
+                    }
+                }
+            }
+        }
+        return new DigestTreeAdvertisement<>(localNodeId, level, digestTree.hashes(level, indexes), digest);
+    }
+
+    private DigestTreeResponse handleDigestTreeAdvertisement(DigestTreeAdvertisement<K> ad) {
+        if (destroyed || underHighLoad() || digestTree == null) {
+            return new DigestTreeResponse(AntiEntropyResponse.IGNORED, ImmutableSet.of());
+        }
+        try {
+            Set<Integer> mismatches = digestTree.mismatches(ad.level(), ad.hashes());
+            if (log.isTraceEnabled()) {
+                log.trace("Received anti-entropy tree advertisement from {} for {} at level {} with {}/{} "
+                        + "mismatching nodes", ad.sender(), mapName, ad.level(), mismatches.size(), ad.hashes().size());
+            }
+            if (ad.level() == MapDigestTree.DEPTH && !mismatches.isEmpty()) {
+                // Only compare the local entries in the leaves that differ from the remote ones.
+                Map<K, MapValue<V>> localItems = Maps.newHashMap();
+                Map<K, MapValue.Digest> remoteDigests = Maps.newHashMap();
+                for (int leaf : mismatches) {
+                    for (K key : digestTree.leafKeys(leaf)) {
+                        MapValue<V> value = items.get(key);
+                        if (value != null) {
+                            localItems.put(key, value);
+                        }
+                    }
+                }
+                ad.digest().forEach((key, digest) -> {
+                    if (mismatches.contains(digestTree.leaf(key))) {
+                        remoteDigests.put(key, digest);
+                    }
+                });
+                antiEntropyCheckLocalItems(ad.sender(), remoteDigests, localItems).forEach(this::notifyListeners);
+            }
+            return new DigestTreeResponse(AntiEntropyResponse.PROCESSED, mismatches);
+        } catch (Exception e) {
+            log.warn("Error handling anti-entropy tree advertisement", e);
+            return new DigestTreeResponse(AntiEntropyResponse.FAILED, ImmutableSet.of());
+        }
+    }
+
+    /**
+     * Records an update of the given entry in the digest tree, if enabled.
+     */
+    private void updateDigestTree(K key, MapValue<V> oldValue, MapValue<V> newValue) {
+        if (digestTree != null) {
+            digestTree.update(key, oldValue, newValue);
+        }
+    }
+
     private AntiEntropyAdvertisement<K> createAdvertisement() {
         return new AntiEntropyAdvertisement<>(localNodeId,
                 ImmutableMap.copyOf(Maps.transformValues(items, MapValue::digest)));
@@ -674,15 +796,27 @@ public class EventuallyConsistentMapImpl<K, V>
      */
     private List<EventuallyConsistentMapEvent<K, V>> antiEntropyCheckLocalItems(
             AntiEntropyAdvertisement<K> ad) {
+        return antiEntropyCheckLocalItems(ad.sender(), ad.digest(), items);
+    }
+
+    /**
+     * Processes the digests advertised by a peer against the given local entries.
+     *
+     * @param sender        the peer that sent the digests
+     * @param remoteDigests the advertised digests
+     * @param localItems    the local entries covered by the advertisement
+     * @return the events to notify to local listeners
+     */
+    private List<EventuallyConsistentMapEvent<K, V>> antiEntropyCheckLocalItems(
+            NodeId sender, Map<K, MapValue.Digest> remoteDigests, Map<K, MapValue<V>> localItems) {
         final List<EventuallyConsistentMapEvent<K, V>> externalEvents = Lists.newLinkedList();
-        final NodeId sender = ad.sender();
         final List<NodeId> peers = ImmutableList.of(sender);
         Set<K> staleOrMissing = new HashSet<>();
-        Set<K> locallyUnknown = new HashSet<>(ad.digest().keySet());
+        Set<K> locallyUnknown = new HashSet<>(remoteDigests.keySet());
 
-        items.forEach((key, localValue) -> {
+        localItems.forEach((key, localValue) -> {
             locallyUnknown.remove(key);
-            MapValue.Digest remoteValueDigest = ad.digest().get(key);
+            MapValue.Digest remoteValueDigest = remoteDigests.get(key);
             if (remoteValueDigest == null || localValue.isNewerThan(remoteValueDigest.timestamp())) {
                 // local value is more recent, push to sender
                 queueUpdate(new UpdateEntry<>(key, localValue), peers);
@@ -738,7 +872,13 @@ public class EventuallyConsistentMapImpl<K, V>
                 .filter(e -> e.getValue().creationTime() <= currentSafeTombstonePurgeTime)
                 .collect(Collectors.toList());
         previousTombstonePurgeTime = currentSafeTombstonePurgeTime;
-        tombStonesToDelete.forEach(entry -> items.remove(entry.getKey(), entry.getValue()));
+        tombStonesToDelete.forEach(entry -> items.computeIfPresent(entry.getKey(), (key, value) -> {
+            if (value.equals(entry.getValue())) {
+                updateDigestTree(key, value, null);
+                return null;
+            }
+            return value;
+        }));
     }
 
     private void processUpdates(Collection<UpdateEntry<K, V>> updates) {
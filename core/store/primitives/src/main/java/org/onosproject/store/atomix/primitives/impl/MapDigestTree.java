@@ -0,0 +1,222 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.atomix.primitives.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Hash tree summarizing the contents of an eventually consistent map.
+ * <p>
+ * Keys are spread over a fixed number of leaves according to a hash of their serialized form, so that the leaf of a
+ * key is the same on every node. Each leaf keeps the sum of the hashes of its entries (key and value digest), which
+ * can be maintained incrementally as entries are updated. Inner nodes of the tree have {@link #FANOUT} children and
+ * their hash is the sum of the hashes of the leaves they cover.
+ * <p>
+ * Two replicas holding the same entries have the same tree, so anti-entropy only needs to exchange the root hash
+ * when maps are in sync, and walks down into subtrees only where hashes differ.
+ *
+ * @param <K> key type
+ */
+public class MapDigestTree<K> {
+
+    /**
+     * Number of children of each inner node.
+     */
+    public static final int FANOUT = 16;
+
+    /**
+     * Depth of the tree; the root is at level 0 and leaves are at level {@code DEPTH}.
+     */
+    public static final int DEPTH = 3;
+
+    private static final int LEAF_BITS = 12;
+    private static final int LEAVES = 1 << LEAF_BITS;
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private final Function<Object, byte[]> encoder;
+    private final AtomicLongArray leafHashes = new AtomicLongArray(LEAVES);
+    private final AtomicReferenceArray<Set<K>> leafKeys = new AtomicReferenceArray<>(LEAVES);
+
+    /**
+     * Creates a new digest tree.
+     *
+     * @param encoder function used to serialize keys and timestamps consistently across nodes
+     */
+    public MapDigestTree(Function<Object, byte[]> encoder) {
+        this.encoder = encoder;
+    }
+
+    /**
+     * Returns the number of nodes at the given level of the tree.
+     *
+     * @param level the tree level
+     * @return the number of nodes at the given level
+     */
+    public static int width(int level) {
+        checkArgument(level >= 0 && level <= DEPTH, "invalid tree level");
+        return 1 << (4 * level);
+    }
+
+    /**
+     * Returns the leaf to which the given key belongs.
+     *
+     * @param key the key
+     * @return the leaf index
+     */
+    public int leaf(K key) {
+        return leaf(keyHash(key));
+    }
+
+    /**
+     * Records the update of an entry in the map.
+     * <p>
+     * Updates of a given key must be recorded in the order in which they are applied to the map.
+     *
+     * @param key      the entry key
+     * @param oldValue the previous value, or {@code null} if the key was absent
+     * @param newValue the new value, or {@code null} if the key was removed
+     */
+    public void update(K key, MapValue<?> oldValue, MapValue<?> newValue) {
+        if (oldValue == newValue) {
+            return;
+        }
+        long keyHash = keyHash(key);
+        int leaf = leaf(keyHash);
+        long delta = 0;
+        if (oldValue != null) {
+            delta -= entryHash(keyHash, oldValue);
+        }
+        if (newValue != null) {
+            delta += entryHash(keyHash, newValue);
+            keys(leaf).add(key);
+        } else {
+            keys(leaf).remove(key);
+        }
+        leafHashes.addAndGet(leaf, delta);
+    }
+
+    /**
+     * Returns the hash of the given node.
+     *
+     * @param level the node level
+     * @param index the node index within the level
+     * @return the node hash
+     */
+    public long hash(int level, int index) {
+        int span = LEAVES / width(level);
+        long hash = 0;
+        for (int leaf = index * span; leaf < (index + 1) * span; leaf++) {
+            hash += leafHashes.get(leaf);
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the hashes of the given nodes.
+     *
+     * @param level   the nodes level
+     * @param indexes the node indexes within the level
+     * @return the hashes of the nodes, keyed by node index
+     */
+    public Map<Integer, Long> hashes(int level, Collection<Integer> indexes) {
+        Map<Integer, Long> hashes = Maps.newHashMapWithExpectedSize(indexes.size());
+        indexes.forEach(index -> hashes.put(index, hash(level, index)));
+        return hashes;
+    }
+
+    /**
+     * Returns the nodes among the given ones whose local hash differs.
+     *
+     * @param level  the nodes level
+     * @param hashes the remote hashes of the nodes, keyed by node index
+     * @return the indexes of the nodes whose hash differs
+     */
+    public Set<Integer> mismatches(int level, Map<Integer, Long> hashes) {
+        Set<Integer> mismatches = Sets.newHashSet();
+        hashes.forEach((index, hash) -> {
+            if (hash(level, index) != hash) {
+                mismatches.add(index);
+            }
+        });
+        return mismatches;
+    }
+
+    /**
+     * Returns the children of the given nodes.
+     *
+     * @param indexes the parent node indexes
+     * @return the indexes of the children in the next level
+     */
+    public static Set<Integer> children(Collection<Integer> indexes) {
+        Set<Integer> children = Sets.newHashSet();
+        for (int index : indexes) {
+            for (int child = 0; child < FANOUT; child++) {
+                children.add(index * FANOUT + child);
+            }
+        }
+        return children;
+    }
+
+    /**
+     * Returns the keys that belong to the given leaf.
+     *
+     * @param leaf the leaf index
+     * @return the keys in the leaf
+     */
+    public Set<K> leafKeys(int leaf) {
+        Set<K> keys = leafKeys.get(leaf);
+        return keys != null ? keys : Collections.emptySet();
+    }
+
+    private Set<K> keys(int leaf) {
+        Set<K> keys = leafKeys.get(leaf);
+        if (keys == null) {
+            leafKeys.compareAndSet(leaf, null, Sets.newConcurrentHashSet());
+            keys = leafKeys.get(leaf);
+        }
+        return keys;
+    }
+
+    private long keyHash(K key) {
+        return HASH_FUNCTION.hashBytes(encoder.apply(key)).asLong();
+    }
+
+    private static int leaf(long keyHash) {
+        return (int) (keyHash >>> (Long.SIZE - LEAF_BITS));
+    }
+
+    private long entryHash(long keyHash, MapValue<?> value) {
+        return HASH_FUNCTION.newHasher()
+                .putLong(keyHash)
+                .putBytes(encoder.apply(value.timestamp()))
+                .putBoolean(value.isTombstone())
+                .hash()
+                .asLong();
+    }
+}
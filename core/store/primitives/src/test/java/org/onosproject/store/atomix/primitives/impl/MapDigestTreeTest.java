@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.atomix.primitives.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+import org.onosproject.store.LogicalTimestamp;
+
+/**
+ * Unit tests for MapDigestTree.
+ */
+public class MapDigestTreeTest {
+
+    private MapDigestTree<String> newTree() {
+        return new MapDigestTree<>(o -> o.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private MapValue<String> value(String value, long timestamp) {
+        return new MapValue<>(value, new LogicalTimestamp(timestamp));
+    }
+
+    @Test
+    public void testSameContents() {
+        MapDigestTree<String> tree1 = newTree();
+        MapDigestTree<String> tree2 = newTree();
+        for (int i = 0; i < 100; i++) {
+            tree1.update("key" + i, null, value("foo", i));
+        }
+        for (int i = 99; i >= 0; i--) {
+            tree2.update("key" + i, null, value("foo", i));
+        }
+        assertEquals(tree1.hash(0, 0), tree2.hash(0, 0));
+        assertTrue(tree1.mismatches(0, tree2.hashes(0, ImmutableSet.of(0))).isEmpty());
+
+        // Updating and reverting an entry leads back to the same hash
+        long root = tree1.hash(0, 0);
+        tree1.update("key1", value("foo", 1), MapValue.tombstone(new LogicalTimestamp(200)));
+        assertNotEquals(root, tree1.hash(0, 0));
+        tree1.update("key1", MapValue.tombstone(new LogicalTimestamp(200)), value("foo", 1));
+        assertEquals(root, tree1.hash(0, 0));
+    }
+
+    @Test
+    public void testMismatches() {
+        MapDigestTree<String> tree1 = newTree();
+        MapDigestTree<String> tree2 = newTree();
+        for (int i = 0; i < 100; i++) {
+            tree1.update("key" + i, null, value("foo", i));
+            tree2.update("key" + i, null, value("foo", i));
+        }
+        tree2.update("key42", value("foo", 42), value("bar", 142));
+
+        // Walk down the tree to the leaf holding the updated key
+        Set<Integer> mismatches = ImmutableSet.of(0);
+        for (int level = 0; level <= MapDigestTree.DEPTH; level++) {
+            mismatches = tree1.mismatches(level, tree2.hashes(level, mismatches));
+            assertEquals(1, mismatches.size());
+            if (level < MapDigestTree.DEPTH) {
+                mismatches = MapDigestTree.children(mismatches);
+            }
+        }
+        int leaf = mismatches.iterator().next();
+        assertEquals(tree1.leaf("key42"), leaf);
+        assertTrue(tree2.leafKeys(leaf).contains("key42"));
+
+        // Removing the key removes it from its leaf
+        tree2.update("key42", value("bar", 142), null);
+        assertTrue(!tree2.leafKeys(leaf).contains("key42"));
+    }
+}
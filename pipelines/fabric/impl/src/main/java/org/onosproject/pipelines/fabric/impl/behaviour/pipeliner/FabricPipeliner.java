@@ -21,7 +21,10 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.onlab.packet.Ethernet;
+import org.onlab.util.AbstractAccumulator;
+import org.onlab.util.Accumulator;
 import org.onlab.util.KryoNamespace;
+import org.onlab.util.OrderedExecutor;
 import org.onlab.util.SharedExecutors;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.core.CoreService;
@@ -30,6 +33,7 @@ import org.onosproject.net.PortNumber;
 import org.onosproject.net.behaviour.NextGroup;
 import org.onosproject.net.behaviour.Pipeliner;
 import org.onosproject.net.behaviour.PipelinerContext;
+import org.onosproject.net.driver.Driver;
 import org.onosproject.net.flow.DefaultFlowRule;
 import org.onosproject.net.flow.DefaultTrafficSelector;
 import org.onosproject.net.flow.DefaultTrafficTreatment;
@@ -72,6 +76,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
@@ -114,6 +119,10 @@ public class FabricPipeliner extends AbstractFabricHandlerBehavior
 
     private final ExecutorService callbackExecutor = SharedExecutors.getPoolThreadExecutor();
 
+    // Applies the batches of objectives in order, off the accumulator timer
+    private final Executor batchExecutor = new OrderedExecutor(SharedExecutors.getPoolThreadExecutor());
+    private Accumulator<PendingObjective> accumulator;
+
     /**
      * Creates a new instance of this behavior with the given capabilities.
      *
@@ -142,10 +151,31 @@ public class FabricPipeliner extends AbstractFabricHandlerBehavior
         this.nextTranslator = new NextObjectiveTranslator(deviceId, capabilities);
         this.coreService = context.directory().get(CoreService.class);
         this.appId = coreService.getAppId(FabricPipeconfLoader.PIPELINE_APP_NAME);
+        // Init the accumulator, if enabled
+        if (isAccumulatorEnabled()) {
+            this.accumulator = new ObjectiveAccumulator(context.accumulatorMaxObjectives(),
+                                                        context.accumulatorMaxBatchMillis(),
+                                                        context.accumulatorMaxIdleMillis());
+        }
 
         initializePipeline();
     }
 
+    void setupAccumulatorForTests(int maxObjs, int maxBatchMS, int maxIdleMS) {
+        if (accumulator == null) {
+            accumulator = new ObjectiveAccumulator(maxObjs, maxBatchMS, maxIdleMS);
+        }
+    }
+
+    private boolean isAccumulatorEnabled() {
+        Driver driver = data() != null ? data().driver() : null;
+        // we cannot determine the property
+        if (driver == null) {
+            return false;
+        }
+        return Boolean.parseBoolean(driver.getProperty(ACCUMULATOR_ENABLED));
+    }
+
     protected void initializePipeline() {
         // Set up rules for packet-out forwarding. We support only IPv4 routing.
         final long cpuPort = capabilities.cpuPort().get();
@@ -223,12 +253,59 @@ public class FabricPipeliner extends AbstractFabricHandlerBehavior
             fail(obj, result.error().get());
             return;
         }
-        processGroups(obj, result.groups());
-        processFlows(obj, result.flowRules());
-        if (obj instanceof NextObjective) {
-            handleNextGroup((NextObjective) obj);
+        // Let's accumulate the objectives if the accumulator is active,
+        // so that their flows are applied in a single batch
+        if (accumulator != null) {
+            accumulator.add(new PendingObjective(obj, result));
+        } else {
+            applyObjectives(Collections.singletonList(new PendingObjective(obj, result)));
         }
-        success(obj);
+    }
+
+    // Applies the translations of the given objectives, in order
+    private void applyObjectives(List<PendingObjective> pending) {
+        // Objectives are completed in order, so the ones not completed yet
+        // when something goes wrong are the last ones
+        int completed = 0;
+        try {
+            FlowRuleOperations.Builder ops = FlowRuleOperations.builder();
+            Set<FlowRule> stage = Sets.newHashSet();
+            List<Objective> objs = Lists.newArrayList();
+            boolean hasFlows = false;
+            for (PendingObjective p : pending) {
+                if (!p.translation.groups().isEmpty() && !objs.isEmpty()) {
+                    // Groups follow the flows of the previous objectives
+                    applyFlows(ops, hasFlows, objs);
+                    completed += objs.size();
+                    ops = FlowRuleOperations.builder();
+                    stage.clear();
+                    objs = Lists.newArrayList();
+                    hasFlows = false;
+                }
+                processGroups(p.objective, p.translation.groups());
+                hasFlows |= processFlows(p.objective, p.translation.flowRules(), ops, stage);
+                objs.add(p.objective);
+            }
+            applyFlows(ops, hasFlows, objs);
+        } catch (RuntimeException e) {
+            log.warn("Unable to apply objectives", e);
+            pending.subList(completed, pending.size())
+                    .forEach(p -> fail(p.objective, ObjectiveError.UNKNOWN));
+        }
+    }
+
+    // Objectives of the batch are completed once all of them are applied
+    private void applyFlows(FlowRuleOperations.Builder ops, boolean hasFlows, List<Objective> objs) {
+        if (hasFlows) {
+            log.debug("Applying flows of {} objectives to {}", objs.size(), deviceId);
+            flowRuleService.apply(ops.build());
+        }
+        objs.forEach(obj -> {
+            if (obj instanceof NextObjective) {
+                handleNextGroup((NextObjective) obj);
+            }
+        });
+        objs.forEach(this::success);
     }
 
     private void handleNextGroup(NextObjective obj) {
@@ -250,31 +327,45 @@ public class FabricPipeliner extends AbstractFabricHandlerBehavior
         }
     }
 
-    private void processFlows(Objective objective, Collection<FlowRule> flowRules) {
+    private boolean processFlows(Objective objective, Collection<FlowRule> flowRules,
+                                 FlowRuleOperations.Builder ops, Set<FlowRule> stage) {
         if (flowRules.isEmpty()) {
-            return;
+            return false;
         }
 
         if (log.isTraceEnabled()) {
             log.trace("Objective {} -> Flows {}", objective, flowRules);
         }
 
-        final FlowRuleOperations.Builder ops = FlowRuleOperations.builder();
+        final boolean add;
         switch (objective.op()) {
             case ADD:
             case ADD_TO_EXISTING:
             case MODIFY:
-                flowRules.forEach(ops::add);
+                add = true;
                 break;
             case REMOVE:
             case REMOVE_FROM_EXISTING:
-                flowRules.forEach(ops::remove);
+                add = false;
                 break;
             default:
                 log.warn("Unsupported Objective operation {}", objective.op());
-                return;
+                return false;
+        }
+        // Operations on the same flow are applied in order by different stages
+        if (flowRules.stream().anyMatch(stage::contains)) {
+            ops.newStage();
+            stage.clear();
         }
-        flowRuleService.apply(ops.build());
+        flowRules.forEach(flowRule -> {
+            stage.add(flowRule);
+            if (add) {
+                ops.add(flowRule);
+            } else {
+                ops.remove(flowRule);
+            }
+        });
+        return true;
     }
 
     private void processGroups(Objective objective, Collection<GroupDescription> groups) {
@@ -550,6 +641,32 @@ public class FabricPipeliner extends AbstractFabricHandlerBehavior
                 .build();
     }
 
+    /**
+     * Translated objective waiting to be applied.
+     */
+    private static final class PendingObjective {
+        private final Objective objective;
+        private final ObjectiveTranslation translation;
+
+        PendingObjective(Objective objective, ObjectiveTranslation translation) {
+            this.objective = objective;
+            this.translation = translation;
+        }
+    }
+
+    // Objectives accumulator for reducing the number of flow batches sent to the device.
+    private final class ObjectiveAccumulator extends AbstractAccumulator<PendingObjective> {
+
+        ObjectiveAccumulator(int maxObjs, int maxBatchMS, int maxIdleMS) {
+            super(SharedExecutors.getTimer(), maxObjs, maxBatchMS, maxIdleMS);
+        }
+
+        @Override
+        public void processItems(List<PendingObjective> pending) {
+            batchExecutor.execute(() -> applyObjectives(pending));
+        }
+    }
+
     /**
      * NextGroup implementation.
      */
@@ -15,10 +15,12 @@
  */
 package org.onosproject.pipelines.fabric.impl.behaviour.pipeliner;
 
+import com.google.common.collect.ImmutableList;
 import org.easymock.Capture;
 import org.easymock.CaptureType;
 import org.junit.Before;
 import org.junit.Test;
+import org.onlab.junit.TestUtils;
 import org.onlab.packet.Ethernet;
 import org.onosproject.TestApplicationId;
 import org.onosproject.core.ApplicationId;
@@ -28,26 +30,40 @@ import org.onosproject.net.flow.DefaultFlowRule;
 import org.onosproject.net.flow.DefaultTrafficSelector;
 import org.onosproject.net.flow.DefaultTrafficTreatment;
 import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.FlowRuleOperations;
 import org.onosproject.net.flow.FlowRuleService;
 import org.onosproject.net.flow.TrafficSelector;
 import org.onosproject.net.flow.TrafficTreatment;
 import org.onosproject.net.flow.criteria.Criteria;
 import org.onosproject.net.flow.criteria.PiCriterion;
+import org.onosproject.net.flowobjective.DefaultForwardingObjective;
+import org.onosproject.net.flowobjective.ForwardingObjective;
+import org.onosproject.net.flowobjective.Objective;
+import org.onosproject.net.flowobjective.ObjectiveContext;
+import org.onosproject.net.flowobjective.ObjectiveError;
 import org.onosproject.net.pi.runtime.PiAction;
 import org.onosproject.net.pi.runtime.PiActionParam;
 import org.onosproject.pipelines.fabric.FabricConstants;
 import org.onosproject.pipelines.fabric.impl.behaviour.FabricCapabilities;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import static org.easymock.EasyMock.anyObject;
 import static org.easymock.EasyMock.capture;
 import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.createNiceMock;
 import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
 import static org.easymock.EasyMock.newCapture;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.reset;
 import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.onosproject.pipelines.fabric.impl.behaviour.Constants.PORT_TYPE_INTERNAL;
 
@@ -143,4 +159,78 @@ public class FabricPipelinerTest {
         verify(flowRuleService);
         reset(flowRuleService);
     }
+
+    @Test
+    public void testAccumulatedObjectives() throws Exception {
+        final Capture<FlowRuleOperations> capturedOps = newCapture(CaptureType.ALL);
+        final CountDownLatch latch = new CountDownLatch(2);
+        final ObjectiveContext context = new ObjectiveContext() {
+            @Override
+            public void onSuccess(Objective objective) {
+                latch.countDown();
+            }
+        };
+        flowRuleService.apply(capture(capturedOps));
+        replay(flowRuleService);
+        setupAccumulator();
+        pipeliner.forward(puntObjective(Ethernet.TYPE_ARP, context));
+        pipeliner.forward(puntObjective(Ethernet.TYPE_LLDP, context));
+
+        // Both objectives are applied in a single batch, each getting its callback
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        verify(flowRuleService);
+        assertEquals(1, capturedOps.getValues().size());
+        assertEquals(1, capturedOps.getValue().stages().size());
+        assertEquals(2, capturedOps.getValue().stages().get(0).size());
+        reset(flowRuleService);
+    }
+
+    @Test
+    public void testAccumulatedObjectivesFailure() throws Exception {
+        final List<ObjectiveError> errors = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(2);
+        final ObjectiveContext context = new ObjectiveContext() {
+            @Override
+            public void onError(Objective objective, ObjectiveError error) {
+                errors.add(error);
+                latch.countDown();
+            }
+        };
+
+        flowRuleService.apply(anyObject(FlowRuleOperations.class));
+        expectLastCall().andThrow(new IllegalStateException("Batch failed"));
+        replay(flowRuleService);
+        setupAccumulator();
+        pipeliner.forward(puntObjective(Ethernet.TYPE_ARP, context));
+        pipeliner.forward(puntObjective(Ethernet.TYPE_LLDP, context));
+
+        // The objectives of the failed batch are not left pending
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        verify(flowRuleService);
+        assertEquals(ImmutableList.of(ObjectiveError.UNKNOWN, ObjectiveError.UNKNOWN), errors);
+        reset(flowRuleService);
+    }
+
+    private void setupAccumulator() throws Exception {
+        final FabricCapabilities capabilities = createNiceMock(FabricCapabilities.class);
+        replay(capabilities);
+        TestUtils.setField(pipeliner, "forwardingTranslator",
+                           new ForwardingObjectiveTranslator(DEVICE_ID, capabilities));
+        pipeliner.setupAccumulatorForTests(2, 1000, 1000);
+    }
+
+    private ForwardingObjective puntObjective(short ethType, ObjectiveContext context) {
+        return DefaultForwardingObjective.builder()
+                .withSelector(DefaultTrafficSelector.builder()
+                                      .matchEthType(ethType)
+                                      .build())
+                .withPriority(DEFAULT_FLOW_PRIORITY)
+                .fromApp(APP_ID)
+                .makePermanent()
+                .withFlag(ForwardingObjective.Flag.VERSATILE)
+                .withTreatment(DefaultTrafficTreatment.builder()
+                                       .punt()
+                                       .build())
+                .add(context);
+    }
 }
@@ -30,6 +30,7 @@ import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.util.concurrent.GlobalEventExecutor;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.ItemNotFoundException;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.config.NetworkConfigRegistry;
@@ -77,6 +78,8 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -110,6 +113,11 @@ public class Controller {
     protected int workerThreads = 0;
     protected int[] cfgQueueSizes = {FIRST_QUEUE_SIZE, 0, 0, 0, 0, 0, 0, DEFAULT_QUEUE_SIZE};
     protected int[] cfgBulkSizes = new int[8];
+    protected int dispatchThreads = 0;
+    protected volatile OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+    // Dispatcher threads shared by all channels; null when each channel has its own
+    protected volatile ExecutorService dispatchWorkers;
 
     // Start time of the controller
     protected long systemStartTime;
@@ -124,6 +132,15 @@ public class Controller {
         ENABLED,  // Clients are required use TLS and present a client certificate
         STRICT,   // Clients must use TLS, and certificate must match the one specified in netcfg
     }
+    /**
+     * Handling of packet-in messages which do not fit in their dispatch queue
+     * when dispatcher threads are shared.
+     */
+    enum OverflowPolicy {
+        DROP,         // Messages are dropped and counted
+        BACKPRESSURE, // Reading from the switch is suspended until the queues drain
+    }
+
     private static final EnumSet<TlsMode> TLS_ENABLED = EnumSet.of(TlsMode.ENABLED, TlsMode.STRICT);
 
     protected TlsParams tlsParams;
@@ -136,6 +153,9 @@ public class Controller {
     private DriverService driverService;
     private NetworkConfigRegistry netCfgService;
 
+    // Metrics service the channels report their dispatch queues to; null until started
+    protected MetricsService metricsService;
+
     public Controller() {
         Arrays.fill(cfgBulkSizes, DEFAULT_BULK_SIZE);
     }
@@ -264,6 +284,7 @@ public class Controller {
     public void setConfigParams(Dictionary<?, ?> properties) {
         boolean restartRequired = setOpenFlowPorts(properties);
         restartRequired |= setWorkerThreads(properties);
+        restartRequired |= setDispatchParameters(properties);
         restartRequired |= setTlsParameters(properties);
         if (restartRequired) {
             restart();
@@ -326,6 +347,32 @@ public class Controller {
         return oldValue != this.workerThreads; // restart if number of threads has changed
     }
 
+    /**
+     * Gets the dispatcher threads and the overflow policy from property dict.
+     *
+     * @param properties dictionary
+     * @return true if restart is required
+     */
+    private boolean setDispatchParameters(Dictionary<?, ?> properties) {
+        int oldValue = this.dispatchThreads;
+
+        String threads = get(properties, "dispatchThreads");
+        if (!Strings.isNullOrEmpty(threads)) {
+            int value = Integer.parseInt(threads);
+            if (value < 0) {
+                throw new IllegalArgumentException("dispatchThreads value must be a non negative integer value");
+            }
+            this.dispatchThreads = value;
+        }
+        String policy = get(properties, "dispatchOverflowPolicy");
+        if (!Strings.isNullOrEmpty(policy)) {
+            this.overflowPolicy = OverflowPolicy.valueOf(policy.toUpperCase());
+        }
+        log.debug("Dispatcher threads set to {} with overflow policy {}", this.dispatchThreads, this.overflowPolicy);
+
+        return oldValue != this.dispatchThreads; // channels are bound to their dispatch mode
+    }
+
     static class TlsParams {
         final TlsMode mode;
         final String ksLocation;
@@ -511,6 +558,11 @@ public class Controller {
 
         cg = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
 
+        if (dispatchThreads > 0) {
+            dispatchWorkers = Executors.newFixedThreadPool(dispatchThreads,
+                                                           groupedThreads("onos/of", "dispatcher-%d", log));
+        }
+
         if (tlsParams.isTlsEnabled()) {
             initSsl();
         }
@@ -635,16 +687,16 @@ public class Controller {
     }
 
     public void start(OpenFlowAgent ag, DriverService driverService,
-                      NetworkConfigRegistry netCfgService) {
+                      NetworkConfigRegistry netCfgService, MetricsService metricsService) {
         log.info("Starting OpenFlow IO");
         this.agent = ag;
         this.driverService = driverService;
         this.netCfgService = netCfgService;
+        this.metricsService = metricsService;
         this.init();
         this.addListeningPorts(this.openFlowPorts);
     }
 
-
     public void stop() {
         log.info("Stopping OpenFlow IO");
         if (cg != null) {
@@ -655,6 +707,10 @@ public class Controller {
         // Shut down all event loops to terminate all threads.
         bossGroup.shutdownGracefully();
         workerGroup.shutdownGracefully();
+        if (dispatchWorkers != null) {
+            dispatchWorkers.shutdownNow();
+            dispatchWorkers = null;
+        }
 
         // Wait until all threads are terminated.
         try {
@@ -670,7 +726,7 @@ public class Controller {
         // only restart if we are already running
         if (cg != null) {
             stop();
-            start(this.agent, this.driverService, this.netCfgService);
+            start(this.agent, this.driverService, this.netCfgService, this.metricsService);
         }
     }
 
@@ -30,6 +30,7 @@ import java.net.SocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
 import java.security.cert.Certificate;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
@@ -47,11 +48,16 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
+import com.codahale.metrics.Gauge;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.GroupedThreadFactory;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
@@ -135,12 +141,19 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
     private static final String BROKEN_PIPE = "Broken pipe";
     static final int NUM_OF_QUEUES = 8;
 
+    private static final String METRICS_COMPONENT = "OpenFlowChannel";
+    private static final String QUEUE_SIZE_METRIC = "queue-%d-size";
+    private static final String QUEUE_DROPS_METRIC = "queue-%d-drops";
+
     private final Controller controller;
     private OpenFlowSwitchDriver sw;
     private long thisdpid; // channelHandler cached value of connected switch id
     private DeviceId deviceId;
     private Channel channel;
     private String channelId;
+    private MetricsService metricsService;
+    private MetricsComponent metricsComponent;
+    private MetricsFeature metricsFeature;
 
 
     // State needs to be volatile because the HandshakeTimeoutHandler
@@ -191,6 +204,9 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
     // Dispatcher buffer/read size
     private static final int BACKLOG_READ_BUFFER_DEFAULT = 1000;
 
+    // Number of bulks drained from each ring in a row before yielding to other channels
+    private static final int DRAIN_ROUNDS = 4;
+
     /**
      * Map with all LinkedBlockingMessagesQueue queues which contains OFMessages.
      */
@@ -238,6 +254,43 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
      */
     private final Deque<OFMessage> dispatchBacklog;
 
+    /**
+     * Lock-free queues which contain OFMessages, used instead of
+     * dispatchQueuesMapProducer when dispatcher threads are shared by all channels.
+     */
+    private final Map<Integer, RingBufferMessagesQueue<OFMessage>> dispatchRingsMapProducer =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Dispatcher threads shared by all channels, or null if this channel has its own.
+     */
+    private final ExecutorService dispatchWorkers;
+
+    /**
+     * Whether draining the rings is scheduled on the shared dispatcher threads.
+     * Only one drain at a time preserves the order of the messages of the switch.
+     */
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    /**
+     * Backlog of messages overflowing the rings.
+     * <p>
+     * Should only be touched from the Channel I/O thread
+     */
+    private final Deque<PendingMessage> ringBacklog = new ArrayDeque<>();
+
+    /**
+     * Whether the ring backlog holds messages.
+     */
+    private volatile boolean ringBacklogPending;
+
+    /**
+     * Whether reading from the channel is suspended until the rings drain.
+     * <p>
+     * Should only be touched from the Channel I/O thread
+     */
+    private boolean backpressured;
+
     /**
      * Executor for runtime status events to offload from the main thread the
      * processing of port status, mastership and connection OF messages.
@@ -270,10 +323,16 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
                 factory);
         //Initialize queues and classifiers
         dispatchBacklog = new LinkedBlockingDeque<>(BACKLOG_READ_BUFFER_DEFAULT);
+        dispatchWorkers = controller.dispatchWorkers;
         for (int i = 0; i < NUM_OF_QUEUES; i++) {
             if (controller.getQueueSize(i) > 0) {
-                dispatchQueuesMapProducer.put(i,
+                if (dispatchWorkers != null) {
+                    dispatchRingsMapProducer.put(i,
+                        new RingBufferMessagesQueue<>(i, controller.getQueueSize(i), controller.getBulkSize(i)));
+                } else {
+                    dispatchQueuesMapProducer.put(i,
                         new LinkedBlockingMessagesQueue<>(i, controller.getQueueSize(i), controller.getBulkSize(i)));
+                }
             }
             if (i != NUM_OF_QUEUES) {
                 messageClassifiersMapProducer.add(i, new CopyOnWriteArraySet<>());
@@ -1391,7 +1450,10 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
             channelId = channel.toString();
         }
 
-        dispatcher = Executors.newSingleThreadExecutor(groupedThreads("onos/of/dispatcher", channelId, log));
+        if (dispatchWorkers == null) {
+            dispatcher = Executors.newSingleThreadExecutor(groupedThreads("onos/of/dispatcher", channelId, log));
+        }
+        registerMetrics();
 
         /*
             hack to wait for the switch to tell us what it's
@@ -1412,6 +1474,7 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
             dispatcher.shutdownNow();
             dispatcher = null;
         }
+        unregisterMetrics();
 
         if (thisdpid != 0) {
             if (!duplicateDpidFound) {
@@ -1503,12 +1566,16 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
     private void channelIdle(ChannelHandlerContext ctx,
                                IdleStateEvent e)
             throws IOException {
-        // dispatcher terminated for some reason, restart
-        if (dispatcherHandle.isDone()) {
-            dispatcherHandle = dispatcher.submit(new Dispatcher());
+        if (dispatchWorkers != null) {
+            releaseRingBacklog();
+        } else {
+            // dispatcher terminated for some reason, restart
+            if (dispatcherHandle.isDone()) {
+                dispatcherHandle = dispatcher.submit(new Dispatcher());
+            }
+            // drain the backlog
+            processDispatchBacklogQueue();
         }
-        // drain the backlog
-        processDispatchBacklogQueue();
         // Original timeout reached
         if (--maxIdleRetry == 0) {
             maxIdleRetry = MAX_IDLE_RETRY;
@@ -1687,6 +1754,10 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
 
     private void dispatchMessage(OFMessage m) {
         log.debug("Begin dispatch OpenFlow Message");
+        if (dispatchWorkers != null) {
+            dispatchToRing(m);
+            return;
+        }
         boolean backlogEmpty = processDispatchBacklogQueue();
         if (m.getType() == OFType.PACKET_IN) {
             Ethernet pkt = parsePacketInMessage(m);
@@ -1703,6 +1774,201 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
         }
     }
 
+    /**
+     * Pushes OpenFlow message to its ring and makes sure the rings get drained.
+     * Messages which do not fit in their ring are kept in the backlog and
+     * reading from the channel is suspended until the backlog is released.
+     * Only packet-ins may be dropped: under the drop overflow policy when their
+     * ring is full, otherwise when the backlog is full.
+     *
+     * @param m OpenFlow message
+     */
+    private void dispatchToRing(OFMessage m) {
+        boolean packetIn = m.getType() == OFType.PACKET_IN;
+        int idQueue = NUM_OF_QUEUES - 1;
+        if (packetIn) {
+            idQueue = classifyEthernetPacket(parsePacketInMessage(m));
+        }
+        RingBufferMessagesQueue<OFMessage> queue = dispatchRingsMapProducer.get(idQueue);
+        boolean backlogEmpty = processRingBacklog();
+        boolean dropOverflow = packetIn && controller.overflowPolicy == Controller.OverflowPolicy.DROP;
+        if ((backlogEmpty || dropOverflow) && queue.offer(m)) {
+            scheduleDrain();
+            return;
+        }
+        if (dropOverflow || (packetIn && ringBacklog.size() >= BACKLOG_READ_BUFFER_DEFAULT)) {
+            queue.recordDrop();
+            log.debug("Dispatch queue {} of {} is full, dropping {}", idQueue, getSwitchInfoString(), m.getType());
+        } else {
+            ringBacklog.addLast(new PendingMessage(idQueue, m));
+            ringBacklogPending = true;
+        }
+        if (!backpressured && (ringBacklogPending ||
+                controller.overflowPolicy == Controller.OverflowPolicy.BACKPRESSURE)) {
+            log.debug("Dispatch queues of {} are full, suspending reads", getSwitchInfoString());
+            backpressured = true;
+            channel.config().setAutoRead(false);
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * Process ring backlog - move messages from backlog to their ring.
+     *
+     * @return true if whole backlog was processed, otherwise false
+     */
+    private boolean processRingBacklog() {
+        while (!ringBacklog.isEmpty()) {
+            PendingMessage pending = ringBacklog.peekFirst();
+            if (!dispatchRingsMapProducer.get(pending.idQueue).offer(pending.message)) {
+                return false;
+            }
+            ringBacklog.removeFirst();
+        }
+        ringBacklogPending = false;
+        return true;
+    }
+
+    /**
+     * Moves the backlog to the rings and resumes reading from the channel
+     * once the backlog is empty.
+     */
+    private void releaseRingBacklog() {
+        if (processRingBacklog() && backpressured) {
+            log.debug("Dispatch queues of {} drained, resuming reads", getSwitchInfoString());
+            backpressured = false;
+            channel.config().setAutoRead(true);
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * Schedules the draining of the rings on the shared dispatcher threads,
+     * unless it is already scheduled.
+     */
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                dispatchWorkers.execute(this::drainRings);
+            } catch (RejectedExecutionException e) {
+                drainScheduled.set(false);
+                log.debug("Dispatcher threads are shut down, not draining {}", getSwitchInfoString());
+            }
+        }
+    }
+
+    /**
+     * Hands a few bulks of messages over to the switch and reschedules itself
+     * if messages remain, letting the other channels use the shared threads.
+     */
+    private void drainRings() {
+        List<OFMessage> msgs = new ArrayList<>();
+        try {
+            for (int round = 0; round < DRAIN_ROUNDS; round++) {
+                int processed = 0;
+                for (RingBufferMessagesQueue<OFMessage> queue : dispatchRingsMapProducer.values()) {
+                    processed += queue.drainTo(msgs);
+                }
+                if (processed == 0) {
+                    break;
+                }
+                msgs.forEach(sw::handleMessage);
+                msgs.clear();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to dispatch messages of {}", getSwitchInfoString(), e);
+        } finally {
+            drainScheduled.set(false);
+        }
+        if (dispatchRingsMapProducer.values().stream().anyMatch(queue -> !queue.isEmpty())) {
+            scheduleDrain();
+        }
+        if (ringBacklogPending) {
+            try {
+                channel.eventLoop().execute(this::releaseRingBacklog);
+            } catch (RejectedExecutionException e) {
+                log.debug("Channel of {} is closed, dropping dispatch backlog", getSwitchInfoString());
+            }
+        }
+    }
+
+    /**
+     * Returns the number of messages waiting in a dispatch queue.
+     *
+     * @param idQueue id of Queue
+     * @return occupancy of the queue
+     */
+    int dispatchQueueSize(int idQueue) {
+        if (dispatchWorkers != null) {
+            RingBufferMessagesQueue<OFMessage> queue = dispatchRingsMapProducer.get(idQueue);
+            return queue != null ? queue.size() : 0;
+        }
+        LinkedBlockingMessagesQueue<OFMessage> queue = dispatchQueuesMapProducer.get(idQueue);
+        return queue != null ? queue.size() : 0;
+    }
+
+    /**
+     * Returns the number of messages dropped because a dispatch queue was full.
+     * Drops are only counted when dispatcher threads are shared.
+     *
+     * @param idQueue id of Queue
+     * @return drops count of the queue
+     */
+    long dispatchQueueDrops(int idQueue) {
+        RingBufferMessagesQueue<OFMessage> queue = dispatchRingsMapProducer.get(idQueue);
+        return queue != null ? queue.drops() : 0;
+    }
+
+    // Registers the occupancy and drops gauges of the dispatch queues of the channel
+    private void registerMetrics() {
+        metricsService = controller.metricsService;
+        if (metricsService == null) {
+            return;
+        }
+        metricsComponent = metricsService.registerComponent(METRICS_COMPONENT);
+        metricsFeature = metricsComponent.registerFeature(channelId);
+        for (int i = 0; i < NUM_OF_QUEUES; i++) {
+            final int idQueue = i;
+            if (dispatchRingsMapProducer.containsKey(idQueue)) {
+                metricsService.registerMetric(metricsComponent, metricsFeature,
+                                              String.format(QUEUE_SIZE_METRIC, idQueue),
+                                              (Gauge<Integer>) () -> dispatchQueueSize(idQueue));
+                metricsService.registerMetric(metricsComponent, metricsFeature,
+                                              String.format(QUEUE_DROPS_METRIC, idQueue),
+                                              (Gauge<Long>) () -> dispatchQueueDrops(idQueue));
+            } else if (dispatchQueuesMapProducer.containsKey(idQueue)) {
+                metricsService.registerMetric(metricsComponent, metricsFeature,
+                                              String.format(QUEUE_SIZE_METRIC, idQueue),
+                                              (Gauge<Integer>) () -> dispatchQueueSize(idQueue));
+            }
+        }
+    }
+
+    // Unregisters the dispatch queues gauges of the channel
+    private void unregisterMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        for (int i = 0; i < NUM_OF_QUEUES; i++) {
+            metricsService.removeMetric(metricsComponent, metricsFeature, String.format(QUEUE_SIZE_METRIC, i));
+            metricsService.removeMetric(metricsComponent, metricsFeature, String.format(QUEUE_DROPS_METRIC, i));
+        }
+        metricsService = null;
+    }
+
+    /**
+     * Message waiting in the backlog for room in its ring.
+     */
+    private static final class PendingMessage {
+        private final int idQueue;
+        private final OFMessage message;
+
+        private PendingMessage(int idQueue, OFMessage message) {
+            this.idQueue = idQueue;
+            this.message = message;
+        }
+    }
+
     private final class Dispatcher implements Runnable {
         // dispatch loop
         @Override
@@ -18,6 +18,7 @@ package org.onosproject.openflow.controller.impl;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimap;
+import org.onlab.metrics.MetricsService;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.core.CoreService;
 import org.onosproject.net.DeviceId;
@@ -108,6 +109,8 @@ import static org.onosproject.openflow.controller.impl.OsgiPropertyConstants.*;
                 KEY_STORE_PASSWORD + "=" + KEY_STORE_PASSWORD_DEFAULT,
                 TRUST_STORE + "=" + TRUST_STORE_DEFAULT,
                 TRUST_STORE_PASSWORD + "=" + TRUST_STORE_PASSWORD_DEFAULT,
+                DISPATCH_THREADS + ":Integer=" + DISPATCH_THREADS_DEFAULT,
+                DISPATCH_OVERFLOW_POLICY + "=" + DISPATCH_OVERFLOW_POLICY_DEFAULT,
                 DEFAULT_QUEUE_SIZE + ":Integer=" + DEFAULT_QUEUE_SIZE_DEFAULT,
                 DEBAULT_BULK_SIZE + ":Integer=" + BULK_SIZE_DEFAULT,
                 QUEUE_SIZE_N0 + ":Integer=" + QUEUE_SIZE_N0_DEFAULT,
@@ -146,6 +149,9 @@ public class OpenFlowControllerImpl implements OpenFlowController {
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected NetworkConfigRegistry netCfgService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MetricsService metricsService;
+
     /** Port numbers (comma separated) used by OpenFlow protocol; default is 6633,6653. */
     private String openflowPorts = OFPORTS_DEFAULT;
 
@@ -172,6 +178,12 @@ public class OpenFlowControllerImpl implements OpenFlowController {
     /** Trust store password. */
     private String trustStorePassword;
 
+    /** Number of dispatcher threads shared by all switches; 0 [default] uses one thread per switch. */
+    private int dispatchThreads = DISPATCH_THREADS_DEFAULT;
+
+    /** Handling of packet-ins overflowing shared dispatch queues; options are: drop [default], backpressure. */
+    private String dispatchOverflowPolicy = DISPATCH_OVERFLOW_POLICY_DEFAULT;
+
     /** Size of deafult queue. */
     private int defaultQueueSize = DEFAULT_QUEUE_SIZE_DEFAULT;
 
@@ -341,7 +353,7 @@ public class OpenFlowControllerImpl implements OpenFlowController {
         netCfgService.registerConfigFactory(factory);
         netCfgService.addListener(netCfgListener);
         ctrl.setConfigParams(context.getProperties());
-        ctrl.start(agent, driverService, netCfgService);
+        ctrl.start(agent, driverService, netCfgService, metricsService);
         openFlowManager.addListener(openFlowListener);
     }
 
@@ -642,6 +654,10 @@ public class OpenFlowControllerImpl implements OpenFlowController {
                 executorMsgs.execute(new OFMessageHandler(dpid, reply));
                 break;
 
+            case FLOW_MONITOR:
+                executorMsgs.execute(new OFMessageHandler(dpid, reply));
+                break;
+
             case EXPERIMENTER:
                 if (reply instanceof OFCalientFlowStatsReply) {
                     OpenFlowSwitch sw = this.getSwitch(dpid);
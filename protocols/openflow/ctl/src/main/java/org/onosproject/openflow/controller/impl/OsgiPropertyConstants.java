@@ -46,6 +46,12 @@ public final class OsgiPropertyConstants {
     public static final String TRUST_STORE_PASSWORD = "trustStorePassword";
     public static final String TRUST_STORE_PASSWORD_DEFAULT = "";
 
+    public static final String DISPATCH_THREADS = "dispatchThreads";
+    public static final int DISPATCH_THREADS_DEFAULT = 0;
+
+    public static final String DISPATCH_OVERFLOW_POLICY = "dispatchOverflowPolicy";
+    public static final String DISPATCH_OVERFLOW_POLICY_DEFAULT = "drop";
+
     public static final String DEFAULT_QUEUE_SIZE = "defaultQueueSize";
     public static final String DEBAULT_BULK_SIZE = "defaultBulkSize";
     public static final String QUEUE_SIZE_N0 = "queueSizeN0";
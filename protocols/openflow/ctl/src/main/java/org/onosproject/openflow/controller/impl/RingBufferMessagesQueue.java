@@ -0,0 +1,212 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.openflow.controller.impl;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Bounded lock-free queue of messages backed by a ring buffer.
+ * <p>
+ * Any number of threads may offer and drain messages concurrently; offering
+ * never blocks and fails right away when the ring is full. Each slot carries a
+ * sequence number telling producers and consumers whether it may be written or
+ * read, so neither side needs a lock. The capacity is rounded up to the next
+ * power of two.
+ * <p>
+ * Besides the messages, the queue keeps the number of messages which were
+ * dropped because they did not fit in it.
+ *
+ * @param <T> type of the messages
+ */
+public class RingBufferMessagesQueue<T> {
+
+    private final int idQueue;
+    private final int bulk;
+    private final int mask;
+
+    private final AtomicReferenceArray<T> buffer;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong drops = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param idQueue     Identifier of queue
+     * @param sizeOfQueue Minimal size of queue
+     * @param bulk        Maximal bulk of messages that will be processed
+     */
+    public RingBufferMessagesQueue(int idQueue, int sizeOfQueue, int bulk) {
+        checkArgument(sizeOfQueue > 0 && sizeOfQueue <= 1 << 30, "Invalid queue size %s", sizeOfQueue);
+        checkArgument(bulk > 0, "Bulk must be positive");
+        int capacity = Integer.highestOneBit(sizeOfQueue);
+        if (capacity < sizeOfQueue) {
+            capacity <<= 1;
+        }
+        this.idQueue = idQueue;
+        this.bulk = bulk;
+        this.mask = capacity - 1;
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Returns the identifier of this queue.
+     *
+     * @return the id of this queue
+     */
+    public int idQueue() {
+        return idQueue;
+    }
+
+    /**
+     * Returns the number of messages this queue can hold.
+     *
+     * @return the capacity of this queue
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Return the maximal bulk of messages for this queue.
+     *
+     * @return maximal bulk of messages that will be processed
+     */
+    public int bulk() {
+        return bulk;
+    }
+
+    /**
+     * Offer new message to this queue.
+     *
+     * @param message element to add
+     * @return <code>true</code> if the element was added to this queue,
+     * <code>false</code> if the queue is full
+     */
+    public boolean offer(T message) {
+        long pos = tail.get();
+        for (;;) {
+            int index = (int) pos & mask;
+            long delta = sequences.get(index) - pos;
+            if (delta == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    buffer.lazySet(index, message);
+                    // Publishes the message to consumers
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (delta < 0) {
+                // The slot still holds a message from the previous lap
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Retrieves and removes the oldest message of this queue.
+     *
+     * @return the oldest message, or null if the queue is empty
+     */
+    public T poll() {
+        long pos = head.get();
+        for (;;) {
+            int index = (int) pos & mask;
+            long delta = sequences.get(index) - (pos + 1);
+            if (delta == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    T message = buffer.get(index);
+                    buffer.lazySet(index, null);
+                    // Hands the slot over to producers of the next lap
+                    sequences.set(index, pos + mask + 1);
+                    return message;
+                }
+                pos = head.get();
+            } else if (delta < 0) {
+                return null;
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    /**
+     * Transfer bulk of elements from this queue to the <code>messages</code> collection.
+     *
+     * @param messages the collection to transfer bulk of elements from this queue
+     * @return the numbers of elements transfered
+     */
+    public int drainTo(Collection<? super T> messages) {
+        int drained = 0;
+        T message;
+        while (drained < bulk && (message = poll()) != null) {
+            messages.add(message);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Return the elements count in this queue.
+     *
+     * @return the elements count
+     */
+    public int size() {
+        // Reads head first so that the difference never goes below the actual size
+        long first = head.get();
+        long size = tail.get() - first;
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    /**
+     * Returns whether this queue is empty.
+     *
+     * @return true if there is no message in this queue
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Records a message dropped because this queue was full.
+     */
+    public void recordDrop() {
+        drops.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of messages dropped because this queue was full.
+     *
+     * @return the drops count
+     */
+    public long drops() {
+        return drops.get();
+    }
+
+}
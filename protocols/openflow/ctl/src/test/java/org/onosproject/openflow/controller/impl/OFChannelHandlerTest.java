@@ -17,20 +17,46 @@
 package org.onosproject.openflow.controller.impl;
 
 import com.google.common.collect.ImmutableSet;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelConfig;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelMetadata;
+import io.netty.channel.DefaultChannelConfig;
+import io.netty.channel.EventLoop;
 import org.junit.Before;
 import org.junit.Test;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.MacAddress;
+import org.onosproject.openflow.ChannelAdapter;
 import org.onosproject.openflow.ChannelHandlerContextAdapter;
+import org.onosproject.openflow.ExecutorServiceAdapter;
 import org.onosproject.openflow.MockOfPortStatus;
 import org.onosproject.openflow.OFDescStatsReplyAdapter;
 import org.onosproject.openflow.OpenflowSwitchDriverAdapter;
 import org.onosproject.openflow.controller.Dpid;
 import org.projectfloodlight.openflow.protocol.OFDescStatsReply;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFPacketInReason;
+import org.projectfloodlight.openflow.protocol.OFType;
+import org.projectfloodlight.openflow.protocol.match.MatchField;
+import org.projectfloodlight.openflow.types.OFBufferId;
+import org.projectfloodlight.openflow.types.OFPort;
+import org.projectfloodlight.openflow.types.TableId;
+import org.projectfloodlight.openflow.types.U64;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
 
 import static org.easymock.EasyMock.*;
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.onosproject.openflow.controller.impl.OFChannelHandler.ChannelState.ACTIVE;
 import static org.onosproject.openflow.controller.impl.OFChannelHandler.ChannelState.WAIT_DESCRIPTION_STAT_REPLY;
 import static org.onosproject.openflow.controller.impl.OFChannelHandler.ChannelState.WAIT_SWITCH_DRIVER_SUB_HANDSHAKE;
@@ -41,10 +67,24 @@ import static org.projectfloodlight.openflow.protocol.OFVersion.OF_13;
  */
 public class OFChannelHandlerTest {
 
+    private static final int RING = OFChannelHandler.NUM_OF_QUEUES - 1;
+    private static final int RING_SIZE = 4;
+    private static final int BULK_SIZE = 2;
+    private static final int BACKLOG_SIZE = 1000;
+    // Local experimental ethertype, carried as raw data
+    private static final short ETH_TYPE = (short) 0x88b5;
+
+    private final OFFactory factory = OFFactories.getFactory(OF_13);
+
     private Controller controller;
     private OFChannelHandler channelHandler;
     private ChannelHandlerContext channelHandlerContext;
 
+    // Tasks of the shared dispatcher threads and of the channel event loop, run by the test
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final List<OFMessage> handled = new ArrayList<>();
+    private TestChannel channel;
+
     @Before
     public void setUp() {
         controller = createMock(Controller.class);
@@ -157,4 +197,188 @@ public class OFChannelHandlerTest {
         verify(controller);
     }
 
+    // Dispatch through the shared threads - ordered delivery through the ring backlog
+    @Test
+    public void testRingDispatchInOrder() throws Exception {
+        startRingDispatch(Controller.OverflowPolicy.DROP);
+
+        List<OFMessage> sent = new ArrayList<>();
+        for (int i = 0; i < RING_SIZE * 3; i++) {
+            sent.add(barrierReply(i));
+        }
+        for (OFMessage m : sent) {
+            channelHandler.channelRead(channelHandlerContext, m);
+        }
+        // Messages overflowing the ring are held back and reads are suspended
+        assertThat(channelHandler.dispatchQueueSize(RING), is(RING_SIZE));
+        assertFalse(channel.config().isAutoRead());
+
+        runTasks();
+        assertThat(handled, is(sent));
+        assertThat(channelHandler.dispatchQueueDrops(RING), is(0L));
+        assertTrue(channel.config().isAutoRead());
+    }
+
+    // Drop policy - only packet-ins are dropped when the ring is full
+    @Test
+    public void testRingDropPolicy() throws Exception {
+        startRingDispatch(Controller.OverflowPolicy.DROP);
+
+        List<OFMessage> sent = new ArrayList<>();
+        for (int i = 0; i < RING_SIZE; i++) {
+            sent.add(packetIn(i));
+        }
+        for (OFMessage m : sent) {
+            channelHandler.channelRead(channelHandlerContext, m);
+        }
+        // The ring is full and the switch is not slowed down by packet-ins
+        channelHandler.channelRead(channelHandlerContext, packetIn(RING_SIZE));
+        assertThat(channelHandler.dispatchQueueDrops(RING), is(1L));
+        assertTrue(channel.config().isAutoRead());
+
+        // Other messages are kept in the backlog, well beyond its read buffer size
+        for (int i = 0; i <= BACKLOG_SIZE; i++) {
+            OFMessage m = barrierReply(RING_SIZE + 1 + i);
+            sent.add(m);
+            channelHandler.channelRead(channelHandlerContext, m);
+        }
+        assertThat(channelHandler.dispatchQueueDrops(RING), is(1L));
+        assertFalse(channel.config().isAutoRead());
+
+        runTasks();
+        assertThat(handled, is(sent));
+        assertTrue(channel.config().isAutoRead());
+    }
+
+    // Backpressure policy - packet-ins wait in the backlog until it is full
+    @Test
+    public void testRingBackpressurePolicy() throws Exception {
+        startRingDispatch(Controller.OverflowPolicy.BACKPRESSURE);
+
+        List<OFMessage> sent = new ArrayList<>();
+        for (int i = 0; i < RING_SIZE + BACKLOG_SIZE; i++) {
+            sent.add(i % 2 == 0 ? packetIn(i) : barrierReply(i));
+        }
+        for (OFMessage m : sent) {
+            channelHandler.channelRead(channelHandlerContext, m);
+        }
+        assertThat(channelHandler.dispatchQueueDrops(RING), is(0L));
+        assertFalse(channel.config().isAutoRead());
+
+        // Only packet-ins overflowing the backlog are dropped
+        channelHandler.channelRead(channelHandlerContext, packetIn(sent.size()));
+        assertThat(channelHandler.dispatchQueueDrops(RING), is(1L));
+        OFMessage barrier = barrierReply(sent.size() + 1);
+        sent.add(barrier);
+        channelHandler.channelRead(channelHandlerContext, barrier);
+
+        runTasks();
+        assertThat(handled, is(sent));
+        assertThat(channelHandler.dispatchQueueDrops(RING), is(1L));
+        assertTrue(channel.config().isAutoRead());
+    }
+
+    // Connects a switch whose messages are dispatched through the shared threads
+    private void startRingDispatch(Controller.OverflowPolicy policy) throws Exception {
+        controller.dispatchWorkers = new ExecutorServiceAdapter() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        };
+        controller.overflowPolicy = policy;
+        for (int i = 0; i < OFChannelHandler.NUM_OF_QUEUES; i++) {
+            expect(controller.getQueueSize(i)).andReturn(i == RING ? RING_SIZE : 0).anyTimes();
+        }
+        expect(controller.getBulkSize(RING)).andReturn(BULK_SIZE);
+        OFDescStatsReply reply = new OFDescStatsReplyAdapter();
+        expect(controller.getOFSwitchInstance(0, reply, OF_13)).andReturn(
+                new OpenflowSwitchDriverAdapter(ImmutableSet.of(), Dpid.dpid(Dpid.uri(0)), true) {
+                    @Override
+                    public void handleMessage(OFMessage fromSwitch) {
+                        handled.add(fromSwitch);
+                    }
+                });
+        replay(controller);
+
+        EventLoop eventLoop = createNiceMock(EventLoop.class);
+        eventLoop.execute(anyObject(Runnable.class));
+        expectLastCall().andAnswer(() -> {
+            tasks.add((Runnable) getCurrentArguments()[0]);
+            return null;
+        }).anyTimes();
+        replay(eventLoop);
+        channel = new TestChannel(eventLoop);
+        channelHandlerContext = new ChannelHandlerContextAdapter() {
+            @Override
+            public Channel channel() {
+                return channel;
+            }
+        };
+
+        channelHandler = new OFChannelHandler(controller);
+        channelHandler.ofVersion = OF_13;
+        channelHandler.channelActive(channelHandlerContext);
+        channelHandler.setState(WAIT_DESCRIPTION_STAT_REPLY);
+        channelHandler.channelRead(channelHandlerContext, reply);
+        assertThat(channelHandler.getStateForTesting(), is(ACTIVE));
+        runTasks();
+        handled.clear();
+        verify(controller);
+    }
+
+    // Runs the dispatcher and event loop tasks until none is left
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private OFMessage barrierReply(long xid) {
+        return factory.buildBarrierReply().setXid(xid).build();
+    }
+
+    private OFMessage packetIn(long xid) {
+        byte[] frame = new Ethernet()
+                .setDestinationMACAddress(MacAddress.BROADCAST)
+                .setSourceMACAddress(MacAddress.valueOf(xid))
+                .setEtherType(ETH_TYPE)
+                .serialize();
+        return factory.buildPacketIn()
+                .setXid(xid)
+                .setBufferId(OFBufferId.NO_BUFFER)
+                .setReason(OFPacketInReason.NO_MATCH)
+                .setTableId(TableId.of(0))
+                .setCookie(U64.ZERO)
+                .setMatch(factory.buildMatch().setExact(MatchField.IN_PORT, OFPort.of(1)).build())
+                .setData(frame)
+                .build();
+    }
+
+    // Channel whose reads can be suspended and whose event loop is run by the test
+    private static class TestChannel extends ChannelAdapter {
+        private final EventLoop eventLoop;
+        private final ChannelConfig config = new DefaultChannelConfig(this);
+
+        TestChannel(EventLoop eventLoop) {
+            this.eventLoop = eventLoop;
+        }
+
+        @Override
+        public ChannelMetadata metadata() {
+            return new ChannelMetadata(false);
+        }
+
+        @Override
+        public ChannelConfig config() {
+            return config;
+        }
+
+        @Override
+        public EventLoop eventLoop() {
+            return eventLoop;
+        }
+    }
+
 }
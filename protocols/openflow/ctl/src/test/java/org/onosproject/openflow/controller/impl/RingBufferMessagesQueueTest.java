@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.openflow.controller.impl;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the lock-free ring buffer dispatch queue.
+ */
+public class RingBufferMessagesQueueTest {
+
+    /**
+     * Tests that the queue is bounded and hands messages out in order.
+     */
+    @Test
+    public void testOfferAndDrain() {
+        RingBufferMessagesQueue<Integer> queue = new RingBufferMessagesQueue<>(0, 3, 2);
+        assertEquals(4, queue.capacity());
+        assertTrue(queue.isEmpty());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(4));
+        queue.recordDrop();
+        assertEquals(4, queue.size());
+        assertEquals(1, queue.drops());
+
+        List<Integer> messages = new ArrayList<>();
+        assertEquals(2, queue.drainTo(messages));
+        assertEquals(List.of(0, 1), messages);
+
+        // Wraps around the ring
+        assertTrue(queue.offer(4));
+        assertTrue(queue.offer(5));
+        assertEquals(2, queue.drainTo(messages));
+        assertEquals(2, queue.drainTo(messages));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), messages);
+        assertNull(queue.poll());
+        assertEquals(0, queue.size());
+    }
+
+    /**
+     * Tests that concurrent producers neither lose nor reorder their messages.
+     */
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 20000;
+        RingBufferMessagesQueue<long[]> queue = new RingBufferMessagesQueue<>(0, 64, 16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    long[] message = {producer, i};
+                    while (!queue.offer(message)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+
+        long[] next = new long[producers];
+        List<long[]> messages = new ArrayList<>();
+        int received = 0;
+        while (received < producers * perProducer) {
+            received += queue.drainTo(messages);
+            for (long[] message : messages) {
+                assertEquals(next[(int) message[0]]++, message[1]);
+            }
+            messages.clear();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -38,24 +38,24 @@ import org.onosproject.net.device.DeviceService;
 import org.onosproject.net.link.DefaultLinkDescription;
 import org.onosproject.net.link.LinkDescription;
 import org.onosproject.net.link.ProbedLinkProvider;
-import org.onosproject.net.packet.DefaultOutboundPacket;
-import org.onosproject.net.packet.OutboundPacket;
 import org.onosproject.net.packet.PacketContext;
+import org.onosproject.net.packet.PacketService;
 import org.slf4j.Logger;
 
-import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import javax.crypto.Mac;
+
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.onosproject.net.AnnotationKeys.PORT_NAME;
 import static org.onosproject.net.PortNumber.portNumber;
-import static org.onosproject.net.flow.DefaultTrafficTreatment.builder;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -64,28 +64,37 @@ import static org.slf4j.LoggerFactory.getLogger;
  * fast. Every probeRate milliseconds, loop over all fast ports and send an
  * LLDP, send an LLDP for a single slow port. Based on FlowVisor topology
  * discovery implementation.
+ * <p>
+ * Probes are copied from templates serialized once per port, and the probe
+ * rounds of the different devices are spread over the probe rate so that
+ * their bursts do not line up.
  */
 public class LinkDiscovery implements TimerTask {
 
     private static final String SCHEME_NAME = "linkdiscovery";
     private static final String ETHERNET = "ETHERNET";
+    // Probe rounds are rescheduled within +/- probeRate / JITTER_RATIO
+    private static final int JITTER_RATIO = 10;
 
     private final Logger log = getLogger(getClass());
 
     private final DeviceId deviceId;
     private final LinkDiscoveryContext context;
 
-    private final Ethernet ethPacket;
-    private final Ethernet bddpEth;
-
     private Timeout timeout;
     private volatile boolean isStopped;
 
     // Set of ports to be probed
     private final Map<Long, String> portMap = Maps.newConcurrentMap();
+    // Serialized probes of the ports
+    private final Map<Long, LinkProbeTemplate> probeTemplates = Maps.newConcurrentMap();
+
+    // Signs the secure probes, guarded by this
+    private Mac mac;
+    private String macSecret;
+
     /**
-     * Instantiates discovery manager for the given physical switch. Creates a
-     * generic LLDP packet that will be customized for the port it is sent out on.
+     * Instantiates discovery manager for the given physical switch.
      * Starts the the timer for the discovery process.
      *
      * @param deviceId  the physical switch
@@ -95,16 +104,6 @@ public class LinkDiscovery implements TimerTask {
         this.deviceId = deviceId;
         this.context = context;
 
-        ethPacket = new Ethernet();
-        ethPacket.setEtherType(Ethernet.TYPE_LLDP);
-        ethPacket.setDestinationMACAddress(MacAddress.ONOS_LLDP);
-        ethPacket.setPad(true);
-
-        bddpEth = new Ethernet();
-        bddpEth.setEtherType(Ethernet.TYPE_BSN);
-        bddpEth.setDestinationMACAddress(MacAddress.BROADCAST);
-        bddpEth.setPad(true);
-
         isStopped = true;
         start();
         log.debug("Started discovery manager for switch {}", deviceId);
@@ -123,6 +122,7 @@ public class LinkDiscovery implements TimerTask {
     public synchronized void start() {
         if (isStopped) {
             isStopped = false;
+            // Probes right away, e.g. after a mastership change; only the next rounds are jittered
             timeout = Timer.newTimeout(this, 0, MILLISECONDS);
         } else {
             log.warn("LinkDiscovery started multiple times?");
@@ -152,7 +152,7 @@ public class LinkDiscovery implements TimerTask {
         boolean isMaster = context.mastershipService().isLocalMaster(deviceId);
         if (newPort && isMaster) {
             log.debug("Sending initial probe to port {}@{}", port.number().toLong(), deviceId);
-            sendProbes(portNum, portName);
+            sendProbes(ImmutableMap.of(portNum, portName));
         }
     }
 
@@ -162,6 +162,7 @@ public class LinkDiscovery implements TimerTask {
      */
     public void removePort(PortNumber port) {
         portMap.remove(port.toLong());
+        probeTemplates.remove(port.toLong());
     }
 
     /**
@@ -378,7 +379,9 @@ public class LinkDiscovery implements TimerTask {
             // Verify if we are still the master
             if (context.mastershipService().isLocalMaster(deviceId)) {
                 log.trace("Sending probes from {}", deviceId);
-                ImmutableMap.copyOf(portMap).forEach(this::sendProbes);
+                Map<Long, String> ports = ImmutableMap.copyOf(portMap);
+                sendProbes(ports);
+                probeTemplates.keySet().retainAll(ports.keySet());
             }
         } catch (Exception e) {
             // Catch all exceptions to avoid timer task being cancelled
@@ -392,86 +395,89 @@ public class LinkDiscovery implements TimerTask {
         } finally {
             // if it has not been stopped - re-schedule itself
             if (!isStopped()) {
-                timeout = t.timer().newTimeout(this, context.probeRate(), MILLISECONDS);
+                timeout = t.timer().newTimeout(this, jitteredProbeRate(), MILLISECONDS);
             }
         }
     }
 
-    /**
-     * Creates packet_out LLDP for specified output port.
-     *
-     * @param portNumber the port
-     * @param portDesc the port description
-     * @return Packet_out message with LLDP data
-     */
-    private OutboundPacket createOutBoundLldp(Long portNumber, String portDesc) {
-        if (portNumber == null) {
-            return null;
-        }
-        ONOSLLDP lldp = getLinkProbe(portNumber, portDesc);
-        if (lldp == null) {
-            log.warn("Cannot get link probe with portNumber {} and portDesc {} for {} at LLDP packet creation.",
-                    portNumber, portDesc, deviceId);
-            return null;
+    private long probePeriod() {
+        return Math.max(1, context.probeRate());
+    }
+
+    private long jitteredProbeRate() {
+        long period = probePeriod();
+        long jitter = period / JITTER_RATIO;
+        if (jitter == 0) {
+            return period;
         }
-        ethPacket.setSourceMACAddress(context.fingerprint()).setPayload(lldp);
-        return new DefaultOutboundPacket(deviceId,
-                                         builder().setOutput(portNumber(portNumber)).build(),
-                                         ByteBuffer.wrap(ethPacket.serialize()));
+        return period + ThreadLocalRandom.current().nextLong(-jitter, jitter + 1);
     }
 
     /**
-     * Creates packet_out BDDP for specified output port.
+     * Sends the probes of the given ports, all with the same timestamp.
      *
-     * @param portNumber the port
-     * @param portDesc the port description
-     * @return Packet_out message with LLDP data
+     * @param ports port numbers and descriptions of the ports
      */
-    private OutboundPacket createOutBoundBddp(Long portNumber, String portDesc) {
-        if (portNumber == null) {
-            return null;
-        }
-        ONOSLLDP lldp = getLinkProbe(portNumber, portDesc);
-        if (lldp == null) {
-            log.warn("Cannot get link probe with portNumber {} and portDesc {} for {} at BDDP packet creation.",
-                    portNumber, portDesc, deviceId);
-            return null;
+    private void sendProbes(Map<Long, String> ports) {
+        PacketService packetService = context.packetService();
+        if (packetService == null || ports.isEmpty()) {
+            return;
         }
-        bddpEth.setSourceMACAddress(context.fingerprint()).setPayload(lldp);
-        return new DefaultOutboundPacket(deviceId,
-                                         builder().setOutput(portNumber(portNumber)).build(),
-                                         ByteBuffer.wrap(bddpEth.serialize()));
-    }
-
-    private ONOSLLDP getLinkProbe(Long portNumber, String portDesc) {
         Device device = context.deviceService().getDevice(deviceId);
         if (device == null) {
             log.warn("Cannot find the device {}", deviceId);
-            return null;
+            return;
         }
-        return ONOSLLDP.onosSecureLLDP(deviceId.toString(), device.chassisId(), portNumber.intValue(), portDesc,
-                                       context.lldpSecret());
+        String fingerprint = context.fingerprint();
+        String secret = context.lldpSecret();
+        boolean useBddp = context.useBddp();
+        long timestamp = System.currentTimeMillis();
+
+        ports.forEach((portNumber, portDesc) -> {
+            log.trace("Sending probes out of {}@{}", portNumber, deviceId);
+            LinkProbeTemplate template = probeTemplate(device, portNumber, portDesc, fingerprint, secret);
+            if (template == null) {
+                log.warn("Cannot get link probe with portNumber {} and portDesc {} for {}.",
+                         portNumber, portDesc, deviceId);
+                return;
+            }
+            byte[] sig = null;
+            if (secret != null) {
+                sig = sign(secret, portNumber.intValue(), timestamp);
+                if (sig == null) {
+                    log.warn("Cannot sign link probe with portNumber {} for {}", portNumber, deviceId);
+                    return;
+                }
+            }
+            packetService.emit(template.lldpProbe(timestamp, sig));
+            if (useBddp) {
+                packetService.emit(template.bddpProbe(timestamp, sig));
+            }
+        });
     }
 
-    private void sendProbes(Long portNumber, String portDesc) {
-        if (context.packetService() == null) {
-            return;
-        }
-        log.trace("Sending probes out of {}@{}", portNumber, deviceId);
-        OutboundPacket pkt = createOutBoundLldp(portNumber, portDesc);
-        if (pkt != null) {
-            context.packetService().emit(pkt);
-        } else {
-            log.warn("Cannot send lldp packet due to packet is null {}", deviceId);
+    private LinkProbeTemplate probeTemplate(Device device, Long portNumber, String portDesc,
+                                            String fingerprint, String secret) {
+        LinkProbeTemplate template = probeTemplates.get(portNumber);
+        if (template == null || !template.matches(device.chassisId(), portDesc, fingerprint, secret != null)) {
+            template = LinkProbeTemplate.create(deviceId, device.chassisId(), portNumber, portDesc,
+                                                fingerprint, secret);
+            if (template != null) {
+                probeTemplates.put(portNumber, template);
+            }
         }
-        if (context.useBddp()) {
-            OutboundPacket bpkt = createOutBoundBddp(portNumber, portDesc);
-            if (bpkt != null) {
-                context.packetService().emit(bpkt);
-            } else {
-                log.warn("Cannot send bddp packet due to packet is null {}", deviceId);
+        return template;
+    }
+
+    private synchronized byte[] sign(String secret, int portNumber, long timestamp) {
+        if (mac == null || !secret.equals(macSecret)) {
+            mac = ONOSLLDP.createMac(secret);
+            macSecret = secret;
+            if (mac == null) {
+                return null;
             }
         }
+        return ONOSLLDP.createSig(mac, deviceId.toString(), portNumber, timestamp);
     }
 
     public boolean containsPort(long portNumber) {
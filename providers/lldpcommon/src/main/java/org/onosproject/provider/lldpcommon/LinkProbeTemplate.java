@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.provider.lldpcommon;
+
+import org.onlab.packet.ChassisId;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.ONOSLLDP;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flow.TrafficTreatment;
+import org.onosproject.net.packet.DefaultOutboundPacket;
+import org.onosproject.net.packet.OutboundPacket;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+import static org.onlab.packet.LLDPOrganizationalTLV.ORGANIZATIONAL_TLV_TYPE;
+import static org.onlab.packet.LLDPOrganizationalTLV.OUI_LENGTH;
+import static org.onlab.packet.LLDPOrganizationalTLV.SUBTYPE_LENGTH;
+import static org.onosproject.net.PortNumber.portNumber;
+import static org.onosproject.net.flow.DefaultTrafficTreatment.builder;
+
+/**
+ * Serialized LLDP and BDDP probes sent out of a port of a device.
+ * <p>
+ * The probes sent out of the port are copies of the serialized frames; only
+ * the timestamp and the signature of secure probes change from one probe to
+ * the next, and they are patched in the copies.
+ */
+final class LinkProbeTemplate {
+
+    private static final int TLV_HEADER_LENGTH = 2;
+    private static final int ORG_HEADER_LENGTH = OUI_LENGTH + SUBTYPE_LENGTH;
+    private static final int END_TLV_TYPE = 0;
+
+    private final DeviceId deviceId;
+    private final ChassisId chassisId;
+    private final String portDesc;
+    private final String fingerprint;
+    private final boolean secure;
+
+    private final TrafficTreatment treatment;
+    private final byte[] lldpFrame;
+    private final byte[] bddpFrame;
+    private int timestampOffset = -1;
+    private int sigOffset = -1;
+    private int sigLength;
+
+    private LinkProbeTemplate(DeviceId deviceId, ChassisId chassisId, long portNumber, String portDesc,
+                              String fingerprint, ONOSLLDP probe) {
+        this.deviceId = deviceId;
+        this.chassisId = chassisId;
+        this.portDesc = portDesc;
+        this.fingerprint = fingerprint;
+        this.treatment = builder().setOutput(portNumber(portNumber)).build();
+
+        Ethernet lldp = new Ethernet();
+        lldp.setEtherType(Ethernet.TYPE_LLDP);
+        lldp.setDestinationMACAddress(MacAddress.ONOS_LLDP);
+        lldp.setSourceMACAddress(fingerprint);
+        lldp.setPad(true);
+        lldp.setPayload(probe);
+        this.lldpFrame = lldp.serialize();
+
+        Ethernet bddp = new Ethernet();
+        bddp.setEtherType(Ethernet.TYPE_BSN);
+        bddp.setDestinationMACAddress(MacAddress.BROADCAST);
+        bddp.setSourceMACAddress(fingerprint);
+        bddp.setPad(true);
+        bddp.setPayload(probe);
+        this.bddpFrame = bddp.serialize();
+
+        locateSignature();
+        this.secure = timestampOffset >= 0 && sigOffset >= 0;
+    }
+
+    /**
+     * Creates the probe template for the given port.
+     *
+     * @param deviceId    device the probes are sent from
+     * @param chassisId   chassis id of the device
+     * @param portNumber  port the probes are sent out of
+     * @param portDesc    port description
+     * @param fingerprint source MAC of the probes
+     * @param secret      LLDP secret, or null for insecure probes
+     * @return probe template, or null if the probe cannot be created
+     */
+    static LinkProbeTemplate create(DeviceId deviceId, ChassisId chassisId, long portNumber,
+                                    String portDesc, String fingerprint, String secret) {
+        ONOSLLDP probe = ONOSLLDP.onosSecureLLDP(deviceId.toString(), chassisId, (int) portNumber,
+                                                 portDesc, secret);
+        if (probe == null) {
+            return null;
+        }
+        LinkProbeTemplate template = new LinkProbeTemplate(deviceId, chassisId, portNumber, portDesc,
+                                                           fingerprint, probe);
+        return template.secure == (secret != null) ? template : null;
+    }
+
+    /**
+     * Returns whether the template still applies to probes with the given
+     * parameters.
+     *
+     * @param chassisId   chassis id of the device
+     * @param portDesc    port description
+     * @param fingerprint source MAC of the probes
+     * @param secure      whether the probes are signed
+     * @return true if the template can be used for the probes
+     */
+    boolean matches(ChassisId chassisId, String portDesc, String fingerprint, boolean secure) {
+        return this.secure == secure &&
+                Objects.equals(this.chassisId, chassisId) &&
+                Objects.equals(this.portDesc, portDesc) &&
+                Objects.equals(this.fingerprint, fingerprint);
+    }
+
+    /**
+     * Creates an LLDP probe from the template.
+     *
+     * @param timestamp timestamp of the probe, ignored for insecure probes
+     * @param sig       signature of the probe, null for insecure probes
+     * @return packet out of the probe
+     */
+    OutboundPacket lldpProbe(long timestamp, byte[] sig) {
+        return probe(lldpFrame, timestamp, sig);
+    }
+
+    /**
+     * Creates a BDDP probe from the template.
+     *
+     * @param timestamp timestamp of the probe, ignored for insecure probes
+     * @param sig       signature of the probe, null for insecure probes
+     * @return packet out of the probe
+     */
+    OutboundPacket bddpProbe(long timestamp, byte[] sig) {
+        return probe(bddpFrame, timestamp, sig);
+    }
+
+    private OutboundPacket probe(byte[] template, long timestamp, byte[] sig) {
+        // Packets may be sent asynchronously, so each of them gets its own copy
+        byte[] frame = template.clone();
+        if (secure) {
+            for (int i = Long.BYTES - 1; i >= 0; i--) {
+                frame[timestampOffset + i] = (byte) timestamp;
+                timestamp >>>= Byte.SIZE;
+            }
+            System.arraycopy(sig, 0, frame, sigOffset, Math.min(sig.length, sigLength));
+        }
+        return new DefaultOutboundPacket(deviceId, treatment, ByteBuffer.wrap(frame));
+    }
+
+    // Finds the values of the timestamp and signature TLVs in the frames,
+    // which only differ by their Ethernet header
+    private void locateSignature() {
+        int offset = Ethernet.ETHERNET_HEADER_LENGTH;
+        while (offset + TLV_HEADER_LENGTH <= lldpFrame.length) {
+            int header = ((lldpFrame[offset] & 0xff) << Byte.SIZE) | (lldpFrame[offset + 1] & 0xff);
+            int type = header >>> 9;
+            int length = header & 0x1ff;
+            int value = offset + TLV_HEADER_LENGTH;
+            if (type == END_TLV_TYPE || value + length > lldpFrame.length) {
+                return;
+            }
+            if (type == ORGANIZATIONAL_TLV_TYPE && length > ORG_HEADER_LENGTH) {
+                byte subtype = lldpFrame[value + OUI_LENGTH];
+                if (subtype == ONOSLLDP.TIMESTAMP_SUBTYPE && length - ORG_HEADER_LENGTH == Long.BYTES) {
+                    timestampOffset = value + ORG_HEADER_LENGTH;
+                } else if (subtype == ONOSLLDP.SIG_SUBTYPE) {
+                    sigOffset = value + ORG_HEADER_LENGTH;
+                    sigLength = length - ORG_HEADER_LENGTH;
+                }
+            }
+            offset = value + length;
+        }
+    }
+}
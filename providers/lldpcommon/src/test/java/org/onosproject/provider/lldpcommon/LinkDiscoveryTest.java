@@ -0,0 +1,226 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.provider.lldpcommon;
+
+import io.netty.util.Timeout;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.ChassisId;
+import org.onlab.packet.DeserializationException;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.ONOSLLDP;
+import org.onlab.util.Timer;
+import org.onosproject.mastership.MastershipService;
+import org.onosproject.mastership.MastershipServiceAdapter;
+import org.onosproject.net.DefaultAnnotations;
+import org.onosproject.net.DefaultDevice;
+import org.onosproject.net.DefaultPort;
+import org.onosproject.net.Device;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.LinkKey;
+import org.onosproject.net.MastershipRole;
+import org.onosproject.net.Port;
+import org.onosproject.net.device.DeviceService;
+import org.onosproject.net.device.DeviceServiceAdapter;
+import org.onosproject.net.link.LinkProviderService;
+import org.onosproject.net.packet.OutboundPacket;
+import org.onosproject.net.packet.PacketService;
+import org.onosproject.net.packet.PacketServiceAdapter;
+import org.onosproject.net.provider.ProviderId;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.net.AnnotationKeys.PORT_NAME;
+import static org.onosproject.net.PortNumber.portNumber;
+
+/**
+ * Unit tests for the probes sent by the link discovery.
+ */
+public class LinkDiscoveryTest {
+
+    private static final DeviceId DID = DeviceId.deviceId("of:0000000000000001");
+    private static final String SECRET = "test";
+    private static final String FINGERPRINT = "DE:AD:BE:EF:BA:11";
+    private static final long MAX_DELAY = TimeUnit.MINUTES.toMillis(1);
+    private static final long PROBE_RATE = TimeUnit.DAYS.toMillis(1);
+    private static final int PORTS = 2;
+    private static final int ROUNDS = 3;
+
+    private final Device device = new DefaultDevice(ProviderId.NONE, DID, Device.Type.SWITCH,
+                                                    "TESTMF", "TESTHW", "TESTSW", "TESTSN", new ChassisId(1));
+    private final List<OutboundPacket> emitted = new ArrayList<>();
+
+    private String secret;
+    private LinkDiscovery discovery;
+    private Timeout timeout;
+
+    @Before
+    public void setUp() {
+        timeout = Timer.newTimeout(t -> { }, PROBE_RATE, TimeUnit.MILLISECONDS);
+    }
+
+    @After
+    public void tearDown() {
+        if (discovery != null) {
+            discovery.stop();
+        }
+        timeout.cancel();
+    }
+
+    /**
+     * Tests that the probes patched in the templates carry a valid signature.
+     */
+    @Test
+    public void testSecureProbes() throws DeserializationException {
+        secret = SECRET;
+        for (ONOSLLDP probe : sendProbes()) {
+            assertNotNull("probe is not signed", probe.getSig());
+            assertTrue("probe is not verified", ONOSLLDP.verify(probe, SECRET, MAX_DELAY));
+            assertFalse("probe is verified with another secret", ONOSLLDP.verify(probe, "other", MAX_DELAY));
+        }
+    }
+
+    /**
+     * Tests that the probes of insecure templates are not signed.
+     */
+    @Test
+    public void testInsecureProbes() throws DeserializationException {
+        secret = null;
+        for (ONOSLLDP probe : sendProbes()) {
+            assertNull("probe is signed", probe.getSig());
+            assertTrue("probe is not verified", ONOSLLDP.verify(probe, null, MAX_DELAY));
+        }
+    }
+
+    // Sends several rounds of LLDP and BDDP probes out of the ports, and parses them
+    private List<ONOSLLDP> sendProbes() throws DeserializationException {
+        discovery = new LinkDiscovery(DID, new TestContext());
+        for (int i = 1; i <= PORTS; i++) {
+            discovery.addPort(new DefaultPort(device, portNumber(i), true,
+                                              DefaultAnnotations.builder().set(PORT_NAME, "eth" + i).build()));
+        }
+        for (int i = 1; i < ROUNDS; i++) {
+            discovery.run(timeout);
+        }
+        assertThat(emitted, hasSize(2 * PORTS * ROUNDS));
+
+        List<ONOSLLDP> probes = new ArrayList<>();
+        int bddps = 0;
+        for (OutboundPacket packet : emitted) {
+            ByteBuffer data = packet.data();
+            Ethernet eth = Ethernet.deserializer().deserialize(data.array(), 0, data.limit());
+            assertThat(eth.getSourceMAC(), is(MacAddress.valueOf(FINGERPRINT)));
+            if (eth.getEtherType() == Ethernet.TYPE_BSN) {
+                assertThat(eth.getDestinationMAC(), is(MacAddress.BROADCAST));
+                bddps++;
+            } else {
+                assertThat(eth.getDestinationMAC(), is(MacAddress.ONOS_LLDP));
+            }
+
+            ONOSLLDP probe = ONOSLLDP.parseONOSLLDP(eth);
+            assertNotNull("probe is not parsed", probe);
+            assertThat(probe.getDeviceString(), is(DID.toString()));
+            assertThat(probe.getPortDescString(), is("eth" + probe.getPort()));
+            assertThat(packet.sendThrough(), is(DID));
+            probes.add(probe);
+        }
+        assertThat(bddps, is(PORTS * ROUNDS));
+        return probes;
+    }
+
+    private class TestContext implements LinkDiscoveryContext {
+
+        @Override
+        public MastershipService mastershipService() {
+            return new MastershipServiceAdapter() {
+                @Override
+                public MastershipRole getLocalRole(DeviceId deviceId) {
+                    return MastershipRole.MASTER;
+                }
+            };
+        }
+
+        @Override
+        public LinkProviderService providerService() {
+            return null;
+        }
+
+        @Override
+        public PacketService packetService() {
+            return new PacketServiceAdapter() {
+                @Override
+                public void emit(OutboundPacket packet) {
+                    emitted.add(packet);
+                }
+            };
+        }
+
+        @Override
+        public DeviceService deviceService() {
+            return new DeviceServiceAdapter() {
+                @Override
+                public Device getDevice(DeviceId deviceId) {
+                    return device;
+                }
+            };
+        }
+
+        @Override
+        public long probeRate() {
+            return PROBE_RATE;
+        }
+
+        @Override
+        public boolean useBddp() {
+            return true;
+        }
+
+        @Override
+        public void touchLink(LinkKey key) {
+        }
+
+        @Override
+        public void setTtl(LinkKey key, short ttl) {
+        }
+
+        @Override
+        public String fingerprint() {
+            return FINGERPRINT;
+        }
+
+        @Override
+        public String lldpSecret() {
+            return secret;
+        }
+
+        @Override
+        public long maxDiscoveryDelay() {
+            return MAX_DELAY;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.provider.of.flow.impl;
+
+import com.google.common.collect.ImmutableList;
+import org.onosproject.openflow.controller.OpenFlowSwitch;
+import org.projectfloodlight.openflow.protocol.OFFlowMonitorCommand;
+import org.projectfloodlight.openflow.protocol.OFFlowMonitorEntry;
+import org.projectfloodlight.openflow.protocol.OFFlowMonitorFlags;
+import org.projectfloodlight.openflow.protocol.OFFlowMonitorReply;
+import org.projectfloodlight.openflow.protocol.OFFlowMonitorRequest;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.types.TableId;
+import org.slf4j.Logger;
+
+import java.util.EnumSet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.lang.Math.max;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Collects flow statistics for the specified switch when its flows change,
+ * as told by an OpenFlow 1.4+ flow monitor, at most once per poll interval,
+ * and at a lower cadence than the poll frequency otherwise, so as to refresh
+ * the flow counters.
+ */
+class FlowMonitorCollector extends FlowStatsCollector {
+
+    private final Logger log = getLogger(getClass());
+
+    // Number of poll intervals between two polls refreshing the counters
+    private static final int REFRESH_POLL_FACTOR = 4;
+    // Delay gathering the flow updates into a single poll
+    static final int CHANGE_POLL_DELAY_MS = 500;
+    private static final int MS = 1000;
+
+    private static final long MONITOR_ID = 0x4f4e4f53L;
+    // OFPP_ANY and OFPG_ANY
+    private static final long ANY = 0xffffffffL;
+
+    private final ScheduledExecutorService executorService;
+    private final OpenFlowSwitch sw;
+    private final AtomicBoolean changePollPending = new AtomicBoolean();
+    // Minimum time between two polls following flow updates, in ms
+    private volatile long changePollInterval;
+    private volatile long lastChangePoll;
+
+    /**
+     * Creates a new collector for the given switch and poll frequency.
+     *
+     * @param executorService executor used for scheduling
+     * @param sw switch to monitor and pull
+     * @param pollInterval poll frequency in seconds
+     */
+    FlowMonitorCollector(ScheduledExecutorService executorService, OpenFlowSwitch sw, int pollInterval) {
+        super(executorService, sw, refreshInterval(pollInterval));
+        this.executorService = executorService;
+        this.sw = sw;
+        this.changePollInterval = changePollInterval(pollInterval);
+    }
+
+    /**
+     * Returns whether the given switch supports flow monitors.
+     *
+     * @param sw switch
+     * @return true if flows of the switch can be monitored
+     */
+    static boolean isSupported(OpenFlowSwitch sw) {
+        return sw.factory().getVersion().compareTo(OFVersion.OF_14) >= 0;
+    }
+
+    private static int refreshInterval(int pollInterval) {
+        return pollInterval > 0 ? pollInterval * REFRESH_POLL_FACTOR : pollInterval;
+    }
+
+    private static long changePollInterval(int pollInterval) {
+        return max(pollInterval, 0) * (long) MS;
+    }
+
+    @Override
+    synchronized void adjustPollInterval(int pollInterval) {
+        changePollInterval = changePollInterval(pollInterval);
+        super.adjustPollInterval(refreshInterval(pollInterval));
+    }
+
+    @Override
+    public synchronized void start() {
+        super.start();
+        log.debug("Starting flow monitor for {}", sw.getStringId());
+        sw.sendMsg(monitorRequest(OFFlowMonitorCommand.ADD));
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (sw.isConnected()) {
+            log.debug("Stopping flow monitor for {}", sw.getStringId());
+            sw.sendMsg(monitorRequest(OFFlowMonitorCommand.DELETE));
+        }
+        super.stop();
+    }
+
+    /**
+     * Signals flow updates received from the flow monitor of the switch.
+     *
+     * @param reply flow monitor reply
+     */
+    void flowsUpdated(OFFlowMonitorReply reply) {
+        // The reply to the monitor request itself holds no update
+        if (reply.getEntries().isEmpty()) {
+            return;
+        }
+        // Updates of a batch of flow mods are reported by a single poll, and
+        // the updates received meanwhile by the next one, a poll interval later
+        if (changePollPending.compareAndSet(false, true)) {
+            long delay = max(CHANGE_POLL_DELAY_MS,
+                             lastChangePoll + changePollInterval - System.currentTimeMillis());
+            executorService.schedule(() -> {
+                lastChangePoll = System.currentTimeMillis();
+                changePollPending.set(false);
+                log.trace("Collecting stats for {} following flow updates", sw.getStringId());
+                pollNow();
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private OFFlowMonitorRequest monitorRequest(OFFlowMonitorCommand command) {
+        // All the flow adds, removals and modifications, ONOS ones included
+        // as these are moved out of PENDING_ADD by the stats replies
+        OFFlowMonitorEntry entry = sw.factory().buildFlowMonitorEntry()
+                .setMonitorId(MONITOR_ID)
+                .setOutPort(ANY)
+                .setOutGroup(ANY)
+                .setFlags(EnumSet.of(OFFlowMonitorFlags.ADD,
+                                     OFFlowMonitorFlags.REMOVED,
+                                     OFFlowMonitorFlags.MODIFY))
+                .setTableId(TableId.ALL)
+                .setCommand(command)
+                .setMatch(sw.factory().matchWildcardAll())
+                .build();
+        return sw.factory().buildFlowMonitorRequest()
+                .setEntries(ImmutableList.of(entry))
+                .build();
+    }
+}
@@ -287,4 +287,14 @@ class FlowStatsCollector implements SwitchDataCollector {
         waiting.set(0);
     }
 
+    /**
+     * Collects the flow statistics right away, unless the collector is
+     * stopped, waiting for a previous reply or the switch is under high load.
+     */
+    synchronized void pollNow() {
+        if (loadCounter != null) {
+            new PollTimerTask().run();
+        }
+    }
+
 }
@@ -25,6 +25,7 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import org.onlab.util.ItemNotFoundException;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.driver.DefaultDriverData;
@@ -66,6 +67,7 @@ import org.projectfloodlight.openflow.protocol.OFCapabilities;
 import org.projectfloodlight.openflow.protocol.OFErrorMsg;
 import org.projectfloodlight.openflow.protocol.OFFlowLightweightStatsReply;
 import org.projectfloodlight.openflow.protocol.OFFlowMod;
+import org.projectfloodlight.openflow.protocol.OFFlowMonitorReply;
 import org.projectfloodlight.openflow.protocol.OFFlowRemoved;
 import org.projectfloodlight.openflow.protocol.OFFlowStatsReply;
 import org.projectfloodlight.openflow.protocol.OFMessage;
@@ -103,6 +105,8 @@ import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static org.onlab.util.Tools.get;
 import static org.onosproject.provider.of.flow.impl.OsgiPropertyConstants.ADAPTIVE_FLOW_SAMPLING;
 import static org.onosproject.provider.of.flow.impl.OsgiPropertyConstants.ADAPTIVE_FLOW_SAMPLING_DEFAULT;
+import static org.onosproject.provider.of.flow.impl.OsgiPropertyConstants.FLOW_MONITORING;
+import static org.onosproject.provider.of.flow.impl.OsgiPropertyConstants.FLOW_MONITORING_DEFAULT;
 import static org.onosproject.provider.of.flow.impl.OsgiPropertyConstants.POLL_FREQUENCY;
 import static org.onosproject.provider.of.flow.impl.OsgiPropertyConstants.POLL_FREQUENCY_DEFAULT;
 import static org.onosproject.provider.of.flow.impl.OsgiPropertyConstants.POLL_STATS_PERIODICALLY;
@@ -118,6 +122,7 @@ import static org.slf4j.LoggerFactory.getLogger;
         property = {
                 POLL_FREQUENCY + ":Integer=" + POLL_FREQUENCY_DEFAULT,
                 ADAPTIVE_FLOW_SAMPLING + ":Boolean=" + ADAPTIVE_FLOW_SAMPLING_DEFAULT,
+                FLOW_MONITORING + ":Boolean=" + FLOW_MONITORING_DEFAULT,
         })
 public class OpenFlowRuleProvider extends AbstractProvider
         implements FlowRuleProvider {
@@ -139,6 +144,9 @@ public class OpenFlowRuleProvider extends AbstractProvider
     private static final int MIN_EXPECTED_BYTE_LEN = 56;
     private static final int SKIP_BYTES = 4;
 
+    // Driver property overriding flowMonitoring for the switches of the driver
+    private static final String SUPPORT_FLOW_MONITOR = "supportFlowMonitor";
+
     /** Frequency (in seconds) for polling flow statistics. */
     private int flowPollFrequency = POLL_FREQUENCY_DEFAULT;
 
@@ -148,6 +156,9 @@ public class OpenFlowRuleProvider extends AbstractProvider
     /** Poll Stats Periodically ON/OFF. */
     private boolean pollStatsPeriodically = POLL_STATS_PERIODICALLY_DEFAULT;
 
+    /** Monitor flows of OpenFlow 1.4+ switches, polling flow statistics less often. */
+    private boolean flowMonitoring = FLOW_MONITORING_DEFAULT;
+
     private FlowRuleProviderService providerService;
 
     private final InternalFlowProvider listener = new InternalFlowProvider();
@@ -244,6 +255,19 @@ public class OpenFlowRuleProvider extends AbstractProvider
             }
         }
         log.info("Settings: pollStatsPeriodically={}", pollStatsPeriodically);
+
+        boolean newFlowMonitoring;
+        flag = get(properties, FLOW_MONITORING);
+        newFlowMonitoring = isNullOrEmpty(flag) ? flowMonitoring : Boolean.parseBoolean(flag.trim());
+        if (newFlowMonitoring != flowMonitoring) {
+            // stop previous collector
+            stopCollectors();
+            flowMonitoring = newFlowMonitoring;
+            if (pollStatsPeriodically) {
+                createCollectors();
+            }
+        }
+        log.info("Settings: flowMonitoring={}", flowMonitoring);
     }
 
     private Cache<Long, InternalCacheEntry> createBatchCache() {
@@ -273,7 +297,9 @@ public class OpenFlowRuleProvider extends AbstractProvider
                 stopCollectorIfNeeded(afsCollectors.put(new Dpid(sw.getId()), fsc));
                 fsc.start();
             } else {
-                FlowStatsCollector fsc = new FlowStatsCollector(executorService, sw, flowPollFrequency);
+                FlowStatsCollector fsc = useFlowMonitor(sw) ?
+                        new FlowMonitorCollector(executorService, sw, flowPollFrequency) :
+                        new FlowStatsCollector(executorService, sw, flowPollFrequency);
                 stopCollectorIfNeeded(simpleCollectors.put(new Dpid(sw.getId()), fsc));
                 fsc.start();
             }
@@ -285,6 +311,29 @@ public class OpenFlowRuleProvider extends AbstractProvider
         }
     }
 
+    /**
+     * Determines whether the flows of the given switch are monitored.
+     *
+     * @param sw switch
+     * @return the boolean value of supportFlowMonitor property, or the value of
+     * flowMonitoring if it is not configured; false if the switch cannot monitor flows
+     */
+    private boolean useFlowMonitor(OpenFlowSwitch sw) {
+        if (!FlowMonitorCollector.isSupported(sw)) {
+            return false;
+        }
+        Driver driver;
+        try {
+            driver = driverService.getDriver(DeviceId.deviceId(Dpid.uri(sw.getDpid())));
+        } catch (ItemNotFoundException e) {
+            driver = driverService.getDriver(sw.manufacturerDescription(),
+                                             sw.hardwareDescription(),
+                                             sw.softwareDescription());
+        }
+        String supportFlowMonitor = driver == null ? null : driver.getProperty(SUPPORT_FLOW_MONITOR);
+        return supportFlowMonitor == null ? flowMonitoring : Boolean.parseBoolean(supportFlowMonitor);
+    }
+
     private void stopCollectorIfNeeded(SwitchDataCollector collector) {
         if (collector != null) {
             collector.stop();
@@ -529,6 +578,11 @@ public class OpenFlowRuleProvider extends AbstractProvider
                         pushTableStatistics(dpid, (OFTableStatsReply) msg);
                     } else if (((OFStatsReply) msg).getStatsType() == OFStatsType.FLOW_LIGHTWEIGHT) {
                         pushFlowLightWeightMetrics(dpid, (OFFlowLightweightStatsReply) msg);
+                    } else if (((OFStatsReply) msg).getStatsType() == OFStatsType.FLOW_MONITOR) {
+                        FlowStatsCollector collector = simpleCollectors.get(dpid);
+                        if (!adaptiveFlowSampling && collector instanceof FlowMonitorCollector) {
+                            ((FlowMonitorCollector) collector).flowsUpdated((OFFlowMonitorReply) msg);
+                        }
                     }
                     break;
                 case BARRIER_REPLY:
@@ -26,9 +26,11 @@ public final class OsgiPropertyConstants {
     public static final String POLL_FREQUENCY = "flowPollFrequency";
     public static final String ADAPTIVE_FLOW_SAMPLING = "adaptiveFlowSampling";
     public static final String POLL_STATS_PERIODICALLY = "pollStatsPeriodically";
+    public static final String FLOW_MONITORING = "flowMonitoring";
 
     public static final int POLL_FREQUENCY_DEFAULT = 5;
     public static final boolean ADAPTIVE_FLOW_SAMPLING_DEFAULT = false;
     public static final boolean POLL_STATS_PERIODICALLY_DEFAULT = true;
+    public static final boolean FLOW_MONITORING_DEFAULT = false;
 
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.provider.of.flow.impl;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.junit.NullScheduledExecutor;
+import org.onosproject.openflow.controller.OpenFlowSwitchAdapter;
+import org.onosproject.openflow.controller.RoleState;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFFlowMonitorCommand;
+import org.projectfloodlight.openflow.protocol.OFFlowMonitorReply;
+import org.projectfloodlight.openflow.protocol.OFFlowMonitorRequest;
+import org.projectfloodlight.openflow.protocol.OFFlowStatsRequest;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.provider.of.flow.impl.FlowMonitorCollector.CHANGE_POLL_DELAY_MS;
+
+/**
+ * Tests of the collector of the flow statistics of the switches with a flow monitor.
+ */
+public class FlowMonitorCollectorTest {
+
+    private static final int POLL_INTERVAL = 5;
+
+    private final TestExecutor executor = new TestExecutor();
+    private final TestSwitch sw = new TestSwitch();
+    private FlowMonitorCollector collector;
+
+    @Before
+    public void setUp() {
+        collector = new FlowMonitorCollector(executor, sw, POLL_INTERVAL);
+        collector.start();
+    }
+
+    @After
+    public void tearDown() {
+        collector.stop();
+    }
+
+    private static OFFlowMonitorReply reply(int updates) {
+        OFFlowMonitorReply reply = createMock(OFFlowMonitorReply.class);
+        expect(reply.getEntries()).andReturn(Collections.nCopies(updates, null)).anyTimes();
+        replay(reply);
+        return reply;
+    }
+
+    private long flowStatsRequests() {
+        return sw.sent.stream().filter(msg -> msg instanceof OFFlowStatsRequest).count();
+    }
+
+    /**
+     * Tests that the flow monitor is added and deleted along with the collector.
+     */
+    @Test
+    public void testMonitor() {
+        assertThat(sw.sent.size(), is(1));
+        assertThat(sw.sent.get(0), instanceOf(OFFlowMonitorRequest.class));
+        OFFlowMonitorRequest request = (OFFlowMonitorRequest) sw.sent.get(0);
+        assertThat(request.getEntries().get(0).getCommand(), is(OFFlowMonitorCommand.ADD));
+
+        collector.stop();
+        request = (OFFlowMonitorRequest) sw.sent.get(1);
+        assertThat(request.getEntries().get(0).getCommand(), is(OFFlowMonitorCommand.DELETE));
+    }
+
+    /**
+     * Tests that the flow updates are reported by a single poll.
+     */
+    @Test
+    public void testUpdatesGathered() {
+        collector.flowsUpdated(reply(0));
+        assertTrue("reply to the monitor request should not be polled", executor.tasks.isEmpty());
+
+        collector.flowsUpdated(reply(1));
+        collector.flowsUpdated(reply(2));
+        assertThat(executor.tasks.size(), is(1));
+        assertEquals(CHANGE_POLL_DELAY_MS, (long) executor.delays.get(0));
+
+        executor.tasks.get(0).run();
+        assertThat(flowStatsRequests(), is(1L));
+    }
+
+    /**
+     * Tests that the polls following flow updates are a poll interval apart.
+     */
+    @Test
+    public void testChangePollsRateLimited() {
+        collector.flowsUpdated(reply(1));
+        executor.tasks.get(0).run();
+        collector.received();
+
+        collector.flowsUpdated(reply(1));
+        assertThat(executor.tasks.size(), is(2));
+        long delay = executor.delays.get(1);
+        assertTrue("poll should be delayed until the next interval, was " + delay + " ms",
+                   delay > TimeUnit.SECONDS.toMillis(POLL_INTERVAL - 1) &&
+                           delay <= TimeUnit.SECONDS.toMillis(POLL_INTERVAL));
+
+        executor.tasks.get(1).run();
+        assertThat(flowStatsRequests(), is(2L));
+    }
+
+    // Executor keeping the one-shot tasks along with their delay in ms
+    private static class TestExecutor extends NullScheduledExecutor {
+        private final List<Runnable> tasks = new ArrayList<>();
+        private final List<Long> delays = new ArrayList<>();
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            tasks.add(command);
+            delays.add(unit.toMillis(delay));
+            return null;
+        }
+    }
+
+    // Mastered OpenFlow 1.4 switch recording the messages sent to it
+    private static class TestSwitch extends OpenFlowSwitchAdapter {
+        private final List<OFMessage> sent = new ArrayList<>();
+
+        @Override
+        public void sendMsg(OFMessage msg) {
+            sent.add(msg);
+        }
+
+        @Override
+        public void sendMsg(List<OFMessage> msgs) {
+            sent.addAll(msgs);
+        }
+
+        @Override
+        public RoleState getRole() {
+            return RoleState.MASTER;
+        }
+
+        @Override
+        public OFFactory factory() {
+            return OFFactories.getFactory(OFVersion.OF_14);
+        }
+
+        @Override
+        public String getStringId() {
+            return "of:0000000000000001";
+        }
+
+        @Override
+        public boolean isConnected() {
+            return true;
+        }
+    }
+}
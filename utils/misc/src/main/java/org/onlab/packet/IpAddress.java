@@ -151,6 +151,17 @@ public class IpAddress implements Comparable<IpAddress> {
         return Arrays.copyOf(octets, octets.length);
     }
 
+    /**
+     * Returns the octet of the IP address at the given index, without copying
+     * the address.
+     *
+     * @param index the index of the octet, 0 being the most significant one
+     * @return the octet at the given index
+     */
+    public byte getOctet(int index) {
+        return octets[index];
+    }
+
     /**
      * Returns the IP address as InetAddress.
      *
@@ -47,8 +47,8 @@ public class ONOSLLDP extends LLDP {
     protected static final byte NAME_SUBTYPE = 1;
     protected static final byte DEVICE_SUBTYPE = 2;
     protected static final byte DOMAIN_SUBTYPE = 3;
-    protected static final byte TIMESTAMP_SUBTYPE = 4;
-    protected static final byte SIG_SUBTYPE = 5;
+    public static final byte TIMESTAMP_SUBTYPE = 4;
+    public static final byte SIG_SUBTYPE = 5;
 
     private static final short NAME_LENGTH = OUI_LENGTH + SUBTYPE_LENGTH;
     private static final short DEVICE_LENGTH = OUI_LENGTH + SUBTYPE_LENGTH;
@@ -485,18 +485,25 @@ public class ONOSLLDP extends LLDP {
     }
 
     private static byte[] createSig(String deviceId, int portNum, long timestamp, String secret) {
-        byte[] pnb = ByteBuffer.allocate(8).putLong(portNum).array();
-        byte[] tmb = ByteBuffer.allocate(8).putLong(timestamp).array();
+        Mac mac = createMac(secret);
+        if (mac == null) {
+            return null;
+        }
+        return createSig(mac, deviceId, portNum, timestamp);
+    }
 
+    /**
+     * Creates the MAC signing secure link probes with the given secret.
+     *
+     * @param secret LLDP secret
+     * @return MAC initialized with the secret, or null if it cannot be created
+     */
+    public static Mac createMac(String secret) {
         try {
             SecretKeySpec signingKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
             Mac mac = Mac.getInstance("HmacSHA256");
             mac.init(signingKey);
-            mac.update(deviceId.getBytes());
-            mac.update(pnb);
-            mac.update(tmb);
-            byte[] sig = mac.doFinal();
-            return sig;
+            return mac;
         } catch (NoSuchAlgorithmException e) {
             return null;
         } catch (InvalidKeyException e) {
@@ -504,6 +511,27 @@ public class ONOSLLDP extends LLDP {
         }
     }
 
+    /**
+     * Creates the signature of a secure link probe. The MAC is reset
+     * afterwards and can be reused for the next probe, but it must not be
+     * used by several threads at once.
+     *
+     * @param mac MAC created with {@link #createMac(String)}
+     * @param deviceId The device ID as a String
+     * @param portNum Port number of port the probe is sent out of
+     * @param timestamp timestamp of the probe
+     * @return signature of the probe
+     */
+    public static byte[] createSig(Mac mac, String deviceId, int portNum, long timestamp) {
+        byte[] pnb = ByteBuffer.allocate(8).putLong(portNum).array();
+        byte[] tmb = ByteBuffer.allocate(8).putLong(timestamp).array();
+
+        mac.update(deviceId.getBytes());
+        mac.update(pnb);
+        mac.update(tmb);
+        return mac.doFinal();
+    }
+
     private static boolean verifySig(byte[] sig, String deviceId, int portNum, long timestamp, String secret) {
         byte[] nsig = createSig(deviceId, portNum, timestamp, secret);
         if (nsig == null) {
@@ -33,17 +33,18 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.objenesis.strategy.StdInstantiatorStrategy;
 import org.slf4j.Logger;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -60,6 +61,13 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
     public static final int DEFAULT_BUFFER_SIZE = 4096;
     public static final int MAX_BUFFER_SIZE = 100 * 1000 * 1000;
 
+    /**
+     * Largest buffer kept along with a pooled Kryo instance for reuse.
+     */
+    private static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+
+    private static final byte[] EMPTY_BUFFER = new byte[0];
+
     /**
      * ID to use if this KryoNamespace does not define registration id.
      */
@@ -300,18 +308,90 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
     /**
      * Serializes given object to byte array using Kryo instance in pool.
      *
+     * The object is written to a buffer kept along with the Kryo instance, so
+     * that the returned array is the only allocation.
+     *
      * @param obj Object to serialize
-     * @param bufferSize maximum size of serialized bytes
+     * @param bufferSize initial size of the buffer, if none is pooled
      * @return serialized bytes
      */
     public byte[] serialize(final Object obj, final int bufferSize) {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bufferSize);
-        Output out = new Output(outputStream);
-        return pool.run(kryo -> {
+        Kryo kryo = borrow();
+        Output out = kryo instanceof PooledKryo ? ((PooledKryo) kryo).output : new Output(bufferSize, -1);
+        try {
+            out.clear();
             kryo.writeClassAndObject(out, obj);
-            out.flush();
-            return outputStream.toByteArray();
-        });
+            recordSize(kryo, obj, out.position());
+            return out.toBytes();
+        } finally {
+            if (out.getBuffer().length > MAX_POOLED_BUFFER_SIZE) {
+                out.setBuffer(new byte[DEFAULT_BUFFER_SIZE], -1);
+            }
+            release(kryo);
+        }
+    }
+
+    /**
+     * Serializes given object into a byte array provided by the caller using
+     * Kryo instance in pool.
+     * <p>
+     * Nothing is allocated; the caller may size the array with
+     * {@link #estimateSize(Object)}.
+     *
+     * @param obj Object to serialize
+     * @param buffer array to write to
+     * @param offset position in the array of the first serialized byte
+     * @return number of serialized bytes
+     * @throws com.esotericsoftware.kryo.KryoException if the serialized bytes do not fit in the array
+     */
+    public int serialize(final Object obj, final byte[] buffer, final int offset) {
+        checkPositionIndexes(offset, buffer.length, buffer.length);
+        Kryo kryo = borrow();
+        Output out = kryo instanceof PooledKryo ? ((PooledKryo) kryo).callerOutput : new Output();
+        try {
+            out.setBuffer(buffer, buffer.length);
+            out.setPosition(offset);
+            kryo.writeClassAndObject(out, obj);
+            int size = out.position() - offset;
+            recordSize(kryo, obj, size);
+            return size;
+        } finally {
+            // Does not hold on to the caller's array
+            out.setBuffer(EMPTY_BUFFER, 0);
+            release(kryo);
+        }
+    }
+
+    /**
+     * Estimates the number of bytes needed to serialize given object.
+     * <p>
+     * The estimate is the size of the largest object of the same class
+     * serialized so far by the pooled Kryo instance, or
+     * {@link #DEFAULT_BUFFER_SIZE} if there is none yet; it may be exceeded by
+     * objects with variable size contents.
+     *
+     * @param obj Object to serialize
+     * @return estimated number of serialized bytes
+     */
+    public int estimateSize(final Object obj) {
+        if (obj == null) {
+            return DEFAULT_BUFFER_SIZE;
+        }
+        Kryo kryo = borrow();
+        try {
+            Integer hint = kryo instanceof PooledKryo ? ((PooledKryo) kryo).sizeHints.get(obj.getClass()) : null;
+            return hint != null ? hint : DEFAULT_BUFFER_SIZE;
+        } finally {
+            release(kryo);
+        }
+    }
+
+    // Hints are kept along with the Kryo instance, which already references
+    // the classes it serialized, and go away with it
+    private static void recordSize(Kryo kryo, Object obj, int size) {
+        if (obj != null && kryo instanceof PooledKryo) {
+            ((PooledKryo) kryo).sizeHints.merge(obj.getClass(), size, Math::max);
+        }
     }
 
     /**
@@ -367,13 +447,32 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
      * @return deserialized Object
      */
     public <T> T deserialize(final byte[] bytes) {
-        Input in = new Input(new ByteArrayInputStream(bytes));
+        return deserialize(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Deserializes given range of a byte array to Object using Kryo instance in pool.
+     * <p>
+     * The bytes are read in place, without copying them.
+     *
+     * @param bytes array holding serialized bytes
+     * @param offset position in the array of the first serialized byte
+     * @param length number of serialized bytes
+     * @param <T> deserialized Object type
+     * @return deserialized Object
+     */
+    public <T> T deserialize(final byte[] bytes, final int offset, final int length) {
+        checkPositionIndexes(offset, offset + length, bytes.length);
         Kryo kryo = borrow();
+        Input in = kryo instanceof PooledKryo ? ((PooledKryo) kryo).input : new Input();
         try {
+            in.setBuffer(bytes, offset, length);
             @SuppressWarnings("unchecked")
             T obj = (T) kryo.readClassAndObject(in);
             return obj;
         } finally {
+            // Does not hold on to the caller's array
+            in.setBuffer(EMPTY_BUFFER);
             release(kryo);
         }
     }
@@ -451,7 +550,7 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
     @Override
     public Kryo create() {
         log.trace("Creating Kryo instance for {}", this);
-        Kryo kryo = new Kryo();
+        Kryo kryo = new PooledKryo();
         kryo.setRegistrationRequired(registrationRequired);
 
         // If compatible serialization is enabled, override the default serializer.
@@ -551,6 +650,18 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
                     .toString();
     }
 
+    /**
+     * Kryo instance along with the input and output buffers reused by
+     * whoever borrows it from the pool, and the largest serialized size it
+     * has seen per class of serialized object.
+     */
+    private static final class PooledKryo extends Kryo {
+        private final Output output = new Output(DEFAULT_BUFFER_SIZE, -1);
+        private final Output callerOutput = new Output();
+        private final Input input = new Input();
+        private final Map<Class<?>, Integer> sizeHints = new HashMap<>();
+    }
+
     static final class RegistrationBlock {
         private final int begin;
         private final ImmutableList<Pair<Class<?>[], Serializer<?>>> types;
@@ -18,7 +18,11 @@ package org.onlab.packet;
 
 import org.junit.Test;
 
+import javax.crypto.Mac;
+
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Unit tests for the ONOSLLDP class.
@@ -57,4 +61,20 @@ public class ONOSLLDPTest {
         assertEquals("the value from setPortName with getPortNameString value is mismatched",
                 PORT_NAME, onoslldp.getPortNameString());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that signatures created with a reused MAC match the probe ones.
+     */
+    @Test
+    public void testSignature() throws Exception {
+        Mac mac = ONOSLLDP.createMac(TEST_SECRET);
+        assertArrayEquals("the signature from a MAC is mismatched", onoslldp.getSig(),
+                ONOSLLDP.createSig(mac, DEVICE_ID, PORT_NUMBER, onoslldp.getTimestamp()));
+
+        long timestamp = System.currentTimeMillis() - 1;
+        onoslldp.setTimestamp(timestamp);
+        onoslldp.setSig(ONOSLLDP.createSig(mac, DEVICE_ID, PORT_NUMBER, timestamp));
+        assertTrue("the probe signed with a reused MAC does not verify",
+                ONOSLLDP.verify(onoslldp, TEST_SECRET, 10000));
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onlab.util;
+
+import com.esotericsoftware.kryo.KryoException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for Kryo namespace serialization with pooled buffers.
+ */
+public class KryoNamespaceTest {
+
+    private final KryoNamespace namespace = KryoNamespace.newBuilder()
+            .register(ArrayList.class, String.class)
+            .build();
+
+    /**
+     * Tests that reused buffers do not leak bytes from previous objects.
+     */
+    @Test
+    public void testSerializeToBytes() {
+        List<String> large = new ArrayList<>(Arrays.asList("alpha", "beta", "gamma", "delta"));
+        List<String> small = new ArrayList<>(Arrays.asList("x"));
+
+        byte[] largeBytes = namespace.serialize(large);
+        byte[] smallBytes = namespace.serialize(small);
+        assertTrue(smallBytes.length < largeBytes.length);
+        assertEquals(small, namespace.deserialize(smallBytes));
+        assertEquals(large, namespace.deserialize(largeBytes));
+        assertArrayEquals(largeBytes, namespace.serialize(large));
+
+        // Larger than the pooled buffers
+        char[] chars = new char[KryoNamespace.DEFAULT_BUFFER_SIZE * 4];
+        Arrays.fill(chars, 'a');
+        List<String> huge = new ArrayList<>(Arrays.asList(new String(chars)));
+        assertEquals(huge, namespace.deserialize(namespace.serialize(huge)));
+        assertEquals(small, namespace.deserialize(namespace.serialize(small)));
+    }
+
+    /**
+     * Tests serialization into an array provided by the caller.
+     */
+    @Test
+    public void testSerializeToCallerBuffer() {
+        List<String> list = new ArrayList<>(Arrays.asList("alpha", "beta"));
+        byte[] expected = namespace.serialize(list);
+        assertTrue(namespace.estimateSize(list) >= expected.length);
+        assertEquals(KryoNamespace.DEFAULT_BUFFER_SIZE, namespace.estimateSize("unseen"));
+
+        byte[] buffer = new byte[expected.length + 10];
+        int size = namespace.serialize(list, buffer, 10);
+        assertEquals(expected.length, size);
+        assertArrayEquals(expected, Arrays.copyOfRange(buffer, 10, buffer.length));
+        assertEquals(list, namespace.deserialize(buffer, 10, size));
+
+        try {
+            namespace.serialize(list, new byte[expected.length - 1], 0);
+            fail("Serialization should not fit in the buffer");
+        } catch (KryoException e) {
+            // Expected
+        }
+        // The failure left the pooled instance usable
+        assertEquals(list, namespace.deserialize(namespace.serialize(list)));
+    }
+}
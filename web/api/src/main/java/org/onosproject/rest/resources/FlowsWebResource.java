@@ -19,9 +19,12 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.ListMultimap;
 import org.onlab.util.ItemNotFoundException;
 import org.onosproject.app.ApplicationService;
+import org.onosproject.codec.JsonCodec;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.net.Device;
 import org.onosproject.net.DeviceId;
@@ -49,6 +52,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.stream.StreamSupport;
 
 import static org.onlab.util.Tools.nullIsIllegal;
@@ -76,83 +80,76 @@ public class FlowsWebResource extends AbstractWebResource {
     /**
      * Gets all flow entries. Returns array of all flow rules in the system.
      *
+     * @param cursor cursor of the page to return, as returned in the
+     *               "next" field of the previous page
+     * @param limit  maximum number of flows to return
+     * @param fields comma separated flow fields to return
      * @return 200 OK with a collection of flows
      * @onos.rsModel FlowEntries
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getFlows() {
-        ObjectNode root = mapper().createObjectNode();
-        ArrayNode flowsNode = root.putArray(FLOWS);
-        FlowRuleService service = get(FlowRuleService.class);
-        Iterable<Device> devices = get(DeviceService.class).getDevices();
-        for (Device device : devices) {
-            Iterable<FlowEntry> flowEntries = service.getFlowEntries(device.id());
-            if (flowEntries != null) {
-                for (FlowEntry entry : flowEntries) {
-                    flowsNode.add(codec(FlowEntry.class).encode(entry, this));
-                }
-            }
-        }
-
-        return ok(root).build();
+    public Response getFlows(@QueryParam(StreamingJsonArray.CURSOR) String cursor,
+                             @QueryParam(StreamingJsonArray.LIMIT) Integer limit,
+                             @QueryParam(StreamingJsonArray.FIELDS) String fields) {
+        return ok(streamFlows(entry -> true, cursor, limit, fields)).build();
     }
 
      /**
      * Gets all pending flow entries. Returns array of all pending flow rules in the system.
      *
+     * @param cursor cursor of the page to return, as returned in the
+     *               "next" field of the previous page
+     * @param limit  maximum number of flows to return
+     * @param fields comma separated flow fields to return
      * @return 200 OK with a collection of flows
      * @onos.rsModel FlowEntries
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     @Path("pending")
-    public Response getPendingFlows() {
-        ObjectNode root = mapper().createObjectNode();
-        ArrayNode flowsNode = root.putArray(FLOWS);
-        FlowRuleService service = get(FlowRuleService.class);
-        Iterable<Device> devices = get(DeviceService.class).getDevices();
-        for (Device device : devices) {
-            Iterable<FlowEntry> flowEntries = service.getFlowEntries(device.id());
-            if (flowEntries != null) {
-                for (FlowEntry entry : flowEntries) {
-                    if ((entry.state() == FlowEntry.FlowEntryState.PENDING_ADD) ||
-                       (entry.state() == FlowEntry.FlowEntryState.PENDING_REMOVE)) {
-                       flowsNode.add(codec(FlowEntry.class).encode(entry, this));
-                    }
-                }
-            }
-        }
-
-        return ok(root).build();
+    public Response getPendingFlows(@QueryParam(StreamingJsonArray.CURSOR) String cursor,
+                                    @QueryParam(StreamingJsonArray.LIMIT) Integer limit,
+                                    @QueryParam(StreamingJsonArray.FIELDS) String fields) {
+        return ok(streamFlows(entry -> (entry.state() == FlowEntry.FlowEntryState.PENDING_ADD) ||
+                                      (entry.state() == FlowEntry.FlowEntryState.PENDING_REMOVE),
+                              cursor, limit, fields)).build();
     }
 
      /**
      * Gets all flow entries for a table. Returns array of all flow rules for a table.
      * @param tableId table identifier
+     * @param cursor cursor of the page to return, as returned in the
+     *               "next" field of the previous page
+     * @param limit  maximum number of flows to return
+     * @param fields comma separated flow fields to return
      * @return 200 OK with a collection of flows
      * @onos.rsModel FlowEntries
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     @Path("table/{tableId}")
-    public Response getTableFlows(@PathParam("tableId") int tableId) {
-        ObjectNode root = mapper().createObjectNode();
-        ArrayNode flowsNode = root.putArray(FLOWS);
+    public Response getTableFlows(@PathParam("tableId") int tableId,
+                                  @QueryParam(StreamingJsonArray.CURSOR) String cursor,
+                                  @QueryParam(StreamingJsonArray.LIMIT) Integer limit,
+                                  @QueryParam(StreamingJsonArray.FIELDS) String fields) {
+        return ok(streamFlows(entry -> ((IndexTableId) entry.table()).id() == tableId,
+                              cursor, limit, fields)).build();
+    }
+
+    // Streams the flows of all the devices, straight from the flow entries iterators
+    private StreamingJsonArray<FlowEntry> streamFlows(Predicate<FlowEntry> filter, String cursor,
+                                                      Integer limit, String fields) {
         FlowRuleService service = get(FlowRuleService.class);
         Iterable<Device> devices = get(DeviceService.class).getDevices();
-        for (Device device : devices) {
-            Iterable<FlowEntry> flowEntries = service.getFlowEntries(device.id());
-            if (flowEntries != null) {
-                for (FlowEntry entry : flowEntries) {
-                    if (((IndexTableId) entry.table()).id() == tableId) {
-                       flowsNode.add(codec(FlowEntry.class).encode(entry, this));
-                    }
-                }
-            }
-        }
-
-        return ok(root).build();
+        Iterable<FlowEntry> flowEntries = Iterables.filter(Iterables.concat(Iterables.transform(devices, device -> {
+            Iterable<FlowEntry> entries = service.getFlowEntries(device.id());
+            return entries != null ? entries : ImmutableList.<FlowEntry>of();
+        })), filter::test);
+        JsonCodec<FlowEntry> flowEntryCodec = codec(FlowEntry.class);
+        return StreamingJsonArray.of(mapper(), FLOWS, flowEntries, entry -> flowEntryCodec.encode(entry, this))
+                .page(entry -> entry.deviceId() + "/" + entry.id(), cursor, limit)
+                .project(fields);
     }
 
     /**
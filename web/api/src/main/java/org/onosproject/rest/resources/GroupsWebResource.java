@@ -19,6 +19,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import org.onlab.util.HexString;
 import org.onosproject.codec.JsonCodec;
 import org.onosproject.net.Device;
@@ -41,6 +42,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -68,7 +70,8 @@ public class GroupsWebResource extends AbstractWebResource {
     private static final String DEVICE_INVALID = "Invalid deviceId in group creation request";
     private static final String GROUP_NOT_FOUND = "Group was not found";
     private final ObjectNode root = mapper().createObjectNode();
-    private final ArrayNode groupsNode = root.putArray("groups");
+    private static final String GROUPS = "groups";
+    private final ArrayNode groupsNode = root.putArray(GROUPS);
 
     private GroupKey createKey(String appCookieString) {
         if (!appCookieString.startsWith("0x")) {
@@ -81,22 +84,29 @@ public class GroupsWebResource extends AbstractWebResource {
     /**
      * Returns all groups of all devices.
      *
+     * @param cursor cursor of the page to return, as returned in the
+     *               "next" field of the previous page
+     * @param limit  maximum number of groups to return
+     * @param fields comma separated group fields to return
      * @return 200 OK with array of all the groups in the system
      * @onos.rsModel Groups
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getGroups() {
+    public Response getGroups(@QueryParam(StreamingJsonArray.CURSOR) String cursor,
+                              @QueryParam(StreamingJsonArray.LIMIT) Integer limit,
+                              @QueryParam(StreamingJsonArray.FIELDS) String fields) {
         GroupService groupService = get(GroupService.class);
         final Iterable<Device> devices = get(DeviceService.class).getDevices();
-        devices.forEach(device -> {
-            final Iterable<Group> groups = groupService.getGroups(device.id());
-            if (groups != null) {
-                groups.forEach(group -> groupsNode.add(codec(Group.class).encode(group, this)));
-            }
-        });
-
-        return ok(root).build();
+        final Iterable<Group> groups = Iterables.concat(Iterables.transform(devices, device -> {
+            final Iterable<Group> deviceGroups = groupService.getGroups(device.id());
+            return deviceGroups != null ? deviceGroups : ImmutableList.<Group>of();
+        }));
+        final JsonCodec<Group> groupCodec = codec(Group.class);
+
+        return ok(StreamingJsonArray.of(mapper(), GROUPS, groups, group -> groupCodec.encode(group, this))
+                          .page(group -> group.deviceId() + "/" + group.id().id(), cursor, limit)
+                          .project(fields)).build();
     }
 
     /**
@@ -17,6 +17,7 @@ package org.onosproject.rest.resources;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.onosproject.codec.JsonCodec;
 import org.onosproject.net.Host;
 import org.onosproject.net.HostId;
 import org.onosproject.net.SparseAnnotations;
@@ -36,6 +37,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -63,15 +65,23 @@ public class HostsWebResource extends AbstractWebResource {
      * Get all end-station hosts.
      * Returns array of all known end-station hosts.
      *
+     * @param cursor cursor of the page to return, as returned in the
+     *               "next" field of the previous page
+     * @param limit  maximum number of hosts to return
+     * @param fields comma separated host fields to return
      * @return 200 OK with array of all known end-station hosts.
      * @onos.rsModel Hosts
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getHosts() {
+    public Response getHosts(@QueryParam(StreamingJsonArray.CURSOR) String cursor,
+                             @QueryParam(StreamingJsonArray.LIMIT) Integer limit,
+                             @QueryParam(StreamingJsonArray.FIELDS) String fields) {
         final Iterable<Host> hosts = get(HostService.class).getHosts();
-        final ObjectNode root = encodeArray(Host.class, "hosts", hosts);
-        return ok(root).build();
+        final JsonCodec<Host> hostCodec = codec(Host.class);
+        return ok(StreamingJsonArray.of(mapper(), "hosts", hosts, host -> hostCodec.encode(host, this))
+                          .page(host -> host.id().toString(), cursor, limit)
+                          .project(fields)).build();
     }
 
     /**
@@ -54,6 +54,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import static org.onlab.util.Tools.nullIsNotFound;
 import static org.onlab.util.Tools.readTreeFromStream;
@@ -96,24 +97,29 @@ public class IntentsWebResource extends AbstractWebResource {
      * Gets all intents.
      * Returns array containing all the intents in the system.
      * @param detail flag to return full details of intents in list.
+     * @param cursor cursor of the page to return, as returned in the
+     *               "next" field of the previous page
+     * @param limit  maximum number of intents to return
+     * @param fields comma separated intent fields to return
      *
      * @return 200 OK with array of all the intents in the system
      * @onos.rsModel Intents
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getIntents(@QueryParam("detail") boolean detail) {
-        ObjectNode root = null;
+    public Response getIntents(@QueryParam("detail") boolean detail,
+                               @QueryParam(StreamingJsonArray.CURSOR) String cursor,
+                               @QueryParam(StreamingJsonArray.LIMIT) Integer limit,
+                               @QueryParam(StreamingJsonArray.FIELDS) String fields) {
         final Iterable<Intent> intents = get(IntentService.class).getIntents();
-        if (detail) {
-            root = mapper().createObjectNode();
-            ArrayNode intentsNode = root.putArray(INTENTS);
-            intents.forEach(intent -> intentsNode.add(codec(intent).encode(intent, this)));
-        } else {
-            root = encodeArray(Intent.class, INTENTS, intents);
-        }
-
-        return ok(root).build();
+        final JsonCodec<Intent> intentCodec = codec(Intent.class);
+        final Function<Intent, ObjectNode> encoder = detail ?
+                intent -> codec(intent).encode(intent, this) :
+                intent -> intentCodec.encode(intent, this);
+
+        return ok(StreamingJsonArray.of(mapper(), INTENTS, intents, encoder)
+                          .page(intent -> intent.id().toString(), cursor, limit)
+                          .project(fields)).build();
     }
 
 
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.rest.resources;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+
+/**
+ * JSON object holding an array of entities, which are encoded and written
+ * one at a time while iterating over them, instead of building the tree of
+ * all the entities before writing the response.
+ * <p>
+ * The array can be paginated with a cursor and a limit. Pages are ordered by
+ * a stable key of the entities and the cursor is the key of the last entity
+ * of the previous page, so that entities are neither skipped nor repeated
+ * whatever the iteration order of the entities. When entities remain past
+ * the limit, the object also holds the cursor of the next page under the
+ * {@value #NEXT} field. A page is selected in a single pass over the
+ * entities, holding no more than the page. The entities can also be
+ * projected on some of their top level fields.
+ *
+ * @param <T> type of the entities
+ */
+final class StreamingJsonArray<T> implements StreamingOutput {
+
+    static final String CURSOR = "cursor";
+    static final String LIMIT = "limit";
+    static final String FIELDS = "fields";
+    static final String NEXT = "next";
+
+    private static final String INVALID_LIMIT = "Limit must be a positive integer";
+
+    private final ObjectMapper mapper;
+    private final String field;
+    private final Iterable<T> items;
+    private final Function<? super T, ObjectNode> encoder;
+
+    private Function<? super T, String> key;
+    private String cursor;
+    private int limit = Integer.MAX_VALUE;
+    private Set<String> fields;
+
+    private StreamingJsonArray(ObjectMapper mapper, String field, Iterable<T> items,
+                               Function<? super T, ObjectNode> encoder) {
+        this.mapper = mapper;
+        this.field = field;
+        this.items = items;
+        this.encoder = encoder;
+    }
+
+    /**
+     * Creates a streaming array of the given entities.
+     *
+     * @param mapper  object mapper writing the entities
+     * @param field   field holding the array
+     * @param items   entities to be encoded into the array
+     * @param encoder encoder of the entities
+     * @param <T>     entity type
+     * @return streaming array
+     */
+    static <T> StreamingJsonArray<T> of(ObjectMapper mapper, String field, Iterable<T> items,
+                                        Function<? super T, ObjectNode> encoder) {
+        return new StreamingJsonArray<>(mapper, field, items, encoder);
+    }
+
+    /**
+     * Restricts the array to a page of the entities.
+     *
+     * @param key    stable key of the entities, ordering the pages
+     * @param cursor key of the last entity of the previous page, null for
+     *               the first page
+     * @param limit  maximum number of entities of the page, null for no limit
+     * @return this streaming array
+     * @throws IllegalArgumentException if the limit is invalid
+     */
+    StreamingJsonArray<T> page(Function<? super T, String> key, String cursor, Integer limit) {
+        this.key = key;
+        this.cursor = isNullOrEmpty(cursor) ? null : cursor;
+        if (limit != null) {
+            if (limit <= 0) {
+                throw new IllegalArgumentException(INVALID_LIMIT);
+            }
+            this.limit = limit;
+        }
+        return this;
+    }
+
+    /**
+     * Projects the entities on the given comma separated top level fields.
+     *
+     * @param fields comma separated fields, null or empty for all the fields
+     * @return this streaming array
+     */
+    StreamingJsonArray<T> project(String fields) {
+        if (!isNullOrEmpty(fields)) {
+            this.fields = ImmutableSet.copyOf(Splitter.on(',').trimResults().omitEmptyStrings().split(fields));
+        }
+        return this;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        JsonGenerator generator = mapper.getFactory().createGenerator(output);
+        // The container owns the response stream
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        generator.writeStartObject();
+        generator.writeArrayFieldStart(field);
+        String next = null;
+        if (limit == Integer.MAX_VALUE) {
+            // All the remaining entities, in iteration order
+            for (T item : cursor == null ? items : Iterables.filter(items, this::afterCursor)) {
+                writeItem(generator, item);
+            }
+        } else {
+            List<Map.Entry<String, T>> page = selectPage();
+            for (Map.Entry<String, T> entry : page.subList(0, Math.min(limit, page.size()))) {
+                writeItem(generator, entry.getValue());
+            }
+            if (page.size() > limit) {
+                next = page.get(limit - 1).getKey();
+            }
+        }
+        generator.writeEndArray();
+        if (next != null) {
+            generator.writeStringField(NEXT, next);
+        }
+        generator.writeEndObject();
+        generator.close();
+    }
+
+    private boolean afterCursor(T item) {
+        return key.apply(item).compareTo(cursor) > 0;
+    }
+
+    // Selects the entities of the page, plus the next one if any, in key order
+    private List<Map.Entry<String, T>> selectPage() {
+        Comparator<Map.Entry<String, T>> byKey = Map.Entry.comparingByKey();
+        // Keeps the lowest keys past the cursor, the highest one on top
+        PriorityQueue<Map.Entry<String, T>> page = new PriorityQueue<>(limit + 1, byKey.reversed());
+        for (T item : items) {
+            String itemKey = key.apply(item);
+            if (cursor != null && itemKey.compareTo(cursor) <= 0) {
+                continue;
+            }
+            if (page.size() <= limit) {
+                page.add(Maps.immutableEntry(itemKey, item));
+            } else if (itemKey.compareTo(page.peek().getKey()) < 0) {
+                page.poll();
+                page.add(Maps.immutableEntry(itemKey, item));
+            }
+        }
+        List<Map.Entry<String, T>> sorted = new ArrayList<>(page);
+        sorted.sort(byKey);
+        return sorted;
+    }
+
+    private void writeItem(JsonGenerator generator, T item) throws IOException {
+        ObjectNode node = encoder.apply(item);
+        if (fields != null) {
+            node.retain(fields);
+        }
+        mapper.writeTree(generator, node);
+    }
+}
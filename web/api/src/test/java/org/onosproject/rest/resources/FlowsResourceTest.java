@@ -656,6 +656,36 @@ public class FlowsResourceTest extends ResourceTest {
         assertThat(jsonFlows, hasFlow(flow4));
     }
 
+    /**
+     * Tests pagination and field projection of the flows.
+     */
+    @Test
+    public void testFlowsPagination() {
+        setupMockFlows();
+        expect(mockDeviceService.getDevices())
+                .andReturn(ImmutableSet.of(device1, device2));
+        replay(mockFlowService);
+        replay(mockDeviceService);
+        final WebTarget wt = target();
+        String response = wt.path("flows").queryParam("limit", 3)
+                .queryParam("fields", "state,packets").request().get(String.class);
+        JsonObject result = Json.parse(response).asObject();
+        assertThat(result.names(), hasSize(2));
+        JsonArray jsonFlows = result.get("flows").asArray();
+        assertThat(jsonFlows.size(), is(3));
+        assertThat(jsonFlows.get(0).asObject().names(), hasSize(2));
+        assertThat(jsonFlows.get(0).asObject().get("packets"), notNullValue());
+        String next = result.get("next").asString();
+        assertThat(next, notNullValue());
+
+        response = wt.path("flows").queryParam("cursor", next).request().get(String.class);
+        result = Json.parse(response).asObject();
+        assertThat(result.names(), hasSize(1));
+        jsonFlows = result.get("flows").asArray();
+        assertThat(jsonFlows.size(), is(1));
+        assertThat(jsonFlows.get(0).asObject().get("selector"), notNullValue());
+    }
+
     /**
      * Tests the result of a rest api GET for a device.
      */
@@ -51,9 +51,12 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.easymock.EasyMock.anyBoolean;
 import static org.easymock.EasyMock.anyObject;
@@ -330,6 +333,39 @@ public class HostResourceTest extends ResourceTest {
         assertThat(hosts, hasHost(host2));
     }
 
+    /**
+     * Tests that the pages of hosts hold every host once, whatever the
+     * iteration order of the hosts.
+     */
+    @Test
+    public void testHostsPagination() {
+        replay(mockHostService);
+        final ProviderId pid = new ProviderId("of", "foo");
+        for (int i = 1; i <= 5; i++) {
+            hosts.add(new DefaultHost(pid, HostId.hostId(MacAddress.valueOf(i)), valueOf(i), vlanId((short) i),
+                                      new HostLocation(DeviceId.deviceId("1"), portNumber(i), 1),
+                                      ImmutableSet.of()));
+        }
+        WebTarget wt = target();
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            WebTarget page = wt.path("hosts").queryParam("limit", 2).queryParam("fields", "id");
+            if (cursor != null) {
+                page = page.queryParam("cursor", cursor);
+            }
+            final JsonObject result = Json.parse(page.request().get(String.class)).asObject();
+            result.get("hosts").asArray().forEach(host -> ids.add(host.asObject().get("id").asString()));
+            cursor = result.get("next") == null ? null : result.get("next").asString();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages, is(3));
+        List<String> expected = hosts.stream().map(host -> host.id().toString()).sorted().collect(Collectors.toList());
+        assertThat(ids, is(expected));
+    }
+
     /**
      * Tests fetch of one host by Id.
      */
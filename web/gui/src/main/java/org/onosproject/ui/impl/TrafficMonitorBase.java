@@ -45,6 +45,7 @@ import org.onosproject.ui.impl.topo.TopoologyTrafficMessageHandlerAbstract;
 import org.onosproject.ui.impl.topo.util.IntentSelection;
 import org.onosproject.ui.impl.topo.util.ServicesBundle;
 import org.onosproject.ui.impl.topo.util.TopoIntentFilter;
+import org.onosproject.ui.impl.topo.util.TrafficAggregator;
 import org.onosproject.ui.impl.topo.util.TrafficLink;
 import org.onosproject.ui.impl.topo.util.TrafficLinkMap;
 import org.onosproject.ui.topo.AbstractTopoMonitor;
@@ -63,6 +64,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
@@ -83,6 +86,10 @@ public abstract class TrafficMonitorBase extends AbstractTopoMonitor {
 
     // 4 Kilo Bytes as threshold
     protected static final double BPS_THRESHOLD = 4 * TopoUtils.N_KILO;
+
+    // Links with traffic shared by the monitors of all the sessions
+    private static final TrafficAggregator AGGREGATOR = new TrafficAggregator();
+
     protected final TopoIntentFilter intentFilter;
     protected IntentSelection selectedIntents = null;
     protected final TopoologyTrafficMessageHandlerAbstract msgHandler;
@@ -306,6 +313,9 @@ public abstract class TrafficMonitorBase extends AbstractTopoMonitor {
     private final Timer timer;
     private TimerTask trafficTask = null;
 
+    // Link highlights of the last traffic summary sent to the client
+    private Map<String, String> lastSummary = null;
+
     /**
      * Constructs the monitor, initializing the task period and
      * services bundle reference.
@@ -339,6 +349,7 @@ public abstract class TrafficMonitorBase extends AbstractTopoMonitor {
      */
     public synchronized void monitor(Mode mode) {
         this.mode = mode;
+        lastSummary = null;
 
         switch (mode) {
 
@@ -375,6 +386,7 @@ public abstract class TrafficMonitorBase extends AbstractTopoMonitor {
 
     public synchronized void monitor(int index) {
         mode = CUSTOM_TRAFFIC_MONITOR;
+        lastSummary = null;
         List<UiTopoHighlighterFactory> factories = services.get(UiExtensionService.class)
                 .getTopoHighlighterFactories();
         if (factories.isEmpty()) {
@@ -409,6 +421,7 @@ public abstract class TrafficMonitorBase extends AbstractTopoMonitor {
         log.debug("monitor: {} -- {}", mode, nodeSelection);
         this.mode = mode;
         this.selectedNodes = nodeSelection;
+        lastSummary = null;
 
         switch (mode) {
             case DEV_LINK_FLOWS:
@@ -452,6 +465,7 @@ public abstract class TrafficMonitorBase extends AbstractTopoMonitor {
         selectedNodes = null;
         selectedIntents = new IntentSelection(intent);
         mode = SELECTED_INTENT;
+        lastSummary = null;
         scheduleTask();
         sendSelectedIntentTraffic();
     }
@@ -508,6 +522,7 @@ public abstract class TrafficMonitorBase extends AbstractTopoMonitor {
      */
     protected void clearAll() {
         this.mode = Mode.IDLE;
+        lastSummary = null;
         clearSelection();
         cancelTask();
         sendClearHighlights();
@@ -550,10 +565,32 @@ public abstract class TrafficMonitorBase extends AbstractTopoMonitor {
     // =======================================================================
     // === Methods for computing traffic on links
 
+    /**
+     * Sends the highlights summarizing the traffic on the network to the
+     * client, unless they are the same as the last ones sent.
+     *
+     * @param type the type of statistics to be displayed
+     */
+    protected synchronized void sendTrafficSummary(TrafficLink.StatsType type) {
+        Highlights highlights = trafficSummary(type);
+        Map<String, String> summary = highlights.links().stream()
+                .collect(Collectors.toMap(LinkHighlight::elementId,
+                                          lh -> lh.cssClasses() + '|' + lh.label()));
+        if (Objects.equals(summary, lastSummary)) {
+            log.trace("Traffic summary unchanged, not sending it");
+            return;
+        }
+        lastSummary = summary;
+        msgHandler.sendHighlights(highlights);
+    }
+
     /**
      * Generates a {@link Highlights} object summarizing the traffic on the
      * network, ready to be transmitted back to the client for display on
      * the topology view.
+     * <p>
+     * The links with traffic are computed at most once per traffic period
+     * for all the sessions.
      *
      * @param type the type of statistics to be displayed
      * @return highlights, representing links to be labeled/colored
@@ -562,7 +599,8 @@ public abstract class TrafficMonitorBase extends AbstractTopoMonitor {
         Highlights highlights = new Highlights();
 
         // TODO: consider whether a map would be better...
-        Set<TrafficLink> linksWithTraffic = computeLinksWithTraffic(type);
+        Set<TrafficLink> linksWithTraffic = AGGREGATOR.linksWithTraffic(
+                type, trafficPeriod, () -> computeLinksWithTraffic(type));
 
         Set<TrafficLink> aggregatedLinks = doAggregation(linksWithTraffic);
 
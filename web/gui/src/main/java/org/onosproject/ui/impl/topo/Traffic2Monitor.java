@@ -60,7 +60,7 @@ public class Traffic2Monitor extends TrafficMonitorBase {
     @Override
     protected void sendAllFlowTraffic() {
         log.debug("TOPO-2-TRAFFIC: sendAllFlowTraffic");
-        msgHandler.sendHighlights(trafficSummary(TrafficLink.StatsType.FLOW_STATS));
+        sendTrafficSummary(TrafficLink.StatsType.FLOW_STATS);
     }
 
     @Override
@@ -70,13 +70,13 @@ public class Traffic2Monitor extends TrafficMonitorBase {
     @Override
     protected void sendAllPortTrafficBits() {
         log.debug("TOPO-2-TRAFFIC: sendAllPortTrafficBits");
-        msgHandler.sendHighlights(trafficSummary(TrafficLink.StatsType.PORT_STATS));
+        sendTrafficSummary(TrafficLink.StatsType.PORT_STATS);
     }
 
     @Override
     protected void sendAllPortTrafficPackets() {
         log.debug("TOPO-2-TRAFFIC: sendAllPortTrafficPackets");
-        msgHandler.sendHighlights(trafficSummary(TrafficLink.StatsType.PORT_PACKET_STATS));
+        sendTrafficSummary(TrafficLink.StatsType.PORT_PACKET_STATS);
     }
 
     @Override
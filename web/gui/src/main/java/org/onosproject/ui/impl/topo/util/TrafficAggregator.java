@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.ui.impl.topo.util;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Shares the links with traffic between the traffic monitors of all the
+ * GUI sessions, so that the traffic on the links is computed at most once
+ * per traffic period for each type of statistics, however many sessions
+ * are watching it.
+ * <p>
+ * The shared traffic links must be treated as read-only.
+ */
+public final class TrafficAggregator {
+
+    private final Map<TrafficLink.StatsType, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+
+    /**
+     * Creates a traffic aggregator.
+     */
+    public TrafficAggregator() {
+        this(System::nanoTime);
+    }
+
+    // For tests, with a clock in nanoseconds
+    TrafficAggregator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the links with traffic for the given type of statistics,
+     * computing them only if the last computation for that type is at least
+     * one period old. Concurrent requests for the same type wait for a single
+     * computation.
+     *
+     * @param type        the type of statistics
+     * @param periodMs    period of validity of a computation, in milliseconds
+     * @param computation computes the links with traffic
+     * @return the links with traffic
+     */
+    public Set<TrafficLink> linksWithTraffic(TrafficLink.StatsType type, long periodMs,
+                                             Supplier<Set<TrafficLink>> computation) {
+        return snapshots.compute(type, (t, snapshot) -> {
+            long now = clock.getAsLong();
+            if (snapshot != null && now - snapshot.timestamp < MILLISECONDS.toNanos(periodMs)) {
+                return snapshot;
+            }
+            return new Snapshot(now, ImmutableSet.copyOf(computation.get()));
+        }).links;
+    }
+
+    // Links with traffic computed at a given time
+    private static final class Snapshot {
+        private final long timestamp;
+        private final Set<TrafficLink> links;
+
+        private Snapshot(long timestamp, Set<TrafficLink> links) {
+            this.timestamp = timestamp;
+            this.links = links;
+        }
+    }
+}
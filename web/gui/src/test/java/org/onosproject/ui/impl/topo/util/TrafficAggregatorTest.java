@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.ui.impl.topo.util;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DefaultEdgeLink;
+import org.onosproject.net.Link;
+import org.onosproject.ui.impl.AbstractUiImplTest;
+import org.onosproject.ui.topo.TopoUtils;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.onosproject.net.DeviceId.deviceId;
+import static org.onosproject.net.PortNumber.portNumber;
+import static org.onosproject.ui.impl.topo.util.TrafficLink.StatsType.FLOW_STATS;
+import static org.onosproject.ui.impl.topo.util.TrafficLink.StatsType.PORT_STATS;
+
+/**
+ * Unit tests for {@link TrafficAggregator}.
+ */
+public class TrafficAggregatorTest extends AbstractUiImplTest {
+
+    private static final long PERIOD_MS = 5000;
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger computations = new AtomicInteger();
+    private final TrafficAggregator aggregator = new TrafficAggregator(now::get);
+
+    private Set<TrafficLink> compute() {
+        computations.incrementAndGet();
+        Link link = DefaultEdgeLink.createEdgeLink(new ConnectPoint(deviceId("1"), portNumber(1)), true);
+        return ImmutableSet.of(new TrafficLink(TopoUtils.canonicalLinkKey(link), link));
+    }
+
+    @Test
+    public void sharedWithinPeriod() {
+        title("sharedWithinPeriod");
+
+        Set<TrafficLink> first = aggregator.linksWithTraffic(FLOW_STATS, PERIOD_MS, this::compute);
+        now.addAndGet(MILLISECONDS.toNanos(PERIOD_MS - 1));
+        assertSame("links should be shared", first,
+                   aggregator.linksWithTraffic(FLOW_STATS, PERIOD_MS, this::compute));
+        assertEquals("bad computation count", 1, computations.get());
+
+        // Each type of statistics has its own links
+        aggregator.linksWithTraffic(PORT_STATS, PERIOD_MS, this::compute);
+        assertEquals("bad computation count", 2, computations.get());
+
+        now.addAndGet(MILLISECONDS.toNanos(1));
+        aggregator.linksWithTraffic(FLOW_STATS, PERIOD_MS, this::compute);
+        assertEquals("links should be recomputed", 3, computations.get());
+    }
+}